@@ -25,8 +25,8 @@
 package org.jkiss.utils.csv;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 
 /**
  * A very simple CSV parser released under a commercial-friendly license.
@@ -106,6 +106,15 @@ public class CSVParser {
     private final CSVReaderNullFieldIndicator nullFieldIndicator;
     private String pending;
     private boolean inField = false;
+    /**
+     * Contents of all fields of the last parsed line
+     */
+    private final StringBuilder fieldBuffer = new StringBuilder(INITIAL_READ_SIZE);
+    /**
+     * Start and end offsets of fields in the field buffer. Start is -1 for null fields.
+     */
+    private int[] fieldBounds = new int[32];
+    private int fieldCount;
 
     /**
      * Constructs CSVParser using a comma for the separator.
@@ -316,6 +325,31 @@ public class CSVParser {
         return parseLine(nextLine, false);
     }
 
+    /**
+     * Parses an incoming String and returns an array of elements. This method is used when the
+     * data spans multiple lines.
+     * <p>
+     * Returned elements are views over the internal buffer of the parser, they are valid only until
+     * the next line is parsed. This lets callers inspect or convert field values without
+     * creating a String for each of them.
+     *
+     * @param nextLine current line to be processed
+     * @return the comma-tokenized list of elements, or null if nextLine is null
+     * @throws IOException if bad things happen during the read
+     */
+    public CharSequence[] parseLineMultiViews(String nextLine) throws IOException {
+        if (nextLine == null) {
+            return parsePending();
+        }
+        parseFields(nextLine, true);
+        CharSequence[] tokens = new CharSequence[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            int start = fieldBounds[i * 2];
+            tokens[i] = start < 0 ? null : CharBuffer.wrap(fieldBuffer, start, fieldBounds[i * 2 + 1]);
+        }
+        return tokens;
+    }
+
     /**
      * Parses an incoming String and returns an array of elements.
      *
@@ -325,23 +359,40 @@ public class CSVParser {
      * @throws IOException if bad things happen during the read
      */
     private String[] parseLine(String nextLine, boolean multi) throws IOException {
-
         if (!multi && pending != null) {
             pending = null;
         }
 
         if (nextLine == null) {
-            if (pending != null) {
-                String s = pending;
-                pending = null;
-                return new String[]{s};
-            } else {
-                return null;
-            }
+            return parsePending();
+        }
+        parseFields(nextLine, multi);
+        String[] tokens = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            int start = fieldBounds[i * 2];
+            tokens[i] = start < 0 ? null : fieldBuffer.substring(start, fieldBounds[i * 2 + 1]);
+        }
+        return tokens;
+    }
+
+    private String[] parsePending() {
+        if (pending != null) {
+            String s = pending;
+            pending = null;
+            return new String[]{s};
+        } else {
+            return null;
         }
+    }
 
-        List<String> tokensOnThisLine = new ArrayList<>();
-        StringBuilder sb = new StringBuilder(INITIAL_READ_SIZE);
+    /**
+     * Splits the line into fields. Field contents are placed into the field buffer one after another.
+     */
+    private void parseFields(String nextLine, boolean multi) throws IOException {
+        StringBuilder sb = fieldBuffer;
+        sb.setLength(0);
+        fieldCount = 0;
+        int fieldStart = 0;
         boolean inQuotes = false;
         boolean fromQuotedField = false;
         if (pending != null) {
@@ -362,7 +413,7 @@ public class CSVParser {
                 } else {
 
                     inQuotes = !inQuotes;
-                    if (atStartOfField(sb)) {
+                    if (sb.length() == fieldStart) {
                         fromQuotedField = true;
                     }
 
@@ -374,8 +425,8 @@ public class CSVParser {
                             nextLine.charAt(i + 1) != this.separator //not at the	end of an escape sequence
                         ) {
 
-                            if (ignoreLeadingWhiteSpace && sb.length() > 0 && isAllWhiteSpace(sb)) {
-                                sb.setLength(0);
+                            if (ignoreLeadingWhiteSpace && sb.length() > fieldStart && isAllWhiteSpace(sb.subSequence(fieldStart, sb.length()))) {
+                                sb.setLength(fieldStart);
                             } else {
                                 sb.append(c);
                             }
@@ -385,9 +436,9 @@ public class CSVParser {
                 }
                 inField = !inField;
             } else if (c == separator && !(inQuotes && !ignoreQuotations)) {
-                tokensOnThisLine.add(convertEmptyToNullIfNeeded(sb.toString(), fromQuotedField));
+                addField(fieldStart, sb.length(), fromQuotedField);
                 fromQuotedField = false;
-                sb.setLength(0);
+                fieldStart = sb.length();
                 inField = false;
             } else {
                 if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
@@ -403,35 +454,27 @@ public class CSVParser {
             if (multi) {
                 // continuing a quoted section, re-append newline
                 sb.append('\n');
-                pending = sb.toString();
-                sb = null; // this partial content is not to be added to field list yet
+                pending = sb.substring(fieldStart);
+                // this partial content is not to be added to field list yet
+                return;
             } else {
                 throw new IOException("Un-terminated quoted field at end of CSV line");
             }
-            if (inField) {
-                fromQuotedField = true;
-            }
         } else {
             inField = false;
         }
 
-        if (sb != null) {
-            tokensOnThisLine.add(convertEmptyToNullIfNeeded(sb.toString(), fromQuotedField));
-            fromQuotedField = false;
-        }
-        return tokensOnThisLine.toArray(new String[tokensOnThisLine.size()]);
-
-    }
-
-    private boolean atStartOfField(StringBuilder sb) {
-        return sb.length() == 0;
+        addField(fieldStart, sb.length(), fromQuotedField);
     }
 
-    private String convertEmptyToNullIfNeeded(String s, boolean fromQuotedField) {
-        if (s.isEmpty() && shouldConvertEmptyToNull(fromQuotedField)) {
-            return null;
+    private void addField(int start, int end, boolean fromQuotedField) {
+        if (fieldCount * 2 == fieldBounds.length) {
+            fieldBounds = Arrays.copyOf(fieldBounds, fieldBounds.length * 2);
         }
-        return s;
+        boolean isNull = start == end && shouldConvertEmptyToNull(fromQuotedField);
+        fieldBounds[fieldCount * 2] = isNull ? -1 : start;
+        fieldBounds[fieldCount * 2 + 1] = end;
+        fieldCount++;
     }
 
     private boolean shouldConvertEmptyToNull(boolean fromQuotedField) {
@@ -290,6 +290,45 @@ public class CSVReader implements Closeable {
         return result;
     }
 
+    /**
+     * Reads the next line from the buffer and splits it into fields.
+     * Fields are views over the parser buffer (see {@link CSVParser#parseLineMultiViews(String)}),
+     * they are valid only until the next read.
+     *
+     * @return an array with each comma-separated element as a separate entry.
+     * @throws IOException if bad things happen during the read
+     */
+    public CharSequence[] readNextViews() throws IOException {
+
+        CharSequence[] result = null;
+        do {
+            String nextLine = getNextLine();
+            if (!hasNext) {
+                return result; // should throw if still pending?
+            }
+            CharSequence[] r = parser.parseLineMultiViews(nextLine);
+            if (parser.isPending()) {
+                // Parser buffer will be reused for the rest of the record
+                for (int i = 0; i < r.length; i++) {
+                    if (r[i] != null) {
+                        r[i] = r[i].toString();
+                    }
+                }
+            }
+            if (r.length > 0) {
+                if (result == null) {
+                    result = r;
+                } else {
+                    CharSequence[] t = new CharSequence[result.length + r.length];
+                    System.arraycopy(result, 0, t, 0, result.length);
+                    System.arraycopy(r, 0, t, result.length, r.length);
+                    result = t;
+                }
+            }
+        } while (parser.isPending());
+        return result;
+    }
+
     /**
      * For multi line records this method combines the current result with the result from previous read(s).
      *
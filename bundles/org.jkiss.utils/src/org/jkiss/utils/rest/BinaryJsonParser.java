@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.*;
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jkiss.utils.rest.BinaryJsonWriter.*;
+
+/**
+ * Parses data produced by {@link BinaryJsonWriter} into Gson element tree.
+ * The tree is then converted to objects with {@link Gson#fromJson(JsonElement, java.lang.reflect.Type)}
+ * so all registered type adapters work the same way as with JSON text.
+ */
+public class BinaryJsonParser {
+
+    private final byte[] data;
+    private final int limit;
+    private final List<String> strings = new ArrayList<>();
+    private int position;
+
+    public BinaryJsonParser(@NotNull byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public boolean hasMore() {
+        return position < limit;
+    }
+
+    @NotNull
+    public JsonElement parse() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return JsonNull.INSTANCE;
+            case TAG_TRUE:
+                return new JsonPrimitive(Boolean.TRUE);
+            case TAG_FALSE:
+                return new JsonPrimitive(Boolean.FALSE);
+            case TAG_LONG: {
+                long value = readVarLong();
+                return new JsonPrimitive((value >>> 1) ^ -(value & 1));
+            }
+            case TAG_DOUBLE: {
+                checkAvailable(8);
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (long) (data[position++] & 0xFF) << (i * 8);
+                }
+                return new JsonPrimitive(Double.longBitsToDouble(bits));
+            }
+            case TAG_NUMBER:
+                return new JsonPrimitive(new BigDecimal(readUtf8()));
+            case TAG_STRING: {
+                String value = readUtf8();
+                if (value.length() <= MAX_INTERNED_STRING) {
+                    strings.add(value);
+                }
+                return new JsonPrimitive(value);
+            }
+            case TAG_STRING_REF:
+                return new JsonPrimitive(getString(readVarLong()));
+            case TAG_ARRAY: {
+                JsonArray array = new JsonArray();
+                while (peekByte() != TAG_END) {
+                    array.add(parse());
+                }
+                position++;
+                return array;
+            }
+            case TAG_OBJECT: {
+                JsonObject object = new JsonObject();
+                for (; ; ) {
+                    long nameRef = readVarLong();
+                    String name;
+                    if (nameRef == NAME_END) {
+                        return object;
+                    } else if (nameRef == NAME_LITERAL) {
+                        name = readUtf8();
+                        strings.add(name);
+                    } else {
+                        name = getString(nameRef - 2);
+                    }
+                    object.add(name, parse());
+                }
+            }
+            default:
+                throw new IOException("Unexpected binary tag " + tag + " at " + (position - 1));
+        }
+    }
+
+    @NotNull
+    private String readUtf8() throws IOException {
+        long length = readVarLong();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("String is too long: " + length);
+        }
+        checkAvailable((int) length);
+        String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+        return value;
+    }
+
+    private String getString(long index) throws IOException {
+        if (index < 0 || index >= strings.size()) {
+            throw new IOException("Bad string reference " + index);
+        }
+        return strings.get((int) index);
+    }
+
+    private int peekByte() throws IOException {
+        checkAvailable(1);
+        return data[position] & 0xFF;
+    }
+
+    private int readByte() throws IOException {
+        checkAvailable(1);
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint at " + position);
+    }
+
+    private void checkAvailable(int length) throws IOException {
+        if (length < 0 || position + length > limit) {
+            throw new IOException("Unexpected end of binary data at " + position);
+        }
+    }
+
+}
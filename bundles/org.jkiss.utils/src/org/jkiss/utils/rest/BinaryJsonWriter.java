@@ -0,0 +1,299 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gson writer which produces compact binary encoding instead of JSON text.
+ * Type adapters write to it exactly as to the regular {@link JsonWriter}.
+ * <p>
+ * Integers are written as zig-zag varints, doubles as raw IEEE bits. Property names and short strings
+ * are written once per message and then referenced by index, so repeated keys and class names cost 1-2 bytes.
+ * The result can be read back with {@link BinaryJsonParser}.
+ */
+public class BinaryJsonWriter extends JsonWriter {
+
+    static final int TAG_NULL = 0;
+    static final int TAG_TRUE = 1;
+    static final int TAG_FALSE = 2;
+    static final int TAG_LONG = 3;
+    static final int TAG_DOUBLE = 4;
+    static final int TAG_NUMBER = 5;
+    static final int TAG_STRING = 6;
+    static final int TAG_STRING_REF = 7;
+    static final int TAG_ARRAY = 8;
+    static final int TAG_OBJECT = 9;
+    static final int TAG_END = 10;
+
+    // Object entry header: end of object, new name literal or reference to already written name (index + 2)
+    static final int NAME_END = 0;
+    static final int NAME_LITERAL = 1;
+
+    // Long strings (values, SQL texts, stack traces) are not worth interning
+    static final int MAX_INTERNED_STRING = 256;
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(@NotNull char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private final ByteArrayOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private String deferredName;
+    private boolean[] objectStack = new boolean[32];
+    private int depth;
+
+    public BinaryJsonWriter(@NotNull ByteArrayOutputStream out) {
+        super(UNWRITABLE_WRITER);
+        this.out = out;
+    }
+
+    @Override
+    public BinaryJsonWriter beginArray() throws IOException {
+        writeDeferredName();
+        out.write(TAG_ARRAY);
+        push(false);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter endArray() throws IOException {
+        pop(false);
+        out.write(TAG_END);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter beginObject() throws IOException {
+        writeDeferredName();
+        out.write(TAG_OBJECT);
+        push(true);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter endObject() throws IOException {
+        if (deferredName != null) {
+            throw new IllegalStateException("Dangling name: " + deferredName);
+        }
+        pop(true);
+        writeVarLong(NAME_END);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter name(@NotNull String name) throws IOException {
+        if (depth == 0 || !objectStack[depth - 1]) {
+            throw new IllegalStateException("Name '" + name + "' outside of object");
+        }
+        if (deferredName != null) {
+            throw new IllegalStateException("Name '" + name + "' follows another name");
+        }
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter value(@Nullable String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        writeString(value);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter jsonValue(@Nullable String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        RestConstants.DEFAULT_GSON.getAdapter(JsonElement.class).write(this, JsonParser.parseString(value));
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter nullValue() throws IOException {
+        if (deferredName != null) {
+            if (!getSerializeNulls()) {
+                // Skip name and value together, like the text writer does
+                deferredName = null;
+                return this;
+            }
+            writeDeferredName();
+        }
+        out.write(TAG_NULL);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter value(boolean value) throws IOException {
+        writeDeferredName();
+        out.write(value ? TAG_TRUE : TAG_FALSE);
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter value(@Nullable Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public BinaryJsonWriter value(float value) throws IOException {
+        return value((double) value);
+    }
+
+    @Override
+    public BinaryJsonWriter value(double value) throws IOException {
+        writeDeferredName();
+        out.write(TAG_DOUBLE);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (bits >>> (i * 8)));
+        }
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter value(long value) throws IOException {
+        writeDeferredName();
+        out.write(TAG_LONG);
+        writeVarLong((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public BinaryJsonWriter value(@Nullable Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return value(value.doubleValue());
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+            return value(value.longValue());
+        }
+        // BigDecimal, LazilyParsedNumber and other arbitrary precision numbers keep their exact text
+        writeDeferredName();
+        out.write(TAG_NUMBER);
+        writeBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to flush, data is written directly into the buffer
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (depth != 0) {
+            throw new IOException("Incomplete document");
+        }
+    }
+
+    private void writeDeferredName() {
+        if (deferredName == null) {
+            return;
+        }
+        Integer index = strings.get(deferredName);
+        if (index != null) {
+            writeVarLong(index + 2);
+        } else {
+            writeVarLong(NAME_LITERAL);
+            writeBytes(deferredName.getBytes(StandardCharsets.UTF_8));
+            strings.put(deferredName, strings.size());
+        }
+        deferredName = null;
+    }
+
+    private void writeString(@NotNull String value) {
+        if (value.length() <= MAX_INTERNED_STRING) {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.write(TAG_STRING_REF);
+                writeVarLong(index);
+                return;
+            }
+            strings.put(value, strings.size());
+        }
+        out.write(TAG_STRING);
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(@NotNull byte[] bytes) {
+        writeVarLong(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private void push(boolean object) {
+        if (depth == objectStack.length) {
+            boolean[] newStack = new boolean[depth * 2];
+            System.arraycopy(objectStack, 0, newStack, 0, depth);
+            objectStack = newStack;
+        }
+        objectStack[depth++] = object;
+    }
+
+    private void pop(boolean object) {
+        if (depth == 0 || objectStack[depth - 1] != object) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        depth--;
+    }
+
+}
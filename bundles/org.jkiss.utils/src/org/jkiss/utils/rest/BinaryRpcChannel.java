@@ -0,0 +1,125 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Framed connection used by {@link BinaryRpcServer} and {@link BinaryRpcClient}.
+ * <p>
+ * Each frame is {@code [int length][long requestId][byte status][payload]}. Request id allows multiple calls
+ * to share one connection: responses may come in any order and are matched by id.
+ * Reads and writes go straight to the channel (not through {@code Channels.newInputStream})
+ * so one thread may block in read while others write.
+ */
+final class BinaryRpcChannel implements Closeable {
+
+    static final byte STATUS_REQUEST = 0;
+    static final byte STATUS_OK = 1;
+    static final byte STATUS_ERROR = 2;
+
+    private static final int HEADER_SIZE = Long.BYTES + 1;
+    private static final int MAX_FRAME_SIZE = Integer.MAX_VALUE - 64;
+
+    private final SocketChannel channel;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+    private final Object writeLock = new Object();
+
+    BinaryRpcChannel(@NotNull SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Reads next frame. Must be called from a single reader thread.
+     *
+     * @return frame or null if the other side closed the connection
+     */
+    @Nullable
+    Frame readFrame() throws IOException {
+        lengthBuffer.clear();
+        if (!readFully(lengthBuffer, true)) {
+            return null;
+        }
+        int length = lengthBuffer.getInt(0);
+        if (length < HEADER_SIZE || length > MAX_FRAME_SIZE) {
+            throw new IOException("Bad frame length: " + length);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(length);
+        readFully(frame, false);
+        frame.flip();
+        long requestId = frame.getLong();
+        byte status = frame.get();
+        return new Frame(requestId, status, frame.array(), HEADER_SIZE, length - HEADER_SIZE);
+    }
+
+    void writeFrame(long requestId, byte status, @NotNull byte[] payload, int length) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + HEADER_SIZE);
+        header.putInt(HEADER_SIZE + length).putLong(requestId).put(status).flip();
+        ByteBuffer body = ByteBuffer.wrap(payload, 0, length);
+        ByteBuffer[] buffers = {header, body};
+        synchronized (writeLock) {
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean readFully(@NotNull ByteBuffer buffer, boolean allowEof) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (allowEof && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Connection closed in the middle of a frame");
+            }
+        }
+        return true;
+    }
+
+    static final class Frame {
+        final long requestId;
+        final byte status;
+        final byte[] data;
+        final int offset;
+        final int length;
+
+        Frame(long requestId, byte status, @NotNull byte[] data, int offset, int length) {
+            this.requestId = requestId;
+            this.status = status;
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+}
@@ -0,0 +1,266 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
+import org.jkiss.utils.BeanUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.*;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client for {@link BinaryRpcServer}.
+ * <p>
+ * Unlike {@link RestClient} it keeps one persistent connection and doesn't serialize calls:
+ * concurrent calls from different threads are sent immediately and their responses are matched by request id.
+ */
+public class BinaryRpcClient {
+
+    private BinaryRpcClient() {
+        // prevents instantiation
+    }
+
+    /**
+     * Connects to the server.
+     *
+     * @param address {@link UnixDomainSocketAddress} or TCP address of the server
+     */
+    @NotNull
+    public static <T> T create(@NotNull SocketAddress address, @NotNull Class<T> cls, @NotNull Gson gson) {
+        final ClientInvocationHandler handler;
+        try {
+            handler = new ClientInvocationHandler(cls, address, gson);
+        } catch (IOException e) {
+            throw new RestException("Can't connect to " + address, e);
+        }
+        final Object proxy = Proxy.newProxyInstance(
+            cls.getClassLoader(),
+            new Class[]{cls, RestProxy.class},
+            handler
+        );
+
+        return cls.cast(proxy);
+    }
+
+    @NotNull
+    public static <T> Builder<T> builder(@NotNull SocketAddress address, @NotNull Class<T> cls) {
+        return new Builder<>(address, cls);
+    }
+
+    public static final class Builder<T> {
+        private final SocketAddress address;
+        private final Class<T> cls;
+        private Gson gson;
+
+        private Builder(@NotNull SocketAddress address, @NotNull Class<T> cls) {
+            this.address = address;
+            this.cls = cls;
+            this.gson = RestConstants.DEFAULT_GSON;
+        }
+
+        @NotNull
+        public Builder<T> setGson(@NotNull Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        @NotNull
+        public T create() {
+            return BinaryRpcClient.create(address, cls, gson);
+        }
+    }
+
+    private static class ClientInvocationHandler implements InvocationHandler, RestProxy {
+        @NotNull
+        private final Class<?> clientClass;
+        private final Gson gson;
+        private final BinaryRpcChannel channel;
+        private final AtomicLong requestCounter = new AtomicLong();
+        private final Map<Long, CompletableFuture<BinaryRpcChannel.Frame>> pendingCalls = new ConcurrentHashMap<>();
+        private final ThreadLocal<Type> resultType = new ThreadLocal<>();
+        private volatile boolean closed;
+
+        private ClientInvocationHandler(
+            @NotNull Class<?> clientClass,
+            @NotNull SocketAddress address,
+            @NotNull Gson gson
+        ) throws IOException {
+            this.clientClass = clientClass;
+            this.gson = gson;
+            this.channel = new BinaryRpcChannel(SocketChannel.open(address));
+
+            Thread readThread = new Thread(this::readResponses, "Binary RPC client");
+            readThread.setDaemon(true);
+            readThread.start();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws RestException {
+            Class<?> declaringClass = method.getDeclaringClass();
+            if (declaringClass == Object.class) {
+                return BeanUtils.handleObjectMethod(proxy, method, args);
+            } else if (declaringClass == RestProxy.class) {
+                setNextCallResultType((Type) args[0]);
+                return null;
+            } else if (method.getName().equals("close") && (declaringClass == AutoCloseable.class || declaringClass == clientClass)) {
+                closeClient();
+                return null;
+            }
+            Type nextResultType = resultType.get();
+            resultType.remove();
+            if (closed) {
+                throw new RestException("RPC client has been terminated");
+            }
+
+            final RequestMapping mapping = method.getDeclaredAnnotation(RequestMapping.class);
+
+            if (mapping == null) {
+                throw createException(method, "it's not annotated with @RequestMapping");
+            }
+
+            String endpoint = mapping.value();
+            if (CommonUtils.isEmpty(endpoint)) {
+                endpoint = method.getName();
+            }
+
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try {
+                final BinaryJsonWriter writer = new BinaryJsonWriter(buffer);
+                writer.setSerializeNulls(true);
+                writer.value(endpoint);
+                writer.beginObject();
+                final Parameter[] parameters = method.getParameters();
+                final Set<String> names = new HashSet<>();
+                for (int i = 0; i < parameters.length; i++) {
+                    final RequestParameter param = parameters[i].getDeclaredAnnotation(RequestParameter.class);
+
+                    if (param == null) {
+                        throw createException(method, "one or more of its parameters are not annotated with @RequestParameter");
+                    }
+
+                    if (CommonUtils.isEmptyTrimmed(param.value())) {
+                        throw createException(method, "one or more of its parameters has empty name specified in @RequestParameter");
+                    }
+
+                    if (!names.add(param.value())) {
+                        throw createException(method, "one or more of its parameters share the same name specified in @RequestParameter");
+                    }
+
+                    writer.name(param.value());
+                    if (args[i] == null) {
+                        writer.nullValue();
+                    } else {
+                        gson.toJson(args[i], args[i].getClass(), writer);
+                    }
+                }
+                writer.endObject();
+            } catch (IOException e) {
+                throw new RestException(e);
+            }
+
+            final long requestId = requestCounter.incrementAndGet();
+            final CompletableFuture<BinaryRpcChannel.Frame> future = new CompletableFuture<>();
+            pendingCalls.put(requestId, future);
+            final BinaryRpcChannel.Frame response;
+            try {
+                if (closed) {
+                    // Connection was closed after the check above, reader thread won't complete this call
+                    throw new RestException("RPC client has been terminated");
+                }
+                channel.writeFrame(requestId, BinaryRpcChannel.STATUS_REQUEST, buffer.toByteArray(), buffer.size());
+                if (mapping.timeout() > 0) {
+                    response = future.get(mapping.timeout(), TimeUnit.SECONDS);
+                } else {
+                    response = future.get();
+                }
+            } catch (ExecutionException e) {
+                throw new RestException(e.getCause());
+            } catch (RestException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RestException(e);
+            } finally {
+                pendingCalls.remove(requestId);
+            }
+
+            if (response.status != BinaryRpcChannel.STATUS_OK) {
+                RestClient.handleError(new String(response.data, response.offset, response.length, StandardCharsets.UTF_8));
+            }
+
+            Type returnType = RestClient.resolveReturnType(method, nextResultType);
+            if (returnType == void.class || response.length == 0) {
+                return null;
+            }
+            try {
+                return gson.fromJson(new BinaryJsonParser(response.data, response.offset, response.length).parse(), returnType);
+            } catch (IOException e) {
+                throw new RestException(e);
+            }
+        }
+
+        private void readResponses() {
+            Throwable error = null;
+            try {
+                for (BinaryRpcChannel.Frame frame = channel.readFrame(); frame != null; frame = channel.readFrame()) {
+                    CompletableFuture<BinaryRpcChannel.Frame> future = pendingCalls.get(frame.requestId);
+                    if (future != null) {
+                        future.complete(frame);
+                    }
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            closed = true;
+            RestException closeError = new RestException("RPC connection closed", error);
+            for (CompletableFuture<BinaryRpcChannel.Frame> future : pendingCalls.values()) {
+                future.completeExceptionally(closeError);
+            }
+        }
+
+        private void closeClient() {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+
+        @NotNull
+        private static RestException createException(@NotNull Method method, @NotNull String reason) {
+            return new RestException("Unable to invoke the method " + method + " because " + reason);
+        }
+
+        @Override
+        public void setNextCallResultType(Type type) {
+            this.resultType.set(type);
+        }
+    }
+
+}
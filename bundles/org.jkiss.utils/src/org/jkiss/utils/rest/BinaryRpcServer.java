@@ -0,0 +1,284 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binary RPC server. Serves the same {@link RequestMapping} interfaces as {@link RestServer}
+ * over persistent connections (Unix domain socket or loopback TCP).
+ * <p>
+ * Each connection is multiplexed: requests are dispatched to the executor as soon as they are read
+ * and responses are written back as they complete. Payloads use {@link BinaryJsonWriter} encoding.
+ */
+public class BinaryRpcServer<T> {
+    private static final Logger log = Logger.getLogger(BinaryRpcServer.class.getName());
+
+    private final T object;
+    private final Gson gson;
+    private final Map<String, Method> mappings;
+    private final ServerSocketChannel serverChannel;
+    private final Path socketFile;
+    private final ExecutorService executor;
+    private final Set<BinaryRpcChannel> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    public BinaryRpcServer(
+        @NotNull Class<T> cls,
+        @NotNull T object,
+        @NotNull Gson gson,
+        @Nullable Path socketFile,
+        int port
+    ) throws IOException {
+        this.object = object;
+        this.gson = gson;
+        this.mappings = RestServer.collectMappings(cls);
+        this.socketFile = socketFile;
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            serverChannel.bind(UnixDomainSocketAddress.of(socketFile));
+        } else {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+        this.executor = createExecutor();
+        this.running = true;
+
+        Thread acceptThread = new Thread(this::acceptConnections, "Binary RPC server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    @NotNull
+    public static <T> Builder<T> builder(@NotNull Class<T> cls, @NotNull T object) {
+        return new Builder<>(object, cls);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @NotNull
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.log(Level.FINE, "Error closing server channel", e);
+        }
+        for (BinaryRpcChannel connection : connections) {
+            closeConnection(connection);
+        }
+        executor.shutdown();
+        if (socketFile != null) {
+            try {
+                Files.deleteIfExists(socketFile);
+            } catch (IOException e) {
+                log.log(Level.FINE, "Error deleting socket file " + socketFile, e);
+            }
+        }
+    }
+
+    @NotNull
+    protected ExecutorService createExecutor() {
+        // Core size equals max size, otherwise the pool never grows past one thread with unbounded queue
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(10, 10, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            SocketChannel socket;
+            try {
+                socket = serverChannel.accept();
+            } catch (IOException e) {
+                if (running) {
+                    log.log(Level.SEVERE, "Error accepting RPC connection", e);
+                    stop();
+                }
+                return;
+            }
+            BinaryRpcChannel connection = new BinaryRpcChannel(socket);
+            connections.add(connection);
+            Thread readThread = new Thread(() -> readRequests(connection), "Binary RPC connection");
+            readThread.setDaemon(true);
+            readThread.start();
+        }
+    }
+
+    private void readRequests(@NotNull BinaryRpcChannel connection) {
+        try {
+            for (BinaryRpcChannel.Frame frame = connection.readFrame(); frame != null; frame = connection.readFrame()) {
+                if (frame.status != BinaryRpcChannel.STATUS_REQUEST) {
+                    throw new IOException("Unexpected frame status " + frame.status);
+                }
+                BinaryRpcChannel.Frame request = frame;
+                executor.execute(() -> processRequest(connection, request));
+            }
+        } catch (IOException | RejectedExecutionException e) {
+            if (running && connection.isOpen()) {
+                log.log(Level.FINE, "RPC connection closed: " + e.getMessage());
+            }
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    private void processRequest(@NotNull BinaryRpcChannel connection, @NotNull BinaryRpcChannel.Frame request) {
+        byte status;
+        byte[] payload;
+        String endpoint = null;
+        try {
+            BinaryJsonParser parser = new BinaryJsonParser(request.data, request.offset, request.length);
+            endpoint = parser.parse().getAsString();
+            final Method method = mappings.get(endpoint);
+            if (method == null) {
+                throw new RestException("Mapping " + endpoint + " not found");
+            }
+            final JsonElement paramsElement = parser.parse();
+            final JsonObject params = paramsElement.isJsonObject() ? paramsElement.getAsJsonObject() : new JsonObject();
+            final Parameter[] parameters = method.getParameters();
+            final Object[] values = new Object[parameters.length];
+
+            for (int i = 0; i < parameters.length; i++) {
+                final RequestParameter param = parameters[i].getDeclaredAnnotation(RequestParameter.class);
+                JsonElement element = params.get(param.value());
+                if (element == null) {
+                    element = JsonNull.INSTANCE;
+                }
+                values[i] = gson.fromJson(element, parameters[i].getParameterizedType());
+            }
+
+            final Object result = method.invoke(object, values);
+            final Type type = method.getGenericReturnType();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            if (type != void.class) {
+                gson.toJson(result, type, new BinaryJsonWriter(buffer));
+            }
+            status = BinaryRpcChannel.STATUS_OK;
+            payload = buffer.toByteArray();
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            log.log(Level.SEVERE, "RPC call '" + endpoint + "' failed: " + e.getMessage());
+            StringWriter buf = new StringWriter();
+            e.printStackTrace(new PrintWriter(buf, true));
+            status = BinaryRpcChannel.STATUS_ERROR;
+            payload = buf.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            connection.writeFrame(request.requestId, status, payload, payload.length);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Error writing RPC response", e);
+            closeConnection(connection);
+        }
+    }
+
+    private void closeConnection(@NotNull BinaryRpcChannel connection) {
+        connections.remove(connection);
+        closeQuietly(connection);
+    }
+
+    private static void closeQuietly(@NotNull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.log(Level.FINE, "Error closing RPC connection", e);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final T object;
+        private final Class<T> cls;
+        private Gson gson;
+        private Path socketFile;
+        private int port;
+
+        private Builder(@NotNull T object, @NotNull Class<T> cls) {
+            this.object = object;
+            this.cls = cls;
+            this.gson = RestConstants.DEFAULT_GSON;
+            this.port = 0;
+        }
+
+        @NotNull
+        public Builder<T> setGson(@NotNull Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        /**
+         * Listen on Unix domain socket instead of TCP port.
+         */
+        @NotNull
+        public Builder<T> setSocketFile(@Nullable Path socketFile) {
+            this.socketFile = socketFile;
+            return this;
+        }
+
+        @NotNull
+        public Builder<T> setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        @NotNull
+        public BinaryRpcServer<T> create() {
+            try {
+                return new BinaryRpcServer<>(cls, object, gson, socketFile, port);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
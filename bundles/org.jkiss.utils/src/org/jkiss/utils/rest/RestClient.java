@@ -19,6 +19,7 @@ package org.jkiss.utils.rest;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.utils.BeanUtils;
 import org.jkiss.utils.CommonUtils;
 
@@ -177,25 +178,11 @@ public class RestClient {
                     handleError(contents);
                 }
 
-                Type returnType = resultType.get();
-                if (returnType == null) {
-                    returnType = method.getReturnType();
-                } else {
-                    resultType.remove();
-                }
+                Type returnType = resolveReturnType(method, resultType.get());
+                resultType.remove();
                 if (returnType == void.class) {
                     return null;
                 }
-                if (returnType instanceof TypeVariable) {
-                    Type[] bounds = ((TypeVariable<?>) returnType).getBounds();
-                    if (bounds.length > 0) {
-                        returnType = bounds[0];
-                    }
-                }
-                if (returnType instanceof ParameterizedType && ((ParameterizedType) returnType).getRawType() == Class.class) {
-                    // Convert to raw class type to force our serializer to work
-                    returnType = Class.class;
-                }
 
                 return gson.fromJson(contents, returnType);
             } catch (RuntimeException e) {
@@ -222,7 +209,26 @@ public class RestClient {
         }
     }
 
-    private static void handleError(String contents) throws RestException {
+    @NotNull
+    static Type resolveReturnType(@NotNull Method method, @Nullable Type resultType) {
+        Type returnType = resultType;
+        if (returnType == null) {
+            returnType = method.getReturnType();
+        }
+        if (returnType instanceof TypeVariable) {
+            Type[] bounds = ((TypeVariable<?>) returnType).getBounds();
+            if (bounds.length > 0) {
+                returnType = bounds[0];
+            }
+        }
+        if (returnType instanceof ParameterizedType && ((ParameterizedType) returnType).getRawType() == Class.class) {
+            // Convert to raw class type to force our serializer to work
+            returnType = Class.class;
+        }
+        return returnType;
+    }
+
+    static void handleError(String contents) throws RestException {
         String[] stackTraceRows = contents.split("\n");
         String errorLine = stackTraceRows[0];
         List<StackTraceElement> stackTraceElements = new ArrayList<>();
@@ -243,35 +243,40 @@ public class RestServer<T> {
 
         @NotNull
         protected Map<String, Method> createMappings(@NotNull Class<T> cls) {
-            final Map<String, Method> mappings = new HashMap<>();
+            return collectMappings(cls);
+        }
+    }
 
-            for (Method method : cls.getDeclaredMethods()) {
-                if (method.getDeclaringClass() == Object.class) {
-                    continue;
-                }
+    @NotNull
+    static Map<String, Method> collectMappings(@NotNull Class<?> cls) {
+        final Map<String, Method> mappings = new HashMap<>();
 
-                final RequestMapping mapping = method.getDeclaredAnnotation(RequestMapping.class);
+        for (Method method : cls.getDeclaredMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
 
-                if (mapping == null) {
-                    continue;
-                }
+            final RequestMapping mapping = method.getDeclaredAnnotation(RequestMapping.class);
 
-                String methodEndpoint = mapping.value();
-                if (CommonUtils.isEmptyTrimmed(mapping.value())) {
-                    methodEndpoint = method.getName();
-                }
+            if (mapping == null) {
+                continue;
+            }
 
-                if (mappings.containsKey(methodEndpoint)) {
-                    log.warning("Method " + method + " has duplicate mapping, skipping");
-                    continue;
-                }
+            String methodEndpoint = mapping.value();
+            if (CommonUtils.isEmptyTrimmed(mapping.value())) {
+                methodEndpoint = method.getName();
+            }
 
-                method.setAccessible(true);
-                mappings.put(methodEndpoint, method);
+            if (mappings.containsKey(methodEndpoint)) {
+                log.warning("Method " + method + " has duplicate mapping, skipping");
+                continue;
             }
 
-            return Collections.unmodifiableMap(mappings);
+            method.setAccessible(true);
+            mappings.put(methodEndpoint, method);
         }
+
+        return Collections.unmodifiableMap(mappings);
     }
 
     public static final class Builder<T> {
@@ -29,7 +29,6 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsExecutor;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsSettings;
-import org.jkiss.dbeaver.tools.compare.simple.CompareReport;
 import org.jkiss.dbeaver.tools.compare.simple.CompareReportRenderer;
 import org.jkiss.dbeaver.tools.compare.simple.ui.internal.CompareUIMessages;
 import org.jkiss.dbeaver.ui.DialogSettingsDelegate;
@@ -38,6 +37,7 @@ import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dialogs.DialogUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -108,8 +108,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         try {
             UIUtils.run(getContainer(), true, true, monitor -> {
                 try {
-                    CompareReport report = generateReport(monitor, executor);
-                    renderReport(monitor, report);
+                    generateReport(monitor, executor);
                 } catch (DBException e) {
                     throw new InvocationTargetException(e);
                 }
@@ -134,16 +133,12 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         return true;
     }
 
-    private CompareReport generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
-    {
-        monitor.beginTask("Compare objects", 1000);
-        CompareReport report = executor.compareObjects(monitor, getSettings().getNodes());
-        monitor.done();
-        return report;
-    }
-
-    private void renderReport(DBRProgressMonitor monitor, CompareReport report)
+    /**
+     * Compares objects and writes report lines as soon as they are ready
+     */
+    private void generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
     {
+        List<DBNDatabaseNode> nodes = getSettings().getNodes();
         try {
             File reportFile;
             switch (settings.getOutputType()) {
@@ -153,7 +148,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 default:
                 {
                     StringBuilder fileName = new StringBuilder("compare");//"compare-report.html";
-                    for (DBNDatabaseNode node : report.getNodes()) {
+                    for (DBNDatabaseNode node : nodes) {
                         fileName.append("-").append(CommonUtils.escapeIdentifier(node.getName()));
                     }
                     fileName.append("-report.html");
@@ -169,10 +164,12 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
             }
 
             reportFile.deleteOnExit();
-            try (OutputStream outputStream = new FileOutputStream(reportFile)) {
-                monitor.beginTask("Render report", report.getReportLines().size());
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(reportFile))) {
+                monitor.beginTask("Compare objects", 1000);
                 CompareReportRenderer reportRenderer = new CompareReportRenderer();
-                reportRenderer.renderReport(monitor, report, getSettings(), outputStream);
+                reportRenderer.beginReport(nodes, getSettings(), outputStream);
+                executor.compareObjects(monitor, nodes, reportRenderer);
+                reportRenderer.endReport();
                 monitor.done();
             }
             if (settings.getOutputType() == CompareObjectsSettings.OutputType.BROWSER) {
@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.eclipse.core.runtime.IStatus;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
@@ -25,21 +27,26 @@ import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
-import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
-import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
-import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.*;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
+    private static final int LOADER_THREADS = 8;
+    // Each compared side is loaded in its own thread so a slow data source doesn't hold the others
+    private static final ExecutorService LOADER_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Compare objects", LOADER_THREADS);
+
     private final Object PROPS_LOCK = new Object();
 
     private CompareObjectsSettings settings;
@@ -55,6 +62,7 @@ public class CompareObjectsExecutor {
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
 
     private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private CompareReportRenderer reportRenderer;
     private int reportDepth = 0;
     private CompareReportLine lastLine;
 
@@ -79,7 +87,18 @@ public class CompareObjectsExecutor {
                 break;
             }
         }
-        reportLines.add(lastLine);
+    }
+
+    /**
+     * Line is complete once its properties are compared. Children lines follow it.
+     */
+    private void reportObjectsCompareComplete() throws IOException
+    {
+        if (reportRenderer != null) {
+            reportRenderer.renderLine(lastLine);
+        } else {
+            reportLines.add(lastLine);
+        }
     }
 
     private void reportPropertyCompare(ObjectPropertyDescriptor property)
@@ -160,24 +179,48 @@ public class CompareObjectsExecutor {
         throws DBException, InterruptedException
     {
         reportLines.clear();
+        reportRenderer = null;
         lastLine = null;
 
-        compareNodes(monitor, nodes);
+        try {
+            compareNodes(monitor, nodes);
+        } catch (IOException e) {
+            // Lines are collected in memory
+            throw new DBException("Error collecting compare report", e);
+        }
         return new CompareReport(rootNodes, reportLines);
     }
 
+    /**
+     * Compares objects and passes report lines to the renderer as soon as they are ready.
+     * Report lines are not kept in memory.
+     */
+    public void compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, @NotNull CompareReportRenderer renderer)
+        throws DBException, InterruptedException, IOException
+    {
+        reportLines.clear();
+        reportRenderer = renderer;
+        lastLine = null;
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            reportRenderer = null;
+        }
+    }
+
     private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
-        throws DBException, InterruptedException
+        throws DBException, InterruptedException, IOException
     {
         reportObjectsCompareBegin(nodes);
 
         try {
-            if (nodes.size() > 1) {
-                // Go deeper only if we have more than one node
-                if (!(nodes.get(0) instanceof DBNDatabaseFolder)) {
-                    compareProperties(monitor, nodes);
-                }
+            // Go deeper only if we have more than one node
+            if (nodes.size() > 1 && !(nodes.get(0) instanceof DBNDatabaseFolder)) {
+                compareProperties(monitor, nodes);
+            }
+            reportObjectsCompareComplete();
 
+            if (nodes.size() > 1) {
                 compareChildren(monitor, nodes);
             }
         } finally {
@@ -237,134 +280,145 @@ public class CompareObjectsExecutor {
             return;
         }
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
+        // Load all properties. Each node is read concurrently.
+        final boolean readLazyProperties = compareLazyProperties;
+        final List<Map<DBPPropertyDescriptor, Object>> nodeProperties = new ArrayList<>(nodes.size());
+        synchronized (propertyValues) {
+            for (DBNDatabaseNode node : nodes) {
+                nodeProperties.add(propertyValues.computeIfAbsent(node.getObject(), o -> new IdentityHashMap<>()));
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
+        }
+        runForEachNode(monitor, nodes, (nodeMonitor, i) -> {
+            loadProperties(nodeMonitor, nodes.get(i), nodeProperties.get(i), properties, readLazyProperties, compareScripts);
+            return null;
+        });
+
+        // Compare properties
+        for (ObjectPropertyDescriptor prop : properties) {
+            reportPropertyCompare(prop);
+        }
+    }
+
+    private void loadProperties(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNDatabaseNode node,
+        @NotNull Map<DBPPropertyDescriptor, Object> nodeProperties,
+        @NotNull List<ObjectPropertyDescriptor> properties,
+        boolean compareLazyProperties,
+        boolean compareScripts)
+    {
+        boolean onlyStruct = settings.isCompareOnlyStructure();
+        if (monitor.isCanceled()) {
+            return;
+        }
+        DBSObject databaseObject = node.getObject();
+        PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
+        for (ObjectPropertyDescriptor prop : properties) {
+            boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
                             continue;
                         }
-                    }
-                } else {
-                    if (prop.isHidden()) {
+                    } else {
                         continue;
                     }
                 }
-                if (onlyStruct && !isScriptProperty) {
+            } else {
+                if (prop.isHidden()) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
+            }
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+            synchronized (PROPS_LOCK) {
+                if (propertyValue instanceof DBPNamedObject) {
+                    // Compare just object names
+                    propertyValue = ((DBPNamedObject) propertyValue).getName();
                 }
+                nodeProperties.put(prop, propertyValue);
             }
-            monitor.worked(1);
-        }
-
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
         }
+        monitor.worked(1);
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+        throws DBException, InterruptedException, IOException
     {
         // Compare children
-        int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
+        // Read children of all nodes concurrently
+        List<DBNDatabaseNode[]> allChildren = runForEachNode(monitor, nodes, (nodeMonitor, i) -> {
             DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
+            // Use submonitor to avoid huge number of tasks
+            DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(nodeMonitor);
+            // Cache only the compared level. Attributes and deeper objects are read when their parents are compared.
             if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ENTITIES);
             }
             try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
+                return node.getChildren(subMonitor);
             } catch (Exception e) {
                 log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+                return null;
             }
-        }
+        });
 
-        Set<String> allChildNames = new LinkedHashSet<>();
-        for (DBNDatabaseNode[] childList : allChildren) {
-            if (childList == null) continue;
-            for (DBNDatabaseNode child : childList) {
-                DBXTreeNode meta = child.getMeta();
-                if (meta.isVirtual()) {
+        List<List<DBNDatabaseNode>> childGroups = CompareUtils.matchChildrenByName(
+            allChildren,
+            DBNDatabaseNode::getNodeDisplayName,
+            child -> {
+                if (child.getMeta().isVirtual()) {
                     // Skip virtual nodes
-                    continue;
+                    return false;
                 }
-                if (settings.isSkipSystemObjects() && DBUtils.isSystemObject(child.getObject())) {
-                    // Skip system objects
-                    continue;
-                }
-                allChildNames.add(child.getNodeDisplayName());
-            }
+                // Skip system objects
+                return !settings.isSkipSystemObjects() || !DBUtils.isSystemObject(child.getObject());
+            });
+        for (List<DBNDatabaseNode> nodesToCompare : childGroups) {
+            // Compare children recursively
+            compareNodes(monitor, nodesToCompare);
         }
+    }
 
-        for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeDisplayName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
-                }
+    /**
+     * Runs the task for each node in a separate thread and waits for all results.
+     * Results are returned in the order of nodes.
+     */
+    private static <T> List<T> runForEachNode(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<DBNDatabaseNode> nodes,
+        @NotNull NodeTask<T> task
+    ) throws DBException, InterruptedException
+    {
+        List<WorkerProgressMonitor> workerMonitors = new ArrayList<>(nodes.size());
+        List<Future<T>> futures = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            final int nodeIndex = i;
+            final WorkerProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+            workerMonitors.add(workerMonitor);
+            futures.add(LOADER_EXECUTOR.submit(() -> task.run(workerMonitor, nodeIndex)));
+        }
+        List<T> results = new ArrayList<>(nodes.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(WorkerPoolUtils.waitForResult(monitor, future, workerMonitors));
+            } catch (ExecutionException e) {
+                WorkerProgressMonitor.cancelAll(workerMonitors);
+                Throwable cause = e.getCause();
+                throw cause instanceof DBException ? (DBException) cause : new DBException("Error reading objects for compare", cause);
             }
-
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
-                }
+            if (monitor.isCanceled()) {
+                WorkerProgressMonitor.cancelAll(workerMonitors);
+                throw new InterruptedException();
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
         }
+        return results;
     }
 
-
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
         DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
@@ -379,4 +433,9 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
-}
\ No newline at end of file
+    private interface NodeTask<T> {
+        @Nullable
+        T run(@NotNull DBRProgressMonitor monitor, int nodeIndex) throws DBException;
+    }
+
+}
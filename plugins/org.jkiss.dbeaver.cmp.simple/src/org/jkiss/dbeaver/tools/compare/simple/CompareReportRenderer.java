@@ -25,18 +25,44 @@ import org.jkiss.utils.xml.XMLBuilder;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 public class CompareReportRenderer {
 
-    private CompareReport report;
+    private List<DBNDatabaseNode> nodes;
     private XMLBuilder xml;
     private CompareObjectsSettings settings;
 
+    // Lines without differences which are rendered only if some of their children differ
+    private final Deque<CompareReportLine> pendingLines = new ArrayDeque<>();
+    // Folder which is rendered only if it has children
+    private CompareReportLine pendingFolder;
+    private int lineCount;
+    private int maxLevel;
+
     public void renderReport(DBRProgressMonitor monitor, CompareReport report, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
     {
-        this.report = report;
+        beginReport(report.getNodes(), settings, outputStream);
+        for (CompareReportLine line : report.getReportLines()) {
+            monitor.worked(1);
+            renderLine(line);
+        }
+        endReport();
+    }
+
+    /**
+     * Starts the report. Lines are rendered with {@link #renderLine(CompareReportLine)} in the order of the object tree.
+     */
+    public void beginReport(List<DBNDatabaseNode> nodes, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
+    {
+        this.nodes = nodes;
         this.settings = settings;
+        this.pendingLines.clear();
+        this.pendingFolder = null;
+        this.lineCount = 0;
+        this.maxLevel = 0;
         this.xml = new XMLBuilder(outputStream, GeneralUtils.UTF8_ENCODING, true);
         this.xml.setButify(true);
         xml.addContent(
@@ -44,28 +70,6 @@ public class CompareReportRenderer {
             "     PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\"\n" +
             "    \"http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd\">");
 
-        if (settings.isShowOnlyDifferences()) {
-            // Mark differences on tree nodes
-            List<CompareReportLine> reportLines = report.getReportLines();
-            int reportLinesSize = reportLines.size();
-            for (int i = 0; i < reportLinesSize; i++) {
-                if (reportLines.get(i).hasDifference) {
-                    int depth = reportLines.get(i).depth;
-                    for (int k = i - 1; k >= 0; k--) {
-                        CompareReportLine prevNode = reportLines.get(k);
-                        if (prevNode.depth < depth) {
-                            if (prevNode.hasDifference) {
-                                // Already set
-                                break;
-                            }
-                            depth = prevNode.depth;
-                            prevNode.hasDifference = true;
-                        }
-                    }
-                }
-            }
-        }
-
         xml.startElement("html");
         xml.startElement("head");
         xml.startElement("meta");
@@ -85,9 +89,73 @@ public class CompareReportRenderer {
         //xml.addAttribute("border", "1");
         xml.addAttribute("cellspacing", 0);
         xml.addAttribute("cellpadding", 0);
-        renderBody(monitor);
 
+        // Table head
+        xml.startElement("tr");
+        xml.startElement("th");
+        xml.addText("Structure");
         xml.endElement();
+        for (DBNDatabaseNode node : nodes) {
+            xml.startElement("th");
+            xml.addText(node.getNodeFullName());
+            xml.endElement();
+        }
+        xml.endElement();
+    }
+
+    void renderLine(CompareReportLine line) throws IOException
+    {
+        lineCount++;
+        maxLevel = Math.max(maxLevel, line.depth);
+        if (settings.isShowOnlyDifferences()) {
+            // Lines which were not followed by their children are closed
+            while (!pendingLines.isEmpty() && pendingLines.peekLast().depth >= line.depth) {
+                pendingLines.removeLast();
+            }
+            if (line.hasDifference) {
+                // Mark differences on tree nodes
+                for (CompareReportLine parentLine : pendingLines) {
+                    parentLine.hasDifference = true;
+                    renderObject(parentLine);
+                }
+                pendingLines.clear();
+                renderObject(line);
+            } else {
+                pendingLines.addLast(line);
+            }
+        } else {
+            if (pendingFolder != null) {
+                // Skip empty folders
+                if (line.depth > pendingFolder.depth) {
+                    renderObject(pendingFolder);
+                }
+                pendingFolder = null;
+            }
+            if (line.structure instanceof DBNDatabaseFolder && !line.hasDifference) {
+                pendingFolder = line;
+            } else {
+                renderObject(line);
+            }
+        }
+    }
+
+    public void endReport() throws IOException
+    {
+        pendingLines.clear();
+        pendingFolder = null;
+
+        // Table footer
+        xml.startElement("tr");
+        xml.addAttribute("class", "object");
+        xml.startElement("td");
+        xml.addAttribute("colspan", nodes.size() + 1);
+        xml.addText("" + lineCount + " objects compared");
+        xml.endElement();
+        xml.endElement();
+
+        xml.endElement();
+        // Tree depth is known only at the end of the report
+        renderLevelStyles();
         xml.endElement();
         xml.endElement();
 
@@ -96,13 +164,6 @@ public class CompareReportRenderer {
 
     private void renderHeader() throws IOException
     {
-        int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
-            if (line.depth > maxLevel) {
-                maxLevel = line.depth;
-            }
-        }
-        maxLevel++;
         xml.startElement("style");
         StringBuilder styles = new StringBuilder();
         styles.append("table {font-family:\"Lucida Sans Unicode\", \"Lucida Grande\", Sans-Serif;font-size:12px;text-align:left;} ");
@@ -117,134 +178,106 @@ public class CompareReportRenderer {
         styles.append("td:hover { background-color: #f2f2f2;}");
 //        styles.append(".object:first-child {border:none; } ");
 //        styles.append(".property:first-child {border:none; } ");
-        for (int i = 1; i <= maxLevel; i++) {
-            styles.append(".level").append(i).append(" td,th { text-align:left; padding-left:").append(20 * i).append("px; } ");
-        }
         xml.addText(styles.toString(), false);
         xml.endElement();
     }
 
-    private void renderBody(DBRProgressMonitor monitor) throws IOException
+    private void renderLevelStyles() throws IOException
     {
-        // Table head
-        xml.startElement("tr");
-        xml.startElement("th");
-        xml.addText("Structure");
-        xml.endElement();
-        for (DBNDatabaseNode node : report.getNodes()) {
-            xml.startElement("th");
-            xml.addText(node.getNodeFullName());
-            xml.endElement();
+        xml.startElement("style");
+        StringBuilder styles = new StringBuilder();
+        for (int i = 1; i <= maxLevel + 1; i++) {
+            styles.append(".level").append(i).append(" td,th { text-align:left; padding-left:").append(20 * i).append("px; } ");
         }
+        xml.addText(styles.toString(), false);
         xml.endElement();
+    }
 
-        // Table body
+    private void renderObject(CompareReportLine line) throws IOException
+    {
+        int objectCount = nodes.size();
         boolean showOnlyDifferences = settings.isShowOnlyDifferences();
-        int objectCount = report.getNodes().size();
-        List<CompareReportLine> reportLines = report.getReportLines();
-        int reportLinesSize = reportLines.size();
-        for (int i = 0; i < reportLinesSize; i++) {
-            monitor.worked(1);
-            CompareReportLine line = reportLines.get(i);
-            if (showOnlyDifferences && !line.hasDifference) {
-                continue;
-            }
-            boolean onlyStructure = line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
-            // Skip empty folders
-            if (onlyStructure && (i >= reportLinesSize - 1 || reportLines.get(i + 1).depth <= line.depth)) {
-                continue;
-            }
+        boolean onlyStructure = line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
 
-            xml.startElement("tr");
-            xml.addAttribute("class", "object level" + line.depth);
-            xml.addAttribute("valign", "top");
+        xml.startElement("tr");
+        xml.addAttribute("class", "object level" + line.depth);
+        xml.addAttribute("valign", "top");
+        xml.startElement("td");
+        xml.addText(line.structure.getNodeType());
+        xml.endElement();
+        if (onlyStructure) {
             xml.startElement("td");
-            xml.addText(line.structure.getNodeType());
+            xml.addAttribute("colspan", line.nodes.length);
+            xml.addText("&nbsp;", false);
             xml.endElement();
-            if (onlyStructure) {
+        } else {
+            for (int k = 0; k < objectCount; k++) {
                 xml.startElement("td");
-                xml.addAttribute("colspan", line.nodes.length);
-                xml.addText("&nbsp;", false);
-                xml.endElement();
-            } else {
-                for (int k = 0; k < objectCount; k++) {
-                    xml.startElement("td");
-                    if (line.nodes[k] == null) {
-                        xml.addAttribute("class", "missing");
-                        xml.addText("N/A");
-                    } else {
-                        xml.addText(line.nodes[k].getName());
-                    }
-                    xml.endElement();
+                if (line.nodes[k] == null) {
+                    xml.addAttribute("class", "missing");
+                    xml.addText("N/A");
+                } else {
+                    xml.addText(line.nodes[k].getName());
                 }
+                xml.endElement();
             }
+        }
 
-            xml.endElement();
+        xml.endElement();
 
-            if (line.properties != null) {
-                for (CompareReportProperty reportProperty : line.properties) {
-                    boolean differs = false;
-                    Object firstValue = null;
-                    boolean hasValue = false;
-                    for (int k = 0; k < reportProperty.values.length; k++) {
-                        if (line.nodes[k] == null) {
-                            // Ignore properties of missing objects
-                            continue;
-                        }
-                        Object value = reportProperty.values[k];
-                        if (value != null) {
-                            hasValue = true;
-                            if (firstValue == null) {
-                                firstValue = value;
-                            }
-                        }
-                        if (!CompareUtils.equalPropertyValues(value, firstValue)) {
-                            differs = true;
-                            break;
-                        }
-                    }
-                    if (!hasValue) {
-                        // Skip[ properties when nobody have it's value
-                        continue;
-                    }
-                    if (showOnlyDifferences && !differs) {
+        if (line.properties != null) {
+            for (CompareReportProperty reportProperty : line.properties) {
+                boolean differs = false;
+                Object firstValue = null;
+                boolean hasValue = false;
+                for (int k = 0; k < reportProperty.values.length; k++) {
+                    if (line.nodes[k] == null) {
+                        // Ignore properties of missing objects
                         continue;
                     }
-                    xml.startElement("tr");
-                    xml.addAttribute("class", "property level" + (line.depth + 1) + (differs ? " differs" : ""));
-                    xml.addAttribute("valign", "top");
-                    xml.startElement("td");
-                    xml.addText(reportProperty.property.getDisplayName());
-                    xml.endElement();
-
-                    for (int k = 0; k < objectCount; k++) {
-                        xml.startElement("td");
-                        String stringValue = "";
-                        if (reportProperty.values[k] != null) {
-                            stringValue = reportProperty.values[k].toString();
-                        }
-                        if (CommonUtils.isEmpty(stringValue)) {
-                            xml.addText("&nbsp;", false);
-                        } else {
-                            xml.addText(stringValue);
+                    Object value = reportProperty.values[k];
+                    if (value != null) {
+                        hasValue = true;
+                        if (firstValue == null) {
+                            firstValue = value;
                         }
+                    }
+                    if (!CompareUtils.equalPropertyValues(value, firstValue)) {
+                        differs = true;
+                        break;
+                    }
+                }
+                if (!hasValue) {
+                    // Skip[ properties when nobody have it's value
+                    continue;
+                }
+                if (showOnlyDifferences && !differs) {
+                    continue;
+                }
+                xml.startElement("tr");
+                xml.addAttribute("class", "property level" + (line.depth + 1) + (differs ? " differs" : ""));
+                xml.addAttribute("valign", "top");
+                xml.startElement("td");
+                xml.addText(reportProperty.property.getDisplayName());
+                xml.endElement();
 
-                        xml.endElement();
+                for (int k = 0; k < objectCount; k++) {
+                    xml.startElement("td");
+                    String stringValue = "";
+                    if (reportProperty.values[k] != null) {
+                        stringValue = reportProperty.values[k].toString();
+                    }
+                    if (CommonUtils.isEmpty(stringValue)) {
+                        xml.addText("&nbsp;", false);
+                    } else {
+                        xml.addText(stringValue);
                     }
 
                     xml.endElement();
                 }
+
+                xml.endElement();
             }
         }
-
-        // Table footer
-        xml.startElement("tr");
-        xml.addAttribute("class", "object");
-        xml.startElement("td");
-        xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
-        xml.endElement();
-        xml.endElement();
-
     }
 }
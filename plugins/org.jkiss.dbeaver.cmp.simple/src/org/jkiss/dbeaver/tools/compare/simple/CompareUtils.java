@@ -16,10 +16,16 @@
  */
 package org.jkiss.dbeaver.tools.compare.simple;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 /**
  * Compare utils
  */
@@ -48,4 +54,66 @@ public class CompareUtils {
         }
     }
 
+    /**
+     * Groups children of compared objects by name. Children with the same name are matched in the order
+     * they appear, i.e. the second child named X of one object is matched with the second child named X of another.
+     *
+     * @param childLists children of each compared object, null elements stand for objects without children
+     * @param nameGetter returns child name
+     * @param isCompared checks whether child must be compared. Other children are still matched with compared ones.
+     * @return groups of matched children ordered by the first appearance of their name.
+     * Each group contains at most one child of each object, in the order of objects.
+     */
+    @NotNull
+    public static <T> List<List<T>> matchChildrenByName(
+        @NotNull List<T[]> childLists,
+        @NotNull Function<T, String> nameGetter,
+        @NotNull Predicate<T> isCompared)
+    {
+        Set<String> comparedNames = new LinkedHashSet<>();
+        List<Map<String, List<T>>> childIndexes = new ArrayList<>(childLists.size());
+        for (T[] childList : childLists) {
+            Map<String, List<T>> childIndex = new HashMap<>();
+            childIndexes.add(childIndex);
+            if (childList == null) {
+                continue;
+            }
+            for (T child : childList) {
+                String childName = nameGetter.apply(child);
+                childIndex.computeIfAbsent(childName, name -> new ArrayList<>(1)).add(child);
+                if (isCompared.test(child)) {
+                    comparedNames.add(childName);
+                }
+            }
+        }
+
+        List<List<T>> groups = new ArrayList<>();
+        for (String childName : comparedNames) {
+            for (int occurrence = 0; ; occurrence++) {
+                List<T> group = new ArrayList<>(childLists.size());
+                boolean hasComparedChild = false;
+                for (Map<String, List<T>> childIndex : childIndexes) {
+                    T child = getOccurrence(childIndex.get(childName), occurrence);
+                    if (child != null) {
+                        group.add(child);
+                        hasComparedChild |= isCompared.test(child);
+                    }
+                }
+                if (group.isEmpty()) {
+                    break;
+                }
+                if (hasComparedChild) {
+                    groups.add(group);
+                }
+            }
+        }
+        return groups;
+    }
+
+    @Nullable
+    private static <T> T getOccurrence(@Nullable List<T> children, int occurrence)
+    {
+        return children == null || occurrence >= children.size() ? null : children.get(occurrence);
+    }
+
 }
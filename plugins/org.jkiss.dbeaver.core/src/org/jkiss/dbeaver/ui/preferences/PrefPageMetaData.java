@@ -49,6 +49,7 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
     private Button addExtraDDLInfo;
+    private Button snapshotCacheCheck;
 
     public PrefPageMetaData()
     {
@@ -63,7 +64,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_USE_SNAPSHOT_CACHE)
             ;
     }
 
@@ -107,6 +109,7 @@ public class PrefPageMetaData extends TargetPrefPage
                 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            snapshotCacheCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_metadata_snapshot_cache, CoreMessages.pref_page_database_general_checkbox_metadata_snapshot_cache_tip, false, 1);
         }
 
         return composite;
@@ -123,6 +126,7 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             addExtraDDLInfo.setSelection(store.getBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            snapshotCacheCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SNAPSHOT_CACHE));
 
         } catch (Exception e) {
             log.warn(e);
@@ -141,6 +145,7 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_EXTRA_DDL_INFO, addExtraDDLInfo.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_USE_SNAPSHOT_CACHE, snapshotCacheCheck.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -156,6 +161,7 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
         store.setToDefault(ModelPreferences.META_EXTRA_DDL_INFO);
+        store.setToDefault(ModelPreferences.META_USE_SNAPSHOT_CACHE);
     }
 
     @Override
@@ -166,6 +172,7 @@ public class PrefPageMetaData extends TargetPrefPage
         caseSensitiveNamesCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_CASE_SENSITIVE));
         addExtraDDLInfo.setSelection(store.getDefaultBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
         serverSideFiltersCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+        snapshotCacheCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SNAPSHOT_CACHE));
         super.performDefaults();
     }
 
@@ -70,6 +70,8 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
     private Button ignoreErrorsCheck;
     private Button dumpQueryCheck;
     private Button autoCommitCheck;
+    private Button streamScriptCheck;
+    private Button batchDmlCheck;
     private TableViewer scriptsViewer;
     private TableViewer dataSourceViewer;
 
@@ -334,6 +336,18 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
             ignoreErrorsCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_ignore_errors, "", dtSettings.isIgnoreErrors(), 1);
             dumpQueryCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_dump_results, "", dtSettings.isDumpQueryResultsToLog(), 1);
             autoCommitCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_auto_commit, "", dtSettings.isAutoCommit(), 1);
+            streamScriptCheck = UIUtils.createCheckbox(
+                settingsGroup,
+                DTMessages.sql_script_task_page_settings_option_stream_script,
+                DTMessages.sql_script_task_page_settings_option_stream_script_tip,
+                dtSettings.isStreamScript(),
+                1);
+            batchDmlCheck = UIUtils.createCheckbox(
+                settingsGroup,
+                DTMessages.sql_script_task_page_settings_option_batch_dml,
+                DTMessages.sql_script_task_page_settings_option_batch_dml_tip,
+                dtSettings.isBatchDml(),
+                1);
         }
 
         getWizard().createVariablesEditButton(composite);
@@ -501,6 +515,12 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
         if (autoCommitCheck != null) {
             settings.setAutoCommit(autoCommitCheck.getSelection());
         }
+        if (streamScriptCheck != null) {
+            settings.setStreamScript(streamScriptCheck.getSelection());
+        }
+        if (batchDmlCheck != null) {
+            settings.setBatchDml(batchDmlCheck.getSelection());
+        }
     }
 
 }
\ No newline at end of file
@@ -73,6 +73,7 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
     private Button useBatchCheck;
     private Button ignoreDuplicateRows;
     private Button useBulkLoadCheck;
+    private Button usePipelinedTransferCheck;
     private List<SQLDialectInsertReplaceMethod> availableInsertMethodsDescriptors;
     private final Map<String, EventProcessorComposite<?>> processors = new HashMap<>();
 
@@ -347,6 +348,19 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                     onDuplicateKeyInsertMethods.setEnabled(!checkSelection);
                 }
             });
+
+            usePipelinedTransferCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_use_pipelined_transfer_label,
+                DTUIMessages.database_consumer_wizard_use_pipelined_transfer_description,
+                settings.isUsePipelinedTransfer(),
+                4);
+            usePipelinedTransferCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUsePipelinedTransfer(usePipelinedTransferCheck.getSelection());
+                }
+            });
         }
 
         setControl(composite);
@@ -48,6 +48,8 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
 
     private boolean ignoreErrors;
     private boolean dumpQueryResultsToLog;
+    private boolean streamScript;
+    private boolean batchDml;
 
     public List<String> getScriptFiles() {
         return scriptFiles;
@@ -81,6 +83,28 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         this.dumpQueryResultsToLog = dumpQueryResultsToLog;
     }
 
+    /**
+     * Execute script statements while the script is being read instead of parsing the whole script first
+     */
+    public boolean isStreamScript() {
+        return streamScript;
+    }
+
+    public void setStreamScript(boolean streamScript) {
+        this.streamScript = streamScript;
+    }
+
+    /**
+     * Execute consecutive DML statements in batches
+     */
+    public boolean isBatchDml() {
+        return batchDml;
+    }
+
+    public void setBatchDml(boolean batchDml) {
+        this.batchDml = batchDml;
+    }
+
     public boolean isAutoCommit() {
         return autoCommit;
     }
@@ -136,6 +160,8 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         dumpQueryResultsToLog = JSONUtils.getBoolean(config, "dumpQueryResultsToLog");
 
         autoCommit = JSONUtils.getBoolean(config, "autoCommit");
+        streamScript = JSONUtils.getBoolean(config, "streamScript");
+        batchDml = JSONUtils.getBoolean(config, "batchDml");
     }
 
     public void saveConfiguration(Map<String, Object> config) {
@@ -153,5 +179,7 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         config.put("dumpQueryResultsToLog", dumpQueryResultsToLog);
 
         config.put("autoCommit", autoCommit);
+        config.put("streamScript", streamScript);
+        config.put("batchDml", batchDml);
     }
 }
@@ -110,10 +110,15 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
-            producer.transferData(monitor, consumer, processor, nodeSettings, task);
+            DataTransferPipelinedConsumer pipelinedConsumer = transferPipe.isPipelined() ?
+                new DataTransferPipelinedConsumer(consumer, producer.getDatabaseObject(), DataTransferPipe.PIPELINE_BUFFER_SIZE) : null;
+            producer.transferData(monitor, pipelinedConsumer != null ? pipelinedConsumer : consumer, processor, nodeSettings, task);
 
             totalStatistics.accumulate(producer.getStatistics());
             totalStatistics.accumulate(consumer.getStatistics());
+            if (pipelinedConsumer != null) {
+                pipelinedConsumer.addPipelineStatistics(totalStatistics);
+            }
 
             consumer.finishTransfer(monitor, false);
             return true;
@@ -17,6 +17,9 @@
 package org.jkiss.dbeaver.tools.transfer;
 
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseConsumerSettings;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 
 import java.util.Date;
@@ -26,8 +29,11 @@ import java.util.Date;
  */
 public class DataTransferPipe {
 
+    public static final int PIPELINE_BUFFER_SIZE = 1000;
+
     private IDataTransferProducer producer;
     private IDataTransferConsumer consumer;
+    private boolean pipelined;
 
     public DataTransferPipe(IDataTransferProducer producer, IDataTransferConsumer consumer)
     {
@@ -55,6 +61,13 @@ public class DataTransferPipe {
         this.consumer = consumer;
     }
 
+    /**
+     * Pipelined pipe reads source data and loads it into the target in separate threads
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
     public void initPipe(DataTransferSettings settings, int pipeIndex, int totalPipes) throws DBException {
         if (consumer == null || producer == null) {
             throw new DBException("Empty pipe");
@@ -79,5 +92,23 @@ public class DataTransferPipe {
                 settings.getProcessorProperties(),
             producer == null ? null : producer.getProject());
 
+        pipelined = consumerSettings instanceof DatabaseConsumerSettings dbSettings &&
+            dbSettings.isUsePipelinedTransfer() &&
+            canLoadInParallel(dbSettings);
+    }
+
+    private boolean canLoadInParallel(DatabaseConsumerSettings consumerSettings) {
+        if (!(producer instanceof DatabaseTransferProducer)) {
+            // Stream producers configure consumer directly
+            return false;
+        }
+        DBPDataSourceContainer sourceContainer = producer.getDataSourceContainer();
+        DBPDataSourceContainer targetContainer = consumer.getDataSourceContainer();
+        if (sourceContainer == null || targetContainer == null) {
+            return false;
+        }
+        // Reader and loader must not share the same connection
+        return sourceContainer != targetContainer ||
+            (consumerSettings.isOpenNewConnections() && !targetContainer.getDriver().isEmbedded());
     }
 }
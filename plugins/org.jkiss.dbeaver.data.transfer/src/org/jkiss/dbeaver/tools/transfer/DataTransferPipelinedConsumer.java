@@ -0,0 +1,391 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingCustom;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.task.DBTTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumer wrapper which reads source rows and loads them into the target in different threads.
+ * <p>
+ * Fetch thread copies row values into {@link DataTransferRowBuffer} and continues with the next row.
+ * Loader thread takes rows from the buffer and passes them to the target consumer
+ * (value conversion, transformers, batch inserts and commits).
+ * Loader uses its own source session, so the fetch session is never used concurrently.
+ * Source execution context passed to {@link #fetchStart} must stay open until {@link #fetchEnd} or {@link #close}.
+ * <p>
+ * Only plain values are pipelined. Result sets with LOBs and complex values (which may depend on the source
+ * cursor state) are passed to the target consumer directly.
+ */
+class DataTransferPipelinedConsumer implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+
+    private static final Log log = Log.getLog(DataTransferPipelinedConsumer.class);
+
+    private final IDataTransferConsumer consumer;
+    private final DBSObject sourceObject;
+    private final int bufferSize;
+
+    private DataTransferRowBuffer rowBuffer;
+    private DBDAttributeBinding[] rowBindings;
+    private Thread loaderThread;
+    private volatile Throwable loaderError;
+
+    private long writerWaitTime;
+    private long readerWaitTime;
+    private long rowsPassed;
+
+    DataTransferPipelinedConsumer(@NotNull IDataTransferConsumer<?, ?> consumer, @Nullable DBSObject sourceObject, int bufferSize) {
+        this.consumer = consumer;
+        this.sourceObject = sourceObject;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Adds pipeline wait times to the transfer statistics.
+     * Time spent by reader waiting for the loader shows that the target is a bottleneck and vice versa.
+     */
+    void addPipelineStatistics(@NotNull DBCStatistics statistics) {
+        if (rowsPassed == 0) {
+            return;
+        }
+        statistics.addInfo("Pipelined rows", rowsPassed);
+        statistics.addInfo("Source wait for target (ms)", writerWaitTime);
+        statistics.addInfo("Target wait for source (ms)", readerWaitTime);
+    }
+
+    ////////////////////////////////////////////////
+    // Data receiver
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        consumer.fetchStart(session, resultSet, offset, maxRows);
+
+        rowBindings = getPipelineBindings(session, resultSet);
+        if (rowBindings == null) {
+            log.debug("Result set can't be pipelined. Rows are passed to consumer directly.");
+            return;
+        }
+        int rowSize = 0;
+        for (DBDAttributeBinding binding : rowBindings) {
+            rowSize = Math.max(rowSize, binding.getOrdinalPosition() + 1);
+        }
+        rowBuffer = new DataTransferRowBuffer(bufferSize, rowSize);
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBCExecutionContext sourceContext = session.getExecutionContext();
+        DBCResultSetMetaData meta = resultSet.getMeta();
+        DBCStatement sourceStatement = resultSet.getSourceStatement();
+        loaderError = null;
+        loaderThread = new Thread(
+            () -> loadRows(monitor, sourceContext, meta, sourceStatement),
+            "Data transfer loader (" + consumer.getObjectName() + ")");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (rowBuffer == null) {
+            consumer.fetchRow(session, resultSet);
+            return;
+        }
+        Object[] row = rowBuffer.acquire();
+        for (DBDAttributeBinding binding : rowBindings) {
+            row[binding.getOrdinalPosition()] = binding.getValueHandler().fetchValueObject(
+                session, resultSet, binding, binding.getOrdinalPosition());
+        }
+        rowBuffer.publish();
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (rowBuffer != null) {
+            rowBuffer.finish();
+            stopLoader();
+        }
+        consumer.fetchEnd(session, resultSet);
+    }
+
+    @Override
+    public void close() {
+        if (rowBuffer != null) {
+            // Fetch was interrupted
+            rowBuffer.abort(null);
+            try {
+                stopLoader();
+            } catch (DBCException e) {
+                log.debug(e);
+            }
+        }
+        consumer.close();
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics getStatistics() {
+        return consumer.getStatistics();
+    }
+
+    private void loadRows(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext sourceContext,
+        @NotNull DBCResultSetMetaData meta,
+        @Nullable DBCStatement sourceStatement
+    ) {
+        try (DBCSession session = sourceContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Load pipelined data")) {
+            session.enableLogging(false);
+            PipelineResultSet rowResultSet = new PipelineResultSet(session, meta, sourceStatement);
+            for (;;) {
+                Object[] row = rowBuffer.take();
+                if (row == null) {
+                    break;
+                }
+                try {
+                    rowResultSet.setRow(row);
+                    consumer.fetchRow(session, rowResultSet);
+                } finally {
+                    rowBuffer.release();
+                }
+            }
+        } catch (Throwable e) {
+            loaderError = e;
+            rowBuffer.abort(e);
+        }
+    }
+
+    private void stopLoader() throws DBCException {
+        DataTransferRowBuffer buffer = rowBuffer;
+        rowBuffer = null;
+        try {
+            loaderThread.join();
+        } catch (InterruptedException e) {
+            buffer.abort(e);
+            Thread.currentThread().interrupt();
+        } finally {
+            loaderThread = null;
+            writerWaitTime += buffer.getWriterWaitTime();
+            readerWaitTime += buffer.getReaderWaitTime();
+            rowsPassed += buffer.getRowsPassed();
+            log.debug("Pipelined " + buffer.getRowsPassed() + " row(s) into " + consumer.getObjectName() +
+                ". Source wait time: " + buffer.getWriterWaitTime() + "ms, target wait time: " + buffer.getReaderWaitTime() + "ms");
+        }
+        Throwable error = loaderError;
+        if (error instanceof DBCException) {
+            throw (DBCException) error;
+        } else if (error != null) {
+            throw new DBCException("Error loading data into " + consumer.getObjectName(), error);
+        }
+    }
+
+    /**
+     * Returns bindings of values which can be fetched in advance or null if result set can't be pipelined.
+     */
+    @Nullable
+    private DBDAttributeBinding[] getPipelineBindings(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (!(sourceObject instanceof DBSDataContainer) || session.getDataSource().getInfo().isDynamicMetadata()) {
+            return null;
+        }
+        for (DBCAttributeMetaData attribute : resultSet.getMeta().getAttributes()) {
+            if (!isPlainValue(attribute.getDataKind())) {
+                return null;
+            }
+        }
+        List<DBDAttributeBinding> bindings = new ArrayList<>();
+        for (DBDAttributeBinding binding : DBUtils.makeLeafAttributeBindings(session, (DBSDataContainer) sourceObject, resultSet)) {
+            if (binding instanceof DBDAttributeBindingCustom) {
+                // Evaluated by consumer
+                continue;
+            }
+            if (binding.getParentObject() != null || !isPlainValue(binding.getDataKind())) {
+                return null;
+            }
+            bindings.add(binding);
+        }
+        return bindings.isEmpty() ? null : bindings.toArray(new DBDAttributeBinding[0]);
+    }
+
+    private static boolean isPlainValue(@NotNull DBPDataKind dataKind) {
+        return switch (dataKind) {
+            case BOOLEAN, NUMERIC, STRING, DATETIME, BINARY -> true;
+            default -> false;
+        };
+    }
+
+    ////////////////////////////////////////////////
+    // Transfer node
+
+    @Override
+    public void initTransfer(
+        @NotNull DBSObject sourceObject,
+        @Nullable IDataTransferSettings settings,
+        @NotNull TransferParameters parameters,
+        @Nullable IDataTransferProcessor processor,
+        @Nullable Map<String, Object> processorProperties,
+        @Nullable DBPProject project)
+    {
+        consumer.initTransfer(sourceObject, settings, parameters, processor, processorProperties, project);
+    }
+
+    @Override
+    public void startTransfer(DBRProgressMonitor monitor) throws DBException {
+        consumer.startTransfer(monitor);
+    }
+
+    @Override
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+        consumer.finishTransfer(monitor, last);
+    }
+
+    @Override
+    public void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Exception exception, @Nullable DBTTask task, boolean last) {
+        consumer.finishTransfer(monitor, exception, task, last);
+    }
+
+    @Nullable
+    @Override
+    public Object getTargetObject() {
+        return consumer.getTargetObject();
+    }
+
+    @Nullable
+    @Override
+    public Object getTargetObjectContainer() {
+        return consumer.getTargetObjectContainer();
+    }
+
+    @Override
+    public void setRuntimeParameters(@Nullable Object runtimeParameters) {
+        consumer.setRuntimeParameters(runtimeParameters);
+    }
+
+    @Override
+    public DBSObject getDatabaseObject() {
+        return consumer.getDatabaseObject();
+    }
+
+    @Override
+    public DBPDataSourceContainer getDataSourceContainer() {
+        return consumer.getDataSourceContainer();
+    }
+
+    @Override
+    public String getObjectName() {
+        return consumer.getObjectName();
+    }
+
+    @Override
+    public DBPImage getObjectIcon() {
+        return consumer.getObjectIcon();
+    }
+
+    @Override
+    public String getObjectContainerName() {
+        return consumer.getObjectContainerName();
+    }
+
+    @Override
+    public DBPImage getObjectContainerIcon() {
+        return consumer.getObjectContainerIcon();
+    }
+
+    @Override
+    public boolean isConfigurationComplete() {
+        return consumer.isConfigurationComplete();
+    }
+
+    @Nullable
+    @Override
+    public DBPProject getProject() {
+        return consumer.getProject();
+    }
+
+    /**
+     * Result set over the buffered row. Value handlers read values with getAttributeValue.
+     */
+    private static class PipelineResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+        private final DBCResultSetMetaData meta;
+        private Object[] row;
+
+        PipelineResultSet(@NotNull DBCSession session, @NotNull DBCResultSetMetaData meta, @Nullable DBCStatement sourceStatement) {
+            super(session, sourceStatement);
+            this.meta = meta;
+        }
+
+        void setRow(@NotNull Object[] row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object getAttributeValue(int index) throws DBCException {
+            if (index < 0 || index >= row.length) {
+                throw new DBCException("Attribute index out of range (" + index + "/" + row.length + ")");
+            }
+            return row[index];
+        }
+
+        @Override
+        public Object getAttributeValue(String name) throws DBCException {
+            List<? extends DBCAttributeMetaData> attributes = meta.getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (attributes.get(i).getName().equals(name)) {
+                    return getAttributeValue(i);
+                }
+            }
+            throw new DBCException("Bad attribute name: " + name);
+        }
+
+        @Override
+        public boolean nextRow() {
+            return false;
+        }
+
+        @Override
+        public boolean moveTo(int position) {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public DBCResultSetMetaData getMeta() {
+            return meta;
+        }
+
+        @Override
+        public void close() {
+            row = null;
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer of row arrays shared by a single writer (fetch thread) and a single reader (loader thread).
+ * <p>
+ * Row arrays are allocated once and reused: writer fills the array returned by {@link #acquire()} and
+ * makes it visible with {@link #publish()}, reader gets it with {@link #take()} and returns it with {@link #release()}.
+ * <p>
+ * Buffer also measures time both sides spent waiting for each other. If writer waits more then the target is slower,
+ * if reader waits more then the source is slower.
+ */
+public class DataTransferRowBuffer {
+
+    private static final long WAIT_PERIOD = 100;
+
+    private final Object[][] rows;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private int head;
+    private int tail;
+    private int count;
+    private boolean finished;
+    private boolean aborted;
+    private Throwable abortReason;
+
+    private long writerWaitTime;
+    private long readerWaitTime;
+    private long rowsPassed;
+
+    public DataTransferRowBuffer(int capacity, int rowSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Bad buffer capacity: " + capacity);
+        }
+        this.rows = new Object[capacity][rowSize];
+    }
+
+    public int getCapacity() {
+        return rows.length;
+    }
+
+    /**
+     * Returns next free row array. Waits if buffer is full.
+     * Array may contain values of some previous row.
+     */
+    @NotNull
+    public Object[] acquire() throws DBCException {
+        lock.lock();
+        try {
+            if (count == rows.length && !aborted) {
+                long waitStart = System.nanoTime();
+                try {
+                    while (count == rows.length && !aborted) {
+                        notFull.await(WAIT_PERIOD, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DBCException("Row buffer write interrupted", e);
+                } finally {
+                    writerWaitTime += System.nanoTime() - waitStart;
+                }
+            }
+            if (aborted) {
+                throw new DBCException("Row buffer was aborted", abortReason);
+            }
+            if (finished) {
+                throw new IllegalStateException("Row buffer is finished");
+            }
+            return rows[tail];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes row returned by the last {@link #acquire()} available to reader.
+     */
+    public void publish() {
+        lock.lock();
+        try {
+            tail = (tail + 1) % rows.length;
+            count++;
+            rowsPassed++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns next published row. Waits if buffer is empty.
+     * Returns null if buffer is finished and all rows were read or if buffer was aborted.
+     */
+    @Nullable
+    public Object[] take() throws InterruptedException {
+        lock.lock();
+        try {
+            if (count == 0 && !finished && !aborted) {
+                long waitStart = System.nanoTime();
+                try {
+                    while (count == 0 && !finished && !aborted) {
+                        notEmpty.await(WAIT_PERIOD, TimeUnit.MILLISECONDS);
+                    }
+                } finally {
+                    readerWaitTime += System.nanoTime() - waitStart;
+                }
+            }
+            if (aborted || count == 0) {
+                return null;
+            }
+            return rows[head];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns row obtained by the last {@link #take()} back to the buffer.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            head = (head + 1) % rows.length;
+            count--;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * No more rows will be published. Reader gets remaining rows and then null.
+     */
+    public void finish() {
+        lock.lock();
+        try {
+            finished = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops both sides. Writer gets an error, reader gets null.
+     */
+    public void abort(@Nullable Throwable reason) {
+        lock.lock();
+        try {
+            if (!aborted) {
+                aborted = true;
+                abortReason = reason;
+            }
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isAborted() {
+        lock.lock();
+        try {
+            return aborted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Time (in ms) writer spent waiting for free rows (i.e. waiting for the reader)
+     */
+    public long getWriterWaitTime() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(writerWaitTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Time (in ms) reader spent waiting for published rows (i.e. waiting for the writer)
+     */
+    public long getReaderWaitTime() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(readerWaitTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRowsPassed() {
+        lock.lock();
+        try {
+            return rowsPassed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -293,7 +293,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                         bulkLoadManager = bulkLoader.createBulkLoad(
                             targetSession, targetObject, attributes, executionSource, settings.getCommitAfterRows(), options);
                     } catch (Exception e) {
-                        throw new DBCException("Error creating bulk loader", e);
+                        // Loader may be unavailable due to driver or server configuration
+                        log.warn("Error creating bulk loader, regular inserts will be used", e);
+                        bulkLoadManager = null;
                     }
                 }
             }
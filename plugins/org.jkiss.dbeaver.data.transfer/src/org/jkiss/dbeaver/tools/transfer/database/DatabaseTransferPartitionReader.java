@@ -0,0 +1,351 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerPoolUtils;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Reads entity data in parallel by ranges of a numeric unique key.
+ * Each range is read in its own isolated execution context. All rows go into the same consumer.
+ * Order of rows is not preserved.
+ */
+class DatabaseTransferPartitionReader {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitionReader.class);
+
+    private static final int READER_THREADS = 16;
+    // Shared by all transfer tasks. Partitions above the limit wait for a free reader
+    private static final ExecutorService READER_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Data transfer partition reader", READER_THREADS);
+
+    private final DBSDataContainer dataContainer;
+    private final DBSEntityAttribute keyAttribute;
+    private final List<String> partitionConditions;
+    private final List<WorkerProgressMonitor> partitionMonitors = new ArrayList<>();
+    private final DBCStatistics statistics = new DBCStatistics();
+
+    private DatabaseTransferPartitionReader(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull List<String> partitionConditions
+    ) {
+        this.dataContainer = dataContainer;
+        this.keyAttribute = keyAttribute;
+        this.partitionConditions = partitionConditions;
+    }
+
+    /**
+     * Creates partition reader for the specified data container.
+     * Returns null if container can't be partitioned (not a table, no numeric unique key, empty table, etc.).
+     */
+    @Nullable
+    static DatabaseTransferPartitionReader create(
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionSource source,
+        @NotNull DBSDataContainer dataContainer,
+        int partitionCount
+    ) throws DBException {
+        if (partitionCount < 2 || !(dataContainer instanceof DBSEntity)) {
+            return null;
+        }
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        if (dataSource == null || dataSource.getInfo().isDynamicMetadata() ||
+            !dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_FILTER)) {
+            return null;
+        }
+        DBSEntity entity = (DBSEntity) dataContainer;
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(session.getProgressMonitor(), entity);
+        if (identifier.size() != 1 || identifier.get(0).getDataKind() != DBPDataKind.NUMERIC) {
+            log.debug("Table '" + entity.getName() + "' doesn't have single numeric unique key. Partitioned read is not possible.");
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = identifier.get(0);
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+
+        BigInteger minValue, maxValue;
+        String query = "SELECT MIN(" + keyName + "),MAX(" + keyName + ") FROM " + DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            dbStat.setStatementSource(source);
+            if (!dbStat.executeStatement()) {
+                return null;
+            }
+            DBCResultSet dbResult = dbStat.openResultSet();
+            if (dbResult == null) {
+                return null;
+            }
+            try {
+                if (!dbResult.nextRow()) {
+                    return null;
+                }
+                minValue = toBigInteger(dbResult.getAttributeValue(0));
+                maxValue = toBigInteger(dbResult.getAttributeValue(1));
+            } finally {
+                dbResult.close();
+            }
+        }
+        if (minValue == null || maxValue == null) {
+            // Empty table or non-integer key
+            return null;
+        }
+
+        List<String> conditions = makePartitionConditions(keyName, minValue, maxValue, partitionCount);
+        if (conditions.size() < 2) {
+            return null;
+        }
+        if (!keyAttribute.isRequired()) {
+            conditions.set(0, "(" + conditions.get(0) + ") OR " + keyName + " IS NULL");
+        }
+        return new DatabaseTransferPartitionReader(dataContainer, keyAttribute, conditions);
+    }
+
+    @NotNull
+    static List<String> makePartitionConditions(@NotNull String keyName, @NotNull BigInteger minValue, @NotNull BigInteger maxValue, int partitionCount) {
+        BigInteger range = maxValue.subtract(minValue).add(BigInteger.ONE);
+        if (range.compareTo(BigInteger.valueOf(partitionCount)) < 0) {
+            partitionCount = range.intValue();
+        }
+        List<String> conditions = new ArrayList<>(partitionCount);
+        if (partitionCount < 2) {
+            conditions.add(keyName + " IS NOT NULL");
+            return conditions;
+        }
+        BigInteger step = range.divide(BigInteger.valueOf(partitionCount));
+        BigInteger lowerBound = null;
+        for (int i = 1; i <= partitionCount; i++) {
+            BigInteger upperBound = i == partitionCount ? null : minValue.add(step.multiply(BigInteger.valueOf(i)));
+            if (lowerBound == null) {
+                conditions.add(keyName + " < " + upperBound);
+            } else if (upperBound == null) {
+                conditions.add(keyName + " >= " + lowerBound);
+            } else {
+                conditions.add(keyName + " >= " + lowerBound + " AND " + keyName + " < " + upperBound);
+            }
+            lowerBound = upperBound;
+        }
+        return conditions;
+    }
+
+    @Nullable
+    private static BigInteger toBigInteger(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value instanceof BigInteger) {
+                return (BigInteger) value;
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return BigInteger.valueOf(((Number) value).longValue());
+            }
+            return new BigDecimal(value.toString()).toBigIntegerExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    int getPartitionCount() {
+        return partitionConditions.size();
+    }
+
+    @NotNull
+    DBSEntityAttribute getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    /**
+     * Reads all partitions in parallel. Each partition is read in a separate isolated context.
+     * Consumer receives a single fetchStart/fetchEnd pair, rows are passed to it sequentially.
+     */
+    @NotNull
+    DBCStatistics readPartitions(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer<?, ?> consumer,
+        @Nullable DBDDataFilter dataFilter,
+        long flags,
+        int fetchSize,
+        boolean forceDataReadTransactions,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema
+    ) throws DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBCExecutionContext baseContext = session.getExecutionContext();
+        PartitionDataReceiver receiver = new PartitionDataReceiver(consumer, session);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (String condition : partitionConditions) {
+                // Condition is AND-ed with the filter even if filter constraints are OR-ed
+                DBDDataFilter partitionFilter = SQLUtils.addFilterCondition(baseContext.getDataSource(), dataFilter, condition);
+
+                WorkerProgressMonitor partitionMonitor = new WorkerProgressMonitor(monitor);
+                partitionMonitors.add(partitionMonitor);
+                futures.add(READER_EXECUTOR.submit(() -> {
+                    readPartition(partitionMonitor, baseContext, consumer, receiver, partitionFilter, flags, fetchSize,
+                        forceDataReadTransactions, defaultCatalog, defaultSchema);
+                    return null;
+                }));
+            }
+            waitForPartitions(monitor, futures);
+            receiver.finish();
+        } finally {
+            // Drop partitions which didn't start yet (in case of error)
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            consumer.close();
+        }
+        return statistics;
+    }
+
+    private void readPartition(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext baseContext,
+        @NotNull IDataTransferConsumer<?, ?> consumer,
+        @NotNull PartitionDataReceiver receiver,
+        @NotNull DBDDataFilter dataFilter,
+        long flags,
+        int fetchSize,
+        boolean forceDataReadTransactions,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema
+    ) throws DBException {
+        DBPDataSource dataSource = baseContext.getDataSource();
+        DBCExecutionContext context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(
+            monitor, "Data transfer partition reader", baseContext);
+        try {
+            DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read partition data")) {
+                session.enableLogging(false);
+                if (forceDataReadTransactions) {
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null && txnManager.isSupportsTransactions()) {
+                        txnManager.setAutoCommit(monitor, false);
+                    }
+                }
+                AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, context, consumer);
+                DBCStatistics partitionStatistics = dataContainer.readData(
+                    source, session, receiver, dataFilter, -1, -1, flags, fetchSize);
+                synchronized (statistics) {
+                    statistics.accumulate(partitionStatistics);
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private void waitForPartitions(@NotNull DBRProgressMonitor monitor, @NotNull List<Future<?>> futures) throws DBException {
+        Throwable error = null;
+        for (Future<?> future : futures) {
+            try {
+                WorkerPoolUtils.waitForResult(monitor, future, partitionMonitors);
+            } catch (InterruptedException e) {
+                throw new DBCException("Partitioned read interrupted", e);
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                    // Stop other partitions
+                    WorkerProgressMonitor.cancelAll(partitionMonitors);
+                }
+            }
+        }
+        if (error instanceof DBException) {
+            throw (DBException) error;
+        } else if (error != null) {
+            throw new DBCException("Error reading partition data", error);
+        }
+    }
+
+    /**
+     * Serializes rows from all partitions into the single consumer.
+     * Consumer is started and finished with the main session, because partition sessions are closed
+     * right after their partition is read.
+     */
+    private static class PartitionDataReceiver implements DBDDataReceiver {
+        private final IDataTransferConsumer<?, ?> consumer;
+        private final DBCSession mainSession;
+        private boolean started;
+        private DBCResultSet lastResultSet;
+
+        PartitionDataReceiver(@NotNull IDataTransferConsumer<?, ?> consumer, @NotNull DBCSession mainSession) {
+            this.consumer = consumer;
+            this.mainSession = mainSession;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            synchronized (consumer) {
+                if (!started) {
+                    consumer.fetchStart(mainSession, resultSet, 0, -1);
+                    started = true;
+                }
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            synchronized (consumer) {
+                consumer.fetchRow(session, resultSet);
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            synchronized (consumer) {
+                lastResultSet = resultSet;
+            }
+        }
+
+        @Override
+        public void close() {
+            // Consumer is closed after all partitions are read
+        }
+
+        void finish() throws DBCException {
+            synchronized (consumer) {
+                if (started) {
+                    consumer.fetchEnd(mainSession, lastResultSet);
+                }
+            }
+        }
+    }
+}
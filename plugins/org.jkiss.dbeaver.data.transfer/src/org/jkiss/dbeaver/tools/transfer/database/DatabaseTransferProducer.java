@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
+import org.jkiss.dbeaver.model.sql.SQLKeysetPaginator;
 import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
 import org.jkiss.dbeaver.model.sql.SQLScriptContext;
@@ -264,17 +265,45 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         try {
                             monitor.subTask("Read data");
 
+                            DatabaseTransferPartitionReader partitionReader = null;
+                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.PARTITIONS && !selectiveExportFromUI) {
+                                partitionReader = DatabaseTransferPartitionReader.create(
+                                    session, transferSource, dataContainer, settings.getPartitionCount());
+                                if (partitionReader == null) {
+                                    log.debug("Can't split '" + dataContainer.getName() + "' into partitions. Read data in single query.");
+                                }
+                            }
+
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            if (partitionReader != null) {
+                                // Read key ranges in parallel
+                                monitor.subTask("Read data in " + partitionReader.getPartitionCount() + " partitions by " +
+                                    partitionReader.getKeyAttribute().getName());
+                                producerStatistics.accumulate(partitionReader.readPartitions(
+                                    session, consumer, dataFilter, readFlags, settings.getFetchSize(),
+                                    newConnection || forceDataReadTransactions, defaultCatalog, defaultSchema));
+                            } else if (settings.getExtractType() != DatabaseProducerSettings.ExtractType.SEGMENTS) {
                                 // Just do it in single query
                                 producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
                                 int segmentSize = settings.getSegmentSize();
+                                // Seek next segment by the unique key instead of skipping rows with offset
+                                SQLKeysetPaginator paginator = selectiveExportFromUI ? null :
+                                    SQLKeysetPaginator.create(monitor, dataContainer, dataFilter);
                                 for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    DBCStatistics statistics;
+                                    if (paginator != null) {
+                                        long segmentFlags = offset == 0 || paginator.hasPosition() ?
+                                            readFlags | DBSDataContainer.FLAG_KEYSET_PAGINATION : readFlags;
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, paginator.wrapReceiver(consumer), paginator.makeSegmentFilter(),
+                                            offset, segmentSize, segmentFlags, settings.getFetchSize());
+                                    } else {
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    }
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
@@ -0,0 +1,187 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.runtime.WorkerPoolUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZip output stream which compresses data on multiple threads.
+ * <p>
+ * Input is split into fixed-size blocks, each block is compressed as an independent gzip member
+ * on a shared worker pool. Compressed members are written to the target stream in the original order
+ * (gzip, {@link java.util.zip.GZIPInputStream} and other tools read concatenated members as one stream).
+ * <p>
+ * All writes to the target stream happen in the thread which writes to this stream,
+ * so the target doesn't need to be thread-safe.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int COMPRESS_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService COMPRESS_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Data compression worker", COMPRESS_THREADS);
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private byte[] buffer;
+    private int count;
+    private boolean blocksWritten;
+    private boolean finished;
+
+    public ParallelGzipOutputStream(@NotNull OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ParallelGzipOutputStream(@NotNull OutputStream out, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Bad block size: " + blockSize);
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+        // Enough blocks to keep all workers busy while previous results are written. Limits memory usage.
+        this.maxPendingBlocks = COMPRESS_THREADS * 2;
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int length = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes already compressed blocks.
+     * The current block is not compressed until it is full: exporters flush after every row
+     * and compressing each row as a separate member would ruin compression ratio.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeCompletedBlocks(false);
+        out.flush();
+    }
+
+    /**
+     * Compresses remaining data and writes all pending blocks without closing the target stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (count > 0 || !blocksWritten) {
+            // Empty input still must produce a valid gzip file
+            submitBlock();
+        }
+        writeCompletedBlocks(true);
+        finished = true;
+        buffer = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            cancelPendingBlocks();
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (pendingBlocks.size() >= maxPendingBlocks) {
+            writeBlock(pendingBlocks.removeFirst());
+        }
+        final byte[] block = buffer;
+        final int length = count;
+        pendingBlocks.addLast(COMPRESS_EXECUTOR.submit(() -> compressBlock(block, length)));
+        blocksWritten = true;
+        buffer = new byte[blockSize];
+        count = 0;
+        writeCompletedBlocks(false);
+    }
+
+    private void writeCompletedBlocks(boolean wait) throws IOException {
+        while (!pendingBlocks.isEmpty() && (wait || pendingBlocks.peekFirst().isDone())) {
+            writeBlock(pendingBlocks.removeFirst());
+        }
+    }
+
+    private void writeBlock(@NotNull Future<byte[]> block) throws IOException {
+        final byte[] data;
+        try {
+            data = block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Error compressing data block", e.getCause());
+        }
+        out.write(data);
+    }
+
+    private void cancelPendingBlocks() {
+        for (Future<byte[]> block : pendingBlocks) {
+            block.cancel(false);
+        }
+        pendingBlocks.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is already finished");
+        }
+    }
+
+    @NotNull
+    private static byte[] compressBlock(@NotNull byte[] data, int length) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(result, 64 * 1024)) {
+            gzip.write(data, 0, length);
+        }
+        return result.toByteArray();
+    }
+
+}
@@ -31,6 +31,9 @@ public class StreamDataImporterColumnInfo extends AbstractAttribute implements D
 
     private StreamEntityMapping entityMapping;
     private DBPDataKind dataKind;
+    // Data kind of the attribute this column is imported into, if known
+    @Nullable
+    private DBPDataKind targetDataKind;
 
     // Determines whether the mapping metadata,
     // such as the column name, is present or not.
@@ -105,6 +108,15 @@ public class StreamDataImporterColumnInfo extends AbstractAttribute implements D
         this.dataKind = dataKind;
     }
 
+    @Nullable
+    public DBPDataKind getTargetDataKind() {
+        return targetDataKind;
+    }
+
+    public void setTargetDataKind(@Nullable DBPDataKind targetDataKind) {
+        this.targetDataKind = targetDataKind;
+    }
+
     @Override
     public void setTypeName(String typeName) {
         this.typeName = typeName;
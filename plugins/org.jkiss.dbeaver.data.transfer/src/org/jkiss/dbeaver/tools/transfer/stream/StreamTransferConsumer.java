@@ -131,6 +131,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
+    private ParallelGzipOutputStream gzipStream;
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -508,9 +509,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         this.outputStream = this.statStream = new StatOutputStream(outputStream);
 
         if (settings.isCompressResults()) {
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                this.gzipStream = new ParallelGzipOutputStream(this.outputStream);
+                this.outputStream = gzipStream;
+            } else {
+                this.zipStream = new ZipOutputStream(this.outputStream);
+                this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.outputStream = zipStream;
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate file size
@@ -554,6 +560,16 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             zipStream = null;
         }
 
+        // Write remaining compressed blocks
+        if (gzipStream != null) {
+            try {
+                gzipStream.finish();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            gzipStream = null;
+        }
+
         if (outputStream != null) {
             try {
                 outputStream.flush();
@@ -783,7 +799,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName(suffix);
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += "." + settings.getCompressionFormat().extension;
         }
         return dir.resolve(fileName);
     }
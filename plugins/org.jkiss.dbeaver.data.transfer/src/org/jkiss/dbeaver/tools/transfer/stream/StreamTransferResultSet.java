@@ -18,22 +18,14 @@
 package org.jkiss.dbeaver.tools.transfer.stream;
 
 import org.jkiss.code.NotNull;
-import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.data.DBDValueMeta;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.local.LocalResultSetColumn;
 import org.jkiss.dbeaver.model.impl.local.LocalResultSetMeta;
-import org.jkiss.utils.CommonUtils;
 
-import java.sql.Timestamp;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoField;
-import java.time.temporal.TemporalAccessor;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -43,8 +35,6 @@ import java.util.stream.Collectors;
  */
 public class StreamTransferResultSet implements DBCResultSet {
 
-    private static final Log log = Log.getLog(StreamTransferResultSet.class);
-
     private final DBCSession session;
     private final DBCStatement statement;
     private final StreamEntityMapping entityMapping;
@@ -54,6 +44,7 @@ public class StreamTransferResultSet implements DBCResultSet {
     private final List<StreamDataImporterColumnInfo> attributeMappings;
     private DateTimeFormatter dateTimeFormat;
     private ZoneId dateTimeZoneId;
+    private StreamValueConverter[] valueConverters;
 
     public StreamTransferResultSet(DBCSession session, DBCStatement statement, StreamEntityMapping entityMapping) {
         this.session = session;
@@ -85,49 +76,53 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     @Override
     public Object getAttributeValue(int index) throws DBCException {
-        StreamDataImporterColumnInfo attr = this.attributeMappings.get(index);
-
         Object value = streamRow[index];
-        if (value != null && dateTimeFormat != null && attr.getDataKind() == DBPDataKind.DATETIME && !(value instanceof Date)) {
-            // Convert string to timestamp
-            try {
-                String strValue = CommonUtils.toString(value);
-                if (CommonUtils.isEmptyTrimmed(strValue)) {
-                    return null;
-                }
-                TemporalAccessor ta = dateTimeFormat.parse(strValue);
-                try {
-                    ZonedDateTime zdt = ZonedDateTime.from(ta);
-                    value = java.util.Date.from(zdt.toInstant());
-                } catch (Exception e) {
-                    LocalDateTime localDT;
-                    if (ta.isSupported(ChronoField.NANO_OF_SECOND)) {
-                        localDT = LocalDateTime.from(ta);
-                    } else {
-                        localDT = LocalDate.from(ta).atStartOfDay();
-                        log.debug("No time present in datetime string, defaulting to the start of the day");
-                    }
-                    if (dateTimeZoneId != null) {
-                        // Shift LocalDateTime to specified zone
-                        // https://stackoverflow.com/questions/42280454/changing-localdatetime-based-on-time-difference-in-current-time-zone-vs-eastern
-                        localDT = localDT
-                            .atZone(ZoneId.systemDefault())
-                            .withZoneSameInstant(dateTimeZoneId)
-                            .toLocalDateTime();
-                    }
-                    // We use java.sql.Timestamp.valueOf because classic date/time conversion turns "pre-historic" Gregorian
-                    // dates into incorrect SQL timestamps (in Julian calendar). E.g. 0001-01-01->0001-01-03
-                    value = Timestamp.valueOf(localDT);
-                }
-            } catch (Exception e) {
-                // Can't parse. Ignore format then
-                log.debug("Error parsing datetime string: " + e.getMessage());
+        if (value == null || value instanceof Date) {
+            return value;
+        }
+        if (valueConverters == null) {
+            valueConverters = createValueConverters();
+        }
+        StreamValueConverter converter = valueConverters[index];
+        if (converter == null) {
+            // Values may be views over the reader buffer
+            return value instanceof CharSequence ? value.toString() : value;
+        }
+        if (value instanceof CharSequence) {
+            if (attributeMappings.get(index).getDataKind() == DBPDataKind.DATETIME && isEmptyTrimmed((CharSequence) value)) {
+                return null;
             }
+            Object result = converter.convertValue((CharSequence) value);
+            return result == value ? value.toString() : result;
+        }
+        if (attributeMappings.get(index).getDataKind() == DBPDataKind.DATETIME) {
+            // Convert string presentation of other objects to timestamp
+            return converter.convertValue(value.toString());
         }
-
         return value;
     }
 
+    private static boolean isEmptyTrimmed(@NotNull CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chooses conversion of each column once. Must be called after column data kinds are adjusted to the target.
+     */
+    @NotNull
+    private StreamValueConverter[] createValueConverters() {
+        StreamValueConverter[] converters = new StreamValueConverter[attributeMappings.size()];
+        for (int i = 0; i < converters.length; i++) {
+            converters[i] = StreamValueConverter.createConverter(attributeMappings.get(i), dateTimeFormat, dateTimeZoneId);
+        }
+        return converters;
+    }
+
     @Override
     public Object getAttributeValue(String name) throws DBCException {
         return null;
@@ -181,6 +176,7 @@ public class StreamTransferResultSet implements DBCResultSet {
     public void setDateTimeFormat(DateTimeFormatter dateTimeFormat, ZoneId dateTimeZoneId) {
         this.dateTimeFormat = dateTimeFormat;
         this.dateTimeZoneId = dateTimeZoneId;
+        this.valueConverters = null;
         if (this.dateTimeFormat != null && this.dateTimeZoneId != null) {
             // Set zone to the format.
             // FIXME: it looks like a good idea but in fact iti s not. We can't convert ZonedDateTime into
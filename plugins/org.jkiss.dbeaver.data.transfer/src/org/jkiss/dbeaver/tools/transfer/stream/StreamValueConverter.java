@@ -0,0 +1,404 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+
+/**
+ * Converts string values of a stream column into typed values.
+ * <p>
+ * Converter is chosen once per column, before the first row is read, so parsing of each value
+ * follows a single path. Converters don't throw exceptions on values which can't be converted,
+ * they return the original value instead and let the consumer handle it.
+ */
+public abstract class StreamValueConverter {
+
+    private static final Log log = Log.getLog(StreamValueConverter.class);
+
+    /**
+     * Minimal epoch value treated as a timestamp (2001-09-09 in seconds).
+     * Smaller numbers are more likely dates like 20230101.
+     */
+    private static final long MIN_EPOCH_VALUE = 1_000_000_000L;
+    /**
+     * Epoch values greater than this are milliseconds (year 5138 in seconds)
+     */
+    private static final long MAX_EPOCH_SECONDS = 100_000_000_000L;
+
+    /**
+     * Converts value
+     *
+     * @return converted value or the value itself if it can't be converted
+     */
+    @Nullable
+    public abstract Object convertValue(@NotNull CharSequence value);
+
+    /**
+     * Creates converter for the column.
+     *
+     * @param column         stream column, data kind must be already adjusted to the target attribute
+     * @param dateTimeFormat user-specified timestamp format
+     * @param dateTimeZoneId user-specified timestamp zone
+     * @return converter or null if column values are passed as is
+     */
+    @Nullable
+    public static StreamValueConverter createConverter(
+        @NotNull StreamDataImporterColumnInfo column,
+        @Nullable DateTimeFormatter dateTimeFormat,
+        @Nullable ZoneId dateTimeZoneId
+    ) {
+        final DBPDataKind targetDataKind = column.getTargetDataKind();
+        switch (column.getDataKind()) {
+            case DATETIME:
+                if (dateTimeFormat == null) {
+                    return null;
+                }
+                final FixedDateTimeConverter fixedConverter = FixedDateTimeConverter.create(dateTimeFormat, dateTimeZoneId);
+                if (fixedConverter != null) {
+                    return fixedConverter;
+                }
+                return new FormatDateTimeConverter(dateTimeFormat, dateTimeZoneId);
+            case NUMERIC:
+                if (targetDataKind == DBPDataKind.NUMERIC) {
+                    return "INTEGER".equals(column.getTypeName()) ? new IntegerConverter() : new DecimalConverter();
+                }
+                if (targetDataKind == DBPDataKind.DATETIME && dateTimeFormat == null && "INTEGER".equals(column.getTypeName())) {
+                    return new EpochConverter();
+                }
+                return null;
+            case BOOLEAN:
+                return targetDataKind == DBPDataKind.BOOLEAN ? new BooleanConverter() : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses long value. Only canonical numbers (no leading zeros or plus sign) are parsed,
+     * so string presentation of the result is the same as the source text.
+     *
+     * @return parsed value or null
+     */
+    @Nullable
+    static Long parseCanonicalLong(@NotNull CharSequence value) {
+        final int length = value.length();
+        if (length == 0 || length > 19) {
+            return null;
+        }
+        final boolean negative = value.charAt(0) == '-';
+        int pos = negative ? 1 : 0;
+        if (pos == length || (value.charAt(pos) == '0' && (length > pos + 1 || negative))) {
+            return null;
+        }
+        long result = 0;
+        for (; pos < length; pos++) {
+            final int digit = value.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            result = result * 10 + digit;
+            if (result < 0) {
+                // Overflow
+                return null;
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    @NotNull
+    private static Object toTimestamp(@NotNull LocalDateTime localDT, @Nullable ZoneId dateTimeZoneId) {
+        if (dateTimeZoneId != null) {
+            // Shift LocalDateTime to specified zone
+            // https://stackoverflow.com/questions/42280454/changing-localdatetime-based-on-time-difference-in-current-time-zone-vs-eastern
+            localDT = localDT
+                .atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(dateTimeZoneId)
+                .toLocalDateTime();
+        }
+        // We use java.sql.Timestamp.valueOf because classic date/time conversion turns "pre-historic" Gregorian
+        // dates into incorrect SQL timestamps (in Julian calendar). E.g. 0001-01-01->0001-01-03
+        return Timestamp.valueOf(localDT);
+    }
+
+    static class IntegerConverter extends StreamValueConverter {
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            final Long result = parseCanonicalLong(value);
+            return result != null ? result : value;
+        }
+    }
+
+    static class DecimalConverter extends StreamValueConverter {
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            if (!isCanonicalDecimal(value)) {
+                return value;
+            }
+            final int length = value.length();
+            if (length <= 18 && value instanceof String && ((String) value).indexOf('.') < 0) {
+                return Long.parseLong((String) value);
+            }
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = value.charAt(i);
+            }
+            return new BigDecimal(chars, 0, length);
+        }
+
+        /**
+         * Checks that value is a plain decimal number which BigDecimal prints exactly the same way
+         */
+        private static boolean isCanonicalDecimal(@NotNull CharSequence value) {
+            final int length = value.length();
+            final boolean negative = length > 0 && value.charAt(0) == '-';
+            final int intStart = negative ? 1 : 0;
+            int intDigits = 0, fractionDigits = 0, fractionLeadingZeros = 0;
+            boolean point = false, nonZero = false;
+            for (int pos = intStart; pos < length; pos++) {
+                final char c = value.charAt(pos);
+                if (c == '.') {
+                    if (point) {
+                        return false;
+                    }
+                    point = true;
+                } else if (c >= '0' && c <= '9') {
+                    if (point) {
+                        if (c == '0' && !nonZero) {
+                            fractionLeadingZeros++;
+                        }
+                        fractionDigits++;
+                    } else {
+                        if (intDigits == 1 && value.charAt(intStart) == '0') {
+                            // Leading zero
+                            return false;
+                        }
+                        intDigits++;
+                    }
+                    nonZero |= c != '0';
+                } else {
+                    return false;
+                }
+            }
+            if (intDigits == 0 || (point && fractionDigits == 0) || (negative && !nonZero)) {
+                return false;
+            }
+            if (intDigits == 1 && value.charAt(intStart) == '0') {
+                // BigDecimal uses exponent notation when adjusted exponent is less than -6, e.g. 0.0000001
+                return nonZero ? fractionLeadingZeros < 6 : fractionDigits <= 6;
+            }
+            return true;
+        }
+    }
+
+    static class BooleanConverter extends StreamValueConverter {
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            if (value.length() == 4 && "true".contentEquals(value)) {
+                return Boolean.TRUE;
+            } else if (value.length() == 5 && "false".contentEquals(value)) {
+                return Boolean.FALSE;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Numbers of seconds or milliseconds since epoch
+     */
+    static class EpochConverter extends StreamValueConverter {
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            final Long epoch = parseCanonicalLong(value);
+            if (epoch == null || epoch < MIN_EPOCH_VALUE) {
+                return value;
+            }
+            return new Timestamp(epoch < MAX_EPOCH_SECONDS ? epoch * 1000 : epoch);
+        }
+    }
+
+    /**
+     * Parses values with arbitrary format
+     */
+    static class FormatDateTimeConverter extends StreamValueConverter {
+        private final DateTimeFormatter dateTimeFormat;
+        private final ZoneId dateTimeZoneId;
+        private boolean dateOnlyReported;
+
+        FormatDateTimeConverter(@NotNull DateTimeFormatter dateTimeFormat, @Nullable ZoneId dateTimeZoneId) {
+            this.dateTimeFormat = dateTimeFormat;
+            this.dateTimeZoneId = dateTimeZoneId;
+        }
+
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            final TemporalAccessor ta;
+            try {
+                ta = dateTimeFormat.parse(value);
+            } catch (DateTimeParseException e) {
+                // Can't parse. Ignore format then
+                log.debug("Error parsing datetime string: " + e.getMessage());
+                return value;
+            }
+            final LocalDate date = ta.query(TemporalQueries.localDate());
+            if (date == null) {
+                log.debug("No date present in datetime string '" + value + "'");
+                return value;
+            }
+            final LocalTime time = ta.query(TemporalQueries.localTime());
+            final ZoneId zone = ta.query(TemporalQueries.zone());
+            if (time != null && zone != null) {
+                final Instant instant;
+                if (ta.isSupported(ChronoField.INSTANT_SECONDS)) {
+                    instant = Instant.ofEpochSecond(ta.getLong(ChronoField.INSTANT_SECONDS), ta.get(ChronoField.NANO_OF_SECOND));
+                } else {
+                    instant = ZonedDateTime.of(date, time, zone).toInstant();
+                }
+                return java.util.Date.from(instant);
+            }
+            if (time == null && !dateOnlyReported) {
+                log.debug("No time present in datetime string, defaulting to the start of the day");
+                dateOnlyReported = true;
+            }
+            return toTimestamp(time == null ? date.atStartOfDay() : LocalDateTime.of(date, time), dateTimeZoneId);
+        }
+    }
+
+    /**
+     * Parses values of formats with fixed positions of date/time fields, like yyyy-MM-dd HH:mm:ss.
+     * Values which don't match the layout are passed to the format parser.
+     */
+    static class FixedDateTimeConverter extends StreamValueConverter {
+        private static final String[] LAYOUTS = {
+            "yyyy-MM-dd HH:mm:ss.SSS",
+            "yyyy-MM-dd'T'HH:mm:ss.SSS",
+            "yyyy-MM-dd HH:mm:ss",
+            "yyyy-MM-dd'T'HH:mm:ss",
+            "yyyy-MM-dd HH:mm",
+            "yyyy-MM-dd",
+        };
+        // Sample value which has different digits in all fields
+        private static final LocalDateTime PROBE_VALUE = LocalDateTime.of(2001, 2, 3, 16, 5, 6, 789_000_000);
+
+        private final String layout;
+        private final FormatDateTimeConverter fallback;
+        private final ZoneId dateTimeZoneId;
+
+        private FixedDateTimeConverter(@NotNull String layout, @NotNull DateTimeFormatter dateTimeFormat, @Nullable ZoneId dateTimeZoneId) {
+            this.layout = layout;
+            this.fallback = new FormatDateTimeConverter(dateTimeFormat, dateTimeZoneId);
+            this.dateTimeZoneId = dateTimeZoneId;
+        }
+
+        /**
+         * Checks whether formatter produces one of the known layouts
+         */
+        @Nullable
+        static FixedDateTimeConverter create(@NotNull DateTimeFormatter dateTimeFormat, @Nullable ZoneId dateTimeZoneId) {
+            if (dateTimeFormat.getZone() != null) {
+                return null;
+            }
+            final String probe;
+            try {
+                probe = dateTimeFormat.format(PROBE_VALUE);
+            } catch (DateTimeException e) {
+                // Format requires zone or other fields
+                return null;
+            }
+            for (String layout : LAYOUTS) {
+                if (probe.equals(DateTimeFormatter.ofPattern(layout).format(PROBE_VALUE))) {
+                    return new FixedDateTimeConverter(probe, dateTimeFormat, dateTimeZoneId);
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Object convertValue(@NotNull CharSequence value) {
+            final LocalDateTime localDT = parseLayout(value);
+            if (localDT == null) {
+                return fallback.convertValue(value);
+            }
+            return toTimestamp(localDT, dateTimeZoneId);
+        }
+
+        /**
+         * Layout is the probe value formatted, so digits are at the same positions as in the probe
+         */
+        @Nullable
+        private LocalDateTime parseLayout(@NotNull CharSequence value) {
+            final int length = layout.length();
+            if (value.length() != length) {
+                return null;
+            }
+            for (int i = 0; i < length; i++) {
+                final char lc = layout.charAt(i);
+                final char vc = value.charAt(i);
+                if (Character.isDigit(lc) ? (vc < '0' || vc > '9') : vc != lc) {
+                    return null;
+                }
+            }
+            final int year = parseDigits(value, 0, 4);
+            final int month = parseDigits(value, 5, 2);
+            final int day = parseDigits(value, 8, 2);
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+            int hour = 0, minute = 0, second = 0, nano = 0;
+            if (length >= 16) {
+                hour = parseDigits(value, 11, 2);
+                minute = parseDigits(value, 14, 2);
+                if (length >= 19) {
+                    second = parseDigits(value, 17, 2);
+                }
+                if (length == 23) {
+                    nano = parseDigits(value, 20, 3) * 1_000_000;
+                }
+                if (hour > 23 || minute > 59 || second > 59) {
+                    return null;
+                }
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        }
+
+        private static int parseDigits(@NotNull CharSequence value, int offset, int count) {
+            int result = 0;
+            for (int i = offset; i < offset + count; i++) {
+                result = result * 10 + (value.charAt(i) - '0');
+            }
+            return result;
+        }
+    }
+
+}
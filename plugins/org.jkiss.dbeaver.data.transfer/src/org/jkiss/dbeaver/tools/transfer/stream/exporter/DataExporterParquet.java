@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Apache Parquet exporter.
+ * Column types are mapped from the result set attributes, values which have no Parquet counterpart are exported as strings.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    private static final String PROP_COMPRESSION = "compression";
+    private static final String PROP_DICTIONARY = "dictionary";
+
+    private DBDAttributeBinding[] columns;
+    private List<ParquetColumn> parquetColumns;
+    private ParquetFileWriter writer;
+
+    private int rowGroupSize;
+    private ParquetCompression compression;
+    private boolean dictionaryEncoding;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        rowGroupSize = CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), ParquetFileWriter.DEFAULT_ROW_GROUP_SIZE);
+        compression = CommonUtils.valueOf(ParquetCompression.class, CommonUtils.toString(properties.get(PROP_COMPRESSION)), ParquetCompression.SNAPPY);
+        dictionaryEncoding = CommonUtils.getBoolean(properties.get(PROP_DICTIONARY), true);
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        parquetColumns = new ArrayList<>(columns.length);
+        Set<String> usedNames = new HashSet<>();
+        for (DBDAttributeBinding column : columns) {
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            // Parquet readers resolve columns by name so they must be unique
+            String uniqueName = columnName;
+            for (int i = 2; !usedNames.add(uniqueName); i++) {
+                uniqueName = columnName + "_" + i;
+            }
+            parquetColumns.add(makeParquetColumn(uniqueName, column));
+        }
+        writer = new ParquetFileWriter(getOutputStream(), parquetColumns, compression, dictionaryEncoding, rowGroupSize);
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            ParquetColumn parquetColumn = parquetColumns.get(i);
+            Object value = row[i];
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            if (value instanceof DBDContent) {
+                values[i] = readContent(session, resultSet, column, parquetColumn, (DBDContent) value);
+            } else if (parquetColumn.getLogicalType() == ParquetLogicalType.STRING && !(value instanceof String)) {
+                values[i] = getValueDisplayString(column, value);
+            } else {
+                values[i] = value;
+            }
+        }
+        writer.writeRow(values);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+        }
+    }
+
+    private Object readContent(DBCSession session, DBCResultSet resultSet, DBDAttributeBinding column, ParquetColumn parquetColumn, DBDContent content)
+        throws DBException, IOException
+    {
+        try {
+            DBDContentStorage cs = content.getContents(session.getProgressMonitor());
+            if (cs == null) {
+                return null;
+            }
+            if (parquetColumn.getType() == ParquetType.BYTE_ARRAY && parquetColumn.getLogicalType() == ParquetLogicalType.NONE) {
+                try (InputStream in = cs.getContentStream()) {
+                    return in.readAllBytes();
+                }
+            } else if (ContentUtils.isTextContent(content)) {
+                try (Reader in = cs.getContentReader()) {
+                    return IOUtils.readToString(in);
+                }
+            } else {
+                return getValueDisplayString(column, content);
+            }
+        } finally {
+            DTUtils.closeContents(resultSet, content);
+        }
+    }
+
+    private static ParquetColumn makeParquetColumn(String name, DBDAttributeBinding column) {
+        boolean unsigned = CommonUtils.notEmpty(column.getTypeName()).toUpperCase(Locale.ENGLISH).contains("UNSIGNED");
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return new ParquetColumn(name, ParquetType.BOOLEAN, ParquetLogicalType.NONE);
+            case NUMERIC:
+                switch (column.getTypeID()) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                        return new ParquetColumn(name, ParquetType.INT32, ParquetLogicalType.NONE);
+                    case Types.INTEGER:
+                        return new ParquetColumn(name, unsigned ? ParquetType.INT64 : ParquetType.INT32, ParquetLogicalType.NONE);
+                    case Types.BIGINT:
+                        if (unsigned) {
+                            return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.DECIMAL, 20, 0);
+                        }
+                        return new ParquetColumn(name, ParquetType.INT64, ParquetLogicalType.NONE);
+                    case Types.REAL:
+                        return new ParquetColumn(name, ParquetType.FLOAT, ParquetLogicalType.NONE);
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        int precision = CommonUtils.toInt(column.getPrecision());
+                        int scale = CommonUtils.toInt(column.getScale());
+                        if (precision > 0 && scale >= 0 && scale <= precision) {
+                            return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.DECIMAL, precision, scale);
+                        }
+                        // Unconstrained numbers cannot be stored as Parquet decimals without losing digits
+                        return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.STRING);
+                    }
+                    default:
+                        return new ParquetColumn(name, ParquetType.DOUBLE, ParquetLogicalType.NONE);
+                }
+            case DATETIME:
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return new ParquetColumn(name, ParquetType.INT32, ParquetLogicalType.DATE);
+                    case Types.TIME:
+                    case Types.TIME_WITH_TIMEZONE:
+                        return new ParquetColumn(name, ParquetType.INT32, ParquetLogicalType.TIME_MILLIS);
+                    default:
+                        return new ParquetColumn(name, ParquetType.INT64, ParquetLogicalType.TIMESTAMP_MICROS);
+                }
+            case BINARY:
+                return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.NONE);
+            case CONTENT:
+                switch (column.getTypeID()) {
+                    case Types.BINARY:
+                    case Types.VARBINARY:
+                    case Types.LONGVARBINARY:
+                    case Types.BLOB:
+                        return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.NONE);
+                    default:
+                        return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.STRING);
+                }
+            default:
+                return new ParquetColumn(name, ParquetType.BYTE_ARRAY, ParquetLogicalType.STRING);
+        }
+    }
+
+}
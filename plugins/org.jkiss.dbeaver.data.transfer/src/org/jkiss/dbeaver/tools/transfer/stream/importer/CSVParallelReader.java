@@ -0,0 +1,444 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.WorkerPoolUtils;
+import org.jkiss.utils.csv.CSVParser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reads a local CSV file on multiple threads.
+ * <p>
+ * The file is memory-mapped and split into chunks which end at record boundaries.
+ * Boundaries are found by a byte scan which follows quoting rules of {@link CSVParser},
+ * so line breaks inside quoted values never split a record. Chunks are decoded and parsed
+ * on a shared worker pool, and parsed rows are returned as batches either in the file order
+ * or in the order the chunks were parsed.
+ * <p>
+ * Only charsets which encode line breaks, separator, quote and escape characters as the same single bytes
+ * as ASCII (UTF-8, ISO-8859-x, windows-125x, etc.) are supported, see {@link #isSupported}.
+ * The reader itself isn't thread-safe, batches must be read from a single thread.
+ */
+public class CSVParallelReader implements Closeable {
+
+    // Small chunks keep decoded text and parsed rows of pending chunks out of the old generation
+    public static final int DEFAULT_CHUNK_SIZE = 512 * 1024;
+
+    // Maximal size of a single mapping. Larger files are mapped by windows.
+    private static final int WINDOW_SIZE = 256 * 1024 * 1024;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private static final int PARSE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService PARSE_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("CSV parser", PARSE_THREADS);
+
+    /**
+     * Parsed rows of a chunk
+     */
+    public static class RowBatch {
+        private final List<String[]> rows;
+        private final long[] lineNumbers;
+
+        RowBatch(@NotNull List<String[]> rows, @NotNull long[] lineNumbers) {
+            this.rows = rows;
+            this.lineNumbers = lineNumbers;
+        }
+
+        @NotNull
+        public List<String[]> getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns number (1-based) of the first file line of the row
+         */
+        public long getLineNumber(int rowIndex) {
+            return lineNumbers[rowIndex];
+        }
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Charset charset;
+    private final char separator;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final boolean ordered;
+    private final int chunkSize;
+    private final UnaryOperator<String[]> rowProcessor;
+    private final int maxPendingChunks;
+    private final Deque<Future<RowBatch>> pendingChunks = new ArrayDeque<>();
+    private final CompletionService<RowBatch> completionService;
+
+    private ByteBuffer window;
+    private long windowOffset;
+    private long position;
+    private long lineNumber = 1;
+    private boolean skipHeader;
+    private boolean closed;
+
+    /**
+     * @param skipHeader   skip the first non-empty record
+     * @param ordered      return batches in the file order. Otherwise batches are returned as soon as they are parsed.
+     * @param rowProcessor called on worker threads for each row
+     */
+    public CSVParallelReader(
+        @NotNull Path file,
+        @NotNull Charset charset,
+        char separator,
+        char quoteChar,
+        char escapeChar,
+        boolean skipHeader,
+        boolean ordered,
+        int chunkSize,
+        @NotNull UnaryOperator<String[]> rowProcessor
+    ) throws IOException {
+        if (chunkSize <= 0 || chunkSize > WINDOW_SIZE / 2) {
+            throw new IllegalArgumentException("Bad chunk size: " + chunkSize);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.charset = charset;
+        this.separator = separator;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.skipHeader = skipHeader;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+        this.rowProcessor = rowProcessor;
+        // Enough chunks to keep all workers busy while previous rows are consumed. Limits memory usage.
+        this.maxPendingChunks = PARSE_THREADS * 2;
+        this.completionService = ordered ? null : new ExecutorCompletionService<>(PARSE_EXECUTOR);
+    }
+
+    /**
+     * Checks that CSV structure characters can be found in the encoded file without decoding it.
+     */
+    public static boolean isSupported(@NotNull Charset charset, char separator, char quoteChar, char escapeChar) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        if (!charset.equals(StandardCharsets.UTF_8) && charset.newEncoder().maxBytesPerChar() != 1.0f) {
+            // Multibyte encodings may contain ASCII codes inside of characters
+            return false;
+        }
+        for (char c : new char[] {separator, quoteChar, escapeChar, '\n', '\r'}) {
+            if (c >= 0x80) {
+                return false;
+            }
+            byte[] bytes = String.valueOf(c).getBytes(charset);
+            if (bytes.length != 1 || bytes[0] != c) {
+                // E.g. EBCDIC
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the next parsed batch or null if the whole file was read.
+     * Batches may be empty.
+     */
+    @Nullable
+    public RowBatch nextBatch() throws IOException {
+        if (closed) {
+            throw new IOException("Reader is closed");
+        }
+        while (pendingChunks.size() < maxPendingChunks && submitNextChunk()) {
+            // Fill the queue
+        }
+        if (pendingChunks.isEmpty()) {
+            return null;
+        }
+        try {
+            if (ordered) {
+                return getResult(pendingChunks.removeFirst());
+            } else {
+                Future<RowBatch> future = completionService.take();
+                pendingChunks.remove(future);
+                return getResult(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV read was interrupted");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Future<RowBatch> future : pendingChunks) {
+            future.cancel(false);
+        }
+        pendingChunks.clear();
+        window = null;
+        channel.close();
+    }
+
+    private boolean submitNextChunk() throws IOException {
+        if (position >= fileSize) {
+            return false;
+        }
+        if (position == 0) {
+            mapWindow();
+            if (startsWithBOM()) {
+                position = UTF8_BOM.length;
+            }
+        }
+        final long chunkLineNumber = lineNumber;
+        final ByteBuffer chunk;
+        if (fileSize - position <= chunkSize) {
+            // The last chunk
+            chunk = getWindowSlice(fileSize);
+        } else {
+            long chunkEnd = findChunkEnd();
+            chunk = getWindowSlice(chunkEnd);
+        }
+        position += chunk.remaining();
+
+        final boolean chunkSkipHeader = skipHeader;
+        skipHeader = false;
+        final Callable<RowBatch> task = () -> parseChunk(chunk, chunkLineNumber, chunkSkipHeader);
+        pendingChunks.add(ordered ? PARSE_EXECUTOR.submit(task) : completionService.submit(task));
+        return true;
+    }
+
+    private long findChunkEnd() throws IOException {
+        long windowEnd = windowOffset + window.limit();
+        if (position + chunkSize >= windowEnd && windowEnd < fileSize) {
+            mapWindow();
+            windowEnd = windowOffset + window.limit();
+        }
+        RecordBoundaryScanner scanner = new RecordBoundaryScanner(separator, quoteChar, escapeChar);
+        int start = (int) (position - windowOffset);
+        int end = scanner.findRecordEnd(window, start, chunkSize, windowEnd == fileSize);
+        if (end < 0) {
+            if (windowEnd == fileSize) {
+                // No more record boundaries, take the rest of the file
+                return fileSize;
+            }
+            if (windowOffset != position) {
+                mapWindow();
+                start = 0;
+                end = scanner.findRecordEnd(window, start, chunkSize, windowOffset + window.limit() == fileSize);
+            }
+            if (end < 0) {
+                throw new IOException("CSV record at line " + lineNumber + " is longer than " + (WINDOW_SIZE - chunkSize) + " bytes");
+            }
+        }
+        lineNumber += scanner.getLineCount();
+        return windowOffset + end;
+    }
+
+    private void mapWindow() throws IOException {
+        windowOffset = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, Math.min(fileSize - windowOffset, WINDOW_SIZE));
+    }
+
+    @NotNull
+    private ByteBuffer getWindowSlice(long end) throws IOException {
+        if (end > windowOffset + window.limit()) {
+            mapWindow();
+        }
+        return window.slice((int) (position - windowOffset), (int) (end - position));
+    }
+
+    private boolean startsWithBOM() {
+        if (!charset.equals(StandardCharsets.UTF_8) || window.limit() < UTF8_BOM.length) {
+            return false;
+        }
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (window.get(i) != UTF8_BOM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private RowBatch parseChunk(@NotNull ByteBuffer chunk, long firstLineNumber, boolean skipHeader) throws IOException {
+        final CharBuffer chars = charset.decode(chunk);
+        final BufferedReader reader = new BufferedReader(
+            new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()));
+        final CSVParser parser = new CSVParser(separator, quoteChar, escapeChar);
+        final List<String[]> rows = new ArrayList<>();
+        long[] lineNumbers = new long[256];
+
+        long currentLine = firstLineNumber;
+        long recordLine = currentLine;
+        String[] record = null;
+        for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+            if (!parser.isPending()) {
+                recordLine = currentLine;
+            }
+            currentLine++;
+            String[] values;
+            try {
+                values = parser.parseLineMulti(text);
+            } catch (IOException e) {
+                throw new IOException("Error parsing CSV line " + recordLine + ": " + e.getMessage(), e);
+            }
+            if (values.length > 0) {
+                record = record == null ? values : combineValues(record, values);
+            }
+            if (parser.isPending() || record == null) {
+                continue;
+            }
+            if (skipHeader) {
+                // First line is a header
+                skipHeader = false;
+            } else {
+                if (rows.size() == lineNumbers.length) {
+                    lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+                }
+                lineNumbers[rows.size()] = recordLine;
+                rows.add(rowProcessor.apply(record));
+            }
+            record = null;
+        }
+        if (parser.isPending()) {
+            throw new IOException("Un-terminated quote sequence was detected at line " + recordLine);
+        }
+        return new RowBatch(rows, lineNumbers);
+    }
+
+    @NotNull
+    private static String[] combineValues(@NotNull String[] values, @NotNull String[] nextValues) {
+        String[] result = new String[values.length + nextValues.length];
+        System.arraycopy(values, 0, result, 0, values.length);
+        System.arraycopy(nextValues, 0, result, values.length, nextValues.length);
+        return result;
+    }
+
+    @NotNull
+    private static RowBatch getResult(@NotNull Future<RowBatch> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error parsing CSV", cause);
+        }
+    }
+
+    /**
+     * Finds record boundaries in encoded CSV data.
+     * Follows the same quoting rules as {@link CSVParser} does for multi-line records,
+     * so a boundary is a line break which is not a part of a quoted value.
+     */
+    static class RecordBoundaryScanner {
+        private final char separator;
+        private final char quoteChar;
+        private final char escapeChar;
+        private long lineCount;
+
+        RecordBoundaryScanner(char separator, char quoteChar, char escapeChar) {
+            this.separator = separator;
+            this.quoteChar = quoteChar;
+            this.escapeChar = escapeChar;
+        }
+
+        /**
+         * Number of lines scanned by the last {@link #findRecordEnd} call
+         */
+        long getLineCount() {
+            return lineCount;
+        }
+
+        /**
+         * Finds end of the first record which ends at least {@code minLength} bytes after {@code start}.
+         * Scan must start at a record boundary.
+         *
+         * @param atEnd buffer ends at the end of the file
+         * @return position after the record line break or -1 if there is no record end in the buffer
+         */
+        int findRecordEnd(@NotNull ByteBuffer buffer, int start, int minLength, boolean atEnd) {
+            final int limit = buffer.limit();
+            boolean inQuotes = false;
+            boolean inField = false;
+            lineCount = 0;
+            for (int i = start; i < limit; i++) {
+                final byte c = buffer.get(i);
+                if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        if (i + 1 < limit) {
+                            if (buffer.get(i + 1) == '\n') {
+                                i++;
+                            }
+                        } else if (!atEnd) {
+                            // Can't tell whether it is a CRLF
+                            return -1;
+                        }
+                    }
+                    lineCount++;
+                    if (!inQuotes) {
+                        inField = false;
+                        if (i + 1 - start >= minLength) {
+                            return i + 1;
+                        }
+                    }
+                } else if (c == escapeChar) {
+                    if ((inQuotes || inField) && i + 1 < limit && isEscapable(buffer.get(i + 1))) {
+                        i++;
+                    }
+                } else if (c == quoteChar) {
+                    if ((inQuotes || inField) && i + 1 < limit && buffer.get(i + 1) == quoteChar) {
+                        // Escaped quote
+                        i++;
+                    } else {
+                        inQuotes = !inQuotes;
+                    }
+                    inField = !inField;
+                } else if (c == separator && !inQuotes) {
+                    inField = false;
+                } else {
+                    inField = true;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isEscapable(byte c) {
+            return c == quoteChar || c == escapeChar;
+        }
+    }
+
+}
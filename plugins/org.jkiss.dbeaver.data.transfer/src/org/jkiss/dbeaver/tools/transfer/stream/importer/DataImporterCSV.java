@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBFetchProgress;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.DBCSession;
@@ -39,9 +40,14 @@ import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * CSV importer
@@ -57,7 +63,11 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARALLEL_IMPORT = "parallelImport";
+    private static final String PROP_PRESERVE_ROW_ORDER = "preserveRowOrder";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
+    // Smaller files are imported fast enough by a single thread
+    private static final long PARALLEL_IMPORT_MIN_FILE_SIZE = 16 * 1024 * 1024;
 
     public enum HeaderPosition {
         none,
@@ -158,16 +168,57 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
-        String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, getDelimiter(processorProperties), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private static char getDelimiter(Map<String, Object> processorProperties) {
+        return StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER).charAt(0);
+    }
+
+    private static char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private static char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
+    }
+
+    /**
+     * Parallel import reads the file directly, so it is only possible for large local files
+     * in encodings where CSV structure can be found without decoding.
+     */
+    private boolean isParallelImportPossible(@NotNull Path inputFile, @NotNull Map<String, Object> processorProperties) {
+        if (!CommonUtils.getBoolean(processorProperties.get(PROP_PARALLEL_IMPORT), false) ||
+            Runtime.getRuntime().availableProcessors() < 2)
+        {
+            return false;
+        }
+        try {
+            if (inputFile.getFileSystem() != FileSystems.getDefault() ||
+                !Files.isRegularFile(inputFile) ||
+                Files.size(inputFile) < PARALLEL_IMPORT_MIN_FILE_SIZE)
+            {
+                return false;
+            }
+            final Charset charset = Charset.forName(
+                CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+            return CSVParallelReader.isSupported(
+                charset,
+                getDelimiter(processorProperties),
+                getQuoteChar(processorProperties),
+                getEscapeChar(processorProperties));
+        } catch (Exception e) {
+            log.debug("Parallel import is not possible for '" + inputFile + "': " + e.getMessage());
+            return false;
+        }
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
@@ -216,72 +267,16 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (long lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
-                            }
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
-                            }
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
-
-                        if (DBFetchProgress.monitorFetchProgress(lineNum)) {
-                            monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
-                        }
-                    }
+            int maxRows = site.getSettings().getMaxRows();
+            int targetAttrSize = entityMapping.getStreamColumns().size();
+            try {
+                if (isParallelImportPossible(entityMapping.getInputFile(), properties)) {
+                    // Input stream is not used: file is mapped and parsed in chunks
+                    importParallel(monitor, producerSession, resultSet, consumer, properties, headerPosition, maxRows,
+                        createRowProcessor(targetAttrSize, trimWhitespaces, emptyStringNull, nullValueMark));
+                } else {
+                    importSequential(monitor, producerSession, resultSet, consumer, inputStream, properties, headerPosition, maxRows,
+                        createRowProcessor(targetAttrSize, trimWhitespaces, emptyStringNull, nullValueMark));
                 }
             } catch (IOException e) {
                 throw new DBException("IO error reading CSV", e);
@@ -296,4 +291,157 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    private void importSequential(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession producerSession,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull InputStream inputStream,
+        @NotNull Map<String, Object> properties,
+        @NotNull HeaderPosition headerPosition,
+        int maxRows,
+        @NotNull UnaryOperator<CharSequence[]> rowProcessor
+    ) throws IOException, DBException {
+        try (Reader reader = openStreamReader(inputStream, properties, true)) {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                boolean headerRead = false;
+                for (long lineNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    // Values are views over the parser buffer, they are converted or copied by the result set
+                    CharSequence[] line = csvReader.readNextViews();
+                    if (line == null) {
+                        if (csvReader.getParser().isPending()) {
+                            throw new IOException("Un-terminated quote sequence was detected");
+                        }
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (headerPosition != HeaderPosition.none && !headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    if (maxRows > 0 && lineNum >= maxRows) {
+                        break;
+                    }
+
+                    resultSet.setStreamRow(rowProcessor.apply(line));
+                    consumer.fetchRow(producerSession, resultSet);
+                    lineNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(lineNum)) {
+                        monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows are parsed on worker threads, the consumer is fed from the current thread.
+     */
+    private void importParallel(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession producerSession,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull Map<String, Object> properties,
+        @NotNull HeaderPosition headerPosition,
+        int maxRows,
+        @NotNull UnaryOperator<String[]> rowProcessor
+    ) throws IOException, DBException {
+        final Charset charset = Charset.forName(CommonUtils.toString(properties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+        final boolean preserveRowOrder = CommonUtils.getBoolean(properties.get(PROP_PRESERVE_ROW_ORDER), true);
+        try (CSVParallelReader reader = new CSVParallelReader(
+            getSite().getSourceObject().getInputFile(),
+            charset,
+            getDelimiter(properties),
+            getQuoteChar(properties),
+            getEscapeChar(properties),
+            headerPosition != HeaderPosition.none,
+            preserveRowOrder,
+            CSVParallelReader.DEFAULT_CHUNK_SIZE,
+            rowProcessor))
+        {
+            long rowNum = 0;
+            for (CSVParallelReader.RowBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                final List<String[]> rows = batch.getRows();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                        return;
+                    }
+                    resultSet.setStreamRow(rows.get(i));
+                    try {
+                        consumer.fetchRow(producerSession, resultSet);
+                    } catch (DBCException e) {
+                        throw new DBCException("Error importing CSV line " + batch.getLineNumber(i), e);
+                    }
+                    rowNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                        monitor.subTask(Long.toUnsignedString(rowNum) + " rows processed");
+                    }
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static <T extends CharSequence> UnaryOperator<T[]> createRowProcessor(
+        int targetAttrSize,
+        boolean trimWhitespaces,
+        boolean emptyStringNull,
+        String nullValueMark
+    ) {
+        final boolean hasNullValueMark = !CommonUtils.isEmpty(nullValueMark);
+        final boolean processValues = trimWhitespaces || emptyStringNull || hasNullValueMark;
+        return line -> {
+            if (line.length < targetAttrSize) {
+                // Stream row may be shorter than header
+                line = Arrays.copyOf(line, targetAttrSize);
+            }
+            if (processValues) {
+                for (int i = 0; i < line.length; i++) {
+                    T value = line[i];
+                    if (value == null) {
+                        continue;
+                    }
+                    if (trimWhitespaces) {
+                        value = trim(value);
+                    }
+                    if ((emptyStringNull && value.length() == 0) || (hasNullValueMark && nullValueMark.contentEquals(value))) {
+                        value = null;
+                    }
+                    line[i] = value;
+                }
+            }
+            return line;
+        };
+    }
+
+    /**
+     * Trims value the same way as {@link String#trim()}, without copying views
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static <T extends CharSequence> T trim(@NotNull T value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (start < end && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == 0 && end == value.length()) {
+            return value;
+        }
+        // Both String and CharBuffer return sub-sequences of their own type
+        return (T) value.subSequence(start, end);
+    }
+
 }
@@ -0,0 +1,263 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseMappingType;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.*;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetLogicalType;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet importer.
+ * The file is read by column chunks: columns which are skipped in the target mapping are not read at all
+ * and reading stops at the row group which contains the last requested row.
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+
+    public DataImporterParquet() {
+    }
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnSamplesCount = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_SAMPLES), 100), 0);
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+
+        try (ParquetFileReader reader = new ParquetFileReader(entityMapping.getInputFile())) {
+            List<ParquetColumn> columns = reader.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                ParquetColumn column = columns.get(i);
+                StreamDataImporterColumnInfo columnInfo = makeColumnInfo(entityMapping, i, column, columnMinimalLength);
+                columnInfo.setMappingMetadataPresent(true);
+                if (columnInfo.getDataKind() == DBPDataKind.STRING && columnSamplesCount > 0 && reader.getRowGroupCount() > 0) {
+                    // Parquet strings have no length, estimate it from the first values
+                    Object[] values = reader.readColumn(0, i);
+                    for (int row = 0; row < Math.min(values.length, columnSamplesCount); row++) {
+                        if (values[row] != null) {
+                            columnInfo.updateMaxLength(entityMapping.getDataSource(), values[row].toString().length());
+                        }
+                    }
+                }
+                columnsInfo.add(columnInfo);
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet", e);
+        }
+
+        return columnsInfo;
+    }
+
+    private static StreamDataImporterColumnInfo makeColumnInfo(StreamEntityMapping entityMapping, int index, ParquetColumn column, int minimalLength) {
+        DBPDataKind dataKind;
+        String typeName;
+        int typeId;
+        switch (column.getLogicalType()) {
+            case STRING:
+            case JSON:
+                dataKind = DBPDataKind.STRING;
+                typeName = "VARCHAR";
+                typeId = Types.VARCHAR;
+                break;
+            case DECIMAL:
+                dataKind = DBPDataKind.NUMERIC;
+                typeName = "NUMERIC";
+                typeId = Types.NUMERIC;
+                break;
+            case DATE:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "DATE";
+                typeId = Types.DATE;
+                break;
+            case TIME_MILLIS:
+            case TIME_MICROS:
+            case TIME_NANOS:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIME";
+                typeId = Types.TIME;
+                break;
+            case TIMESTAMP_MILLIS:
+            case TIMESTAMP_MICROS:
+            case TIMESTAMP_NANOS:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIMESTAMP";
+                typeId = Types.TIMESTAMP;
+                break;
+            default:
+                switch (column.getType()) {
+                    case BOOLEAN:
+                        dataKind = DBPDataKind.BOOLEAN;
+                        typeName = "BOOLEAN";
+                        typeId = Types.BOOLEAN;
+                        break;
+                    case INT32:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "INTEGER";
+                        typeId = Types.INTEGER;
+                        break;
+                    case INT64:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "BIGINT";
+                        typeId = Types.BIGINT;
+                        break;
+                    case FLOAT:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "REAL";
+                        typeId = Types.REAL;
+                        break;
+                    case DOUBLE:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "DOUBLE";
+                        typeId = Types.DOUBLE;
+                        break;
+                    case INT96:
+                        dataKind = DBPDataKind.DATETIME;
+                        typeName = "TIMESTAMP";
+                        typeId = Types.TIMESTAMP;
+                        break;
+                    default:
+                        dataKind = DBPDataKind.BINARY;
+                        typeName = "BLOB";
+                        typeId = Types.BLOB;
+                        break;
+                }
+                break;
+        }
+        StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(
+            entityMapping, index, column.getName(), typeName, dataKind == DBPDataKind.STRING ? minimalLength : 0, dataKind);
+        columnInfo.setValueType(typeId);
+        columnInfo.setRequired(column.isRequired());
+        if (column.getLogicalType() == ParquetLogicalType.DECIMAL) {
+            columnInfo.setPrecision(column.getPrecision());
+            columnInfo.setScale(column.getScale());
+        }
+        return columnInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Map<String, Object> properties = site.getProcessorProperties();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, properties, null, null);
+
+            // Input stream is not used: column chunks are read directly from the file
+            try (ParquetFileReader reader = new ParquetFileReader(entityMapping.getInputFile())) {
+                List<StreamDataImporterColumnInfo> streamColumns = entityMapping.getStreamColumns();
+                int columnCount = reader.getColumns().size();
+                boolean[] projected = getProjectedColumns(consumer, reader.getColumns());
+                int maxRows = site.getSettings().getMaxRows();
+                long rowNum = 0;
+
+                for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                    if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                        break;
+                    }
+                    Object[][] columnValues = new Object[columnCount][];
+                    for (int i = 0; i < columnCount; i++) {
+                        if (projected[i]) {
+                            columnValues[i] = reader.readColumn(rowGroup, i);
+                        }
+                    }
+                    long groupRows = reader.getRowGroupRowCount(rowGroup);
+                    for (int row = 0; row < groupRows; row++) {
+                        if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                            break;
+                        }
+                        Object[] streamRow = new Object[Math.max(columnCount, streamColumns.size())];
+                        for (int i = 0; i < columnCount; i++) {
+                            if (columnValues[i] != null) {
+                                streamRow[i] = columnValues[i][row];
+                            }
+                        }
+                        resultSet.setStreamRow(streamRow);
+                        consumer.fetchRow(producerSession, resultSet);
+                        rowNum++;
+
+                        if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                            monitor.subTask(Long.toUnsignedString(rowNum) + " rows processed");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Columns which are skipped by the target mapping are not read from the file
+     */
+    private static boolean[] getProjectedColumns(IDataTransferConsumer consumer, List<ParquetColumn> columns) {
+        boolean[] projected = new boolean[columns.size()];
+        Arrays.fill(projected, true);
+        if (consumer instanceof DatabaseTransferConsumer) {
+            DatabaseTransferConsumer.ColumnMapping[] mappings = ((DatabaseTransferConsumer) consumer).getColumnMappings();
+            if (mappings != null) {
+                for (DatabaseTransferConsumer.ColumnMapping mapping : mappings) {
+                    if (mapping == null || mapping.targetAttr == null || mapping.targetAttr.getMappingType() != DatabaseMappingType.skip) {
+                        continue;
+                    }
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (columns.get(i).getName().equals(mapping.sourceAttr.getName())) {
+                            projected[i] = false;
+                        }
+                    }
+                }
+            }
+        }
+        return projected;
+    }
+
+}
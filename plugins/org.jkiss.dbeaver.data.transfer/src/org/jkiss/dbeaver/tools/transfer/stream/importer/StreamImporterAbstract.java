@@ -105,6 +105,11 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
                 }
                 for (StreamDataImporterColumnInfo attributeMapping : resultSet.getAttributeMappings()) {
                     if (cm.targetAttr.getMappingType().isValid()) {
+                        if (cm.sourceAttr.getName().equals(attributeMapping.getName())) {
+                            // New attributes get the type of the source column
+                            DBSEntityAttribute target = cm.targetAttr.getTarget();
+                            attributeMapping.setTargetDataKind(target != null ? target.getDataKind() : attributeMapping.getDataKind());
+                        }
                         if (cm.sourceAttr.getDataKind() == DBPDataKind.STRING && cm.sourceAttr.getName().equals(attributeMapping.getName())) {
                             // Gotcha
                             DBSEntityAttribute targetAttr = cm.targetAttr.getTarget();
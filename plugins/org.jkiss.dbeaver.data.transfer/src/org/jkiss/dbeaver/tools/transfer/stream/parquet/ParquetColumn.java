@@ -0,0 +1,304 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * Parquet column of a flat schema.
+ * Converts Java values into the physical representation and back.
+ */
+public class ParquetColumn {
+
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+
+    private final String name;
+    private final ParquetType type;
+    private final ParquetLogicalType logicalType;
+    private final int precision;
+    private final int scale;
+    private final int typeLength;
+    private final boolean required;
+
+    public ParquetColumn(@NotNull String name, @NotNull ParquetType type, @NotNull ParquetLogicalType logicalType) {
+        this(name, type, logicalType, 0, 0);
+    }
+
+    public ParquetColumn(@NotNull String name, @NotNull ParquetType type, @NotNull ParquetLogicalType logicalType, int precision, int scale) {
+        this(name, type, logicalType, precision, scale, 0, false);
+    }
+
+    ParquetColumn(String name, ParquetType type, ParquetLogicalType logicalType, int precision, int scale, int typeLength, boolean required) {
+        this.name = name;
+        this.type = type;
+        this.logicalType = logicalType;
+        this.precision = precision;
+        this.scale = scale;
+        this.typeLength = typeLength;
+        this.required = required;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public ParquetType getType() {
+        return type;
+    }
+
+    @NotNull
+    public ParquetLogicalType getLogicalType() {
+        return logicalType;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Converts value to the physical type of this column
+     */
+    @Nullable
+    Object toPhysical(@Nullable Object value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            switch (type) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    return Boolean.parseBoolean(value.toString().trim());
+                case INT32:
+                    switch (logicalType) {
+                        case DATE:
+                            return (int) toLocalDate(value).toEpochDay();
+                        case TIME_MILLIS:
+                            return (int) (toLocalTime(value).toNanoOfDay() / 1_000_000);
+                        default:
+                            return Math.toIntExact(toLong(toNumber(value)));
+                    }
+                case INT64:
+                    switch (logicalType) {
+                        case TIMESTAMP_MILLIS:
+                            return toInstant(value).toEpochMilli();
+                        case TIMESTAMP_MICROS: {
+                            Instant instant = toInstant(value);
+                            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+                        }
+                        case TIME_MICROS:
+                            return toLocalTime(value).toNanoOfDay() / 1000;
+                        default:
+                            return toLong(toNumber(value));
+                    }
+                case FLOAT:
+                    return toNumber(value).floatValue();
+                case DOUBLE:
+                    return toNumber(value).doubleValue();
+                default:
+                    if (logicalType == ParquetLogicalType.DECIMAL) {
+                        return toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP).unscaledValue().toByteArray();
+                    } else if (value instanceof byte[] && logicalType == ParquetLogicalType.NONE) {
+                        return value;
+                    }
+                    return value.toString().getBytes(StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new IOException("Cannot convert value '" + value + "' to Parquet " + type + " column '" + name + "'", e);
+        }
+    }
+
+    /**
+     * Converts physical value read from the file into the Java value
+     */
+    @Nullable
+    Object fromPhysical(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (logicalType) {
+            case STRING:
+            case JSON:
+                return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : value;
+            case DECIMAL:
+                if (value instanceof byte[]) {
+                    byte[] bytes = (byte[]) value;
+                    return new BigDecimal(bytes.length == 0 ? BigInteger.ZERO : new BigInteger(bytes), scale);
+                }
+                return BigDecimal.valueOf(((Number) value).longValue(), scale);
+            case DATE:
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(((Number) value).longValue()));
+            case TIME_MILLIS:
+                return makeTime(((Number) value).longValue() * 1_000_000);
+            case TIME_MICROS:
+                return makeTime(((Number) value).longValue() * 1000);
+            case TIME_NANOS:
+                return makeTime(((Number) value).longValue());
+            case TIMESTAMP_MILLIS:
+                return new Timestamp(((Number) value).longValue());
+            case TIMESTAMP_MICROS: {
+                long micros = ((Number) value).longValue();
+                return makeTimestamp(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+            }
+            case TIMESTAMP_NANOS: {
+                long nanos = ((Number) value).longValue();
+                return makeTimestamp(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+            }
+            default:
+                if (type == ParquetType.INT96 && value instanceof byte[]) {
+                    // Legacy Impala/Hive timestamp: nanos of day followed by julian day
+                    byte[] bytes = (byte[]) value;
+                    long nanosOfDay = 0;
+                    for (int i = 7; i >= 0; i--) {
+                        nanosOfDay = (nanosOfDay << 8) | (bytes[i] & 0xFF);
+                    }
+                    long julianDay = (bytes[8] & 0xFF) | (bytes[9] & 0xFF) << 8 | (bytes[10] & 0xFF) << 16 | (long) (bytes[11] & 0xFF) << 24;
+                    long epochSecond = (julianDay - JULIAN_EPOCH_DAY) * 86_400L + nanosOfDay / 1_000_000_000L;
+                    return makeTimestamp(epochSecond, nanosOfDay % 1_000_000_000L);
+                }
+                return value;
+        }
+    }
+
+    private static Timestamp makeTimestamp(long epochSecond, long nanos) {
+        Timestamp timestamp = new Timestamp(epochSecond * 1000);
+        timestamp.setNanos((int) nanos);
+        return timestamp;
+    }
+
+    private static Time makeTime(long nanoOfDay) {
+        LocalDateTime dateTime = LocalDate.EPOCH.atTime(LocalTime.ofNanoOfDay(nanoOfDay));
+        return new Time(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    private static long toLong(Number value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).setScale(0, RoundingMode.DOWN).longValueExact();
+        } else if (value instanceof BigInteger) {
+            return ((BigInteger) value).longValueExact();
+        }
+        return value.longValue();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant();
+        } else if (value instanceof Date) {
+            // java.sql.Date and java.sql.Time do not support toInstant()
+            return Instant.ofEpochMilli(((Date) value).getTime());
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        }
+        return Timestamp.valueOf(value.toString().trim()).toInstant();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDate();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDate();
+        } else if (value instanceof Date || value instanceof Instant) {
+            return toInstant(value).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        try {
+            return LocalDate.parse(value.toString().trim());
+        } catch (DateTimeParseException e) {
+            return toInstant(value).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+    }
+
+    private static LocalTime toLocalTime(Object value) {
+        if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof OffsetTime) {
+            return ((OffsetTime) value).toLocalTime();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalTime();
+        } else if (value instanceof Date || value instanceof Instant || value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+            return toInstant(value).atZone(ZoneId.systemDefault()).toLocalTime();
+        }
+        return LocalTime.parse(value.toString().trim());
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + type + (logicalType == ParquetLogicalType.NONE ? "" : " (" + logicalType + ")");
+    }
+}
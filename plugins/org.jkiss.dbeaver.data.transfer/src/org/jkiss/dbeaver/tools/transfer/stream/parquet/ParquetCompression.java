@@ -0,0 +1,90 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parquet page compression codec
+ */
+public enum ParquetCompression {
+    UNCOMPRESSED(0),
+    SNAPPY(1),
+    GZIP(2);
+
+    private final int codecId;
+
+    ParquetCompression(int codecId) {
+        this.codecId = codecId;
+    }
+
+    public int getCodecId() {
+        return codecId;
+    }
+
+    byte[] compress(byte[] data, int length) throws IOException {
+        switch (this) {
+            case SNAPPY:
+                return SnappyCodec.compress(data, length);
+            case GZIP: {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(length / 2 + 64);
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(data, 0, length);
+                }
+                return buffer.toByteArray();
+            }
+            default:
+                return length == data.length ? data : Arrays.copyOf(data, length);
+        }
+    }
+
+    byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result;
+        switch (this) {
+            case SNAPPY:
+                result = SnappyCodec.decompress(data, offset, length);
+                break;
+            case GZIP:
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    result = in.readAllBytes();
+                }
+                break;
+            default:
+                result = Arrays.copyOfRange(data, offset, offset + length);
+                break;
+        }
+        if (result.length != uncompressedLength) {
+            throw new IOException("Parquet page size mismatch: expected " + uncompressedLength + " bytes, got " + result.length);
+        }
+        return result;
+    }
+
+    static ParquetCompression getByCodecId(int codecId) throws IOException {
+        for (ParquetCompression compression : values()) {
+            if (compression.codecId == codecId) {
+                return compression;
+            }
+        }
+        // LZO, BROTLI, LZ4 and ZSTD require native libraries which are not shipped with the platform
+        throw new IOException("Unsupported Parquet compression codec: " + codecId);
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Parquet value and level encodings: PLAIN and RLE/bit-packing hybrid.
+ */
+final class ParquetEncoding {
+
+    static final int PLAIN = 0;
+    static final int PLAIN_DICTIONARY = 2;
+    static final int RLE = 3;
+    static final int RLE_DICTIONARY = 8;
+
+    private static final int MAX_BIT_PACKED_GROUPS = 63;
+
+    private ParquetEncoding() {
+    }
+
+    static int getBitWidth(int maxValue) {
+        return 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+
+    /**
+     * Encodes physical values with PLAIN encoding
+     */
+    static void encodePlain(ByteArrayOutputStream out, ParquetType type, Object[] values, int count) {
+        if (type == ParquetType.BOOLEAN) {
+            int current = 0;
+            for (int i = 0; i < count; i++) {
+                if ((Boolean) values[i]) {
+                    current |= 1 << (i & 7);
+                }
+                if ((i & 7) == 7) {
+                    out.write(current);
+                    current = 0;
+                }
+            }
+            if ((count & 7) != 0) {
+                out.write(current);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            Object value = values[i];
+            switch (type) {
+                case INT32:
+                    writeIntLE(out, (Integer) value);
+                    break;
+                case INT64:
+                    writeLongLE(out, (Long) value);
+                    break;
+                case FLOAT:
+                    writeIntLE(out, Float.floatToIntBits((Float) value));
+                    break;
+                case DOUBLE:
+                    writeLongLE(out, Double.doubleToLongBits((Double) value));
+                    break;
+                case BYTE_ARRAY: {
+                    byte[] bytes = (byte[]) value;
+                    writeIntLE(out, bytes.length);
+                    out.write(bytes, 0, bytes.length);
+                    break;
+                }
+                default: {
+                    byte[] bytes = (byte[]) value;
+                    out.write(bytes, 0, bytes.length);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes values with RLE/bit-packing hybrid encoding. Long runs of the same value are run-length encoded,
+     * everything else is bit-packed in groups of 8 values.
+     */
+    static void encodeHybrid(ByteArrayOutputStream out, int bitWidth, int[] values, int count) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int pos = 0;
+        while (pos < count) {
+            int runLength = getRunLength(values, pos, count);
+            if (runLength >= 8) {
+                writeVarInt(out, runLength << 1);
+                for (int i = 0; i < byteWidth; i++) {
+                    out.write(values[pos] >>> (i * 8));
+                }
+                pos += runLength;
+                continue;
+            }
+            int start = pos;
+            int groups = 0;
+            do {
+                pos += 8;
+                groups++;
+            } while (pos < count && groups < MAX_BIT_PACKED_GROUPS && getRunLength(values, pos, count) < 8);
+
+            writeVarInt(out, (groups << 1) | 1);
+            long buffer = 0;
+            int bits = 0;
+            for (int i = start; i < start + groups * 8; i++) {
+                long value = i < count ? values[i] : 0;
+                buffer |= value << bits;
+                bits += bitWidth;
+                while (bits >= 8) {
+                    out.write((int) buffer);
+                    buffer >>>= 8;
+                    bits -= 8;
+                }
+            }
+            pos = Math.min(pos, count);
+        }
+    }
+
+    private static int getRunLength(int[] values, int pos, int count) {
+        int length = 1;
+        while (pos + length < count && values[pos + length] == values[pos]) {
+            length++;
+        }
+        return length;
+    }
+
+    static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    static void writeLongLE(ByteArrayOutputStream out, long value) {
+        writeIntLE(out, (int) value);
+        writeIntLE(out, (int) (value >>> 32));
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Decoding cursor over page data
+     */
+    static final class Input {
+
+        private final byte[] data;
+        private int position;
+        private final int end;
+
+        Input(byte[] data, int position, int end) {
+            this.data = data;
+            this.position = position;
+            this.end = end;
+        }
+
+        int getPosition() {
+            return position;
+        }
+
+        int readByte() throws IOException {
+            checkAvailable(1);
+            return data[position++] & 0xFF;
+        }
+
+        int readIntLE() throws IOException {
+            checkAvailable(4);
+            int value = (data[position] & 0xFF) |
+                ((data[position + 1] & 0xFF) << 8) |
+                ((data[position + 2] & 0xFF) << 16) |
+                ((data[position + 3] & 0xFF) << 24);
+            position += 4;
+            return value;
+        }
+
+        long readLongLE() throws IOException {
+            long low = readIntLE() & 0xFFFFFFFFL;
+            long high = readIntLE() & 0xFFFFFFFFL;
+            return low | (high << 32);
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            checkAvailable(length);
+            byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        int readVarInt() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint in Parquet page");
+        }
+
+        void decodePlain(ParquetType type, int typeLength, Object[] target, int count) throws IOException {
+            if (type == ParquetType.BOOLEAN) {
+                checkAvailable((count + 7) / 8);
+                for (int i = 0; i < count; i++) {
+                    target[i] = (data[position + (i >>> 3)] & (1 << (i & 7))) != 0;
+                }
+                position += (count + 7) / 8;
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                switch (type) {
+                    case INT32:
+                        target[i] = readIntLE();
+                        break;
+                    case INT64:
+                        target[i] = readLongLE();
+                        break;
+                    case INT96:
+                        target[i] = readBytes(12);
+                        break;
+                    case FLOAT:
+                        target[i] = Float.intBitsToFloat(readIntLE());
+                        break;
+                    case DOUBLE:
+                        target[i] = Double.longBitsToDouble(readLongLE());
+                        break;
+                    case BYTE_ARRAY:
+                        target[i] = readBytes(readIntLE());
+                        break;
+                    default:
+                        target[i] = readBytes(typeLength);
+                        break;
+                }
+            }
+        }
+
+        void decodeHybrid(int bitWidth, int[] target, int count) throws IOException {
+            int byteWidth = (bitWidth + 7) / 8;
+            long mask = (1L << bitWidth) - 1;
+            int filled = 0;
+            while (filled < count) {
+                int header = readVarInt();
+                if ((header & 1) == 0) {
+                    int runLength = header >>> 1;
+                    int value = 0;
+                    for (int i = 0; i < byteWidth; i++) {
+                        value |= readByte() << (i * 8);
+                    }
+                    int runEnd = Math.min(count, filled + runLength);
+                    Arrays.fill(target, filled, runEnd, value);
+                    filled = runEnd;
+                } else {
+                    int valueCount = (header >>> 1) * 8;
+                    int byteCount = (header >>> 1) * bitWidth;
+                    checkAvailable(Math.min(byteCount, end - position));
+                    long buffer = 0;
+                    int bits = 0;
+                    int p = position;
+                    for (int i = 0; i < valueCount && filled < count; i++) {
+                        while (bits < bitWidth) {
+                            if (p >= end) {
+                                throw new IOException("Unexpected end of bit-packed run in Parquet page");
+                            }
+                            buffer |= (long) (data[p++] & 0xFF) << bits;
+                            bits += 8;
+                        }
+                        target[filled++] = (int) (buffer & mask);
+                        buffer >>>= bitWidth;
+                        bits -= bitWidth;
+                    }
+                    // Last run may be truncated by writers when it is padded
+                    position = Math.min(position + byteCount, end);
+                }
+            }
+        }
+
+        private void checkAvailable(int length) throws IOException {
+            if (length < 0 || position + length > end) {
+                throw new IOException("Unexpected end of Parquet page");
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads Parquet files with flat schemas.
+ * <p>
+ * The footer is read on open, column chunks are read on demand so only the requested columns
+ * of the requested row groups are loaded from disk.
+ */
+public class ParquetFileReader implements Closeable {
+
+    private static final int FOOTER_TAIL_LENGTH = 8;
+    private static final int REPETITION_REQUIRED = 0;
+    private static final int REPETITION_REPEATED = 2;
+
+    private final FileChannel channel;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private final long rowCount;
+
+    public ParquetFileReader(@NotNull Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < ParquetFileWriter.MAGIC.length + FOOTER_TAIL_LENGTH) {
+                throw new IOException("File is too small to be a Parquet file");
+            }
+            byte[] tail = readBytes(fileSize - FOOTER_TAIL_LENGTH, FOOTER_TAIL_LENGTH);
+            if (!Arrays.equals(tail, 4, 8, ParquetFileWriter.MAGIC, 0, 4)) {
+                throw new IOException("Not a Parquet file (bad magic)");
+            }
+            int footerLength = new ParquetEncoding.Input(tail, 0, 4).readIntLE();
+            if (footerLength <= 0 || footerLength > fileSize - FOOTER_TAIL_LENGTH - ParquetFileWriter.MAGIC.length) {
+                throw new IOException("Bad Parquet footer length: " + footerLength);
+            }
+            ThriftCompactReader.Struct metadata = new ThriftCompactReader(
+                readBytes(fileSize - FOOTER_TAIL_LENGTH - footerLength, footerLength), 0).readStruct();
+            readSchema(metadata.getList(2));
+            for (Object rowGroup : metadata.getList(4)) {
+                rowGroups.add(readRowGroup((ThriftCompactReader.Struct) rowGroup));
+            }
+            this.rowCount = metadata.getLong(3, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Malformed Parquet file metadata", e);
+        }
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    public long getRowGroupRowCount(int rowGroup) {
+        return rowGroups.get(rowGroup).rowCount;
+    }
+
+    /**
+     * Reads all values of a column in the specified row group.
+     * Only the column chunk itself is read from the file.
+     */
+    @NotNull
+    public Object[] readColumn(int rowGroup, int column) throws IOException {
+        RowGroup group = rowGroups.get(rowGroup);
+        ColumnChunk chunk = group.chunks.get(column);
+        ParquetColumn columnInfo = columns.get(column);
+        byte[] data = readBytes(chunk.offset, Math.toIntExact(chunk.length));
+        Object[] result = new Object[Math.toIntExact(group.rowCount)];
+        try {
+            decodeChunk(columnInfo, ParquetCompression.getByCodecId(chunk.codecId), data, result);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed Parquet column chunk '" + columnInfo.getName() + "'", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void decodeChunk(ParquetColumn column, ParquetCompression compression, byte[] data, Object[] result) throws IOException {
+        Object[] dictionary = null;
+        int filled = 0;
+        int position = 0;
+        while (filled < result.length && position < data.length) {
+            ThriftCompactReader headerReader = new ThriftCompactReader(data, position);
+            ThriftCompactReader.Struct header = headerReader.readStruct();
+            position = headerReader.getPosition();
+            int pageType = header.getInt(1, -1);
+            int uncompressedSize = header.getInt(2, 0);
+            int compressedSize = header.getInt(3, 0);
+            if (compressedSize < 0 || position + compressedSize > data.length) {
+                throw new IOException("Parquet page exceeds column chunk bounds");
+            }
+            switch (pageType) {
+                case ParquetFileWriter.PAGE_TYPE_DICTIONARY: {
+                    ThriftCompactReader.Struct dictionaryHeader = header.getStruct(7);
+                    int size = dictionaryHeader == null ? 0 : dictionaryHeader.getInt(1, 0);
+                    byte[] page = compression.decompress(data, position, compressedSize, uncompressedSize);
+                    dictionary = new Object[size];
+                    new ParquetEncoding.Input(page, 0, page.length).decodePlain(column.getType(), column.getTypeLength(), dictionary, size);
+                    for (int i = 0; i < size; i++) {
+                        dictionary[i] = column.fromPhysical(dictionary[i]);
+                    }
+                    break;
+                }
+                case ParquetFileWriter.PAGE_TYPE_DATA: {
+                    ThriftCompactReader.Struct pageHeader = header.getStruct(5);
+                    if (pageHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    int valueCount = Math.min(pageHeader.getInt(1, 0), result.length - filled);
+                    byte[] page = compression.decompress(data, position, compressedSize, uncompressedSize);
+                    ParquetEncoding.Input input = new ParquetEncoding.Input(page, 0, page.length);
+                    int[] levels = new int[valueCount];
+                    if (column.isRequired()) {
+                        Arrays.fill(levels, 1);
+                    } else {
+                        int levelsLength = input.readIntLE();
+                        new ParquetEncoding.Input(page, 4, 4 + levelsLength).decodeHybrid(1, levels, valueCount);
+                        input = new ParquetEncoding.Input(page, 4 + levelsLength, page.length);
+                    }
+                    filled = decodeValues(column, input, pageHeader.getInt(2, ParquetEncoding.PLAIN), dictionary, levels, result, filled);
+                    break;
+                }
+                case ParquetFileWriter.PAGE_TYPE_DATA_V2: {
+                    ThriftCompactReader.Struct pageHeader = header.getStruct(8);
+                    if (pageHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    int valueCount = Math.min(pageHeader.getInt(1, 0), result.length - filled);
+                    int definitionLength = pageHeader.getInt(5, 0);
+                    int repetitionLength = pageHeader.getInt(6, 0);
+                    int levelsStart = position + repetitionLength;
+                    int valuesStart = levelsStart + definitionLength;
+                    int[] levels = new int[valueCount];
+                    if (column.isRequired()) {
+                        Arrays.fill(levels, 1);
+                    } else {
+                        new ParquetEncoding.Input(data, levelsStart, valuesStart).decodeHybrid(1, levels, valueCount);
+                    }
+                    int valuesLength = compressedSize - repetitionLength - definitionLength;
+                    byte[] values = pageHeader.getBoolean(7, true) ?
+                        compression.decompress(data, valuesStart, valuesLength, uncompressedSize - repetitionLength - definitionLength) :
+                        Arrays.copyOfRange(data, valuesStart, valuesStart + valuesLength);
+                    filled = decodeValues(column, new ParquetEncoding.Input(values, 0, values.length), pageHeader.getInt(4, ParquetEncoding.PLAIN), dictionary, levels, result, filled);
+                    break;
+                }
+                default:
+                    // Index pages and unknown pages are skipped
+                    break;
+            }
+            position += compressedSize;
+        }
+    }
+
+    private int decodeValues(
+        ParquetColumn column,
+        ParquetEncoding.Input input,
+        int encoding,
+        Object[] dictionary,
+        int[] levels,
+        Object[] result,
+        int filled
+    ) throws IOException {
+        int nonNullCount = 0;
+        for (int level : levels) {
+            nonNullCount += level;
+        }
+        Object[] values = new Object[nonNullCount];
+        switch (encoding) {
+            case ParquetEncoding.PLAIN:
+                input.decodePlain(column.getType(), column.getTypeLength(), values, nonNullCount);
+                for (int i = 0; i < nonNullCount; i++) {
+                    values[i] = column.fromPhysical(values[i]);
+                }
+                break;
+            case ParquetEncoding.PLAIN_DICTIONARY:
+            case ParquetEncoding.RLE_DICTIONARY: {
+                if (dictionary == null) {
+                    throw new IOException("Dictionary page is missing for column '" + column.getName() + "'");
+                }
+                int bitWidth = input.readByte();
+                int[] indexes = new int[nonNullCount];
+                input.decodeHybrid(bitWidth, indexes, nonNullCount);
+                for (int i = 0; i < nonNullCount; i++) {
+                    values[i] = dictionary[indexes[i]];
+                }
+                break;
+            }
+            case ParquetEncoding.RLE: {
+                if (column.getType() != ParquetType.BOOLEAN) {
+                    throw new IOException("RLE encoding is not supported for " + column.getType() + " values");
+                }
+                input.readIntLE();
+                int[] bits = new int[nonNullCount];
+                input.decodeHybrid(1, bits, nonNullCount);
+                for (int i = 0; i < nonNullCount; i++) {
+                    values[i] = bits[i] != 0;
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unsupported Parquet encoding " + encoding + " in column '" + column.getName() + "'");
+        }
+        int valueIndex = 0;
+        for (int level : levels) {
+            result[filled++] = level == 0 ? null : values[valueIndex++];
+        }
+        return filled;
+    }
+
+    private void readSchema(List<?> schema) throws IOException {
+        if (schema.isEmpty()) {
+            throw new IOException("Parquet schema is empty");
+        }
+        for (int i = 1; i < schema.size(); i++) {
+            ThriftCompactReader.Struct element = (ThriftCompactReader.Struct) schema.get(i);
+            String name = element.getString(4);
+            if (element.getInt(5, 0) > 0 || !element.has(1)) {
+                throw new IOException("Nested Parquet columns are not supported (column '" + name + "')");
+            }
+            int repetition = element.getInt(3, REPETITION_REQUIRED);
+            if (repetition == REPETITION_REPEATED) {
+                throw new IOException("Repeated Parquet columns are not supported (column '" + name + "')");
+            }
+            ParquetType type = ParquetType.getById(element.getInt(1, -1));
+            int precision = element.getInt(8, 0);
+            int scale = element.getInt(7, 0);
+            ParquetLogicalType logicalType = ParquetLogicalType.getByConvertedType(element.getInt(6, -1));
+            ThriftCompactReader.Struct logicalTypeInfo = element.getStruct(10);
+            if (logicalTypeInfo != null) {
+                ThriftCompactReader.Struct decimal = logicalTypeInfo.getStruct(5);
+                if (decimal != null) {
+                    scale = decimal.getInt(1, scale);
+                    precision = decimal.getInt(2, precision);
+                }
+                logicalType = getLogicalType(logicalTypeInfo, logicalType);
+            }
+            columns.add(new ParquetColumn(
+                name, type, logicalType, precision, scale, element.getInt(2, 0), repetition == REPETITION_REQUIRED));
+        }
+    }
+
+    /**
+     * Resolves LogicalType union. It is the only way to declare nanosecond precision values.
+     */
+    private static ParquetLogicalType getLogicalType(ThriftCompactReader.Struct logicalType, ParquetLogicalType defaultType) {
+        if (logicalType.has(1) || logicalType.has(4)) {
+            return ParquetLogicalType.STRING;
+        } else if (logicalType.has(5)) {
+            return ParquetLogicalType.DECIMAL;
+        } else if (logicalType.has(6)) {
+            return ParquetLogicalType.DATE;
+        } else if (logicalType.has(12)) {
+            return ParquetLogicalType.JSON;
+        }
+        boolean time = logicalType.has(7);
+        ThriftCompactReader.Struct temporal = logicalType.getStruct(time ? 7 : 8);
+        ThriftCompactReader.Struct unit = temporal == null ? null : temporal.getStruct(2);
+        if (unit == null) {
+            return defaultType;
+        } else if (unit.has(1)) {
+            return time ? ParquetLogicalType.TIME_MILLIS : ParquetLogicalType.TIMESTAMP_MILLIS;
+        } else if (unit.has(2)) {
+            return time ? ParquetLogicalType.TIME_MICROS : ParquetLogicalType.TIMESTAMP_MICROS;
+        } else {
+            return time ? ParquetLogicalType.TIME_NANOS : ParquetLogicalType.TIMESTAMP_NANOS;
+        }
+    }
+
+    private RowGroup readRowGroup(ThriftCompactReader.Struct rowGroup) throws IOException {
+        RowGroup group = new RowGroup(rowGroup.getLong(3, 0));
+        List<?> chunks = rowGroup.getList(1);
+        if (chunks.size() != columns.size()) {
+            throw new IOException("Row group has " + chunks.size() + " columns while schema has " + columns.size());
+        }
+        for (Object chunk : chunks) {
+            ThriftCompactReader.Struct metadata = ((ThriftCompactReader.Struct) chunk).getStruct(3);
+            if (metadata == null) {
+                throw new IOException("Column chunks stored in external files are not supported");
+            }
+            long dataOffset = metadata.getLong(9, 0);
+            long dictionaryOffset = metadata.getLong(11, -1);
+            // Some writers put zero dictionary offset for columns without dictionary
+            long offset = dictionaryOffset > 0 && dictionaryOffset < dataOffset ? dictionaryOffset : dataOffset;
+            group.chunks.add(new ColumnChunk(
+                offset,
+                metadata.getLong(7, 0),
+                metadata.getInt(4, 0)));
+        }
+        return group;
+    }
+
+    private byte[] readBytes(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of Parquet file");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static class RowGroup {
+        private final long rowCount;
+        private final List<ColumnChunk> chunks = new ArrayList<>();
+
+        RowGroup(long rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+
+    private static class ColumnChunk {
+        private final long offset;
+        private final long length;
+        private final int codecId;
+
+        ColumnChunk(long offset, long length, int codecId) {
+            this.offset = offset;
+            this.length = length;
+            this.codecId = codecId;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows into a Parquet file with a flat schema of optional columns.
+ * <p>
+ * Rows are buffered column-wise until the row group is full. Each column chunk is then written as an optional
+ * dictionary page followed by PLAIN or dictionary encoded data pages.
+ * The target stream is never closed by the writer.
+ */
+public class ParquetFileWriter {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 100_000;
+
+    static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    static final int PAGE_TYPE_DATA = 0;
+    static final int PAGE_TYPE_DICTIONARY = 2;
+    static final int PAGE_TYPE_DATA_V2 = 3;
+
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int PAGE_VALUE_COUNT = 20_000;
+    // Flush row group earlier if it holds too much data, e.g. for wide LOB columns
+    private static final long MAX_ROW_GROUP_BYTES = 128L * 1024 * 1024;
+    private static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+    private static final String CREATED_BY = "DBeaver";
+
+    private final OutputStream out;
+    private final List<ParquetColumn> columns;
+    private final ParquetCompression compression;
+    private final boolean dictionaryEncoding;
+    private final int rowGroupSize;
+
+    private final List<Object[]> columnValues = new ArrayList<>();
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private int bufferedRows;
+    private long bufferedBytes;
+    private long totalRows;
+    private long position;
+
+    public ParquetFileWriter(
+        @NotNull OutputStream out,
+        @NotNull List<ParquetColumn> columns,
+        @NotNull ParquetCompression compression,
+        boolean dictionaryEncoding,
+        int rowGroupSize
+    ) throws IOException {
+        this.out = out;
+        this.columns = columns;
+        this.compression = compression;
+        this.dictionaryEncoding = dictionaryEncoding;
+        this.rowGroupSize = rowGroupSize > 0 ? rowGroupSize : DEFAULT_ROW_GROUP_SIZE;
+        for (int i = 0; i < columns.size(); i++) {
+            columnValues.add(new Object[Math.min(this.rowGroupSize, PAGE_VALUE_COUNT)]);
+        }
+        write(MAGIC);
+    }
+
+    public long getRowCount() {
+        return totalRows + bufferedRows;
+    }
+
+    /**
+     * Adds row to the current row group. Values are converted to the physical types of the columns.
+     */
+    public void writeRow(@NotNull Object[] row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = columns.get(i).toPhysical(i < row.length ? row[i] : null);
+            Object[] values = columnValues.get(i);
+            if (bufferedRows == values.length) {
+                values = Arrays.copyOf(values, Math.min(rowGroupSize, values.length * 2));
+                columnValues.set(i, values);
+            }
+            values[bufferedRows] = value;
+            bufferedBytes += value instanceof byte[] ? ((byte[]) value).length + 4 : 8;
+        }
+        bufferedRows++;
+        if (bufferedRows >= rowGroupSize || bufferedBytes >= MAX_ROW_GROUP_BYTES) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Flushes buffered rows and writes the file footer
+     */
+    public void finish() throws IOException {
+        if (bufferedRows > 0) {
+            flushRowGroup();
+        }
+        ThriftCompactWriter metadata = new ThriftCompactWriter().beginStruct();
+        metadata.writeI32(1, 1);
+        metadata.beginListField(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        metadata.beginStruct()
+            .writeString(4, "schema")
+            .writeI32(5, columns.size())
+            .endStruct();
+        for (ParquetColumn column : columns) {
+            metadata.beginStruct();
+            metadata.writeI32(1, column.getType().getId());
+            metadata.writeI32(3, REPETITION_OPTIONAL);
+            metadata.writeString(4, column.getName());
+            if (column.getLogicalType().getConvertedType() >= 0) {
+                metadata.writeI32(6, column.getLogicalType().getConvertedType());
+            }
+            if (column.getLogicalType() == ParquetLogicalType.DECIMAL) {
+                metadata.writeI32(7, column.getScale());
+                metadata.writeI32(8, column.getPrecision());
+            }
+            metadata.endStruct();
+        }
+        metadata.writeI64(3, totalRows);
+        metadata.beginListField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            metadata.beginStruct();
+            metadata.beginListField(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks.size());
+            for (ColumnChunkInfo chunk : rowGroup.chunks) {
+                writeColumnChunkMetadata(metadata, chunk);
+            }
+            metadata.writeI64(2, rowGroup.totalByteSize);
+            metadata.writeI64(3, rowGroup.rowCount);
+            metadata.endStruct();
+        }
+        metadata.writeString(6, CREATED_BY);
+        metadata.endStruct();
+
+        byte[] fileMetadata = metadata.toByteArray();
+        write(fileMetadata);
+        ByteArrayOutputStream tail = new ByteArrayOutputStream(8);
+        ParquetEncoding.writeIntLE(tail, fileMetadata.length);
+        tail.write(MAGIC, 0, MAGIC.length);
+        write(tail.toByteArray());
+        out.flush();
+    }
+
+    private void writeColumnChunkMetadata(ThriftCompactWriter metadata, ColumnChunkInfo chunk) {
+        metadata.beginStruct();
+        metadata.writeI64(2, chunk.chunkOffset);
+        metadata.beginStructField(3);
+        metadata.writeI32(1, chunk.column.getType().getId());
+        metadata.beginListField(2, ThriftCompactWriter.TYPE_I32, 2);
+        metadata.writeI32Element(chunk.valueEncoding);
+        metadata.writeI32Element(ParquetEncoding.RLE);
+        metadata.beginListField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+        metadata.writeStringElement(chunk.column.getName());
+        metadata.writeI32(4, compression.getCodecId());
+        metadata.writeI64(5, chunk.valueCount);
+        metadata.writeI64(6, chunk.uncompressedSize);
+        metadata.writeI64(7, chunk.compressedSize);
+        metadata.writeI64(9, chunk.dataPageOffset);
+        if (chunk.dictionaryPageOffset >= 0) {
+            metadata.writeI64(11, chunk.dictionaryPageOffset);
+        }
+        metadata.endStruct();
+        metadata.endStruct();
+    }
+
+    private void flushRowGroup() throws IOException {
+        RowGroupInfo rowGroup = new RowGroupInfo(bufferedRows);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnChunkInfo chunk = writeColumnChunk(columns.get(i), columnValues.get(i));
+            rowGroup.chunks.add(chunk);
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+        }
+        rowGroups.add(rowGroup);
+
+        for (Object[] values : columnValues) {
+            Arrays.fill(values, 0, bufferedRows, null);
+        }
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+        bufferedBytes = 0;
+    }
+
+    private ColumnChunkInfo writeColumnChunk(ParquetColumn column, Object[] values) throws IOException {
+        ColumnChunkInfo chunk = new ColumnChunkInfo(column, position, bufferedRows);
+        ParquetType type = column.getType();
+
+        Object[] dictionary = null;
+        int[] indexes = null;
+        if (dictionaryEncoding && type != ParquetType.BOOLEAN) {
+            indexes = new int[bufferedRows];
+            dictionary = buildDictionary(values, indexes);
+        }
+
+        if (dictionary != null) {
+            chunk.dictionaryPageOffset = position;
+            ByteArrayOutputStream page = new ByteArrayOutputStream();
+            ParquetEncoding.encodePlain(page, type, dictionary, dictionary.length);
+            ThriftCompactWriter header = new ThriftCompactWriter().beginStruct();
+            int dictionarySize = dictionary.length;
+            chunk.uncompressedSize += writePage(header, PAGE_TYPE_DICTIONARY, page, () -> header
+                .beginStructField(7)
+                .writeI32(1, dictionarySize)
+                .writeI32(2, ParquetEncoding.PLAIN_DICTIONARY)
+                .endStruct());
+        }
+
+        chunk.dataPageOffset = position;
+        chunk.valueEncoding = dictionary != null ? ParquetEncoding.PLAIN_DICTIONARY : ParquetEncoding.PLAIN;
+        int bitWidth = dictionary != null ? Math.max(1, ParquetEncoding.getBitWidth(dictionary.length - 1)) : 0;
+        int[] levels = new int[Math.min(PAGE_VALUE_COUNT, bufferedRows)];
+        Object[] pageValues = dictionary != null ? null : new Object[levels.length];
+        int[] pageIndexes = dictionary != null ? new int[levels.length] : null;
+        for (int pageStart = 0; pageStart < bufferedRows; pageStart += PAGE_VALUE_COUNT) {
+            int pageRows = Math.min(PAGE_VALUE_COUNT, bufferedRows - pageStart);
+            int valueCount = 0;
+            for (int i = 0; i < pageRows; i++) {
+                Object value = values[pageStart + i];
+                levels[i] = value == null ? 0 : 1;
+                if (value != null) {
+                    if (pageIndexes != null) {
+                        pageIndexes[valueCount++] = indexes[pageStart + i];
+                    } else {
+                        pageValues[valueCount++] = value;
+                    }
+                }
+            }
+            ByteArrayOutputStream page = new ByteArrayOutputStream();
+            ByteArrayOutputStream levelsBuffer = new ByteArrayOutputStream();
+            ParquetEncoding.encodeHybrid(levelsBuffer, 1, levels, pageRows);
+            ParquetEncoding.writeIntLE(page, levelsBuffer.size());
+            levelsBuffer.writeTo(page);
+            if (pageIndexes != null) {
+                page.write(bitWidth);
+                ParquetEncoding.encodeHybrid(page, bitWidth, pageIndexes, valueCount);
+            } else {
+                ParquetEncoding.encodePlain(page, type, pageValues, valueCount);
+            }
+            ThriftCompactWriter header = new ThriftCompactWriter().beginStruct();
+            int valueEncoding = chunk.valueEncoding;
+            chunk.uncompressedSize += writePage(header, PAGE_TYPE_DATA, page, () -> header
+                .beginStructField(5)
+                .writeI32(1, pageRows)
+                .writeI32(2, valueEncoding)
+                .writeI32(3, ParquetEncoding.RLE)
+                .writeI32(4, ParquetEncoding.RLE)
+                .endStruct());
+        }
+        chunk.compressedSize = position - chunk.chunkOffset;
+        return chunk;
+    }
+
+    /**
+     * Builds dictionary of distinct non-null values and fills value indexes.
+     * Returns null if dictionary encoding is not worth it for these values.
+     */
+    @Nullable
+    private Object[] buildDictionary(Object[] values, int[] indexes) {
+        Map<Object, Integer> dictionary = new HashMap<>();
+        List<Object> entries = new ArrayList<>();
+        int nonNullCount = 0;
+        long dictionaryBytes = 0;
+        for (int i = 0; i < bufferedRows; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            nonNullCount++;
+            Object key = value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+            Integer index = dictionary.get(key);
+            if (index == null) {
+                index = entries.size();
+                dictionary.put(key, index);
+                entries.add(value);
+                dictionaryBytes += value instanceof byte[] ? ((byte[]) value).length + 4 : 8;
+                if (dictionaryBytes > MAX_DICTIONARY_BYTES) {
+                    return null;
+                }
+            }
+            indexes[i] = index;
+        }
+        if (entries.isEmpty() || entries.size() > nonNullCount / 2) {
+            // Mostly unique values
+            return null;
+        }
+        return entries.toArray();
+    }
+
+    private long writePage(ThriftCompactWriter header, int pageType, ByteArrayOutputStream page, Runnable pageHeaderWriter) throws IOException {
+        byte[] data = page.toByteArray();
+        byte[] compressed = compression.compress(data, data.length);
+        header.writeI32(1, pageType);
+        header.writeI32(2, data.length);
+        header.writeI32(3, compressed.length);
+        pageHeaderWriter.run();
+        header.endStruct();
+        byte[] headerBytes = header.toByteArray();
+        write(headerBytes);
+        write(compressed);
+        return headerBytes.length + data.length;
+    }
+
+    private void write(byte[] data) throws IOException {
+        out.write(data);
+        position += data.length;
+    }
+
+    private static class RowGroupInfo {
+        private final long rowCount;
+        private final List<ColumnChunkInfo> chunks = new ArrayList<>();
+        private long totalByteSize;
+
+        RowGroupInfo(long rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+
+    private static class ColumnChunkInfo {
+        private final ParquetColumn column;
+        private final long chunkOffset;
+        private final long valueCount;
+        private long dictionaryPageOffset = -1;
+        private long dataPageOffset;
+        private int valueEncoding;
+        private long uncompressedSize;
+        private long compressedSize;
+
+        ColumnChunkInfo(ParquetColumn column, long chunkOffset, long valueCount) {
+            this.column = column;
+            this.chunkOffset = chunkOffset;
+            this.valueCount = valueCount;
+        }
+    }
+
+}
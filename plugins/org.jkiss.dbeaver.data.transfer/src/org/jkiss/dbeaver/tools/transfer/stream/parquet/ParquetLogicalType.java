@@ -0,0 +1,56 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+/**
+ * Parquet logical type. Stored in files as a legacy converted type which is understood by all readers.
+ */
+public enum ParquetLogicalType {
+    NONE(-1),
+    STRING(0),
+    DECIMAL(5),
+    DATE(6),
+    TIME_MILLIS(7),
+    TIME_MICROS(8),
+    TIMESTAMP_MILLIS(9),
+    TIMESTAMP_MICROS(10),
+    // There is no converted type for nanosecond values, they may be only declared with the new logical type annotation
+    TIME_NANOS(-1),
+    TIMESTAMP_NANOS(-1),
+    JSON(19);
+
+    private final int convertedType;
+
+    ParquetLogicalType(int convertedType) {
+        this.convertedType = convertedType;
+    }
+
+    public int getConvertedType() {
+        return convertedType;
+    }
+
+    static ParquetLogicalType getByConvertedType(int convertedType) {
+        if (convertedType >= 0) {
+            for (ParquetLogicalType type : values()) {
+                if (type.convertedType == convertedType) {
+                    return type;
+                }
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+/**
+ * Parquet physical type
+ */
+public enum ParquetType {
+    BOOLEAN(0),
+    INT32(1),
+    INT64(2),
+    INT96(3),
+    FLOAT(4),
+    DOUBLE(5),
+    BYTE_ARRAY(6),
+    FIXED_LEN_BYTE_ARRAY(7);
+
+    private final int id;
+
+    ParquetType(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    static ParquetType getById(int id) {
+        for (ParquetType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported Parquet type: " + id);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Raw (unframed) Snappy block format, as used for Parquet pages.
+ * The compressor uses a simple greedy hash matcher: it is not as tight as the reference implementation
+ * but produces streams readable by any Snappy decoder.
+ */
+final class SnappyCodec {
+
+    private static final int HASH_BITS = 14;
+    private static final int MAX_OFFSET = 65535;
+
+    private SnappyCodec() {
+    }
+
+    static byte[] compress(byte[] input, int length) {
+        byte[] out = new byte[32 + length + length / 6];
+        int op = writeVarInt(out, 0, length);
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+
+        int ip = 0;
+        int literalStart = 0;
+        while (ip <= length - 4) {
+            int value = readIntLE(input, ip);
+            int hash = (value * 0x1e35a7bd) >>> (32 - HASH_BITS);
+            int candidate = table[hash];
+            table[hash] = ip;
+            if (candidate >= 0 && ip - candidate <= MAX_OFFSET && readIntLE(input, candidate) == value) {
+                int matchLength = 4;
+                while (ip + matchLength < length && input[candidate + matchLength] == input[ip + matchLength]) {
+                    matchLength++;
+                }
+                op = emitLiteral(out, op, input, literalStart, ip - literalStart);
+                op = emitCopy(out, op, ip - candidate, matchLength);
+                ip += matchLength;
+                literalStart = ip;
+            } else {
+                // Skip faster over incompressible data
+                ip += 1 + ((ip - literalStart) >> 5);
+            }
+        }
+        op = emitLiteral(out, op, input, literalStart, length - literalStart);
+        return Arrays.copyOf(out, op);
+    }
+
+    static byte[] decompress(byte[] input, int offset, int length) throws IOException {
+        int end = offset + length;
+        int ip = offset;
+        int uncompressedLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (ip >= end || shift > 28) {
+                throw new IOException("Malformed Snappy block header");
+            }
+            int b = input[ip++] & 0xFF;
+            uncompressedLength |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        byte[] out = new byte[uncompressedLength];
+        int op = 0;
+        while (ip < end) {
+            int tag = input[ip++] & 0xFF;
+            int copyLength;
+            int copyOffset;
+            switch (tag & 3) {
+                case 0: {
+                    int literalLength = tag >>> 2;
+                    if (literalLength >= 60) {
+                        int bytes = literalLength - 59;
+                        literalLength = 0;
+                        for (int i = 0; i < bytes; i++) {
+                            literalLength |= (input[ip++] & 0xFF) << (i * 8);
+                        }
+                    }
+                    literalLength++;
+                    if (literalLength <= 0 || ip + literalLength > end || op + literalLength > out.length) {
+                        throw new IOException("Malformed Snappy literal");
+                    }
+                    System.arraycopy(input, ip, out, op, literalLength);
+                    ip += literalLength;
+                    op += literalLength;
+                    continue;
+                }
+                case 1:
+                    copyLength = 4 + ((tag >>> 2) & 7);
+                    copyOffset = ((tag >>> 5) << 8) | (input[ip++] & 0xFF);
+                    break;
+                case 2:
+                    copyLength = 1 + (tag >>> 2);
+                    copyOffset = (input[ip] & 0xFF) | ((input[ip + 1] & 0xFF) << 8);
+                    ip += 2;
+                    break;
+                default:
+                    copyLength = 1 + (tag >>> 2);
+                    copyOffset = readIntLE(input, ip);
+                    ip += 4;
+                    break;
+            }
+            if (copyOffset <= 0 || copyOffset > op || op + copyLength > out.length) {
+                throw new IOException("Malformed Snappy copy");
+            }
+            // Source and target may overlap, copy byte by byte
+            for (int i = 0; i < copyLength; i++, op++) {
+                out[op] = out[op - copyOffset];
+            }
+        }
+        if (op != out.length) {
+            throw new IOException("Snappy block is truncated");
+        }
+        return out;
+    }
+
+    private static int emitLiteral(byte[] out, int op, byte[] input, int start, int length) {
+        if (length == 0) {
+            return op;
+        }
+        int n = length - 1;
+        if (n < 60) {
+            out[op++] = (byte) (n << 2);
+        } else {
+            int bytes = n < (1 << 8) ? 1 : n < (1 << 16) ? 2 : n < (1 << 24) ? 3 : 4;
+            out[op++] = (byte) ((59 + bytes) << 2);
+            for (int i = 0; i < bytes; i++) {
+                out[op++] = (byte) (n >>> (i * 8));
+            }
+        }
+        System.arraycopy(input, start, out, op, length);
+        return op + length;
+    }
+
+    private static int emitCopy(byte[] out, int op, int offset, int length) {
+        while (length >= 68) {
+            op = emitCopy2(out, op, offset, 64);
+            length -= 64;
+        }
+        if (length > 64) {
+            op = emitCopy2(out, op, offset, 60);
+            length -= 60;
+        }
+        if (length < 12 && offset < 2048) {
+            out[op++] = (byte) (1 | ((length - 4) << 2) | ((offset >>> 8) << 5));
+            out[op++] = (byte) offset;
+            return op;
+        }
+        return emitCopy2(out, op, offset, length);
+    }
+
+    private static int emitCopy2(byte[] out, int op, int offset, int length) {
+        out[op++] = (byte) (2 | ((length - 1) << 2));
+        out[op++] = (byte) offset;
+        out[op++] = (byte) (offset >>> 8);
+        return op;
+    }
+
+    private static int writeVarInt(byte[] out, int op, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[op++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[op++] = (byte) value;
+        return op;
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) |
+            ((data[offset + 1] & 0xFF) << 8) |
+            ((data[offset + 2] & 0xFF) << 16) |
+            ((data[offset + 3] & 0xFF) << 24);
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.parquet.ThriftCompactWriter.*;
+
+/**
+ * Reader of the Thrift compact protocol.
+ * Structures are read generically into {@link Struct} so unknown fields written by other tools are simply ignored.
+ */
+final class ThriftCompactReader {
+
+    private final byte[] data;
+    private int position;
+
+    ThriftCompactReader(byte[] data, int offset) {
+        this.data = data;
+        this.position = offset;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    Struct readStruct() throws IOException {
+        Struct struct = new Struct();
+        int lastFieldId = 0;
+        for (; ; ) {
+            int header = readByte();
+            if (header == 0) {
+                return struct;
+            }
+            int type = header & 0x0F;
+            int delta = header >>> 4;
+            int fieldId = delta != 0 ? lastFieldId + delta : (short) unzigzag(readVarLong());
+            lastFieldId = fieldId;
+            Object value;
+            if (type == TYPE_BOOLEAN_TRUE || type == TYPE_BOOLEAN_FALSE) {
+                value = type == TYPE_BOOLEAN_TRUE;
+            } else {
+                value = readValue(type);
+            }
+            struct.fields.put(fieldId, value);
+        }
+    }
+
+    private Object readValue(int type) throws IOException {
+        switch (type) {
+            case TYPE_BOOLEAN_TRUE:
+            case TYPE_BOOLEAN_FALSE:
+                return readByte() == TYPE_BOOLEAN_TRUE;
+            case TYPE_BYTE:
+                return (int) (byte) readByte();
+            case TYPE_I16:
+            case TYPE_I32:
+                return (int) unzigzag(readVarLong());
+            case TYPE_I64:
+                return unzigzag(readVarLong());
+            case TYPE_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (long) readByte() << (i * 8);
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            case TYPE_BINARY: {
+                int length = (int) readVarLong();
+                checkAvailable(length);
+                byte[] value = Arrays.copyOfRange(data, position, position + length);
+                position += length;
+                return value;
+            }
+            case TYPE_LIST:
+            case TYPE_SET: {
+                int header = readByte();
+                int size = header >>> 4;
+                if (size == 15) {
+                    size = (int) readVarLong();
+                }
+                int elementType = header & 0x0F;
+                List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(elementType));
+                }
+                return list;
+            }
+            case TYPE_MAP: {
+                int size = (int) readVarLong();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                if (size > 0) {
+                    int types = readByte();
+                    for (int i = 0; i < size; i++) {
+                        Object key = readValue(types >>> 4);
+                        map.put(key, readValue(types & 0x0F));
+                    }
+                }
+                return map;
+            }
+            case TYPE_STRUCT:
+                return readStruct();
+            default:
+                throw new IOException("Unsupported Thrift type " + type + " at offset " + position);
+        }
+    }
+
+    private int readByte() throws IOException {
+        checkAvailable(1);
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed Thrift varint at offset " + position);
+    }
+
+    private void checkAvailable(int length) throws IOException {
+        if (length < 0 || position + length > data.length) {
+            throw new IOException("Unexpected end of Thrift data at offset " + position);
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Thrift structure read without schema: field values are mapped by field id.
+     */
+    static final class Struct {
+
+        private final Map<Integer, Object> fields = new HashMap<>();
+
+        boolean has(int fieldId) {
+            return fields.containsKey(fieldId);
+        }
+
+        int getInt(int fieldId, int defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+        }
+
+        long getLong(int fieldId, long defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+        }
+
+        boolean getBoolean(int fieldId, boolean defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
+
+        String getString(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : null;
+        }
+
+        Struct getStruct(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof Struct ? (Struct) value : null;
+        }
+
+        List<?> getList(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof List ? (List<?>) value : Collections.emptyList();
+        }
+    }
+
+}
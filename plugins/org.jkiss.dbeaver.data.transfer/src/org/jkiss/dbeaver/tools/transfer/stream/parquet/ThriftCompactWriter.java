@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer of the Thrift compact protocol, which is used by Parquet for page headers and file metadata.
+ * Only the subset of the protocol required by Parquet is implemented.
+ */
+final class ThriftCompactWriter {
+
+    static final int TYPE_BOOLEAN_TRUE = 1;
+    static final int TYPE_BOOLEAN_FALSE = 2;
+    static final int TYPE_BYTE = 3;
+    static final int TYPE_I16 = 4;
+    static final int TYPE_I32 = 5;
+    static final int TYPE_I64 = 6;
+    static final int TYPE_DOUBLE = 7;
+    static final int TYPE_BINARY = 8;
+    static final int TYPE_LIST = 9;
+    static final int TYPE_SET = 10;
+    static final int TYPE_MAP = 11;
+    static final int TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final int[] fieldIdStack = new int[16];
+    private int depth;
+    private int lastFieldId;
+
+    ThriftCompactWriter beginStruct() {
+        fieldIdStack[depth++] = lastFieldId;
+        lastFieldId = 0;
+        return this;
+    }
+
+    ThriftCompactWriter endStruct() {
+        buffer.write(0);
+        lastFieldId = fieldIdStack[--depth];
+        return this;
+    }
+
+    ThriftCompactWriter beginStructField(int fieldId) {
+        writeFieldHeader(fieldId, TYPE_STRUCT);
+        return beginStruct();
+    }
+
+    ThriftCompactWriter writeBool(int fieldId, boolean value) {
+        writeFieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+        return this;
+    }
+
+    ThriftCompactWriter writeI32(int fieldId, int value) {
+        writeFieldHeader(fieldId, TYPE_I32);
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter writeI64(int fieldId, long value) {
+        writeFieldHeader(fieldId, TYPE_I64);
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter writeBinary(int fieldId, byte[] value) {
+        writeFieldHeader(fieldId, TYPE_BINARY);
+        writeBinaryValue(value);
+        return this;
+    }
+
+    ThriftCompactWriter writeString(int fieldId, String value) {
+        return writeBinary(fieldId, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes list field header. Exactly {@code size} elements must follow.
+     */
+    ThriftCompactWriter beginListField(int fieldId, int elementType, int size) {
+        writeFieldHeader(fieldId, TYPE_LIST);
+        if (size < 15) {
+            buffer.write((size << 4) | elementType);
+        } else {
+            buffer.write(0xF0 | elementType);
+            writeVarLong(size);
+        }
+        return this;
+    }
+
+    ThriftCompactWriter writeI32Element(int value) {
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter writeStringElement(String value) {
+        writeBinaryValue(value.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    private void writeFieldHeader(int fieldId, int type) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            buffer.write((delta << 4) | type);
+        } else {
+            buffer.write(type);
+            writeVarLong(zigzag(fieldId));
+        }
+        lastFieldId = fieldId;
+    }
+
+    private void writeBinaryValue(byte[] value) {
+        writeVarLong(value.length);
+        buffer.write(value, 0, value.length);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
@@ -35,6 +35,9 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -88,8 +91,9 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
 
     private void runServer(IApplicationContext appContext, DBPApplication application) throws IOException {
         int portNumber = IOUtils.findFreePort(20000, 65000);
-        DPIRestServer server = new DPIRestServer(application, portNumber);
-        saveServerInfo(portNumber);
+        Path socketFile = getConfigurationFolder().resolve(DPIConstants.SERVER_SOCKET_FILE);
+        DPIRestServer server = new DPIRestServer(application, portNumber, socketFile);
+        saveServerInfo(portNumber, server.getBinaryAddress());
         try {
             log.debug("Started DPI Server at " + portNumber);
             server.join();
@@ -98,10 +102,16 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
         }
     }
 
-    private void saveServerInfo(int portNumber) throws IOException {
+    private void saveServerInfo(int portNumber, @Nullable SocketAddress binaryAddress) throws IOException {
         Path serverIniFile = getServerIniFile();
         try (BufferedWriter out = Files.newBufferedWriter(serverIniFile, StandardOpenOption.CREATE)) {
             Map<String, String> props = new LinkedHashMap<>();
+            if (binaryAddress instanceof UnixDomainSocketAddress socketAddress) {
+                props.put(DPIConstants.PARAM_SERVER_SOCKET, socketAddress.getPath().toString());
+            } else if (binaryAddress instanceof InetSocketAddress inetAddress) {
+                props.put(DPIConstants.PARAM_SERVER_BINARY_PORT, String.valueOf(inetAddress.getPort()));
+            }
+            // Port is written last: client starts reading the file as soon as port is there
             props.put(DPIConstants.PARAM_SERVER_PORT, String.valueOf(portNumber));
             props.put("startTime", new Date().toString());
             ConfigUtils.storeProperties(out, props);
@@ -117,6 +127,11 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
 
     @NotNull
     private Path getServerIniFile() throws IOException {
+        return getConfigurationFolder().resolve(DPIConstants.SERVER_INI_FILE);
+    }
+
+    @NotNull
+    private Path getConfigurationFolder() throws IOException {
         String configPath = System.getProperty(EquinoxLocations.PROP_CONFIG_AREA);
         if (configPath == null) {
             throw new IOException("OSGI configuration area property not set");
@@ -126,8 +141,7 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
         if (!Files.exists(configFolder)) {
             throw new IOException("Configuration folder '" + configFolder + "' doesn't exists");
         }
-        Path serverIniFile = configFolder.resolve(DPIConstants.SERVER_INI_FILE);
-        return serverIniFile;
+        return configFolder;
     }
 
     @NotNull
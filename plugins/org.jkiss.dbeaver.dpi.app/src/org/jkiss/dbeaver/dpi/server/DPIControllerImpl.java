@@ -32,7 +32,11 @@ import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.dpi.DPIDataSourceParameters;
+import org.jkiss.dbeaver.model.dpi.DPIResultSetChunk;
 import org.jkiss.dbeaver.model.dpi.DPISession;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -40,11 +44,11 @@ import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
 import org.jkiss.dbeaver.registry.*;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
-import org.jkiss.utils.rest.RestServer;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,7 +60,7 @@ public class DPIControllerImpl implements DPIController {
 
     private final DPIContext context;
     private final Map<String, DPISession> sessions = new LinkedHashMap<>();
-    private RestServer<?> server;
+    private DPIRestServer server;
 
     public DPIControllerImpl(DPIContext context) {
         this.context = context;
@@ -124,7 +128,7 @@ public class DPIControllerImpl implements DPIController {
             new AbstractJob("Stop detached server") {
                 @Override
                 protected IStatus run(DBRProgressMonitor monitor) {
-                    server.stop(1);
+                    server.stop();
                     server = null;
                     return Status.OK_STATUS;
                 }
@@ -171,6 +175,55 @@ public class DPIControllerImpl implements DPIController {
         return invokeObjectMethod(object, method, null);
     }
 
+    @Override
+    public Object[] readProperties(@NotNull String objectId, @NotNull String[] propertyNames) throws DBException {
+        Object object = context.getObject(objectId);
+        if (object == null) {
+            throw new DBException("DPI object '" + objectId + "' not found");
+        }
+        Object[] values = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            Method method = DBXTreeItem.findPropertyReadMethod(object.getClass(), propertyNames[i]);
+            if (method != null) {
+                values[i] = invokeObjectMethod(object, method, null);
+            }
+        }
+        return values;
+    }
+
+    @NotNull
+    @Override
+    public DPIResultSetChunk fetchRows(@NotNull String objectId, int maxRows) throws DBException {
+        Object object = context.getObject(objectId);
+        if (!(object instanceof DBCResultSet resultSet)) {
+            throw new DBException("DPI object '" + objectId + "' is not a result set");
+        }
+        // Result sets of different sessions may be read in parallel
+        DBCSession session = resultSet.getSession();
+        synchronized (session != null ? session : resultSet) {
+            DBRProgressMonitor monitor = context.getProgressMonitor();
+            List<? extends DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+            String[] attributeNames = new String[attributes.size()];
+            for (int i = 0; i < attributeNames.length; i++) {
+                attributeNames[i] = attributes.get(i).getLabel();
+            }
+            List<String[]> rows = new ArrayList<>(Math.min(maxRows, 1000));
+            boolean hasMoreRows = true;
+            while (rows.size() < maxRows) {
+                if (!resultSet.nextRow()) {
+                    hasMoreRows = false;
+                    break;
+                }
+                String[] row = new String[attributeNames.length];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = DPIResultSetChunk.encodeValue(monitor, resultSet.getAttributeValue(i));
+                }
+                rows.add(row);
+            }
+            return new DPIResultSetChunk(attributeNames, rows.toArray(new String[0][]), hasMoreRows);
+        }
+    }
+
     private Object invokeObjectMethod(Object object, Method method, Object[] args) throws DBException {
         boolean originalAccessible = method.canAccess(object);
         method.setAccessible(true);
@@ -227,11 +280,11 @@ public class DPIControllerImpl implements DPIController {
 
     }
 
-    public void setServer(RestServer<?> server) {
+    public void setServer(DPIRestServer server) {
         this.server = server;
     }
 
-    public RestServer<?> getServer() {
+    public DPIRestServer getServer() {
         return server;
     }
 }
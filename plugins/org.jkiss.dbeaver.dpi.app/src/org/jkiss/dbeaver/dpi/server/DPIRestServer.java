@@ -16,23 +16,34 @@
  */
 package org.jkiss.dbeaver.dpi.server;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.model.app.DBPApplication;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.rest.BinaryRpcServer;
 import org.jkiss.utils.rest.RestServer;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.file.Path;
 
 public class DPIRestServer {
 
     private static final Log log = Log.getLog(DPIRestServer.class);
 
     private final RestServer<?> restServer;
+    private final BinaryRpcServer<?> binaryServer;
 
-    public DPIRestServer(DBPApplication application, int portNumber) throws IOException {
+    /**
+     * Starts REST server and binary RPC server. Both serve the same controller.
+     * Binary server listens on Unix domain socket if it is supported by the platform, otherwise on a loopback port.
+     */
+    public DPIRestServer(DBPApplication application, int portNumber, @Nullable Path socketFile) throws IOException {
         DPIContext dpiContext = new DPIContext(new LoggingProgressMonitor(log), application);
 
         DPIControllerImpl dpiController = new DPIControllerImpl(dpiContext);
@@ -42,7 +53,59 @@ public class DPIRestServer {
             .setPort(portNumber)
             .setGson(dpiContext.getGson())
             .create();
-        dpiController.setServer(restServer);
+        binaryServer = createBinaryServer(dpiController, dpiContext, socketFile);
+        dpiController.setServer(this);
+    }
+
+    @Nullable
+    private static BinaryRpcServer<?> createBinaryServer(
+        @NotNull DPIControllerImpl dpiController,
+        @NotNull DPIContext dpiContext,
+        @Nullable Path socketFile
+    ) {
+        if (socketFile != null) {
+            try {
+                return BinaryRpcServer
+                    .builder(DPIController.class, dpiController)
+                    .setSocketFile(socketFile)
+                    .setGson(dpiContext.getGson())
+                    .create();
+            } catch (UncheckedIOException | UnsupportedOperationException e) {
+                // Unix domain sockets are not supported or socket path is too long
+                log.debug("Cannot open DPI socket '" + socketFile + "', use TCP: " + e.getMessage());
+            }
+        }
+        try {
+            return BinaryRpcServer
+                .builder(DPIController.class, dpiController)
+                .setGson(dpiContext.getGson())
+                .create();
+        } catch (UncheckedIOException e) {
+            log.error("Cannot start DPI binary server, only REST transport is available", e);
+            return null;
+        }
+    }
+
+    /**
+     * Binary transport address or null if binary server is not available
+     */
+    @Nullable
+    public SocketAddress getBinaryAddress() {
+        try {
+            return binaryServer == null ? null : binaryServer.getAddress();
+        } catch (IOException e) {
+            log.debug("Cannot get DPI binary server address", e);
+            return null;
+        }
+    }
+
+    public void stop() {
+        if (binaryServer != null) {
+            binaryServer.stop();
+        }
+        if (restServer.isRunning()) {
+            restServer.stop(1);
+        }
     }
 
     public void join() {
@@ -23,8 +23,15 @@ public class DPIConstants {
 
 
     public static final String PARAM_SERVER_PORT = "serverPort";
+    // Binary transport address: Unix domain socket path or TCP port if domain sockets are not available
+    public static final String PARAM_SERVER_SOCKET = "serverSocket";
+    public static final String PARAM_SERVER_BINARY_PORT = "serverBinaryPort";
 
     public static final String ARG_ENABLE_ENV = "-envVariablesEnabled";
 
     public static final String SERVER_INI_FILE = "server.ini";
+    public static final String SERVER_SOCKET_FILE = "dpi.socket";
+
+    // Number of rows transferred in one result set fetch call
+    public static final int RESULT_SET_FETCH_SIZE = 500;
 }
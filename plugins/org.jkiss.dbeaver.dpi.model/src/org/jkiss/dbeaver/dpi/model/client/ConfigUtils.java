@@ -43,7 +43,7 @@ public class ConfigUtils {
         Map<String, String> props = new LinkedHashMap<>();
         try (BufferedReader br = Files.newBufferedReader(serverConfigFile)) {
             br.lines().forEach(s -> {
-                String[] lineValue = s.split("=");
+                String[] lineValue = s.split("=", 2);
                 if (lineValue.length == 2) {
                     props.put(lineValue[0], lineValue[1]);
                 }
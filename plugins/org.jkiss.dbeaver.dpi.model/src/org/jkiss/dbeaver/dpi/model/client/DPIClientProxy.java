@@ -16,13 +16,18 @@
  */
 package org.jkiss.dbeaver.dpi.model.client;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.dpi.model.DPIConstants;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.dpi.model.DPISerializer;
 import org.jkiss.dbeaver.model.dpi.*;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -35,7 +40,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DPIClientProxy implements DPIClientObject, InvocationHandler {
@@ -53,6 +60,9 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
     private Map<String, Object> objectContainers;
     private Map<String, Object> propertyValues;
     private Map<Class<?>, Object> factoryObjects;
+    private Class<?> localClass;
+    private boolean propertiesPrefetched;
+    private ResultSetBuffer resultSetBuffer;
 
     public DPIClientProxy(
         @NotNull DPIContext context,
@@ -104,6 +114,13 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
             // Not read yet
             return null;
         }
+        if (!propertiesPrefetched) {
+            prefetchProperties();
+            value = propertyValues == null ? null : propertyValues.get(propertyName);
+            if (value != null) {
+                return unwrapObjectValue(value);
+            }
+        }
         // Read lazy property
         DPIController controller = context.getDpiController();
         if (controller == null) {
@@ -111,17 +128,15 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         }
         if (controller instanceof RestProxy) {
             // Try to get property class
-            try {
-                Type returnType = null;
-                Class<?> localClass = dpiClassLoader().loadClass(dpiObjectType());
+            Type returnType = null;
+            Class<?> localClass = getLocalClass();
+            if (localClass != null) {
                 Method getter = DBXTreeItem.findPropertyReadMethod(localClass, propertyName);
                 if (getter != null) {
                     returnType = getter.getGenericReturnType();
                 }
-                ((RestProxy) controller).setNextCallResultType(returnType);
-            } catch (ClassNotFoundException e) {
-                log.debug("Cannot resolve local class '" + dpiObjectType() + "'");
             }
+            ((RestProxy) controller).setNextCallResultType(returnType);
         }
         Object propValue = controller.readProperty(this.objectId, propertyName);
 
@@ -170,6 +185,27 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
                     log.debug("Unsupported DPI method '" + methodName + "'");
             }
             return null;
+        } else if (method.getDeclaringClass() == DBCResultSet.class) {
+            switch (methodName) {
+                case "nextRow":
+                    return nextBufferedRow();
+                case "getAttributeValue":
+                    if (resultSetBuffer != null && resultSetBuffer.hasCurrentRow()) {
+                        return resultSetBuffer.getValue(args[0]);
+                    }
+                    break;
+                case "getAttributeValueMeta":
+                case "getRowMeta":
+                    if (resultSetBuffer != null) {
+                        // Remote cursor is ahead of the buffered row, value meta is not transferred with rows
+                        return null;
+                    }
+                    break;
+                case "moveTo":
+                    // Absolute positioning is done remotely, buffered rows are no longer valid
+                    resultSetBuffer = null;
+                    break;
+            }
         }
 
         DPIContainer containerAnno = DPISerializer.getMethodAnno(method, DPIContainer.class);
@@ -201,8 +237,17 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         }
 
         Property propAnnotation = method.getAnnotation(Property.class);
-        if (propAnnotation != null && propertyValues != null) {
-            Object result = propertyValues.get(getPropertyKey(method, propAnnotation));
+        String propertyKey = propAnnotation == null ? null : getPropertyKey(method, propAnnotation);
+        if (propertyKey == null && ArrayUtils.isEmpty(args)) {
+            // Interfaces are rarely annotated, check property of the remote object class
+            propertyKey = getLocalPropertyKey(methodName);
+        }
+        if (propertyKey != null) {
+            Object result = propertyValues == null ? null : propertyValues.get(propertyKey);
+            if (result == null && !propertiesPrefetched) {
+                prefetchProperties();
+                result = propertyValues == null ? null : propertyValues.get(propertyKey);
+            }
             if (result != null) {
                 return unwrapObjectValue(result);
             }
@@ -229,9 +274,9 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
 
         Object result = invokeRemoteMethod(methodName, args, returnType);
 
-        if (propAnnotation != null) {
+        if (propertyKey != null) {
             // Cache property value
-            cachePropertyValue(getPropertyKey(method, propAnnotation), wrapObjectValue(result));
+            cachePropertyValue(propertyKey, wrapObjectValue(result));
         } else if (dpiFactoryClass != null) {
             // Cache factory result
             if (factoryObjects == null) {
@@ -257,6 +302,105 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         propertyValues.put(propertyName, value);
     }
 
+    /**
+     * Reads all non-lazy properties which were not transferred with the object in one remote call.
+     * Lazy properties (getters with progress monitor) may be expensive and are still read on demand.
+     */
+    private void prefetchProperties() {
+        propertiesPrefetched = true;
+        DPIController controller = context.getDpiController();
+        Class<?> localClass = getLocalClass();
+        if (controller == null || localClass == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        for (Method getter : localClass.getMethods()) {
+            Property propAnnotation = getter.getAnnotation(Property.class);
+            if (propAnnotation == null || getter.getParameterTypes().length != 0) {
+                continue;
+            }
+            String propertyKey = getPropertyKey(getter, propAnnotation);
+            if (propertyValues != null && propertyValues.containsKey(propertyKey)) {
+                continue;
+            }
+            names.add(BeanUtils.getPropertyNameFromGetter(getter.getName()));
+            keys.add(propertyKey);
+            types.add(getter.getGenericReturnType());
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        try {
+            if (controller instanceof RestProxy) {
+                // Keep values as trees, each one is converted to its getter type below
+                ((RestProxy) controller).setNextCallResultType(JsonElement[].class);
+            }
+            Object[] values = controller.readProperties(objectId, names.toArray(new String[0]));
+            Gson gson = context.getGson();
+            for (int i = 0; i < values.length && i < keys.size(); i++) {
+                Object value = values[i];
+                if (value instanceof JsonElement) {
+                    value = gson.fromJson((JsonElement) value, types.get(i));
+                }
+                cachePropertyValue(keys.get(i), wrapObjectValue(value));
+            }
+        } catch (Exception e) {
+            // Properties will be read one by one
+            log.debug("Error reading properties of DPI object '" + objectId + "'", e);
+        }
+    }
+
+    private boolean nextBufferedRow() throws DBException {
+        if (resultSetBuffer == null) {
+            resultSetBuffer = new ResultSetBuffer();
+        }
+        if (resultSetBuffer.next()) {
+            return true;
+        }
+        if (!resultSetBuffer.hasMoreRows) {
+            return false;
+        }
+        DPIController controller = context.getDpiController();
+        if (controller == null) {
+            throw new DBException("No DPI controller in client context");
+        }
+        if (controller instanceof RestProxy) {
+            ((RestProxy) controller).setNextCallResultType(null);
+        }
+        resultSetBuffer.setChunk(controller.fetchRows(objectId, DPIConstants.RESULT_SET_FETCH_SIZE));
+        return resultSetBuffer.next();
+    }
+
+    @Nullable
+    private String getLocalPropertyKey(@NotNull String methodName) {
+        Class<?> localClass = getLocalClass();
+        if (localClass == null) {
+            return null;
+        }
+        try {
+            Method getter = localClass.getMethod(methodName);
+            Property propAnnotation = getter.getAnnotation(Property.class);
+            return propAnnotation == null ? null : getPropertyKey(getter, propAnnotation);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private Class<?> getLocalClass() {
+        if (localClass == null && objectType != null) {
+            try {
+                localClass = dpiClassLoader().loadClass(objectType);
+            } catch (ClassNotFoundException e) {
+                log.debug("Cannot resolve local class '" + objectType + "'");
+                localClass = Object.class;
+            }
+        }
+        return localClass == Object.class ? null : localClass;
+    }
+
     private Object invokeRemoteMethod(@NotNull String methodName, @Nullable Object[] args, @Nullable Type returnType) throws DBException {
         DPIController controller = context.getDpiController();
         if (controller == null) {
@@ -285,6 +429,53 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         return propId;
     }
 
+    /**
+     * Rows of remote result set received in one fetch call
+     */
+    private static class ResultSetBuffer {
+        private String[] attributeNames = new String[0];
+        private Object[][] rows = new Object[0][];
+        private int position = -1;
+        private boolean hasMoreRows = true;
+
+        void setChunk(@NotNull DPIResultSetChunk chunk) throws DBCException {
+            attributeNames = chunk.getAttributeNames();
+            rows = chunk.getRows();
+            position = -1;
+            hasMoreRows = chunk.hasMoreRows();
+        }
+
+        boolean next() {
+            if (position + 1 < rows.length) {
+                position++;
+                return true;
+            }
+            position = rows.length;
+            return false;
+        }
+
+        boolean hasCurrentRow() {
+            return position >= 0 && position < rows.length;
+        }
+
+        Object getValue(Object attribute) throws DBCException {
+            Object[] row = rows[position];
+            if (attribute instanceof Number) {
+                int index = ((Number) attribute).intValue();
+                if (index < 0 || index >= row.length) {
+                    throw new DBCException("Attribute index " + index + " is out of range (" + row.length + ")");
+                }
+                return row[index];
+            }
+            for (int i = 0; i < attributeNames.length; i++) {
+                if (attributeNames[i] != null && attributeNames[i].equalsIgnoreCase(String.valueOf(attribute))) {
+                    return row[i];
+                }
+            }
+            throw new DBCException("Attribute '" + attribute + "' not found in result set");
+        }
+    }
+
     private static String getElementKey(Method method, Object[] args) {
         if (!ArrayUtils.isEmpty(args)) {
             StringBuilder buf = new StringBuilder(method.getName());
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.dpi.model.client;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIConstants;
@@ -28,11 +29,16 @@ import org.jkiss.dbeaver.model.dpi.DPIProcessController;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.rest.BinaryRpcClient;
 import org.jkiss.utils.rest.RestClient;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
@@ -47,6 +53,8 @@ public class DPIProcessControllerImpl implements DPIProcessController {
     public static final int PROCESS_PAWN_TIMEOUT = 10000;
     private DPIController dpiRestClient;
     private int dpiServerPort;
+    @Nullable
+    private SocketAddress dpiBinaryAddress;
     private final Process process;
 
 
@@ -72,6 +80,7 @@ public class DPIProcessControllerImpl implements DPIProcessController {
                     // Maybe it was incomplete config file
                     continue;
                 } else {
+                    dpiBinaryAddress = getBinaryEndpoint(props);
                     break;
                 }
             }
@@ -87,13 +96,28 @@ public class DPIProcessControllerImpl implements DPIProcessController {
             throw new IOException("Child DPI process start is failed (" + process.exitValue() + ")");
         }
 
+        if (dpiBinaryAddress != null) {
+            try {
+                dpiRestClient = BinaryRpcClient
+                    .builder(dpiBinaryAddress, DPIController.class)
+                    .setGson(DPISerializer.createSerializer(dpiContext))
+                    .create();
+
+                validateRestClient();
+            } catch (Throwable e) {
+                log.debug("Error connecting to DPI binary endpoint " + dpiBinaryAddress + ", use REST", e);
+                closeClient();
+            }
+        }
         try {
-            dpiRestClient = RestClient
-                .builder(getRemoteEndpoint(), DPIController.class)
-                .setGson(DPISerializer.createSerializer(dpiContext))
-                .create();
+            if (dpiRestClient == null) {
+                dpiRestClient = RestClient
+                    .builder(getRemoteEndpoint(), DPIController.class)
+                    .setGson(DPISerializer.createSerializer(dpiContext))
+                    .create();
 
-            validateRestClient();
+                validateRestClient();
+            }
         } catch (Throwable e) {
             terminateChildProcess();
             throw new IOException("Error connecting to DPI Server", e);
@@ -102,6 +126,13 @@ public class DPIProcessControllerImpl implements DPIProcessController {
     }
 
     private void terminateChildProcess() {
+        closeClient();
+        if (this.process != null && this.process.isAlive()) {
+            this.process.destroyForcibly();
+        }
+    }
+
+    private void closeClient() {
         if (dpiRestClient != null) {
             try {
                 dpiRestClient.close();
@@ -111,9 +142,6 @@ public class DPIProcessControllerImpl implements DPIProcessController {
                 dpiRestClient = null;
             }
         }
-        if (this.process != null && this.process.isAlive()) {
-            this.process.destroyForcibly();
-        }
     }
 
     private void validateRestClient() throws DBException {
@@ -122,6 +150,19 @@ public class DPIProcessControllerImpl implements DPIProcessController {
         dpiRestClient.ping();
     }
 
+    @Nullable
+    private static SocketAddress getBinaryEndpoint(@NotNull Map<String, String> props) {
+        String socketPath = props.get(DPIConstants.PARAM_SERVER_SOCKET);
+        if (!CommonUtils.isEmpty(socketPath)) {
+            return UnixDomainSocketAddress.of(socketPath);
+        }
+        int binaryPort = CommonUtils.toInt(props.get(DPIConstants.PARAM_SERVER_BINARY_PORT));
+        if (binaryPort > 0) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), binaryPort);
+        }
+        return null;
+    }
+
     @NotNull
     private URI getRemoteEndpoint() {
         String endpoint = "http://localhost:" + dpiServerPort + "/";
@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.WorkerPoolUtils;
+import org.jkiss.dbeaver.model.runtime.WorkerProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loads attributes, constraints and foreign keys of diagram entities in bulk.
+ * <p>
+ * Diagram entities are filled one by one, and each of them reads its columns and keys separately.
+ * For a large selection it is much cheaper to read the whole structure of the entity containers once
+ * (most drivers read it with a few queries per schema), so entities are then filled from the caches.
+ * <p>
+ * Metadata of a data source is read through its single metadata context, so containers of the same
+ * data source are loaded sequentially. Different data sources have their own connections
+ * and are loaded in parallel.
+ */
+public class DiagramMetadataPrefetcher {
+
+    private static final Log log = Log.getLog(DiagramMetadataPrefetcher.class);
+
+    /**
+     * Minimal number of diagram entities in a container which makes reading the whole container structure
+     * cheaper than reading entities one by one.
+     */
+    public static final int MIN_CONTAINER_ENTITIES = 3;
+    /**
+     * Minimal part of the container entities which must be in the diagram. Reading the whole structure
+     * of a large schema for a few diagram entities is slower than reading these entities one by one.
+     */
+    public static final double MIN_CONTAINER_FRACTION = 0.25;
+
+    private static final int PREFETCH_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final ExecutorService PREFETCH_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Diagram metadata reader", PREFETCH_THREADS);
+
+    private DiagramMetadataPrefetcher() {
+    }
+
+    /**
+     * Reads structure of all containers which own at least {@link #MIN_CONTAINER_ENTITIES} of the given entities
+     * and at least {@link #MIN_CONTAINER_FRACTION} of their own entities are in the diagram.
+     * Errors are logged and ignored: entities will read their metadata themselves.
+     */
+    public static void prefetchEntities(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSEntity> entities) {
+        final Map<DBPDataSource, Map<DBSObjectContainer, Integer>> containers = collectContainers(entities);
+        if (containers.isEmpty()) {
+            return;
+        }
+        int containerCount = 0;
+        for (Map<DBSObjectContainer, Integer> dsContainers : containers.values()) {
+            containerCount += dsContainers.size();
+        }
+        monitor.beginTask("Read entities metadata", containerCount);
+        try {
+            if (containers.size() == 1) {
+                prefetchContainers(monitor, containers.values().iterator().next());
+                return;
+            }
+            final List<WorkerProgressMonitor> workerMonitors = new ArrayList<>();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (Map<DBSObjectContainer, Integer> dsContainers : containers.values()) {
+                WorkerProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+                workerMonitors.add(workerMonitor);
+                futures.add(PREFETCH_EXECUTOR.submit(() -> prefetchContainers(workerMonitor, dsContainers)));
+            }
+            waitForWorkers(monitor, workerMonitors, futures);
+        } finally {
+            monitor.done();
+        }
+    }
+
+    @NotNull
+    private static Map<DBPDataSource, Map<DBSObjectContainer, Integer>> collectContainers(@NotNull Collection<? extends DBSEntity> entities) {
+        final Map<DBSObjectContainer, Integer> entityCounts = new LinkedHashMap<>();
+        for (DBSEntity entity : entities) {
+            DBSObjectContainer container = DBUtils.getParentOfType(DBSObjectContainer.class, entity);
+            if (container != null && entity.getDataSource() != null) {
+                entityCounts.merge(container, 1, Integer::sum);
+            }
+        }
+        final Map<DBPDataSource, Map<DBSObjectContainer, Integer>> result = new LinkedHashMap<>();
+        for (Map.Entry<DBSObjectContainer, Integer> entry : entityCounts.entrySet()) {
+            if (entry.getValue() >= MIN_CONTAINER_ENTITIES) {
+                DBSObjectContainer container = entry.getKey();
+                result.computeIfAbsent(container.getDataSource(), ds -> new LinkedHashMap<>()).put(container, entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static void prefetchContainers(@NotNull DBRProgressMonitor monitor, @NotNull Map<DBSObjectContainer, Integer> containers) {
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBSObjectContainer container = entry.getKey();
+            monitor.subTask("Read structure of " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI));
+            try {
+                if (!isSignificantPart(monitor, container, entry.getValue())) {
+                    monitor.worked(1);
+                    continue;
+                }
+                container.cacheStructure(
+                    monitor,
+                    DBSObjectContainer.STRUCT_ENTITIES | DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+            } catch (DBException e) {
+                log.debug("Error reading structure of " + container.getName() + ": " + e.getMessage());
+            } catch (Throwable e) {
+                log.debug("Internal error reading structure of " + container.getName(), e);
+            }
+            monitor.worked(1);
+        }
+    }
+
+    /**
+     * Checks that diagram entities are a significant part of the container entities.
+     * List of container entities is usually cached already (diagram entities were taken from it).
+     */
+    private static boolean isSignificantPart(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        int diagramEntityCount
+    ) throws DBException {
+        Collection<? extends DBSObject> children = container.getChildren(monitor);
+        if (children == null) {
+            return false;
+        }
+        int containerEntityCount = 0;
+        for (DBSObject child : children) {
+            if (child instanceof DBSEntity) {
+                containerEntityCount++;
+            }
+        }
+        return diagramEntityCount >= containerEntityCount * MIN_CONTAINER_FRACTION;
+    }
+
+    private static void waitForWorkers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<WorkerProgressMonitor> workerMonitors,
+        @NotNull List<Future<?>> futures)
+    {
+        for (Future<?> future : futures) {
+            try {
+                WorkerPoolUtils.waitForResult(monitor, future, workerMonitors);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.debug("Error reading entities metadata", e.getCause());
+            }
+        }
+    }
+
+}
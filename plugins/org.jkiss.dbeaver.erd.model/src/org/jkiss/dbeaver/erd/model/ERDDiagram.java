@@ -49,6 +49,16 @@ import java.util.stream.Collectors;
 public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
     private static final Log log = Log.getLog(ERDDiagram.class);
 
+    private static final int ENTITY_LOAD_BATCH_SIZE = 50;
+
+    /**
+     * Receives entities while diagram is filled from database.
+     * Called in the loading thread. Diagram is not modified until the listener returns.
+     */
+    public interface EntityLoadListener {
+        void entitiesLoaded(@NotNull List<ERDEntity> entities, int loadedCount, int totalCount);
+    }
+
     private static class DataSourceInfo {
         int index;
         List<ERDEntity> entities = new ArrayList<>();
@@ -269,6 +279,26 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
     }
 
     public void fillEntities(DBRProgressMonitor monitor, Collection<DBSEntity> entities, DBSObject dbObject) throws DBException {
+        fillEntities(monitor, entities, dbObject, null);
+    }
+
+    /**
+     * Loads entities and their relations from database.
+     * If listener is specified then entities are loaded in batches and listener receives each batch
+     * with already resolved relations, so diagram may be shown before all entities are loaded.
+     */
+    public void fillEntities(
+        DBRProgressMonitor monitor,
+        Collection<DBSEntity> entities,
+        DBSObject dbObject,
+        @Nullable EntityLoadListener listener) throws DBException
+    {
+        // Read metadata of all entities at once instead of reading it entity by entity
+        DiagramMetadataPrefetcher.prefetchEntities(monitor, entities);
+
+        final int batchSize = listener == null ? Integer.MAX_VALUE : ENTITY_LOAD_BATCH_SIZE;
+        int loadedCount = 0;
+
         // Load entities
         monitor.beginTask("Load entities metadata", entities.size());
         List<ERDEntity> entityCache = new ArrayList<>();
@@ -293,21 +323,37 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
             entityCache.add(erdEntity);
 
             monitor.worked(1);
+
+            if (entityCache.size() >= batchSize) {
+                // Relations to entities of next batches are resolved when these entities are added
+                addEntitiesRelations(monitor, entityCache);
+                loadedCount += entityCache.size();
+                listener.entitiesLoaded(new ArrayList<>(entityCache), loadedCount, entities.size());
+                entityCache.clear();
+            }
         }
 
         monitor.done();
 
         // Load relations
-        monitor.beginTask("Load entities' relations", entities.size());
-        for (ERDEntity erdEntity : entityCache) {
+        monitor.beginTask("Load entities' relations", entityCache.size());
+        addEntitiesRelations(monitor, entityCache);
+        monitor.done();
+        if (listener != null && !entityCache.isEmpty()) {
+            loadedCount += entityCache.size();
+            listener.entitiesLoaded(entityCache, loadedCount, entities.size());
+        }
+    }
+
+    private void addEntitiesRelations(DBRProgressMonitor monitor, List<ERDEntity> erdEntities) throws DBException {
+        for (ERDEntity erdEntity : erdEntities) {
             if (monitor.isCanceled()) {
                 break;
             }
-            monitor.subTask("Load " + erdEntity.getName());
+            monitor.subTask("Load " + erdEntity.getName() + " relations");
             erdEntity.addModelRelations(monitor, this, true, false);
             monitor.worked(1);
         }
-        monitor.done();
     }
 
     public boolean containsTable(DBSEntity table) {
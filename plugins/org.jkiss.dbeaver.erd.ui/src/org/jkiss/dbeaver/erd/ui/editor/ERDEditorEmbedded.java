@@ -19,11 +19,15 @@ package org.jkiss.dbeaver.erd.ui.editor;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.jface.action.IContributionManager;
 import org.eclipse.jface.action.Separator;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
+import org.eclipse.gef.EditPart;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -34,6 +38,8 @@ import org.jkiss.dbeaver.erd.ui.internal.ERDUIActivator;
 import org.jkiss.dbeaver.erd.ui.internal.ERDUIMessages;
 import org.jkiss.dbeaver.erd.ui.model.DiagramLoader;
 import org.jkiss.dbeaver.erd.ui.model.EntityDiagram;
+import org.jkiss.dbeaver.erd.ui.part.DiagramPart;
+import org.jkiss.dbeaver.erd.ui.part.NodePart;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.app.DBPProject;
@@ -61,7 +67,9 @@ import org.jkiss.utils.xml.XMLUtils;
 import org.w3c.dom.Document;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -75,6 +83,9 @@ public class ERDEditorEmbedded extends ERDEditorPart
     private static final String PROP_DIAGRAM_STATE = "erd.diagram.state";
     private static final String PROPS_DIAGRAM_SERIALIZED = "serialized";
     private static final String GROUP_SAVE = "save";
+    // Placement of entities shown while the diagram is loaded
+    private static final int LOAD_PLACEMENT_SPACING = 20;
+    private static final int LOAD_PLACEMENT_MIN_ROW_WIDTH = 800;
 
     private Composite parent;
     
@@ -238,6 +249,8 @@ public class ERDEditorEmbedded extends ERDEditorPart
         }
         EntityDiagram oldDiagram = getDiagram();
         EntityDiagram diagram = oldDiagram;
+        // Show entities while they are loaded only if there are no entity positions to keep
+        final boolean showProgressively = oldDiagram.getEntities().isEmpty() && !isStateSaved();
         diagram.clear();
         if (!dbObject.isPersisted()) {
             //diagram = new EntityDiagram(dbObject, "New Object", getContentProvider(), getDecorator());
@@ -253,7 +266,15 @@ public class ERDEditorEmbedded extends ERDEditorPart
                             diagram,
                             ERDUIActivator.getDefault().getPreferenceStore().getBoolean(ERDUIConstants.PREF_DIAGRAM_SHOW_VIEWS),
                             ERDUIActivator.getDefault().getPreferenceStore().getBoolean(ERDUIConstants.PREF_DIAGRAM_SHOW_PARTITIONS)),
-                    dbObject);
+                    dbObject,
+                    (entities, loadedCount, totalCount) -> UIUtils.syncExec(() -> {
+                        if (progressControl != null && !progressControl.isDisposed()) {
+                            progressControl.setInfo(NLS.bind(ERDUIMessages.erd_loaded_entities_info, loadedCount, totalCount));
+                        }
+                        if (showProgressively) {
+                            showLoadedEntities();
+                        }
+                    }));
 
             if (dbObject instanceof DBSObjectContainer) {
                 diagram.setRootObjectContainer((DBSObjectContainer) dbObject);
@@ -284,6 +305,52 @@ public class ERDEditorEmbedded extends ERDEditorPart
         return diagram;
     }
 
+    /**
+     * Shows entities loaded so far. Diagram is the viewer contents and it is filled by the loader thread,
+     * which waits while parts are refreshed, so the model doesn't change meanwhile.
+     * Only entities of the new batch are placed, in rows below the shown ones.
+     * The whole diagram is laid out once, when loading completes.
+     */
+    private void showLoadedEntities() {
+        Control control = getGraphicalViewer() == null ? null : getGraphicalViewer().getControl();
+        DiagramPart diagramPart = getDiagramPart();
+        if (control == null || control.isDisposed() || diagramPart == null) {
+            return;
+        }
+        diagramPart.refresh();
+        List<NodePart> newParts = new ArrayList<>();
+        int top = 0;
+        for (Object child : diagramPart.getChildren()) {
+            // Refresh connections to entities of the new batch
+            ((EditPart) child).refresh();
+            if (child instanceof NodePart) {
+                Rectangle bounds = ((NodePart) child).getBounds();
+                if (bounds == null) {
+                    newParts.add((NodePart) child);
+                } else {
+                    top = Math.max(top, bounds.y + ((NodePart) child).getFigure().getPreferredSize().height + LOAD_PLACEMENT_SPACING);
+                }
+            }
+        }
+        int rowWidth = Math.max(control.getSize().x, LOAD_PLACEMENT_MIN_ROW_WIDTH);
+        int x = 0;
+        int rowHeight = 0;
+        for (NodePart part : newParts) {
+            Dimension size = part.getFigure().getPreferredSize();
+            if (x > 0 && x + size.width > rowWidth) {
+                x = 0;
+                top += rowHeight + LOAD_PLACEMENT_SPACING;
+                rowHeight = 0;
+            }
+            part.setBounds(new Rectangle(x, top, -1, -1));
+            x += size.width + LOAD_PLACEMENT_SPACING;
+            rowHeight = Math.max(rowHeight, size.height);
+        }
+        // Pass positions to XY layout, so shown entities keep their places
+        diagramPart.setTableFigureBounds(true);
+        diagramPart.getFigure().revalidate();
+    }
+
     @Override
     public void doSave(IProgressMonitor monitor) {
         try {
@@ -145,6 +145,7 @@ public class ERDUIMessages extends NLS {
     public static String erd_accessibility_attribute_part_comments;
     public static String erd_error_of_loading_diagram_label;
     public static String erd_error_of_loading_diagram_title;
+    public static String erd_loaded_entities_info;
 
     private ERDUIMessages() {
     }
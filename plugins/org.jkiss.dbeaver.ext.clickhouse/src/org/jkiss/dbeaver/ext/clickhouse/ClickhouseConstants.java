@@ -26,4 +26,6 @@ public class ClickhouseConstants {
     public static final String SSL_ROOT_CERTIFICATE = "sslrootcert"; //$NON-NLS-1$
 
     public static final String DATA_TYPE_IPV4 = "ipv4";
+
+    public static final String DRIVER_ID_COM_CLICKHOUSE = "com_clickhouse"; //$NON-NLS-1$
 }
@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.net.SSLHandlerTrustStoreImpl;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
@@ -101,7 +102,7 @@ public class ClickhouseDataSource extends GenericDataSource {
         monitor.subTask("Initialising SSL configuration");
         properties.put(ClickhouseConstants.SSL_PARAM, "true");
         try {
-            if ("com_clickhouse".equals(getContainer().getDriver().getId())) {
+            if (isComClickhouseDriver()) {
                 if (DBWorkbench.isDistributed() || DBWorkbench.getPlatform().getApplication().isMultiuser()) {
                     String clientCertProp =
                         sslConfig.getSecureProperty(SSLHandlerTrustStoreImpl.PROP_SSL_CLIENT_CERT_VALUE);
@@ -176,6 +177,21 @@ public class ClickhouseDataSource extends GenericDataSource {
         return new ClickhouseJdbcFactory();
     }
 
+    @Override
+    public <T> T getAdapter(Class<T> adapter) {
+        if (adapter == DBSDataBulkLoader.class) {
+            // Input function batches are supported by the new driver only
+            if (isComClickhouseDriver()) {
+                return adapter.cast(new ClickhouseInputLoader(this));
+            }
+        }
+        return super.getAdapter(adapter);
+    }
+
+    private boolean isComClickhouseDriver() {
+        return ClickhouseConstants.DRIVER_ID_COM_CLICKHOUSE.equals(getContainer().getDriver().getId());
+    }
+
     boolean isSupportTableComments() {
         return isServerVersionAtLeast(21, 6);
     }
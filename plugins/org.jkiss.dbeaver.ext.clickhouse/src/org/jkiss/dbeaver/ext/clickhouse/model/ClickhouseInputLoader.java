@@ -0,0 +1,56 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCBatchBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+/**
+ * Bulk loader based on input table function:
+ * <pre>
+ *     INSERT INTO table1 (col1, col2) SELECT col1, col2 FROM input('col1 Int32, col2 String')
+ * </pre>
+ * Driver streams batches of such statement to the server in RowBinary format instead of rendering SQL values.
+ */
+public class ClickhouseInputLoader extends JDBCBatchBulkLoader {
+
+    private final ClickhouseDataSource dataSource;
+
+    public ClickhouseInputLoader(ClickhouseDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    protected String makeInsertQuery(@NotNull DBCSession session, @NotNull DBSEntity table, @NotNull DBSAttributeBase[] attributes) {
+        String columnList = makeColumnList(dataSource, attributes);
+        StringBuilder structure = new StringBuilder();
+        for (DBSAttributeBase attribute : attributes) {
+            if (structure.length() > 0) structure.append(", ");
+            structure.append(DBUtils.getQuotedIdentifier(dataSource, attribute.getName()))
+                .append(' ').append(attribute.getFullTypeName());
+        }
+        return "INSERT INTO " + DBUtils.getObjectFullName(table, DBPEvaluationContext.DML) + " (" + columnList + ")" +
+            " SELECT " + columnList + " FROM input('" + structure.toString().replace("\\", "\\\\").replace("'", "\\'") + "')";
+    }
+
+}
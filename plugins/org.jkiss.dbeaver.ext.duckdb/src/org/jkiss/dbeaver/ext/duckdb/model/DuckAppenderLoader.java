@@ -0,0 +1,229 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.duckdb.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.utils.ArrayUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader based on DuckDB appender.
+ *
+ * Appender is created by the driver connection ({@code DuckDBConnection.createAppender}) and
+ * accessed with reflection. Appender requires values for all table columns in table order,
+ * columns which are not loaded get default values.
+ */
+public class DuckAppenderLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(DuckAppenderLoader.class);
+
+    private static final String DEFAULT_SCHEMA = "main";
+
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    // Index of the loaded attribute for each table column (or -1)
+    private int[] columnMapping;
+
+    private Object appender;
+    private Method beginRowMethod;
+    private Method endRowMethod;
+    private Method appendNullMethod;
+    private Method appendDefaultMethod;
+    private Method appendBooleanMethod;
+    private Method appendLongMethod;
+    private Method appendDoubleMethod;
+    private Method appendStringMethod;
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load into '" + dataContainer.getName() + "' is not supported");
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+
+        try {
+            List<? extends DBSEntityAttribute> tableAttributes = table.getAttributes(session.getProgressMonitor());
+            if (tableAttributes == null) {
+                throw new DBCException("Can't read columns of " + table.getName());
+            }
+            columnMapping = new int[tableAttributes.size()];
+            for (int i = 0; i < columnMapping.length; i++) {
+                columnMapping[i] = ArrayUtils.indexOf(attributes, tableAttributes.get(i));
+            }
+        } catch (DBException e) {
+            throw new DBCException("Error reading columns of " + table.getName(), e);
+        }
+
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            appender = createAppender(connection);
+            Class<?> appenderClass = appender.getClass();
+            beginRowMethod = appenderClass.getMethod("beginRow");
+            endRowMethod = appenderClass.getMethod("endRow");
+            appendNullMethod = appenderClass.getMethod("appendNull");
+            appendBooleanMethod = appenderClass.getMethod("append", Boolean.TYPE);
+            appendLongMethod = appenderClass.getMethod("append", Long.TYPE);
+            appendDoubleMethod = appenderClass.getMethod("append", Double.TYPE);
+            appendStringMethod = appenderClass.getMethod("append", String.class);
+            try {
+                appendDefaultMethod = appenderClass.getMethod("appendDefault");
+            } catch (NoSuchMethodException e) {
+                // Older drivers
+                appendDefaultMethod = null;
+            }
+        } catch (Throwable e) {
+            close();
+            throw new DBCException("Can't create DuckDB appender", unwrapException(e));
+        }
+        if (appendDefaultMethod == null && ArrayUtils.contains(columnMapping, -1)) {
+            close();
+            throw new DBCException("DuckDB driver doesn't support default column values in appender. All columns of " + table.getName() + " must be loaded");
+        }
+        return this;
+    }
+
+    @NotNull
+    private Object createAppender(@NotNull Connection connection) throws Exception {
+        DBSSchema schema = DBUtils.getParentOfType(DBSSchema.class, table);
+        DBSCatalog catalog = DBUtils.getParentOfType(DBSCatalog.class, table);
+        String schemaName = schema == null ? DEFAULT_SCHEMA : schema.getName();
+        if (catalog != null) {
+            try {
+                Method createMethod = connection.getClass().getMethod("createAppender", String.class, String.class, String.class);
+                return createMethod.invoke(connection, catalog.getName(), schemaName, table.getName());
+            } catch (NoSuchMethodException e) {
+                // Older drivers use current catalog
+            }
+        }
+        Method createMethod = connection.getClass().getMethod("createAppender", String.class, String.class);
+        return createMethod.invoke(connection, schemaName, table.getName());
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        try {
+            beginRowMethod.invoke(appender);
+            for (int index : columnMapping) {
+                if (index < 0) {
+                    appendDefaultMethod.invoke(appender);
+                } else {
+                    appendValue(index, attributeValues[index]);
+                }
+            }
+            endRowMethod.invoke(appender);
+        } catch (Throwable e) {
+            throw new DBCException("Error appending row to " + table.getName(), unwrapException(e));
+        }
+    }
+
+    private void appendValue(int index, @Nullable Object value) throws Exception {
+        if (DBUtils.isNullValue(value)) {
+            appendNullMethod.invoke(appender);
+        } else if (value instanceof Boolean) {
+            appendBooleanMethod.invoke(appender, value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            appendLongMethod.invoke(appender, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            appendDoubleMethod.invoke(appender, ((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            appendStringMethod.invoke(appender, ((BigDecimal) value).toPlainString());
+        } else if (value instanceof String) {
+            appendStringMethod.invoke(appender, value);
+        } else {
+            // Appender casts strings to column type
+            appendStringMethod.invoke(
+                appender,
+                valueHandlers[index].getValueDisplayString(attributes[index], value, DBDDisplayFormat.NATIVE));
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        flushAppender(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushAppender(session);
+    }
+
+    private void flushAppender(@NotNull DBCSession session) throws DBCException {
+        try {
+            appender.getClass().getMethod("flush").invoke(appender);
+        } catch (Throwable e) {
+            throw new DBCException("Error flushing rows into " + table.getName(), unwrapException(e));
+        }
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    private static Throwable unwrapException(Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            return ((InvocationTargetException) e).getTargetException();
+        }
+        return e;
+    }
+
+    @Override
+    public void close() {
+        if (appender != null) {
+            try {
+                appender.getClass().getMethod("close").invoke(appender);
+            } catch (Throwable e) {
+                log.debug("Error closing DuckDB appender", unwrapException(e));
+            }
+            appender = null;
+        }
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy.
+ *
+ * Driver classes are accessed with reflection (driver is loaded by its own class loader).
+ * Buffered rows are passed to {@code SQLServerBulkCopy.writeToServer} through a proxy
+ * implementation of driver's bulk data interface.
+ */
+public class SQLServerBulkCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLServerBulkCopyLoader.class);
+
+    private static final String DRIVER_PACKAGE = "com.microsoft.sqlserver.jdbc.";
+
+    // Types which can be passed to bulk copy as is. Other values are passed as strings
+    private static final Set<Integer> NATIVE_TYPES = Set.of(
+        Types.BIT, Types.BOOLEAN, Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+        Types.REAL, Types.FLOAT, Types.DOUBLE, Types.DECIMAL, Types.NUMERIC,
+        Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+        Types.DATE, Types.TIME, Types.TIMESTAMP,
+        Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY);
+    private static final int DEFAULT_STRING_LENGTH = 4000;
+
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private int[] columnTypes;
+    private int batchSize;
+
+    private ClassLoader driverClassLoader;
+    private Class<?> bulkDataClass;
+    private Object bulkCopy;
+    private Method writeMethod;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load into '" + dataContainer.getName() + "' is not supported");
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.batchSize = batchSize;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        this.columnTypes = new int[attributes.length];
+        boolean keepIdentity = false;
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            columnTypes[i] = NATIVE_TYPES.contains(attributes[i].getTypeID()) ? attributes[i].getTypeID() : Types.NVARCHAR;
+            keepIdentity |= attributes[i].isAutoGenerated();
+        }
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            driverClassLoader = connection.getClass().getClassLoader();
+
+            Class<?> bulkCopyClass = Class.forName(DRIVER_PACKAGE + "SQLServerBulkCopy", true, driverClassLoader);
+            Class<?> copyOptionsClass = Class.forName(DRIVER_PACKAGE + "SQLServerBulkCopyOptions", true, driverClassLoader);
+            try {
+                bulkDataClass = Class.forName(DRIVER_PACKAGE + "ISQLServerBulkData", true, driverClassLoader);
+            } catch (ClassNotFoundException e) {
+                // Older drivers
+                bulkDataClass = Class.forName(DRIVER_PACKAGE + "ISQLServerBulkRecord", true, driverClassLoader);
+            }
+            writeMethod = bulkCopyClass.getMethod("writeToServer", bulkDataClass);
+
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+
+            Object copyOptions = copyOptionsClass.getConstructor().newInstance();
+            if (batchSize > 0) {
+                copyOptionsClass.getMethod("setBatchSize", Integer.TYPE).invoke(copyOptions, batchSize);
+            }
+            copyOptionsClass.getMethod("setBulkCopyTimeout", Integer.TYPE).invoke(copyOptions, 0);
+            copyOptionsClass.getMethod("setKeepIdentity", Boolean.TYPE).invoke(copyOptions, keepIdentity);
+            bulkCopyClass.getMethod("setBulkCopyOptions", copyOptionsClass).invoke(bulkCopy, copyOptions);
+
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(
+                bulkCopy, DBUtils.getObjectFullName(table, DBPEvaluationContext.DML));
+            Method addMappingMethod = bulkCopyClass.getMethod("addColumnMapping", Integer.TYPE, String.class);
+            for (int i = 0; i < attributes.length; i++) {
+                addMappingMethod.invoke(bulkCopy, i + 1, attributes[i].getName());
+            }
+        } catch (Throwable e) {
+            close();
+            throw new DBCException("Can't instantiate SQLServerBulkCopy", unwrapException(e));
+        }
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        Object[] row = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                value = null;
+            } else if (columnTypes[i] == Types.NVARCHAR && !(value instanceof String)) {
+                value = valueHandlers[i].getValueDisplayString(attributes[i], value, DBDDisplayFormat.NATIVE);
+            } else if (value instanceof Date && !(value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof Timestamp)) {
+                value = new Timestamp(((Date) value).getTime());
+            }
+            row[i] = value;
+        }
+        rows.add(row);
+        if (batchSize > 0 && rows.size() >= batchSize) {
+            writeRows(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        writeRows(session);
+        commit(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        writeRows(session);
+        commit(session);
+    }
+
+    private void writeRows(@NotNull DBCSession session) throws DBCException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Copy " + rows.size() + " row(s) into " + table.getName());
+        try {
+            Object bulkData = Proxy.newProxyInstance(driverClassLoader, new Class[]{bulkDataClass}, new BulkDataHandler(rows.iterator()));
+            writeMethod.invoke(bulkCopy, bulkData);
+        } catch (Throwable e) {
+            throw new DBCException("Error copying data into " + table.getName(), unwrapException(e));
+        } finally {
+            rows.clear();
+        }
+    }
+
+    private void commit(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    private static Throwable unwrapException(Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            return ((InvocationTargetException) e).getTargetException();
+        }
+        return e;
+    }
+
+    @Override
+    public void close() {
+        rows.clear();
+        if (bulkCopy != null) {
+            try {
+                bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+            } catch (Throwable e) {
+                log.debug("Error closing bulk copy", unwrapException(e));
+            }
+            bulkCopy = null;
+        }
+    }
+
+    /**
+     * Implements ISQLServerBulkData (or ISQLServerBulkRecord in older drivers) over buffered rows.
+     * Column ordinals are 1-based.
+     */
+    private class BulkDataHandler implements java.lang.reflect.InvocationHandler {
+        private final Iterator<Object[]> iterator;
+        private Object[] currentRow;
+
+        BulkDataHandler(Iterator<Object[]> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getColumnOrdinals": {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= attributes.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                }
+                case "getColumnName":
+                    return attributes[(Integer) args[0] - 1].getName();
+                case "getColumnType":
+                    return columnTypes[(Integer) args[0] - 1];
+                case "getPrecision":
+                    return getPrecision((Integer) args[0] - 1);
+                case "getScale": {
+                    Integer scale = attributes[(Integer) args[0] - 1].getScale();
+                    return scale == null ? 0 : scale;
+                }
+                case "isAutoIncrement":
+                    return false;
+                case "next":
+                    if (iterator.hasNext()) {
+                        currentRow = iterator.next();
+                        return true;
+                    }
+                    currentRow = null;
+                    return false;
+                case "getRowData":
+                    return currentRow;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Bulk data [" + table.getName() + "]";
+                default:
+                    // Metadata setters of ISQLServerBulkRecord are not used
+                    return getDefaultValue(method.getReturnType());
+            }
+        }
+
+        /**
+         * Primitive results can't be null, otherwise the proxy throws NPE on unboxing
+         */
+        @Nullable
+        private Object getDefaultValue(@NotNull Class<?> type) {
+            if (!type.isPrimitive() || type == Void.TYPE) {
+                return null;
+            } else if (type == Boolean.TYPE) {
+                return Boolean.FALSE;
+            } else if (type == Character.TYPE) {
+                return (char) 0;
+            } else if (type == Byte.TYPE) {
+                return (byte) 0;
+            } else if (type == Short.TYPE) {
+                return (short) 0;
+            } else if (type == Integer.TYPE) {
+                return 0;
+            } else if (type == Long.TYPE) {
+                return 0L;
+            } else if (type == Float.TYPE) {
+                return 0f;
+            } else {
+                return 0d;
+            }
+        }
+
+        private int getPrecision(int index) {
+            DBSAttributeBase attribute = attributes[index];
+            if (columnTypes[index] == Types.NVARCHAR && attribute.getTypeID() != Types.NVARCHAR) {
+                return DEFAULT_STRING_LENGTH;
+            }
+            Integer precision = attribute.getPrecision();
+            if (precision != null && precision > 0) {
+                return precision;
+            }
+            long maxLength = attribute.getMaxLength();
+            return maxLength > 0 && maxLength < Integer.MAX_VALUE ? (int) maxLength : DEFAULT_STRING_LENGTH;
+        }
+    }
+
+}
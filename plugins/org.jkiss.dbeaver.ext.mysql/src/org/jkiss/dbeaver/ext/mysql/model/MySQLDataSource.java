@@ -50,6 +50,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLHelpProvider;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -687,6 +688,11 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
             return adapter.cast(helpProvider);
         } else if (adapter == DBAServerSessionManager.class) {
             return adapter.cast(new MySQLSessionManager(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            if (isLocalInfileLoadAllowed()) {
+                return adapter.cast(new MySQLLoadDataLoader(this));
+            }
+            return null;
         } else if (adapter == SpatialDataProvider.class) {
             return adapter.cast(new SpatialDataProvider() {
                 @Override
@@ -817,6 +823,22 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
         return new MySQLCatalog(owner, resultSet);
     }
 
+    /**
+     * LOAD DATA LOCAL INFILE from stream is supported by MySQL Connector/J only
+     * and must be enabled explicitly in driver properties.
+     */
+    private boolean isLocalInfileLoadAllowed() {
+        if (isMariaDB()) {
+            return false;
+        }
+        String allowLocalInfile = getContainer().getActualConnectionConfiguration().getProperty(MySQLConstants.PROP_ALLOW_LOAD_LOCAL_INFILE);
+        if (allowLocalInfile == null) {
+            allowLocalInfile = CommonUtils.toString(
+                getContainer().getDriver().getConnectionProperties().get(MySQLConstants.PROP_ALLOW_LOAD_LOCAL_INFILE), null);
+        }
+        return CommonUtils.toBoolean(allowLocalInfile);
+    }
+
     public boolean isMariaDB() {
         return MySQLConstants.DRIVER_CLASS_MARIA_DB.equals(
             getContainer().getDriver().getDriverClassName());
@@ -0,0 +1,218 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ *
+ * Rows are encoded in tab-separated format and passed to the driver as an input stream:
+ * <pre>
+ *     statement.setLocalInfileInputStream(stream);
+ *     statement.execute("LOAD DATA LOCAL INFILE 'stream' INTO TABLE table1 ...");
+ * </pre>
+ * so no temporary files are created. Local infile must be enabled on the server (local_infile)
+ * and in the driver (allowLoadLocalInfile connection property).
+ */
+public class MySQLLoadDataLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLLoadDataLoader.class);
+
+    private static final String SET_STREAM_METHOD = "setLocalInfileInputStream";
+    // Flush rows earlier if they take too much memory
+    private static final int MAX_BUFFER_SIZE = 32 * 1024 * 1024;
+
+    private final MySQLDataSource dataSource;
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private String queryText;
+    private final ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream(100 * 1024);
+    private int bufferedRows;
+
+    public MySQLLoadDataLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load into '" + dataContainer.getName() + "' is not supported");
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            if (i > 0) columns.append(",");
+            columns.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        this.queryText = "LOAD DATA LOCAL INFILE 'dbeaver-bulk-load.tsv' INTO TABLE " + DBUtils.getObjectFullName(table, DBPEvaluationContext.DML) +
+            " CHARACTER SET " + (dataSource.isServerVersionAtLeast(5, 5) ? "utf8mb4" : "utf8") +
+            " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + columns + ")";
+
+        // Check that driver is able to read local infile from stream
+        try (Statement statement = ((JDBCSession) session).getOriginal().createStatement()) {
+            getSetStreamMethod(statement);
+        } catch (Exception e) {
+            throw new DBCException("Driver doesn't support LOAD DATA LOCAL INFILE from stream", e);
+        }
+        // Server rejects local infile unless it is enabled explicitly
+        String localInfile;
+        try {
+            localInfile = JDBCUtils.queryString(((JDBCSession) session).getOriginal(), "SELECT @@GLOBAL.local_infile");
+        } catch (SQLException e) {
+            throw new DBCException("Can't read local_infile server variable", e);
+        }
+        if (!"1".equals(localInfile) && !"ON".equalsIgnoreCase(localInfile)) {
+            throw new DBCException("LOAD DATA LOCAL INFILE is disabled on the server (local_infile=" + localInfile + ")");
+        }
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                rowBuffer.write('\t');
+            }
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                rowBuffer.write('\\');
+                rowBuffer.write('N');
+            } else if (value instanceof byte[]) {
+                appendEscaped((byte[]) value);
+            } else if (value instanceof Boolean) {
+                rowBuffer.write((Boolean) value ? '1' : '0');
+            } else if (value instanceof BigDecimal) {
+                appendEscaped(((BigDecimal) value).toPlainString().getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Number) {
+                appendEscaped(value.toString().getBytes(StandardCharsets.UTF_8));
+            } else {
+                String strValue = valueHandlers[i].getValueDisplayString(attributes[i], value, DBDDisplayFormat.NATIVE);
+                appendEscaped(strValue.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        rowBuffer.write('\n');
+        bufferedRows++;
+        if (rowBuffer.size() >= MAX_BUFFER_SIZE) {
+            loadRows(session);
+        }
+    }
+
+    private void appendEscaped(byte[] value) {
+        for (byte b : value) {
+            switch (b) {
+                case 0: rowBuffer.write('\\'); rowBuffer.write('0'); break;
+                case '\t': rowBuffer.write('\\'); rowBuffer.write('t'); break;
+                case '\n': rowBuffer.write('\\'); rowBuffer.write('n'); break;
+                case '\r': rowBuffer.write('\\'); rowBuffer.write('r'); break;
+                case '\\': rowBuffer.write('\\'); rowBuffer.write('\\'); break;
+                default: rowBuffer.write(b); break;
+            }
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        loadRows(session);
+        commit(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        loadRows(session);
+        commit(session);
+    }
+
+    private void loadRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Load " + bufferedRows + " row(s) into " + table.getName());
+        try (Statement statement = ((JDBCSession) session).getOriginal().createStatement()) {
+            getSetStreamMethod(statement).invoke(statement, new ByteArrayInputStream(rowBuffer.toByteArray()));
+            statement.execute(queryText);
+            if (statement.getWarnings() != null) {
+                log.debug("LOAD DATA warning: " + statement.getWarnings().getMessage());
+            }
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error loading data into " + table.getName(), e);
+        } finally {
+            rowBuffer.reset();
+            bufferedRows = 0;
+        }
+    }
+
+    private void commit(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    @NotNull
+    private static Method getSetStreamMethod(@NotNull Statement statement) throws NoSuchMethodException {
+        return statement.getClass().getMethod(SET_STREAM_METHOD, InputStream.class);
+    }
+
+    @Override
+    public void close() {
+        rowBuffer.reset();
+        bufferedRows = 0;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCBatchBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+/**
+ * Bulk loader based on direct-path insert with array binding.
+ * Rows are inserted with APPEND_VALUES hint and driver sends each JDBC batch as a single array-bound execution.
+ * Direct-path inserted data can't be accessed in the same transaction, so each batch is committed.
+ */
+public class OracleDirectPathLoader extends JDBCBatchBulkLoader {
+
+    private final OracleDataSource dataSource;
+
+    public OracleDirectPathLoader(OracleDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    protected String makeInsertQuery(@NotNull DBCSession session, @NotNull DBSEntity table, @NotNull DBSAttributeBase[] attributes) {
+        StringBuilder query = new StringBuilder();
+        query.append("INSERT ");
+        if (dataSource.isAtLeastV11()) {
+            query.append("/*+ APPEND_VALUES */ ");
+        }
+        query.append("INTO ").append(DBUtils.getObjectFullName(table, DBPEvaluationContext.DML))
+            .append(" (").append(makeColumnList(dataSource, attributes)).append(") VALUES (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(",");
+            query.append("?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+}
@@ -655,6 +655,24 @@ public class OracleSchema extends OracleGlobalObject implements
             }
         }
 
+        @Nullable
+        @Override
+        protected String readObjectsFingerprint(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            // LAST_DDL_TIME changes on each DDL over the object, LAST_ANALYZED changes when table statistics are gathered
+            boolean useAlternativeQuery = CommonUtils.toBoolean(getDataSource().getContainer().getConnectionConfiguration().getProviderProperty(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
+            String fingerprint = JDBCUtils.queryString(
+                session,
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) +
+                    " COUNT(*) || ':' || TO_CHAR(MAX(O.LAST_DDL_TIME),'YYYYMMDDHH24MISS') || ':' ||\n" +
+                    "(SELECT TO_CHAR(MAX(t.LAST_ANALYZED),'YYYYMMDDHH24MISS') FROM " +
+                    OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "TABLES") + " t WHERE t.OWNER=?)\n" +
+                    "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") + " O\n" +
+                    "WHERE O.OWNER=? AND O.OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')",
+                owner.getName(),
+                owner.getName());
+            return fingerprint == null ? null : fingerprint + ":" + useAlternativeQuery;
+        }
+
         @Override
         protected OracleTableBase fetchObject(@NotNull JDBCSession session, @NotNull OracleSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
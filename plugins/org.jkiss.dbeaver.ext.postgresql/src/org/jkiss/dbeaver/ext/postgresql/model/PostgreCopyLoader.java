@@ -34,40 +34,61 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Bulk loader based on CopyManager
+ * Bulk loader based on CopyManager.
  *
- * //        new CopyManager((BaseConnection) conn)
- * //            .copyIn(
- * //                "COPY table1 FROM STDIN (FORMAT csv)",
- * //                new BufferedReader(new FileReader("data.csv"))
- * //            );
+ * By default rows are streamed directly into the server with CopyIn API:
+ * <pre>
+ *     CopyIn copyIn = new CopyManager((BaseConnection) conn).copyIn("COPY table1 FROM STDIN (FORMAT csv)");
+ *     copyIn.writeToCopy(buffer, 0, length);
+ *     copyIn.endCopy();
+ * </pre>
+ * If driver doesn't provide CopyIn API then rows are spooled into a temporary CSV file
+ * which is passed to {@code CopyManager.copyIn(String, Reader, int)} at the end of the load.
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
     private static final Log log = Log.getLog(PostgreCopyLoader.class);
 
+    private static final byte CSV_DELIMITER = ',';
+    private static final byte CSV_QUOTE = '"';
+    private static final byte CSV_ESCAPE = '\\';
+    private static final byte CSV_EOL = '\n';
+
     private final PostgreDataSource dataSource;
     private PostgreTableReal table;
+    private String queryText;
     private Object copyManager;
+
+    // Streaming mode
+    private Method copyInStartMethod;
+    private Method copyWriteMethod;
+    private Method copyFlushMethod;
+    private Method copyEndMethod;
+    private Method copyCancelMethod;
+    private Object copyIn;
+    private long rowsCopied;
+
+    // File spooling mode
     private Method copyInMethod;
-    private Writer csvWriter;
+    private OutputStream csvStream;
     private Path csvFile;
 
     private AttrMapping[] mappings;
+    private CopyRowBuffer rowBuffer;
 
     private int copyBufferSize = 100 * 1024;
 
@@ -98,6 +119,7 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         Map<String, Object> options) throws DBCException
     {
         this.table = (PostgreTableReal) dataContainer;
+        this.queryText = "COPY " + table.getFullyQualifiedName(DBPEvaluationContext.DML) + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
         try {
             // Use reflection to create copy manager
             Connection pgConnection = ((JDBCSession) session).getOriginal();
@@ -106,23 +128,35 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
-
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
             try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
+                // Get method copyIn(final String sql) and CopyIn operations
+                Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
+                copyInStartMethod = copyManagerClass.getMethod("copyIn", String.class);
+                copyWriteMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+                copyFlushMethod = copyInClass.getMethod("flushCopy");
+                copyEndMethod = copyInClass.getMethod("endCopy");
+                copyCancelMethod = copyInClass.getMethod("cancelCopy");
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                log.debug("CopyIn API is not supported by driver, use temporary file for COPY");
+                copyInStartMethod = null;
             }
 
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
+            if (copyInStartMethod == null) {
+                // Get method copyIn(final String sql, Reader from, int bufferSize)
+                copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+
+                Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
+                csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
+                try {
+                    Files.createFile(csvFile);
+                } catch (IOException ex) {
+                    throw new IOException("Can't create CSV file " + csvFile);
+                }
+                csvStream = Files.newOutputStream(csvFile);
+            }
+            rowBuffer = new CopyRowBuffer(copyBufferSize);
 
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
@@ -144,72 +178,81 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         return this;
     }
 
+    private boolean isStreaming() {
+        return copyInStartMethod != null;
+    }
+
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
-        StringBuilder line = new StringBuilder();
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
             if (mapping.srcPos >= 0) {
                 if (hasCell) {
-                    line.append(",");
+                    rowBuffer.append(CSV_DELIMITER);
                 }
                 Object srcValue = attributeValues[mapping.srcPos];
                 if (!DBUtils.isNullValue(srcValue)) {
                     if (srcValue instanceof Number) {
-                        line.append(srcValue);
+                        rowBuffer.appendPlain(srcValue.toString());
                     } else {
                         String strValue = mapping.valueHandler.getValueDisplayString(
                             mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
-                        strValue = convertStringValueToCell(strValue);
-                        line.append(strValue);
+                        rowBuffer.appendQuoted(strValue);
                     }
                 }
                 hasCell = true;
             }
         }
-        line.append("\n");
-        try {
-            csvWriter.write(line.toString());
-        } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+        rowBuffer.append(CSV_EOL);
+        if (rowBuffer.size() >= copyBufferSize) {
+            writeBuffer(session);
         }
     }
 
-    private String convertStringValueToCell(String strValue) {
-        return '"' +
-            strValue.replace("\"", "\\\"") +
-            '"';
-    }
-
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
+        writeBuffer(session);
         try {
-            csvWriter.flush();
-        } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+            if (isStreaming()) {
+                if (copyIn != null) {
+                    copyFlushMethod.invoke(copyIn);
+                }
+            } else {
+                csvStream.flush();
+            }
+        } catch (Throwable e) {
+            throw new DBCException("Error flushing COPY data", unwrapException(e));
         }
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-            csvWriter.close();
-        } catch (IOException e) {
-            log.debug(e);
-        }
-        csvWriter = null;
-
         String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
 
         session.getProgressMonitor().subTask("Copy into " + tableFQN);
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
-
         try {
             Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            if (isStreaming()) {
+                writeBuffer(session);
+                if (copyIn == null) {
+                    // Nothing was written. Issue an empty COPY anyway, so errors in table definition are reported
+                    copyIn = copyInStartMethod.invoke(copyManager, queryText);
+                }
+                rowCount = copyEndMethod.invoke(copyIn);
+                copyIn = null;
+            } else {
+                writeBuffer(session);
+                try {
+                    csvStream.close();
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+                csvStream = null;
+
+                try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+                    rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+                }
             }
 
             // Commit changes
@@ -221,16 +264,61 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
             log.debug("CSV has been imported (" + rowCount + ")");
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = ((InvocationTargetException) e).getTargetException();
+            throw new DBCException("Error copying dataset on remote server", unwrapException(e));
+        }
+    }
+
+    /**
+     * Sends accumulated rows either directly to the server or to the spool file.
+     * Row buffer is reused for the following rows.
+     */
+    private void writeBuffer(@NotNull DBCSession session) throws DBCException {
+        if (rowBuffer.size() == 0) {
+            return;
+        }
+        try {
+            if (isStreaming()) {
+                if (copyIn == null) {
+                    session.getProgressMonitor().subTask("Copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+                    copyIn = copyInStartMethod.invoke(copyManager, queryText);
+                }
+                copyWriteMethod.invoke(copyIn, rowBuffer.getBuffer(), 0, rowBuffer.size());
+            } else {
+                csvStream.write(rowBuffer.getBuffer(), 0, rowBuffer.size());
             }
-            throw new DBCException("Error copying dataset on remote server", e);
+        } catch (Throwable e) {
+            throw new DBCException("Error writing COPY data", unwrapException(e));
+        } finally {
+            rowBuffer.reset();
         }
     }
 
-    @Override
+    private static Throwable unwrapException(Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            return ((InvocationTargetException) e).getTargetException();
+        }
+        return e;
+    }
 
+    @Override
     public void close() {
+        if (copyIn != null) {
+            // Load wasn't finished - abort the operation
+            try {
+                copyCancelMethod.invoke(copyIn);
+            } catch (Throwable e) {
+                log.debug("Error cancelling COPY operation", unwrapException(e));
+            }
+            copyIn = null;
+        }
+        if (csvStream != null) {
+            try {
+                csvStream.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            csvStream = null;
+        }
         if (csvFile != null && Files.exists(csvFile)) {
             try {
                 Files.delete(csvFile);
@@ -240,4 +328,84 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             }
         }
     }
+
+    /**
+     * Growable byte buffer which encodes CSV cells directly into UTF-8.
+     * It is reused for all rows, so no intermediate strings are created per row.
+     */
+    static class CopyRowBuffer {
+        private byte[] buffer;
+        private int size;
+
+        CopyRowBuffer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        byte[] getBuffer() {
+            return buffer;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void append(byte b) {
+            ensureCapacity(1);
+            buffer[size++] = b;
+        }
+
+        void appendPlain(@NotNull CharSequence value) {
+            appendChars(value, false);
+        }
+
+        void appendQuoted(@NotNull CharSequence value) {
+            append(CSV_QUOTE);
+            appendChars(value, true);
+            append(CSV_QUOTE);
+        }
+
+        private void appendChars(@NotNull CharSequence value, boolean escape) {
+            int length = value.length();
+            // Worst case: 3 bytes per UTF-16 char (surrogate pair gives 4 bytes per 2 chars) or 2 bytes per escaped char
+            ensureCapacity(length * 3);
+            byte[] buf = buffer;
+            int pos = size;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (escape && (c == CSV_QUOTE || c == CSV_ESCAPE)) {
+                        buf[pos++] = CSV_ESCAPE;
+                    }
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[pos++] = (byte) (0xC0 | (c >> 6));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Malformed surrogate
+                    buf[pos++] = '?';
+                } else {
+                    buf[pos++] = (byte) (0xE0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            size = pos;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
 }
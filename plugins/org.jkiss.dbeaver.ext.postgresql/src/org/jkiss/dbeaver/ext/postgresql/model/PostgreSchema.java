@@ -839,6 +839,19 @@ public class PostgreSchema implements
             return dbStat;
         }
 
+        @Nullable
+        @Override
+        protected String readObjectsFingerprint(@NotNull JDBCSession session, @NotNull PostgreTableContainer container) throws SQLException {
+            // xmin of the pg_class row changes on each DDL over the relation
+            return JDBCUtils.queryString(
+                session,
+                "SELECT count(*) || ':' || coalesce(sum(c.xmin::text::bigint),0) || ':' || coalesce(sum(d.xmin::text::bigint),0)\n" +
+                    "FROM pg_catalog.pg_class c\n" +
+                    "LEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=c.oid AND d.objsubid=0 AND d.classoid='pg_class'::regclass\n" +
+                    "WHERE c.relnamespace=? AND c.relkind not in ('i','I','c')",
+                getObjectId());
+        }
+
         @Override
         protected PostgreTableBase fetchObject(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
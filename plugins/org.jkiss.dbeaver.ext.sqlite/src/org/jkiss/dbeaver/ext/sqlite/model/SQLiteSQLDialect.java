@@ -120,6 +120,11 @@ public class SQLiteSQLDialect extends GenericSQLDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsRowValueComparison() {
+        return true;
+    }
+
     @Override
     public boolean supportsIndexCreateAndDrop() {
         return true;
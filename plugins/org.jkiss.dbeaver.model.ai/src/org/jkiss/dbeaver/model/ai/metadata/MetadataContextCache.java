@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.util.*;
+
+/**
+ * Per data source cache of entity descriptions used in AI completion prompts.
+ * <p>
+ * Keeps rendered entity descriptions with their estimated token counts and the lists of entities
+ * of completion scope containers, so subsequent requests don't walk database metadata again.
+ * Entries are invalidated by navigator refresh and object change events.
+ */
+public class MetadataContextCache {
+
+    /**
+     * Description of an entity, without the entity name (it depends on the execution context defaults)
+     */
+    public static class EntityDescription {
+        static final EntityDescription HIDDEN = new EntityDescription("");
+
+        final String body;
+        final int tokens;
+
+        public EntityDescription(@NotNull String body) {
+            this.body = body;
+            this.tokens = estimateTokens(body);
+        }
+    }
+
+    private static final Map<DBPDataSourceContainer, MetadataContextCache> caches = new HashMap<>();
+    private static final Set<DBPDataSourceRegistry> listenedRegistries = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final DBPEventListener dataSourceListener = MetadataContextCache::handleDataSourceEvent;
+    private static final INavigatorListener navigatorListener = MetadataContextCache::handleNavigatorEvent;
+    private static boolean navigatorListenerAdded;
+
+    // Weak keys: refreshed metadata objects are replaced by new instances
+    private final Map<DBSEntity, EntityDescription> descriptions = new WeakHashMap<>();
+    private final Map<DBSObjectContainer, List<DBSEntity>> containerEntities = new WeakHashMap<>();
+    // Formatter instances are created per request, so descriptions are bound to the formatter class
+    @Nullable
+    private Class<? extends IAIFormatter> formatterType;
+
+    private MetadataContextCache() {
+    }
+
+    /**
+     * Returns cache of the data source which owns the object
+     */
+    @NotNull
+    public static MetadataContextCache getCache(@NotNull DBSObject object) {
+        final DBPDataSource dataSource = object.getDataSource();
+        if (dataSource == null) {
+            // Nothing to invalidate, use private cache
+            return new MetadataContextCache();
+        }
+        final DBPDataSourceContainer container = dataSource.getContainer();
+        synchronized (caches) {
+            MetadataContextCache cache = caches.get(container);
+            if (cache == null) {
+                cache = new MetadataContextCache();
+                caches.put(container, cache);
+                addListeners(container);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Rough token count estimate, about three characters per token
+     */
+    public static int estimateTokens(@NotNull CharSequence text) {
+        return (text.length() + 2) / 3;
+    }
+
+    @Nullable
+    public synchronized EntityDescription getDescription(@NotNull DBSEntity entity, @NotNull IAIFormatter formatter) {
+        if (this.formatterType != formatter.getClass()) {
+            // Formatter adds its own details to descriptions
+            descriptions.clear();
+            this.formatterType = formatter.getClass();
+            return null;
+        }
+        return descriptions.get(entity);
+    }
+
+    public synchronized void putDescription(@NotNull DBSEntity entity, @NotNull IAIFormatter formatter, @NotNull EntityDescription description) {
+        if (this.formatterType == formatter.getClass()) {
+            descriptions.put(entity, description);
+        }
+    }
+
+    @Nullable
+    public synchronized List<DBSEntity> getContainerEntities(@NotNull DBSObjectContainer container) {
+        return containerEntities.get(container);
+    }
+
+    public synchronized void putContainerEntities(@NotNull DBSObjectContainer container, @NotNull List<DBSEntity> entities) {
+        containerEntities.put(container, List.copyOf(entities));
+    }
+
+    /**
+     * Drops cached data of the object. Changed entity loses its description, changed container loses
+     * descriptions of all its entities. Lists of container entities are dropped on any entity or container change.
+     */
+    public synchronized void invalidate(@NotNull DBSObject object) {
+        if (object instanceof DBSObjectContainer || object instanceof DBSEntity) {
+            // Set of entities may change
+            containerEntities.clear();
+        }
+        if (object instanceof DBSObjectContainer && !(object instanceof DBSEntity)) {
+            descriptions.keySet().removeIf(entity -> isChildOf(entity, object));
+        } else {
+            final DBSEntity entity = object instanceof DBSEntity ? (DBSEntity) object : DBUtils.getParentOfType(DBSEntity.class, object);
+            if (entity != null) {
+                descriptions.remove(entity);
+            }
+        }
+    }
+
+    private static boolean isChildOf(@NotNull DBSObject object, @NotNull DBSObject parent) {
+        for (DBSObject p = object.getParentObject(); p != null; p = p.getParentObject()) {
+            if (p == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void invalidateObject(@Nullable DBSObject object) {
+        if (object == null) {
+            return;
+        }
+        if (object instanceof DBPDataSourceContainer) {
+            // Connect, disconnect or configuration change
+            synchronized (caches) {
+                caches.remove(object);
+            }
+            return;
+        }
+        final DBPDataSource dataSource = object.getDataSource();
+        if (dataSource == null) {
+            return;
+        }
+        final MetadataContextCache cache;
+        synchronized (caches) {
+            cache = caches.get(dataSource.getContainer());
+        }
+        if (cache != null) {
+            if (object == dataSource) {
+                cache.clear();
+            } else {
+                cache.invalidate(object);
+            }
+        }
+    }
+
+    private synchronized void clear() {
+        descriptions.clear();
+        containerEntities.clear();
+    }
+
+    private static void handleDataSourceEvent(@NotNull DBPEvent event) {
+        if (event.getAction() != DBPEvent.Action.OBJECT_SELECT) {
+            invalidateObject(event.getObject());
+        }
+    }
+
+    private static void handleNavigatorEvent(@NotNull DBNEvent event) {
+        if (event.getNodeChange() == DBNEvent.NodeChange.SELECT ||
+            event.getNodeChange() == DBNEvent.NodeChange.LOCK ||
+            event.getNodeChange() == DBNEvent.NodeChange.UNLOCK)
+        {
+            return;
+        }
+        if (event.getNode() instanceof DBNDatabaseNode) {
+            invalidateObject(((DBNDatabaseNode) event.getNode()).getObject());
+        }
+    }
+
+    private static void addListeners(@NotNull DBPDataSourceContainer container) {
+        final DBPDataSourceRegistry registry = container.getRegistry();
+        if (listenedRegistries.add(registry)) {
+            registry.addDataSourceListener(dataSourceListener);
+        }
+        if (!navigatorListenerAdded) {
+            final DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (navigatorModel != null) {
+                navigatorModel.addListener(navigatorListener);
+                navigatorListenerAdded = true;
+            }
+        }
+    }
+
+}
@@ -39,13 +39,17 @@ import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTablePartition;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.List;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class MetadataProcessor {
     public static final MetadataProcessor INSTANCE = new MetadataProcessor();
     private static final Log log = Log.getLog(MetadataProcessor.class);
 
     private static final boolean SUPPORTS_ATTRS = true;
+    private static final int MIN_PARTIAL_MATCH_LENGTH = 4;
+    private static final Pattern WORD_PATTERN = Pattern.compile("[\\p{L}\\p{N}_$]+");
 
     public String generateObjectDescription(
         @NotNull DBRProgressMonitor monitor,
@@ -55,48 +59,208 @@ public class MetadataProcessor {
         int maxRequestLength,
         boolean useFullyQualifiedName
     ) throws DBException {
-        if (DBNUtils.getNodeByObject(monitor, object, false) == null) {
-            // Skip hidden objects
-            return "";
-        }
-        StringBuilder description = new StringBuilder();
+        final MetadataContextCache cache = MetadataContextCache.getCache(object);
         if (object instanceof DBSEntity) {
-            String name = useFullyQualifiedName && context != null ? DBUtils.getObjectFullName(
-                context.getDataSource(),
-                object,
-                DBPEvaluationContext.DDL
-            ) : DBUtils.getQuotedIdentifier(object);
-            description.append('\n').append(name).append("(");
-            boolean firstAttr = addPromptAttributes(monitor, (DBSEntity) object, description, true);
-            formatter.addExtraDescription(monitor, (DBSEntity) object, description, firstAttr);
-            description.append(");");
+            final MetadataContextCache.EntityDescription description = getEntityDescription(monitor, cache, (DBSEntity) object, formatter);
+            if (description == MetadataContextCache.EntityDescription.HIDDEN) {
+                return "";
+            }
+            return "\n" + getEntityName((DBSEntity) object, context, useFullyQualifiedName) + description.body;
         } else if (object instanceof DBSObjectContainer) {
-            monitor.subTask("Load cache of " + object.getName());
-            ((DBSObjectContainer) object).cacheStructure(
+            return generateContainerDescription(
                 monitor,
-                DBSObjectContainer.STRUCT_ENTITIES | DBSObjectContainer.STRUCT_ATTRIBUTES);
-            for (DBSObject child : ((DBSObjectContainer) object).getChildren(monitor)) {
-                if (DBUtils.isSystemObject(child) || DBUtils.isHiddenObject(child) || child instanceof DBSTablePartition) {
-                    continue;
-                }
-                String childText = generateObjectDescription(
-                    monitor,
-                    child,
-                    context,
-                    formatter,
-                    maxRequestLength,
-                    isRequiresFullyQualifiedName(child, context)
-                );
-                if (description.length() + childText.length() > maxRequestLength * 3) {
-                    log.debug("Trim GPT metadata prompt  at table '" + child.getName() + "' - too long request");
-                    break;
-                }
-                description.append(childText);
+                cache,
+                (DBSObjectContainer) object,
+                context,
+                formatter,
+                maxRequestLength,
+                Collections.emptySet());
+        }
+        return "";
+    }
+
+    /**
+     * Describes container entities which fit into the token budget.
+     * Entities mentioned in the request go first, other entities keep their natural order.
+     */
+    @NotNull
+    private String generateContainerDescription(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull MetadataContextCache cache,
+        @NotNull DBSObjectContainer container,
+        @Nullable DBCExecutionContext context,
+        @NotNull IAIFormatter formatter,
+        int maxRequestTokens,
+        @NotNull Set<String> requestWords
+    ) throws DBException {
+        final List<DBSEntity> entities = rankEntities(getContainerEntities(monitor, cache, container), requestWords);
+        final StringBuilder description = new StringBuilder();
+        int remainingTokens = maxRequestTokens;
+        for (DBSEntity entity : entities) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            final MetadataContextCache.EntityDescription entityDescription = getEntityDescription(monitor, cache, entity, formatter);
+            if (entityDescription == MetadataContextCache.EntityDescription.HIDDEN) {
+                continue;
             }
+            final String entityName = getEntityName(entity, context, isRequiresFullyQualifiedName(entity, context));
+            final int entityTokens = MetadataContextCache.estimateTokens(entityName) + entityDescription.tokens + 1;
+            if (entityTokens > remainingTokens) {
+                log.debug("Trim GPT metadata prompt  at table '" + entity.getName() + "' - too long request");
+                break;
+            }
+            description.append('\n').append(entityName).append(entityDescription.body);
+            remainingTokens -= entityTokens;
         }
         return description.toString();
     }
 
+    /**
+     * Returns all visible entities of the container and its sub-containers.
+     * Reads and caches container structure on the first call only. Partial list of canceled read is not cached.
+     */
+    @NotNull
+    private List<DBSEntity> getContainerEntities(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull MetadataContextCache cache,
+        @NotNull DBSObjectContainer container
+    ) throws DBException {
+        List<DBSEntity> entities = cache.getContainerEntities(container);
+        if (entities == null) {
+            entities = new ArrayList<>();
+            collectContainerEntities(monitor, container, entities);
+            if (!monitor.isCanceled()) {
+                cache.putContainerEntities(container, entities);
+            }
+        }
+        return entities;
+    }
+
+    private void collectContainerEntities(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        @NotNull List<DBSEntity> entities
+    ) throws DBException {
+        monitor.subTask("Load cache of " + container.getName());
+        container.cacheStructure(
+            monitor,
+            DBSObjectContainer.STRUCT_ENTITIES | DBSObjectContainer.STRUCT_ATTRIBUTES);
+        final Collection<? extends DBSObject> children = container.getChildren(monitor);
+        if (children == null) {
+            return;
+        }
+        for (DBSObject child : children) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (DBUtils.isSystemObject(child) || DBUtils.isHiddenObject(child) || child instanceof DBSTablePartition) {
+                continue;
+            }
+            if (child instanceof DBSEntity) {
+                entities.add((DBSEntity) child);
+            } else if (child instanceof DBSObjectContainer && DBNUtils.getNodeByObject(monitor, child, false) != null) {
+                collectContainerEntities(monitor, (DBSObjectContainer) child, entities);
+            }
+        }
+    }
+
+    @NotNull
+    private MetadataContextCache.EntityDescription getEntityDescription(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull MetadataContextCache cache,
+        @NotNull DBSEntity entity,
+        @NotNull IAIFormatter formatter
+    ) throws DBException {
+        MetadataContextCache.EntityDescription description = cache.getDescription(entity, formatter);
+        if (description == null) {
+            if (DBNUtils.getNodeByObject(monitor, entity, false) == null) {
+                // Skip hidden objects
+                description = MetadataContextCache.EntityDescription.HIDDEN;
+            } else {
+                final StringBuilder body = new StringBuilder();
+                body.append("(");
+                boolean firstAttr = addPromptAttributes(monitor, entity, body, true);
+                formatter.addExtraDescription(monitor, entity, body, firstAttr);
+                body.append(");");
+                description = new MetadataContextCache.EntityDescription(body.toString());
+            }
+            cache.putDescription(entity, formatter, description);
+        }
+        return description;
+    }
+
+    @NotNull
+    private String getEntityName(
+        @NotNull DBSEntity entity,
+        @Nullable DBCExecutionContext context,
+        boolean useFullyQualifiedName
+    ) {
+        return useFullyQualifiedName && context != null ? DBUtils.getObjectFullName(
+            context.getDataSource(),
+            entity,
+            DBPEvaluationContext.DDL
+        ) : DBUtils.getQuotedIdentifier(entity);
+    }
+
+    /**
+     * Orders entities by relevance to the request: entities named in the request first,
+     * then entities whose names partially match request words. Sort is stable.
+     */
+    @NotNull
+    public static List<DBSEntity> rankEntities(@NotNull List<DBSEntity> entities, @NotNull Set<String> requestWords) {
+        if (requestWords.isEmpty()) {
+            return entities;
+        }
+        final Map<DBSEntity, Integer> scores = new IdentityHashMap<>();
+        for (DBSEntity entity : entities) {
+            final int score = getRelevanceScore(entity.getName().toLowerCase(Locale.ROOT), requestWords);
+            if (score > 0) {
+                scores.put(entity, score);
+            }
+        }
+        if (scores.isEmpty()) {
+            return entities;
+        }
+        final List<DBSEntity> ranked = new ArrayList<>(entities);
+        ranked.sort((e1, e2) -> Integer.compare(scores.getOrDefault(e2, 0), scores.getOrDefault(e1, 0)));
+        return ranked;
+    }
+
+    /**
+     * Relevance of the entity name (in lower case) to the request words. Zero if the name doesn't match any word.
+     */
+    public static int getRelevanceScore(@NotNull String entityName, @NotNull Set<String> requestWords) {
+        if (requestWords.contains(entityName)) {
+            return 100;
+        }
+        int score = 0;
+        for (String word : requestWords) {
+            if (word.length() >= MIN_PARTIAL_MATCH_LENGTH && entityName.length() >= MIN_PARTIAL_MATCH_LENGTH &&
+                (entityName.contains(word) || word.contains(entityName)))
+            {
+                // Plural forms, prefixes and name parts
+                score += 10;
+            }
+        }
+        return score;
+    }
+
+    @NotNull
+    private static Set<String> extractRequestWords(@NotNull List<DAICompletionMessage> messages) {
+        final Set<String> words = new HashSet<>();
+        for (DAICompletionMessage message : messages) {
+            if (message.role() != DAICompletionMessage.Role.USER) {
+                continue;
+            }
+            final Matcher matcher = WORD_PATTERN.matcher(message.content());
+            while (matcher.find()) {
+                words.add(matcher.group().toLowerCase(Locale.ROOT));
+            }
+        }
+        return words;
+    }
+
     /**
      * Creates a new message containing completion metadata for the request
      */
@@ -107,6 +271,7 @@ public class MetadataProcessor {
         @Nullable DBSObjectContainer mainObject,
         @NotNull IAIFormatter formatter,
         @NotNull GPTModel model,
+        @NotNull List<DAICompletionMessage> messages,
         int maxRequestTokens
     ) throws DBException {
         if (mainObject == null || mainObject.getDataSource() == null) {
@@ -138,7 +303,7 @@ public class MetadataProcessor {
 
         sb.append("\nSQL tables, with their properties are:");
 
-        final int remainingRequestTokens = maxRequestTokens - sb.length() - 20;
+        final int remainingRequestTokens = maxRequestTokens - MetadataContextCache.estimateTokens(sb) - 20;
 
         if (context.getScope() == DAICompletionScope.CUSTOM) {
             for (DBSEntity entity : context.getCustomEntities()) {
@@ -152,13 +317,14 @@ public class MetadataProcessor {
                 ));
             }
         } else {
-            sb.append(generateObjectDescription(
+            sb.append(generateContainerDescription(
                 monitor,
+                MetadataContextCache.getCache(mainObject),
                 mainObject,
                 executionContext,
                 formatter,
                 remainingRequestTokens,
-                false
+                extractRequestWords(messages)
             ));
         }
 
@@ -165,6 +165,7 @@ public class OpenAICompletionEngine extends AbstractAICompletionEngine<GPTComple
             mainObject,
             formatter,
             model,
+            messages,
             getMaxTokens() - AIConstants.MAX_RESPONSE_TOKENS
         );
 
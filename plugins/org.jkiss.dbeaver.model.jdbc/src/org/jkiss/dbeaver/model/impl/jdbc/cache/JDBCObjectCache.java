@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 import org.jkiss.utils.CommonUtils;
 
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -104,33 +105,44 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
             try {
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                        monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
-                        if (dbResult != null) {
-                            try {
-                                while (dbResult.next()) {
-                                    if (monitor.isCanceled()) {
-                                        return;
-                                    }
-
-                                    OBJECT object = fetchObject(session, owner, dbResult);
-                                    if (object == null || !isValidObject(monitor, owner, object)) {
-                                        continue;
+                    try {
+                        String fingerprint = JDBCObjectCacheSnapshot.isEnabled(dataSource) ?
+                            readSnapshotFingerprint(session, owner) : null;
+                        Path snapshotFile = null;
+                        JDBCObjectCacheSnapshot snapshot = null;
+                        if (fingerprint != null) {
+                            snapshotFile = JDBCObjectCacheSnapshot.getSnapshotFile(owner, getCacheName());
+                            snapshot = JDBCObjectCacheSnapshot.read(snapshotFile, fingerprint);
+                        }
+                        if (snapshot != null) {
+                            // Objects didn't change since the snapshot was made
+                            monitor.subTask("Load " + getCacheName() + " from snapshot");
+                            try (JDBCResultSet dbResult = snapshot.openResultSet(session, "Snapshot of " + getCacheName())) {
+                                if (!fetchObjects(monitor, session, owner, dbResult, null, tmpObjectList)) {
+                                    return;
+                                }
+                            }
+                        } else {
+                            try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                                monitor.subTask("Load " + getCacheName());
+                                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                                dbStat.executeStatement();
+                                JDBCResultSet dbResult = dbStat.getResultSet();
+                                if (dbResult != null) {
+                                    JDBCObjectCacheSnapshot.Recorder recorder = fingerprint == null ?
+                                        null : new JDBCObjectCacheSnapshot.Recorder(fingerprint);
+                                    try {
+                                        if (!fetchObjects(monitor, session, owner, dbResult, recorder, tmpObjectList)) {
+                                            return;
+                                        }
+                                    } finally {
+                                        dbResult.close();
                                     }
-                                    tmpObjectList.add(object);
-
-                                    // Do not log every object load. This overheats UI in case of long lists
-                                    //monitor.subTask(object.getName());
-                                    if (tmpObjectList.size() == maximumCacheSize) {
-                                        log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                        break;
+                                    JDBCObjectCacheSnapshot newSnapshot = recorder == null ? null : recorder.makeSnapshot();
+                                    if (newSnapshot != null) {
+                                        newSnapshot.write(snapshotFile);
                                     }
                                 }
-                            } finally {
-                                dbResult.close();
                             }
                         }
                     } finally {
@@ -162,6 +174,62 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    /**
+     * Fetches objects from the result set. Returns false if loading was canceled.
+     */
+    private boolean fetchObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCResultSet dbResult,
+        @Nullable JDBCObjectCacheSnapshot.Recorder recorder,
+        @NotNull List<OBJECT> objectList
+    ) throws SQLException, DBException {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            if (recorder != null) {
+                recorder.recordRow(dbResult.getOriginal());
+            }
+
+            OBJECT object = fetchObject(session, owner, dbResult);
+            if (object == null || !isValidObject(monitor, owner, object)) {
+                continue;
+            }
+            objectList.add(object);
+
+            // Do not log every object load. This overheats UI in case of long lists
+            //monitor.subTask(object.getName());
+            if (objectList.size() == maximumCacheSize) {
+                log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                break;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private String readSnapshotFingerprint(@NotNull JDBCSession session, @NotNull OWNER owner) {
+        try {
+            return readObjectsFingerprint(session, owner);
+        } catch (SQLException e) {
+            log.debug("Error reading " + getCacheName() + " fingerprint", e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads cheap fingerprint of the objects state in the database (e.g. number of objects and their last DDL time).
+     * If fingerprint matches the one saved with the local metadata snapshot then objects are read from the snapshot.
+     * Returns null if fingerprint is not supported, in this case objects are always read from the database.
+     * Should be overridden only by caches whose objects query depends on the owner only.
+     */
+    @Nullable
+    protected String readObjectsFingerprint(@NotNull JDBCSession session, @NotNull OWNER owner) throws SQLException {
+        return null;
+    }
+
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
         // Do nothing
     }
@@ -0,0 +1,765 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Local snapshot of the rows which were used to fill an object cache.
+ *
+ * Snapshot is stored together with the fingerprint of the objects state in the database
+ * (see {@link JDBCObjectCache#readObjectsFingerprint}). If the fingerprint did not change then
+ * cache objects are fetched from the snapshot rows instead of running the objects query.
+ *
+ * Values are kept with their original types (as returned by {@link ResultSet#getObject(int)}) and with
+ * their string representation, so metadata readers get the same values as from the database result set.
+ * Driver specific objects of OTHER, ARRAY and similar columns (e.g. PostgreSQL xid or aclitem[]) are kept
+ * as their driver string form. Rows with other unsupported values are not recorded.
+ */
+public class JDBCObjectCacheSnapshot {
+
+    private static final Log log = Log.getLog(JDBCObjectCacheSnapshot.class);
+
+    private static final String SNAPSHOTS_FOLDER = "metadata-snapshots"; //$NON-NLS-1$
+    private static final int FORMAT_VERSION = 2;
+
+    // Value types
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_BYTE = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_INTEGER = 5;
+    private static final byte TYPE_LONG = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_DOUBLE = 8;
+    private static final byte TYPE_BIG_INTEGER = 9;
+    private static final byte TYPE_BIG_DECIMAL = 10;
+    private static final byte TYPE_DATE = 11;
+    private static final byte TYPE_TIME = 12;
+    private static final byte TYPE_TIMESTAMP = 13;
+    private static final byte TYPE_BYTES = 14;
+    private static final byte TYPE_ARRAY = 15;
+    // Used only as array component type
+    private static final byte TYPE_OBJECT = 16;
+
+    private static final Class<?>[] TYPE_CLASSES = {
+        null, String.class, Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class, java.sql.Date.class, Time.class, Timestamp.class, byte[].class, SnapshotArray.class,
+        Object.class
+    };
+
+    private final String fingerprint;
+    private final String[] columnLabels;
+    private final int[] columnTypes;
+    private final String[] columnTypeNames;
+    private final List<SnapshotRow> rows;
+
+    private JDBCObjectCacheSnapshot(
+        @NotNull String fingerprint,
+        @NotNull String[] columnLabels,
+        @NotNull int[] columnTypes,
+        @NotNull String[] columnTypeNames,
+        @NotNull List<SnapshotRow> rows
+    ) {
+        this.fingerprint = fingerprint;
+        this.columnLabels = columnLabels;
+        this.columnTypes = columnTypes;
+        this.columnTypeNames = columnTypeNames;
+        this.rows = rows;
+    }
+
+    @NotNull
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public static boolean isEnabled(@NotNull DBPDataSource dataSource) {
+        return dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_USE_SNAPSHOT_CACHE);
+    }
+
+    @NotNull
+    static Path getSnapshotFile(@NotNull DBSObject owner, @NotNull String cacheName) {
+        String key = DBUtils.getObjectFullId(owner) + "#" + cacheName;
+        return DBWorkbench.getPlatform().getWorkspace().getMetadataFolder()
+            .resolve(SNAPSHOTS_FOLDER)
+            .resolve(owner.getDataSource().getContainer().getId())
+            .resolve(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".snapshot");
+    }
+
+    /**
+     * Reads snapshot from the file. Returns null if there is no snapshot or if it was made for another fingerprint.
+     */
+    @Nullable
+    public static JDBCObjectCacheSnapshot read(@NotNull Path file, @NotNull String fingerprint) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String snapshotFingerprint = readString(in);
+            if (!fingerprint.equals(snapshotFingerprint)) {
+                return null;
+            }
+            int columnCount = in.readInt();
+            String[] columnLabels = new String[columnCount];
+            int[] columnTypes = new int[columnCount];
+            String[] columnTypeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnLabels[i] = readString(in);
+                columnTypes[i] = in.readInt();
+                columnTypeNames[i] = readString(in);
+            }
+            int rowCount = in.readInt();
+            List<SnapshotRow> rows = new ArrayList<>(rowCount);
+            for (int r = 0; r < rowCount; r++) {
+                SnapshotRow row = new SnapshotRow(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    row.values[i] = readValue(in);
+                    row.strings[i] = readString(in);
+                }
+                rows.add(row);
+            }
+            return new JDBCObjectCacheSnapshot(snapshotFingerprint, columnLabels, columnTypes, columnTypeNames, rows);
+        } catch (IOException e) {
+            log.debug("Error reading metadata snapshot " + file, e);
+            return null;
+        }
+    }
+
+    public void write(@NotNull Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, fingerprint);
+                out.writeInt(columnLabels.length);
+                for (int i = 0; i < columnLabels.length; i++) {
+                    writeString(out, columnLabels[i]);
+                    out.writeInt(columnTypes[i]);
+                    writeString(out, columnTypeNames[i]);
+                }
+                out.writeInt(rows.size());
+                for (SnapshotRow row : rows) {
+                    for (int i = 0; i < columnLabels.length; i++) {
+                        writeValue(out, row.values[i]);
+                        writeString(out, row.strings[i]);
+                    }
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error writing metadata snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Opens result set over the snapshot rows
+     */
+    @NotNull
+    JDBCResultSet openResultSet(@NotNull JDBCSession session, @NotNull String description) throws SQLException {
+        return JDBCResultSetImpl.makeResultSet(session, null, openRawResultSet(), description, true);
+    }
+
+    /**
+     * Opens plain JDBC result set over the snapshot rows
+     */
+    @NotNull
+    public ResultSet openRawResultSet() {
+        return (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{ResultSet.class},
+            new SnapshotResultSetHandler());
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns type of the value or -1 if values of this type can't be kept in the snapshot
+     */
+    private static byte getValueType(@Nullable Object value) {
+        return value == null ? TYPE_NULL : getClassType(value.getClass());
+    }
+
+    private static byte getClassType(@NotNull Class<?> valueClass) {
+        // Exact classes only. Subclasses (e.g. driver specific timestamps) would be restored with different type
+        for (byte i = TYPE_STRING; i < TYPE_CLASSES.length; i++) {
+            if (TYPE_CLASSES[i] == valueClass) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSupportedValue(@Nullable Object value) {
+        byte type = getValueType(value);
+        return type >= 0 && type != TYPE_OBJECT;
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        byte type = getValueType(value);
+        out.writeByte(type);
+        switch (type) {
+            case TYPE_NULL:
+                break;
+            case TYPE_STRING:
+                writeString(out, (String) value);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            case TYPE_BYTE:
+                out.writeByte((Byte) value);
+                break;
+            case TYPE_SHORT:
+                out.writeShort((Short) value);
+                break;
+            case TYPE_INTEGER:
+                out.writeInt((Integer) value);
+                break;
+            case TYPE_LONG:
+                out.writeLong((Long) value);
+                break;
+            case TYPE_FLOAT:
+                out.writeFloat((Float) value);
+                break;
+            case TYPE_DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case TYPE_BIG_INTEGER:
+            case TYPE_BIG_DECIMAL:
+                writeString(out, value.toString());
+                break;
+            case TYPE_DATE:
+            case TYPE_TIME:
+                out.writeLong(((java.util.Date) value).getTime());
+                break;
+            case TYPE_TIMESTAMP:
+                out.writeLong(((Timestamp) value).getTime());
+                out.writeInt(((Timestamp) value).getNanos());
+                break;
+            case TYPE_BYTES: {
+                byte[] bytes = (byte[]) value;
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case TYPE_ARRAY: {
+                SnapshotArray array = (SnapshotArray) value;
+                out.writeInt(array.baseType);
+                writeString(out, array.baseTypeName);
+                out.writeByte(getClassType(array.elements.getClass().getComponentType()));
+                out.writeInt(array.elements.length);
+                for (Object element : array.elements) {
+                    writeValue(out, element);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Value of type " + value.getClass().getName() + " can't be written in metadata snapshot");
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readString(in));
+            case TYPE_BIG_DECIMAL:
+                return new BigDecimal(readString(in));
+            case TYPE_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case TYPE_ARRAY: {
+                int baseType = in.readInt();
+                String baseTypeName = readString(in);
+                byte componentType = in.readByte();
+                if (componentType < TYPE_STRING || componentType >= TYPE_CLASSES.length) {
+                    throw new IOException("Bad array component type " + componentType);
+                }
+                Object[] elements = (Object[]) java.lang.reflect.Array.newInstance(TYPE_CLASSES[componentType], in.readInt());
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = readValue(in);
+                }
+                return new SnapshotArray(baseType, baseTypeName, elements);
+            }
+            default:
+                throw new IOException("Bad value type " + type);
+        }
+    }
+
+    private static class SnapshotRow {
+        private final Object[] values;
+        // String representation of values. Null for string and null values
+        private final String[] strings;
+
+        SnapshotRow(int columnCount) {
+            this.values = new Object[columnCount];
+            this.strings = new String[columnCount];
+        }
+    }
+
+    /**
+     * Collects result set rows while cache is loaded from the database
+     */
+    public static class Recorder {
+        private final String fingerprint;
+        private String[] columnLabels;
+        private int[] columnTypes;
+        private String[] columnTypeNames;
+        private final List<SnapshotRow> rows = new ArrayList<>();
+        private boolean unsupported;
+
+        public Recorder(@NotNull String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public void recordRow(@NotNull ResultSet resultSet) {
+            if (unsupported) {
+                return;
+            }
+            try {
+                if (columnLabels == null) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    columnLabels = new String[columnCount];
+                    columnTypes = new int[columnCount];
+                    columnTypeNames = new String[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        columnLabels[i] = metaData.getColumnLabel(i + 1);
+                        columnTypes[i] = metaData.getColumnType(i + 1);
+                        columnTypeNames[i] = metaData.getColumnTypeName(i + 1);
+                    }
+                }
+                SnapshotRow row = new SnapshotRow(columnLabels.length);
+                for (int i = 0; i < columnLabels.length; i++) {
+                    Object value = resultSet.getObject(i + 1);
+                    if (value instanceof java.sql.Array) {
+                        value = SnapshotArray.copyOf((java.sql.Array) value);
+                    }
+                    if (!isSupportedValue(value) && isDriverObjectType(columnTypes[i])) {
+                        value = resultSet.getString(i + 1);
+                    }
+                    if (!isSupportedValue(value)) {
+                        log.debug("Value of column '" + columnLabels[i] + "' (" + value.getClass().getName() +
+                            ") can't be kept in metadata snapshot");
+                        unsupported = true;
+                        return;
+                    }
+                    row.values[i] = value;
+                    if (value != null && !(value instanceof String)) {
+                        row.strings[i] = resultSet.getString(i + 1);
+                    }
+                }
+                rows.add(row);
+            } catch (SQLException e) {
+                log.debug("Error recording metadata snapshot row", e);
+                unsupported = true;
+            }
+        }
+
+        private static boolean isDriverObjectType(int columnType) {
+            switch (columnType) {
+                case Types.OTHER:
+                case Types.ARRAY:
+                case Types.JAVA_OBJECT:
+                case Types.DISTINCT:
+                case Types.STRUCT:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Makes snapshot of recorded rows. Returns null if some rows can't be kept in the snapshot.
+         */
+        @Nullable
+        public JDBCObjectCacheSnapshot makeSnapshot() {
+            if (unsupported) {
+                return null;
+            }
+            return new JDBCObjectCacheSnapshot(
+                fingerprint,
+                columnLabels == null ? new String[0] : columnLabels,
+                columnTypes == null ? new int[0] : columnTypes,
+                columnTypeNames == null ? new String[0] : columnTypeNames,
+                rows);
+        }
+    }
+
+    /**
+     * Detached copy of SQL array
+     */
+    private static class SnapshotArray implements java.sql.Array {
+        private final int baseType;
+        private final String baseTypeName;
+        private final Object[] elements;
+
+        SnapshotArray(int baseType, @Nullable String baseTypeName, @NotNull Object[] elements) {
+            this.baseType = baseType;
+            this.baseTypeName = baseTypeName;
+            this.elements = elements;
+        }
+
+        /**
+         * Returns array copy or the original array if its elements can't be kept in the snapshot
+         */
+        @NotNull
+        static Object copyOf(@NotNull java.sql.Array array) throws SQLException {
+            Object elements = array.getArray();
+            if (!(elements instanceof Object[]) || getClassType(elements.getClass().getComponentType()) < 0) {
+                return array;
+            }
+            for (Object element : (Object[]) elements) {
+                if (!isSupportedValue(element)) {
+                    return array;
+                }
+            }
+            return new SnapshotArray(array.getBaseType(), array.getBaseTypeName(), (Object[]) elements);
+        }
+
+        @Override
+        public String getBaseTypeName() {
+            return baseTypeName;
+        }
+
+        @Override
+        public int getBaseType() {
+            return baseType;
+        }
+
+        @Override
+        public Object getArray() {
+            return elements.clone();
+        }
+
+        @Override
+        public Object getArray(Map<String, Class<?>> map) {
+            return getArray();
+        }
+
+        @Override
+        public Object getArray(long index, int count) {
+            return Arrays.copyOfRange(elements, (int) index - 1, (int) index - 1 + count);
+        }
+
+        @Override
+        public Object getArray(long index, int count, Map<String, Class<?>> map) {
+            return getArray(index, count);
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public void free() {
+            // Nothing to free
+        }
+    }
+
+    /**
+     * Implements the subset of result set API which is used by metadata readers.
+     */
+    private class SnapshotResultSetHandler implements InvocationHandler {
+        private int rowIndex = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    rowIndex++;
+                    return rowIndex < rows.size();
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return wasNull;
+                case "findColumn":
+                    return findColumn((String) args[0]);
+                case "getMetaData":
+                    return Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class[]{ResultSetMetaData.class},
+                        (metaProxy, metaMethod, metaArgs) -> invokeMetaData(metaMethod, metaArgs));
+                case "getStatement":
+                case "getWarnings":
+                    return null;
+                case "clearWarnings":
+                case "setFetchSize":
+                    return null;
+                case "getFetchSize":
+                    return 0;
+                case "unwrap":
+                    throw new SQLFeatureNotSupportedException();
+                case "isWrapperFor":
+                    return false;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Metadata snapshot result set";
+                case "getObject":
+                    if (args.length == 2 && args[1] instanceof Class) {
+                        return convertValue(args[0], (Class<?>) args[1]);
+                    }
+                    break;
+            }
+            if (method.getName().startsWith("get") && args != null && args.length == 1) {
+                return convertValue(args[0], method.getReturnType());
+            }
+            throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+        }
+
+        private int findColumn(@NotNull String label) throws SQLException {
+            for (int i = 0; i < columnLabels.length; i++) {
+                if (columnLabels[i].equalsIgnoreCase(label)) {
+                    return i + 1;
+                }
+            }
+            throw new SQLException("Column '" + label + "' not found in metadata snapshot");
+        }
+
+        private int getColumnIndex(@NotNull Object column) throws SQLException {
+            if (rowIndex < 0 || rowIndex >= rows.size()) {
+                throw new SQLException("No current row in metadata snapshot");
+            }
+            int index = column instanceof Number ? ((Number) column).intValue() : findColumn(column.toString());
+            if (index < 1 || index > columnLabels.length) {
+                throw new SQLException("Column index " + index + " is out of range");
+            }
+            return index - 1;
+        }
+
+        @Nullable
+        private Object convertValue(@NotNull Object column, @NotNull Class<?> type) throws SQLException {
+            int index = getColumnIndex(column);
+            SnapshotRow row = rows.get(rowIndex);
+            Object value = row.values[index];
+            wasNull = value == null;
+            if (value instanceof byte[] && (type == byte[].class || type == Object.class)) {
+                return ((byte[]) value).clone();
+            }
+            if (type == Object.class || (value != null && type.isInstance(value))) {
+                return value;
+            }
+            if (type == String.class) {
+                return value instanceof String ? value : row.strings[index];
+            }
+            try {
+                if (type == boolean.class || type == Boolean.class) {
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    String str = row.strings[index] != null ? row.strings[index] : (String) value;
+                    return str != null && (str.equalsIgnoreCase("t") || CommonUtils.toBoolean(str) || str.equals("1"));
+                }
+                if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+                    return convertNumber(value, type);
+                }
+                if (type == Timestamp.class || type == java.sql.Date.class || type == Time.class) {
+                    if (value == null) {
+                        return null;
+                    }
+                    if (value instanceof java.util.Date) {
+                        long time = ((java.util.Date) value).getTime();
+                        return type == Timestamp.class ? new Timestamp(time) :
+                            type == Time.class ? new Time(time) : new java.sql.Date(time);
+                    }
+                    if (value instanceof String) {
+                        return type == Timestamp.class ? Timestamp.valueOf((String) value) :
+                            type == Time.class ? Time.valueOf((String) value) : java.sql.Date.valueOf((String) value);
+                    }
+                } else if (value == null && !type.isPrimitive()) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Can't convert snapshot value '" + value + "' to " + type.getSimpleName(), e);
+            }
+            throw new SQLException("Snapshot value '" + value + "' can't be read as " + type.getSimpleName());
+        }
+
+        @Nullable
+        private Object convertNumber(@Nullable Object value, @NotNull Class<?> type) throws SQLException {
+            if (value == null) {
+                if (!type.isPrimitive()) {
+                    return null;
+                }
+                value = 0;
+            }
+            Number number;
+            if (value instanceof Number) {
+                number = (Number) value;
+            } else if (value instanceof String) {
+                number = new BigDecimal(((String) value).trim());
+            } else {
+                throw new SQLException("Snapshot value of type " + value.getClass().getSimpleName() + " is not a number");
+            }
+            if (type == int.class || type == Integer.class) {
+                return number.intValue();
+            } else if (type == long.class || type == Long.class) {
+                return number.longValue();
+            } else if (type == short.class || type == Short.class) {
+                return number.shortValue();
+            } else if (type == byte.class || type == Byte.class) {
+                return number.byteValue();
+            } else if (type == double.class || type == Double.class) {
+                return number.doubleValue();
+            } else if (type == float.class || type == Float.class) {
+                return number.floatValue();
+            } else if (type == BigDecimal.class) {
+                return number instanceof BigDecimal ? number : new BigDecimal(number.toString());
+            } else if (type == BigInteger.class) {
+                return number instanceof BigInteger ? number : new BigDecimal(number.toString()).toBigInteger();
+            }
+            throw new SQLFeatureNotSupportedException("Values of type " + type.getSimpleName() + " are not supported by metadata snapshot");
+        }
+
+        @Nullable
+        private Object invokeMetaData(@NotNull Method method, @Nullable Object[] args) {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columnLabels.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return columnLabels[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return columnTypes[(Integer) args[0] - 1];
+                case "getColumnTypeName":
+                    return columnTypeNames[(Integer) args[0] - 1];
+                case "getColumnClassName":
+                    return Object.class.getName();
+                case "isNullable":
+                    return ResultSetMetaData.columnNullableUnknown;
+                case "isWrapperFor":
+                    return false;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == int.class) {
+                return 0;
+            }
+            return null;
+        }
+    }
+
+}
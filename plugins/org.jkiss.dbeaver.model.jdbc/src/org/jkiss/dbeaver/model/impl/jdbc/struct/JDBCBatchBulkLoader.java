@@ -0,0 +1,141 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.util.Map;
+
+/**
+ * Bulk loader which sends all rows through a single prepared statement using JDBC batches.
+ * Implementations provide database specific insert statement (direct-path hints, input functions, etc).
+ * Each executed batch is committed immediately.
+ */
+public abstract class JDBCBatchBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(JDBCBatchBulkLoader.class);
+
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private DBCStatement statement;
+    private int batchSize;
+    private int batchRows;
+    private long rowsInserted;
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load into '" + dataContainer.getName() + "' is not supported");
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.batchSize = batchSize;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+        String query = makeInsertQuery(session, table, attributes);
+        statement = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false);
+        statement.setStatementSource(source);
+        return this;
+    }
+
+    /**
+     * Makes insert statement with one parameter per attribute (in the same order)
+     */
+    @NotNull
+    protected abstract String makeInsertQuery(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity table,
+        @NotNull DBSAttributeBase[] attributes) throws DBCException;
+
+    @NotNull
+    protected static String makeColumnList(@NotNull DBPDataSource dataSource, @NotNull DBSAttributeBase[] attributes) {
+        StringBuilder columns = new StringBuilder();
+        for (DBSAttributeBase attribute : attributes) {
+            if (columns.length() > 0) columns.append(",");
+            columns.append(DBUtils.getQuotedIdentifier(dataSource, attribute.getName()));
+        }
+        return columns.toString();
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, statement, attributes[i], i, attributeValues[i]);
+        }
+        statement.addToBatch();
+        batchRows++;
+        if (batchSize > 0 && batchRows >= batchSize) {
+            executeBatch(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+        log.debug(rowsInserted + " row(s) loaded into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI));
+    }
+
+    private void executeBatch(@NotNull DBCSession session) throws DBCException {
+        if (batchRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Load " + batchRows + " row(s) into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI));
+        statement.executeStatementBatch();
+        rowsInserted += batchRows;
+        batchRows = 0;
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+
+}
@@ -39,6 +39,7 @@ import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLExpressionFormatter;
+import org.jkiss.dbeaver.model.sql.SQLKeysetPaginator;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
@@ -113,9 +114,9 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     public String[] getSupportedFeatures()
     {
         if (isTruncateSupported()) {
-            return new String[] {FEATURE_DATA_COUNT, FEATURE_DATA_FILTER, FEATURE_DATA_SEARCH, FEATURE_DATA_INSERT, FEATURE_DATA_UPDATE, FEATURE_DATA_DELETE, FEATURE_DATA_TRUNCATE};
+            return new String[] {FEATURE_DATA_COUNT, FEATURE_DATA_FILTER, FEATURE_DATA_SEARCH, FEATURE_KEYSET_PAGINATION, FEATURE_DATA_INSERT, FEATURE_DATA_UPDATE, FEATURE_DATA_DELETE, FEATURE_DATA_TRUNCATE};
         } else {
-            return new String[] {FEATURE_DATA_COUNT, FEATURE_DATA_FILTER, FEATURE_DATA_SEARCH, FEATURE_DATA_INSERT, FEATURE_DATA_UPDATE, FEATURE_DATA_DELETE};
+            return new String[] {FEATURE_DATA_COUNT, FEATURE_DATA_FILTER, FEATURE_DATA_SEARCH, FEATURE_KEYSET_PAGINATION, FEATURE_DATA_INSERT, FEATURE_DATA_UPDATE, FEATURE_DATA_DELETE};
         }
     }
 
@@ -129,6 +130,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         DBCStatistics statistics = new DBCStatistics();
         boolean hasLimits = firstRow >= 0 && maxRows > 0;
+        // In keyset mode segment start is defined by filter condition. Do not skip rows
+        long queryFirstRow = (flags & FLAG_KEYSET_PAGINATION) != 0 ? 0 : firstRow;
 
         DBPDataSource dataSource = session.getDataSource();
         DBRProgressMonitor monitor = session.getProgressMonitor();
@@ -170,19 +173,25 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         monitor.subTask(ModelMessages.model_jdbc_fetch_table_data);
 
+        // Keyset segment start is bound as parameters
+        SQLKeysetPaginator.SegmentFilter segmentFilter =
+            dataFilter instanceof SQLKeysetPaginator.SegmentFilter sf && sf.hasParameters() ? sf : null;
         try (DBCStatement dbStat = DBUtils.makeStatement(
             source,
             session,
-            DBCStatementType.SCRIPT,
+            segmentFilter != null ? DBCStatementType.QUERY : DBCStatementType.SCRIPT,
             sqlQuery,
-            firstRow,
+            queryFirstRow,
             maxRows))
         {
             if (monitor.isCanceled()) {
                 return statistics;
             }
+            if (segmentFilter != null) {
+                segmentFilter.bindParameters(session, dbStat);
+            }
             if (dbStat instanceof JDBCStatement && (fetchSize > 0 || maxRows > 0)) {
-                DBExecUtils.setStatementFetchSize(dbStat, firstRow, maxRows, fetchSize);
+                DBExecUtils.setStatementFetchSize(dbStat, queryFirstRow, maxRows, fetchSize);
             }
 
             long startTime = System.currentTimeMillis();
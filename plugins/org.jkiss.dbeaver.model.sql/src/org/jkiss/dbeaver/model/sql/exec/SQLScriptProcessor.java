@@ -17,21 +17,33 @@
 package org.jkiss.dbeaver.model.sql.exec;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * SQLScriptProcessor
@@ -39,8 +51,13 @@ import java.util.List;
 public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
 
+    public static final int DEFAULT_DML_BATCH_SIZE = 1000;
+
     private final DBCExecutionContext executionContext;
+    @Nullable
     private final List<SQLScriptElement> queries;
+    @Nullable
+    private final SQLScriptStreamParser scriptParser;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -54,6 +71,7 @@ public class SQLScriptProcessor {
     private long fetchFlags;
     private SQLScriptCommitType commitType = SQLScriptCommitType.AUTOCOMMIT;
     private SQLScriptErrorHandling errorHandling = SQLScriptErrorHandling.STOP_ROLLBACK;
+    private int dmlBatchSize;
 
     public SQLScriptProcessor(
         @NotNull DBCExecutionContext executionContext,
@@ -63,6 +81,24 @@ public class SQLScriptProcessor {
         @NotNull Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.scriptParser = null;
+        this.scriptContext = scriptContext;
+        this.dataReceiver = dataReceiver;
+        this.log = log;
+    }
+
+    /**
+     * Creates processor which executes script elements as soon as they are read by the script parser.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull SQLScriptStreamParser scriptParser,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this.executionContext = executionContext;
+        this.queries = null;
+        this.scriptParser = scriptParser;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -92,6 +128,21 @@ public class SQLScriptProcessor {
         this.errorHandling = errorHandling;
     }
 
+    public int getDmlBatchSize() {
+        return dmlBatchSize;
+    }
+
+    /**
+     * Enables execution of consecutive DML statements of the same type and target table in JDBC batches.
+     * Zero (default) disables batching.
+     * Errors are reported for each failed statement of a batch. Some drivers continue batch execution
+     * after a failed statement, so statements which follow it in the same batch may be executed even if
+     * the script stops on error.
+     */
+    public void setDmlBatchSize(int dmlBatchSize) {
+        this.dmlBatchSize = dmlBatchSize;
+    }
+
     public void runScript(DBRProgressMonitor monitor) throws DBCException {
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
@@ -109,29 +160,64 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queries != null) {
+                    monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                } else {
+                    monitor.beginTask("Execute script", 1);
+                }
 
-                for (SQLScriptElement query : queries) {
+                Iterator<SQLScriptElement> queryIterator = queries == null ? null : queries.iterator();
+                int queryNumber = 0;
+                boolean useBatches = isBatchExecutionApplicable(session);
+                List<SQLQuery> batchQueries = new ArrayList<>();
+                boolean stopped = false;
+                for (; ; ) {
                     if (monitor.isCanceled()) {
                         break;
                     }
+                    SQLScriptElement query;
+                    if (queryIterator != null) {
+                        query = queryIterator.hasNext() ? queryIterator.next() : null;
+                    } else {
+                        query = readNextQuery();
+                        queryNumber++;
+                        monitor.subTask("Execute query #" + queryNumber);
+                    }
+                    if (query == null) {
+                        break;
+                    }
                     // Execute query
-                    boolean runNext = executeSingleQuery(session, query);
-                    if (!runNext) {
-                        if (lastError == null) {
-                            // Execution cancel
-                            break;
+                    boolean runNext;
+                    if (useBatches && isBatchableQuery(query)) {
+                        SQLQuery sqlQuery = (SQLQuery) query;
+                        runNext = true;
+                        if (!batchQueries.isEmpty() && !isSameBatchShape(batchQueries.get(0), sqlQuery)) {
+                            runNext = executeBatch(session, batchQueries);
                         }
-                        if (errorHandling != SQLScriptErrorHandling.IGNORE) {
-                            log.error(lastError);
-                            break;
-                        } else {
-                            log.warn("Query failed: " + lastError.getMessage());
+                        if (runNext) {
+                            batchQueries.add(sqlQuery);
+                            if (batchQueries.size() >= dmlBatchSize) {
+                                runNext = executeBatch(session, batchQueries);
+                            }
+                        }
+                    } else {
+                        runNext = batchQueries.isEmpty() || executeBatch(session, batchQueries);
+                        if (runNext) {
+                            runNext = executeSingleQuery(session, query);
                         }
                     }
+                    if (!runNext && isStopRequired()) {
+                        stopped = true;
+                        break;
+                    }
 
                     monitor.worked(1);
                 }
+                if (!stopped && !batchQueries.isEmpty() && !monitor.isCanceled()) {
+                    if (!executeBatch(session, batchQueries)) {
+                        isStopRequired();
+                    }
+                }
                 monitor.done();
 
                 // Commit data
@@ -169,6 +255,147 @@ public class SQLScriptProcessor {
         }
     }
 
+    private boolean isStopRequired() {
+        if (lastError == null) {
+            // Execution cancel
+            return true;
+        }
+        if (errorHandling != SQLScriptErrorHandling.IGNORE) {
+            log.error(lastError);
+            return true;
+        } else {
+            log.warn("Query failed: " + lastError.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isBatchExecutionApplicable(@NotNull DBCSession session) {
+        return dmlBatchSize > 1 && session instanceof JDBCSession && session.getDataSource().getInfo().supportsBatchUpdates();
+    }
+
+    private boolean isBatchableQuery(@NotNull SQLScriptElement element) {
+        if (!(element instanceof SQLQuery)) {
+            return false;
+        }
+        SQLQuery sqlQuery = (SQLQuery) element;
+        if (!CommonUtils.isEmpty(sqlQuery.getParameters())) {
+            // Parameters and variables are resolved by script context right before execution. Batch doesn't do that
+            return false;
+        }
+        if (sqlQuery.getText().toUpperCase(Locale.ENGLISH).contains("RETURNING")) {
+            // DML which returns data can't be executed in batch
+            return false;
+        }
+        SQLQueryType queryType = sqlQuery.getType();
+        return (queryType == SQLQueryType.INSERT || queryType == SQLQueryType.UPDATE || queryType == SQLQueryType.DELETE) &&
+            sqlQuery.getEntityMetadata(true) != null;
+    }
+
+    private static boolean isSameBatchShape(@NotNull SQLQuery query1, @NotNull SQLQuery query2) {
+        if (query1.getType() != query2.getType()) {
+            return false;
+        }
+        DBCEntityMetaData entity1 = query1.getEntityMetadata(true);
+        DBCEntityMetaData entity2 = query2.getEntityMetadata(true);
+        return entity1 != null && entity2 != null &&
+            Objects.equals(entity1.getCatalogName(), entity2.getCatalogName()) &&
+            Objects.equals(entity1.getSchemaName(), entity2.getSchemaName()) &&
+            Objects.equals(entity1.getEntityName(), entity2.getEntityName());
+    }
+
+    /**
+     * Executes queued queries in one batch and clears the queue.
+     * Update counts are mapped back to the queries, so errors are reported for each failed statement.
+     * If the driver stops on a failed statement and errors are ignored, the rest of the batch is executed again.
+     */
+    private boolean executeBatch(@NotNull DBCSession session, @NotNull List<SQLQuery> batchQueries) {
+        List<SQLQuery> queries = new ArrayList<>(batchQueries);
+        batchQueries.clear();
+        if (queries.size() == 1) {
+            return executeSingleQuery(session, queries.get(0));
+        }
+        lastError = null;
+        statistics.reset();
+        statistics.setQueryText(queries.get(0).getText());
+
+        BatchResult batchResult = new BatchResult();
+        long execStartTime = System.currentTimeMillis();
+        try {
+            DBExecUtils.tryExecuteRecover(session, session.getDataSource(), param -> {
+                try (JDBCStatement dbStat = ((JDBCSession) session).createStatement()) {
+                    for (SQLQuery query : queries) {
+                        dbStat.addBatch(query.getText());
+                    }
+                    log.debug(STAT_LOG_PREFIX + "Execute batch of " + queries.size() + " queries\n" + queries.get(0).getText());
+                    batchResult.updateCounts = dbStat.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // Statements were already sent to the server, so the batch must not be repeated
+                    batchResult.updateCounts = e.getUpdateCounts();
+                    batchResult.error = e;
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            });
+        } catch (Throwable e) {
+            batchResult.error = e;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - execStartTime);
+
+        int[] updateCounts = batchResult.updateCounts;
+        int executedCount = updateCounts == null ? 0 : Math.min(updateCounts.length, queries.size());
+        boolean hasFailedStatements = false;
+        for (int i = 0; i < executedCount; i++) {
+            statistics.addStatementsCount();
+            if (updateCounts[i] >= 0) {
+                statistics.addRowsUpdated(updateCounts[i]);
+            } else if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                hasFailedStatements = true;
+                reportBatchQueryError(queries.get(i), batchResult.error);
+            }
+        }
+        log.debug(STAT_LOG_PREFIX + "Time: " + RuntimeUtils.formatExecutionTime(statistics.getExecuteTime()) +
+            ", executed " + executedCount + " of " + queries.size() + " queries" +
+            (statistics.getRowsUpdated() >= 0 ? ", updated " + statistics.getRowsUpdated() + " row(s)" : ""));
+        totalStatistics.accumulate(statistics);
+
+        if (batchResult.error != null && !hasFailedStatements) {
+            if (executedCount < queries.size()) {
+                // Driver stopped on the first failed statement. The following statements were not executed.
+                reportBatchQueryError(queries.get(executedCount), batchResult.error);
+                if (errorHandling == SQLScriptErrorHandling.IGNORE && executedCount + 1 < queries.size()) {
+                    Throwable failedQueryError = lastError;
+                    executeBatch(session, new ArrayList<>(queries.subList(executedCount + 1, queries.size())));
+                    if (lastError == null) {
+                        lastError = failedQueryError;
+                    }
+                }
+            } else {
+                reportBatchQueryError(queries.get(0), batchResult.error);
+            }
+        }
+        return lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE;
+    }
+
+    private void reportBatchQueryError(@NotNull SQLQuery query, @Nullable Throwable batchError) {
+        DBCException error = new DBCException("Batch statement failed: " + query.getText(), batchError);
+        if (errorHandling == SQLScriptErrorHandling.IGNORE || lastError != null) {
+            // The first error is logged when script stops
+            log.warn("Query failed: " + error.getMessage());
+        }
+        if (lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE) {
+            lastError = error;
+        }
+    }
+
+    @Nullable
+    private SQLScriptElement readNextQuery() throws DBCException {
+        try {
+            return scriptParser.nextElement();
+        } catch (IOException e) {
+            throw new DBCException("Error reading SQL script", e);
+        }
+    }
+
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element) {
         if (element instanceof SQLControlCommand) {
             log.debug(STAT_LOG_PREFIX + "Execute command\n" + element.getText());
@@ -353,4 +580,9 @@ public class SQLScriptProcessor {
         return totalStatistics;
     }
 
+    private static class BatchResult {
+        int[] updateCounts;
+        Throwable error;
+    }
+
 }
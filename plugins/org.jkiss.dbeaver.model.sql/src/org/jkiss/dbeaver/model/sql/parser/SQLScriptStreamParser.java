@@ -0,0 +1,136 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits SQL script into script elements while reading it.
+ * Only the text of the element which is not completed yet is kept in memory,
+ * so scripts of any size may be processed.
+ *
+ * Delimiter redefinitions are kept for the whole script, like in {@link SQLScriptParser#parseScript}.
+ * Offsets of the returned elements are relative to the current read window, not to the script start.
+ */
+public class SQLScriptStreamParser implements AutoCloseable {
+
+    private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+    private final SQLParserContext parserContext;
+    private final Document document;
+    private final Reader reader;
+    private final char[] readBuffer;
+
+    private int position;
+    private long scriptOffset;
+    private boolean endOfScript;
+
+    public SQLScriptStreamParser(@NotNull DBPDataSource dataSource, @NotNull Reader reader) {
+        this(dataSource, reader, READ_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates parser with the specified read chunk size. For tests only.
+     */
+    public SQLScriptStreamParser(@NotNull DBPDataSource dataSource, @NotNull Reader reader, int chunkSize) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource.getSQLDialect(), dataSource.getContainer().getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+
+        this.document = new Document();
+        this.parserContext = new SQLParserContext(dataSource, syntaxManager, ruleManager, document);
+        this.reader = reader;
+        this.readBuffer = new char[chunkSize];
+
+        this.parserContext.startScriptEvaluation();
+    }
+
+    /**
+     * Number of script characters which were already processed and dropped from memory
+     */
+    public long getScriptOffset() {
+        return scriptOffset + position;
+    }
+
+    /**
+     * Returns next complete script element or null if end of script was reached
+     */
+    @Nullable
+    public SQLScriptElement nextElement() throws IOException {
+        for (; ; ) {
+            int length = document.getLength();
+            if (position < length) {
+                SQLScriptElement element = SQLScriptParser.parseQuery(
+                    parserContext, position, length, position, true, false);
+                if (element != null) {
+                    int elementEnd = element.getOffset() + element.getLength();
+                    // Element which ends at the end of the read text may continue in the next chunk
+                    if (elementEnd < length || endOfScript) {
+                        if (element instanceof SQLQuery) {
+                            ((SQLQuery) element).setParameters(
+                                SQLScriptParser.parseParametersAndVariables(parserContext, element.getOffset(), element.getLength()));
+                        }
+                        position = elementEnd;
+                        return element;
+                    }
+                } else if (endOfScript) {
+                    return null;
+                }
+            } else if (endOfScript) {
+                return null;
+            }
+            readNextChunk();
+        }
+    }
+
+    private void readNextChunk() throws IOException {
+        String tail = document.get().substring(position);
+        StringBuilder text = new StringBuilder(tail);
+        // Read at least as much as we already have to keep re-parsing of very long statements linear
+        int toRead = Math.max(readBuffer.length, tail.length());
+        while (toRead > 0) {
+            int count = reader.read(readBuffer, 0, Math.min(readBuffer.length, toRead));
+            if (count < 0) {
+                endOfScript = true;
+                break;
+            }
+            text.append(readBuffer, 0, count);
+            toRead -= count;
+        }
+        scriptOffset += position;
+        position = 0;
+        document.set(text.toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        parserContext.endScriptEvaluation();
+        reader.close();
+    }
+
+}
@@ -17,16 +17,17 @@
 package org.jkiss.dbeaver.model.sql.task;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistActionComment;
-import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
-import org.jkiss.dbeaver.model.runtime.PrintStreamProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.*;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
@@ -38,10 +39,8 @@ import org.jkiss.utils.CommonUtils;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +48,8 @@ import java.util.stream.Collectors;
  */
 public abstract class SQLToolExecuteHandler<OBJECT_TYPE extends DBSObject, SETTINGS extends SQLToolExecuteSettings<OBJECT_TYPE>> implements DBTTaskHandler {
 
+    private static final Log log = Log.getLog(SQLToolExecuteHandler.class);
+
     private final DBCStatistics statistics = new DBCStatistics();
 
     @Override
@@ -99,120 +100,295 @@ public abstract class SQLToolExecuteHandler<OBJECT_TYPE extends DBSObject, SETTI
                 Throwable throwable = warnings.get(0);
                 throw new DBCException("Tool execution error: " + throwable.getMessage(), throwable);
             }
-            for (OBJECT_TYPE object : objectList) {
-                monitor.subTask("Process [" + DBUtils.getObjectFullName(object, DBPEvaluationContext.UI) + "]");
-                try (DBCSession session = DBUtils.openUtilSession(monitor, object, "Execute " + task.getType().getName())) {
-                    List<DBEPersistAction> queries = new ArrayList<>();
-                    generateObjectQueries(session, settings, queries, object);
-
-                    DBCExecutionContext context = session.getExecutionContext();
-                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
-                    boolean isAutoCommitModeSwitchedOn = true;
-
-                    try {
-                        if(isRunInAutoCommit() && txnManager != null && !txnManager.isAutoCommit()){
-                            isAutoCommitModeSwitchedOn = false;
-                            txnManager.setAutoCommit(monitor, true);
+            ObjectRateLimiter rateLimiter = new ObjectRateLimiter(settings.getMaxObjectsPerMinute());
+            int parallelism = getParallelism(settings, objectList);
+            if (parallelism > 1) {
+                lastError = executeParallel(monitor, task, settings, log, outLog, listener, rateLimiter, parallelism);
+            } else {
+                for (OBJECT_TYPE object : objectList) {
+                    if (!rateLimiter.acquire(monitor)) {
+                        break;
+                    }
+                    monitor.subTask("Process [" + DBUtils.getObjectFullName(object, DBPEvaluationContext.UI) + "]");
+                    try (DBCSession session = DBUtils.openUtilSession(monitor, object, "Execute " + task.getType().getName())) {
+                        Exception error = processObject(monitor, session, settings, object, log, outLog, listener);
+                        if (error != null) {
+                            lastError = error;
                         }
+                    }
+                    monitor.worked(1);
+                }
+            }
+        } catch (Exception e) {
+            lastError = e;
+            outLog.println("Process error\n" + e.getMessage());
+        } finally {
+            monitor.done();
+        }
+        listener.taskFinished(task, null, lastError, settings);
 
-                        for (DBEPersistAction action : queries) {
-                            if (monitor.isCanceled()) {
-                                break;
-                            }
-                            if (!CommonUtils.isEmpty(action.getTitle())) {
-                                monitor.subTask(action.getTitle());
-                            }
-                            try {
-                                if (action instanceof SQLDatabasePersistActionComment) {
-                                    continue;
-                                }
-                                String script = action.getScript();
-                                if (!CommonUtils.isEmpty(script)) {
-                                    long startTime = System.currentTimeMillis();
-                                    try (final DBCStatement statement = session.prepareStatement(
-                                        DBCStatementType.SCRIPT,
-                                        script,
-                                        false,
-                                        false,
-                                        false)) {
-                                        long execTime = System.currentTimeMillis() - startTime;
-                                        statement.executeStatement();
-                                        if (listener instanceof SQLToolRunListener) {
-                                            if (action.getType() != DBEPersistAction.ActionType.INITIALIZER && action.getType() != DBEPersistAction.ActionType.FINALIZER) {
-                                                SQLToolStatisticsSimple statisticsSimple = new SQLToolStatisticsSimple(object, false);
-                                                if (SQLToolExecuteHandler.this instanceof SQLToolRunStatisticsGenerator) {
-                                                    List<? extends SQLToolStatistics> executeStatistics =
-                                                            ((SQLToolRunStatisticsGenerator) SQLToolExecuteHandler.this).getExecuteStatistics(
-                                                                    object,
-                                                                    settings,
-                                                                    action,
-                                                                    session,
-                                                                    statement);
-                                                    monitor.subTask("\tFinished in " + RuntimeUtils.formatExecutionTime(execTime));
-                                                    if (!CommonUtils.isEmpty(executeStatistics)) {
-                                                        for (SQLToolStatistics stat : executeStatistics) {
-                                                            stat.setExecutionTime(execTime);
-                                                        }
-                                                        ((SQLToolRunListener) listener).handleActionStatistics(object, action, session, executeStatistics);
-                                                    } else {
-                                                        ((SQLToolRunListener) listener).handleActionStatistics(object, action, session, Collections.singletonList(statisticsSimple));
-                                                    }
-                                                } else {
-                                                    ((SQLToolRunListener) listener).handleActionStatistics(object, action, session, Collections.singletonList(statisticsSimple));
-                                                }
-                                            }
-                                        }
+        outLog.println("Tool execution finished");
+        outLog.flush();
+    }
+
+    private int getParallelism(@NotNull SETTINGS settings, @NotNull List<OBJECT_TYPE> objectList) {
+        for (OBJECT_TYPE object : objectList) {
+            DBPDataSource dataSource = object.getDataSource();
+            if (dataSource == null || dataSource.getContainer().getDriver().isEmbedded()) {
+                // Embedded databases may not support concurrent connections
+                return 1;
+            }
+        }
+        return Math.min(settings.getParallelism(), objectList.size());
+    }
+
+    /**
+     * Processes objects on a worker pool. Each worker opens its own isolated context for each database instance.
+     *
+     * @return the last error
+     */
+    @Nullable
+    private Exception executeParallel(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBTTask task,
+        @NotNull SETTINGS settings,
+        @NotNull Log log,
+        @NotNull PrintStream outLog,
+        @NotNull DBTTaskExecutionListener listener,
+        @NotNull ObjectRateLimiter rateLimiter,
+        int parallelism
+    ) throws DBException {
+        final Queue<OBJECT_TYPE> objects = new ConcurrentLinkedQueue<>(settings.getObjectList());
+        final List<WorkerProgressMonitor> workerMonitors = new ArrayList<>();
+        final List<Future<Exception>> futures = new ArrayList<>();
+        final ExecutorService executor = WorkerPoolUtils.createDaemonExecutor(task.getType().getName() + " worker", parallelism);
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                WorkerProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+                workerMonitors.add(workerMonitor);
+                futures.add(executor.submit(
+                    () -> processObjects(workerMonitor, task, settings, objects, log, outLog, listener, rateLimiter)));
+            }
+            Exception lastError = null;
+            for (Future<Exception> future : futures) {
+                try {
+                    Exception error = WorkerPoolUtils.waitForResult(monitor, future, workerMonitors);
+                    if (error != null) {
+                        lastError = error;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DBCException("Tool execution interrupted", e);
+                } catch (ExecutionException e) {
+                    // Process error stops all workers, like it does in sequential mode
+                    WorkerProgressMonitor.cancelAll(workerMonitors);
+                    Throwable cause = e.getCause();
+                    throw cause instanceof DBException ? (DBException) cause : new DBException("Tool execution error", cause);
+                }
+            }
+            return lastError;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Nullable
+    private Exception processObjects(
+        @NotNull WorkerProgressMonitor monitor,
+        @NotNull DBTTask task,
+        @NotNull SETTINGS settings,
+        @NotNull Queue<OBJECT_TYPE> objects,
+        @NotNull Log log,
+        @NotNull PrintStream outLog,
+        @NotNull DBTTaskExecutionListener listener,
+        @NotNull ObjectRateLimiter rateLimiter
+    ) throws DBException {
+        final Map<DBSInstance, DBCExecutionContext> contexts = new HashMap<>();
+        Exception lastError = null;
+        try {
+            for (OBJECT_TYPE object = objects.poll(); object != null; object = objects.poll()) {
+                if (monitor.isCanceled() || !rateLimiter.acquire(monitor)) {
+                    break;
+                }
+                monitor.subTask("Process [" + DBUtils.getObjectFullName(object, DBPEvaluationContext.UI) + "]");
+                DBSInstance instance = DBUtils.getObjectOwnerInstance(object);
+                DBCExecutionContext context = contexts.get(instance);
+                if (context == null) {
+                    context = instance.openIsolatedContext(
+                        monitor, "Execute " + task.getType().getName(), DBUtils.getDefaultContext(object, false));
+                    contexts.put(instance, context);
+                }
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Execute " + task.getType().getName())) {
+                    Exception error = processObject(monitor, session, settings, object, log, outLog, listener);
+                    if (error != null) {
+                        lastError = error;
+                    }
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            for (DBCExecutionContext context : contexts.values()) {
+                context.close();
+            }
+        }
+        return lastError;
+    }
+
+    /**
+     * Generates and executes queries of a single object.
+     * Query errors are reported to the listener and don't stop processing.
+     *
+     * @return the last query error
+     */
+    @Nullable
+    private Exception processObject(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull SETTINGS settings,
+        @NotNull OBJECT_TYPE object,
+        @NotNull Log log,
+        @NotNull PrintStream outLog,
+        @NotNull DBTTaskExecutionListener listener
+    ) throws DBCException {
+        final long deadline = settings.getObjectTimeout() > 0 ?
+            System.currentTimeMillis() + settings.getObjectTimeout() * 1000L : 0;
+        Exception lastError = null;
+        List<DBEPersistAction> queries = new ArrayList<>();
+        generateObjectQueries(session, settings, queries, object);
+
+        DBCExecutionContext context = session.getExecutionContext();
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+        boolean isAutoCommitModeSwitchedOn = true;
+
+        try {
+            if(isRunInAutoCommit() && txnManager != null && !txnManager.isAutoCommit()){
+                isAutoCommitModeSwitchedOn = false;
+                txnManager.setAutoCommit(monitor, true);
+            }
 
-                                        statistics.addStatementsCount();
-                                        statistics.addExecuteTime(execTime);
-                                        try {
-                                            long updateCount = statement.getUpdateRowCount();
-                                            if (updateCount >= 0) {
-                                                statistics.addRowsUpdated(updateCount);
+            for (DBEPersistAction action : queries) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                if (!CommonUtils.isEmpty(action.getTitle())) {
+                    monitor.subTask(action.getTitle());
+                }
+                try {
+                    if (action instanceof SQLDatabasePersistActionComment) {
+                        continue;
+                    }
+                    String script = action.getScript();
+                    if (!CommonUtils.isEmpty(script)) {
+                        int timeout = getRemainingTimeout(deadline, settings);
+                        long startTime = System.currentTimeMillis();
+                        try (final DBCStatement statement = session.prepareStatement(
+                            DBCStatementType.SCRIPT,
+                            script,
+                            false,
+                            false,
+                            false)) {
+                            if (timeout > 0) {
+                                statement.setStatementTimeout(timeout);
+                            }
+                            long execTime = System.currentTimeMillis() - startTime;
+                            statement.executeStatement();
+                            if (listener instanceof SQLToolRunListener) {
+                                if (action.getType() != DBEPersistAction.ActionType.INITIALIZER && action.getType() != DBEPersistAction.ActionType.FINALIZER) {
+                                    SQLToolStatisticsSimple statisticsSimple = new SQLToolStatisticsSimple(object, false);
+                                    if (SQLToolExecuteHandler.this instanceof SQLToolRunStatisticsGenerator) {
+                                        List<? extends SQLToolStatistics> executeStatistics =
+                                                ((SQLToolRunStatisticsGenerator) SQLToolExecuteHandler.this).getExecuteStatistics(
+                                                        object,
+                                                        settings,
+                                                        action,
+                                                        session,
+                                                        statement);
+                                        monitor.subTask("\tFinished in " + RuntimeUtils.formatExecutionTime(execTime));
+                                        if (!CommonUtils.isEmpty(executeStatistics)) {
+                                            for (SQLToolStatistics stat : executeStatistics) {
+                                                stat.setExecutionTime(execTime);
                                             }
-                                        } catch (DBCException e) {
-                                            // In some cases we can't read update count
-                                            // This is bad but we can live with it
-                                            // Just print a warning
-                                            log.warn("Can't obtain update count", e);
+                                            reportStatistics(listener, object, action, session, executeStatistics);
+                                        } else {
+                                            reportStatistics(listener, object, action, session, Collections.singletonList(statisticsSimple));
                                         }
+                                    } else {
+                                        reportStatistics(listener, object, action, session, Collections.singletonList(statisticsSimple));
                                     }
                                 }
-                            } catch (Exception e) {
-                                lastError = e;
-                                log.debug("Error executing query", e);
-                                outLog.println("Error executing query\n" + e.getMessage());
-                                if(listener instanceof SQLToolRunListener) {
-                                    SQLToolStatisticsSimple errorStat = new SQLToolStatisticsSimple(object, true);
-                                    errorStat.setStatusMessage(e.getMessage());
-                                    ((SQLToolRunListener) listener).handleActionStatistics(object, action, session, Collections.singletonList(errorStat));
-                                }
-                            } finally {
-                                monitor.worked(1);
                             }
-                        }
-                    } finally {
-                        if (!isAutoCommitModeSwitchedOn) {
+
+                            long updateCount = -1;
                             try {
-                                txnManager.setAutoCommit(monitor, false);
+                                updateCount = statement.getUpdateRowCount();
                             } catch (DBCException e) {
-                                log.debug("Cannot set auto-commit status", e);
+                                // In some cases we can't read update count
+                                // This is bad but we can live with it
+                                // Just print a warning
+                                log.warn("Can't obtain update count", e);
+                            }
+                            synchronized (statistics) {
+                                statistics.addStatementsCount();
+                                statistics.addExecuteTime(execTime);
+                                if (updateCount >= 0) {
+                                    statistics.addRowsUpdated(updateCount);
+                                }
                             }
                         }
                     }
+                } catch (Exception e) {
+                    lastError = e;
+                    log.debug("Error executing query", e);
+                    outLog.println("Error executing query\n" + e.getMessage());
+                    if(listener instanceof SQLToolRunListener) {
+                        SQLToolStatisticsSimple errorStat = new SQLToolStatisticsSimple(object, true);
+                        errorStat.setStatusMessage(e.getMessage());
+                        reportStatistics(listener, object, action, session, Collections.singletonList(errorStat));
+                    }
+                    if (e instanceof ObjectTimeoutException) {
+                        break;
+                    }
+                } finally {
+                    monitor.worked(1);
                 }
-                monitor.worked(1);
             }
-        } catch (Exception e) {
-            lastError = e;
-            outLog.println("Process error\n" + e.getMessage());
         } finally {
-            monitor.done();
+            if (!isAutoCommitModeSwitchedOn) {
+                try {
+                    txnManager.setAutoCommit(monitor, false);
+                } catch (DBCException e) {
+                    log.debug("Cannot set auto-commit status", e);
+                }
+            }
         }
-        listener.taskFinished(task, null, lastError, settings);
+        return lastError;
+    }
 
-        outLog.println("Tool execution finished");
-        outLog.flush();
+    /**
+     * Returns statement timeout in seconds, 0 if there is no timeout
+     */
+    private static int getRemainingTimeout(long deadline, @NotNull SQLToolExecuteSettings<?> settings) throws ObjectTimeoutException {
+        if (deadline <= 0) {
+            return 0;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new ObjectTimeoutException("Object processing timeout (" + settings.getObjectTimeout() + "s) exceeded");
+        }
+        return (int) Math.max(1, (remaining + 999) / 1000);
+    }
+
+    private static void reportStatistics(
+        @NotNull DBTTaskExecutionListener listener,
+        @NotNull DBSObject object,
+        @NotNull DBEPersistAction action,
+        @NotNull DBCSession session,
+        @NotNull List<? extends SQLToolStatistics> statistics)
+    {
+        // Listeners expect calls from a single thread
+        synchronized (listener) {
+            ((SQLToolRunListener) listener).handleActionStatistics(object, action, session, statistics);
+        }
     }
 
     public String generateScript(DBRProgressMonitor monitor, SETTINGS settings) throws DBCException {
@@ -259,4 +435,46 @@ public abstract class SQLToolExecuteHandler<OBJECT_TYPE extends DBSObject, SETTI
         return false;
     }
 
+
+    private static class ObjectTimeoutException extends DBCException {
+        ObjectTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Limits the number of processed objects per minute. Shared by all workers of a task.
+     */
+    private static class ObjectRateLimiter {
+        private final long interval;
+        private long nextStartTime;
+
+        ObjectRateLimiter(int maxObjectsPerMinute) {
+            this.interval = maxObjectsPerMinute > 0 ? 60000L / maxObjectsPerMinute : 0;
+        }
+
+        /**
+         * Waits for the next object slot.
+         *
+         * @return false if monitor was canceled while waiting
+         */
+        boolean acquire(@NotNull DBRProgressMonitor monitor) {
+            if (interval <= 0) {
+                return true;
+            }
+            long startTime;
+            synchronized (this) {
+                startTime = Math.max(nextStartTime, System.currentTimeMillis());
+                nextStartTime = startTime + interval;
+            }
+            for (long delay = startTime - System.currentTimeMillis(); delay > 0; delay = startTime - System.currentTimeMillis()) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                RuntimeUtils.pause((int) Math.min(delay, WorkerPoolUtils.CANCEL_CHECK_PERIOD));
+            }
+            return !monitor.isCanceled();
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.task.DBTTaskSettingsInput;
@@ -42,6 +43,9 @@ public class SQLToolExecuteSettings<OBJECT_TYPE extends DBSObject> implements DB
 
     private List<OBJECT_TYPE> objectList = new ArrayList<>();
     private final List<Throwable> warnings = new ArrayList<>();
+    private int parallelism = 1;
+    private int objectTimeout;
+    private int maxObjectsPerMinute;
 
     protected SQLToolExecuteSettings() {
     }
@@ -58,12 +62,51 @@ public class SQLToolExecuteSettings<OBJECT_TYPE extends DBSObject> implements DB
         return warnings;
     }
 
+    /**
+     * Number of objects processed at the same time. Each of them uses its own connection.
+     */
+    @Property(viewable = true, editable = true, updatable = true, order = 1000)
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Maximal processing time of a single object in seconds. Zero means no timeout.
+     */
+    @Property(viewable = true, editable = true, updatable = true, order = 1001)
+    public int getObjectTimeout() {
+        return objectTimeout;
+    }
+
+    public void setObjectTimeout(int objectTimeout) {
+        this.objectTimeout = Math.max(0, objectTimeout);
+    }
+
+    /**
+     * Maximal number of objects started per minute. Zero means no limit.
+     */
+    @Property(viewable = true, editable = true, updatable = true, order = 1002)
+    public int getMaxObjectsPerMinute() {
+        return maxObjectsPerMinute;
+    }
+
+    public void setMaxObjectsPerMinute(int maxObjectsPerMinute) {
+        this.maxObjectsPerMinute = Math.max(0, maxObjectsPerMinute);
+    }
+
         @Override
     public void loadSettingsFromInput(List<OBJECT_TYPE> inputObjects) {
         objectList.addAll(inputObjects);
     }
 
     public void loadConfiguration(@NotNull DBRRunnableContext runnableContext, @NotNull Map<String, Object> config, @NotNull DBPProject project) {
+        setParallelism(JSONUtils.getInteger(config, "parallelism", 1));
+        setObjectTimeout(JSONUtils.getInteger(config, "objectTimeout", 0));
+        setMaxObjectsPerMinute(JSONUtils.getInteger(config, "maxObjectsPerMinute", 0));
         try {
             runnableContext.run(true, true, monitor -> {
                 List<OBJECT_TYPE> objList = new ArrayList<>();
@@ -97,6 +140,9 @@ public class SQLToolExecuteSettings<OBJECT_TYPE extends DBSObject> implements DB
             objectInfo.put("objectId", DBUtils.getObjectFullId(obj));
             objectsConfig.add(objectInfo);
         }
+        config.put("parallelism", parallelism);
+        config.put("objectTimeout", objectTimeout);
+        config.put("maxObjectsPerMinute", maxObjectsPerMinute);
     }
 
 }
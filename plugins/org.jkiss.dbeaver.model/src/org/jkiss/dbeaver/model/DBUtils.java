@@ -62,6 +62,7 @@ import org.jkiss.utils.Pair;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * DBUtils
@@ -810,10 +811,28 @@ public final class DBUtils {
         @NotNull DBDAttributeBinding[] allAttributes,
         @NotNull Object[] row,
         @Nullable int[] nestedIndexes
+    ) {
+        return getAttributeValue(attribute, allAttributes, row.length, index -> row[index], nestedIndexes);
+    }
+
+    /**
+     * Reads attribute value from the row values accessor.
+     * Only values of the referenced top-level attributes are read, so the row doesn't need to be kept in an array.
+     *
+     * @param valueCount number of row values
+     * @param rowValues  returns row value by its index
+     */
+    @Nullable
+    public static Object getAttributeValue(
+        @NotNull DBDAttributeBinding attribute,
+        @NotNull DBDAttributeBinding[] allAttributes,
+        int valueCount,
+        @NotNull IntFunction<Object> rowValues,
+        @Nullable int[] nestedIndexes
     ) {
         if (attribute.isCustom()) {
             try {
-                return DBVUtils.executeExpression(((DBDAttributeBindingCustom) attribute).getEntityAttribute(), allAttributes, row);
+                return DBVUtils.executeExpression(((DBDAttributeBindingCustom) attribute).getEntityAttribute(), allAttributes, valueCount, rowValues);
             } catch (Exception e) {
                 return new DBDValueError(e);
             }
@@ -828,12 +847,12 @@ public final class DBUtils {
             return null;
         }
 
-        if (index >= row.length) {
-            log.debug("Bad attribute '" + attribute.getName() + "' index: " + index + " is out of row values' bounds (" + row.length + ")");
+        if (index >= valueCount) {
+            log.debug("Bad attribute '" + attribute.getName() + "' index: " + index + " is out of row values' bounds (" + valueCount + ")");
             return null;
         }
 
-        Object curValue = row[index];
+        Object curValue = rowValues.apply(index);
         int curNestedIndex = 0;
 
         for (int i = 0; i < depth; i++) {
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import java.util.Locale;
+
 /**
  * AggregateUtils
  */
@@ -31,4 +33,40 @@ public class AggregateUtils {
             return 0;
         }
     }
+
+    /**
+     * Calculates 64-bit hash of the value. Equal values give equal hashes, numbers are compared by value.
+     */
+    public static long hashValue(Object value, boolean aggregateAsStrings) {
+        long hash;
+        if (value == null) {
+            hash = 0;
+        } else if (aggregateAsStrings || value instanceof CharSequence) {
+            hash = 1125899906842597L;
+            String str = value.toString();
+            for (int i = 0; i < str.length(); i++) {
+                hash = 31 * hash + str.charAt(i);
+            }
+        } else if (value instanceof Number) {
+            double doubleValue = ((Number) value).doubleValue();
+            if (doubleValue == (long) doubleValue) {
+                hash = (long) doubleValue;
+            } else {
+                hash = Double.doubleToLongBits(doubleValue);
+            }
+        } else {
+            hash = value.hashCode();
+        }
+        // Finalization step of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public static String formatRelativeError(double error) {
+        return String.format(Locale.ENGLISH, "\u00B1%.1f%%", error * 100);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate count distinct (HyperLogLog)
+ */
+public class FunctionCountDistinctApprox implements IApproximateAggregateFunction {
+
+    private static final int PRECISION = 14;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (value == null) {
+            // Nulls are not distinct values, as in COUNT(DISTINCT)
+            return false;
+        }
+        long hash = AggregateUtils.hashValue(value, aggregateAsStrings);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Marker bit limits rank if all remaining bits are zero
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+        double estimate = alpha * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            // Linear counting is more precise for small cardinalities
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    @Override
+    public String getErrorBound(int valueCount) {
+        return AggregateUtils.formatRelativeError(1.04 / Math.sqrt(REGISTER_COUNT));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Approximate mode (Misra-Gries frequent items summary)
+ */
+public class FunctionModeApprox implements IApproximateAggregateFunction {
+
+    private static final int MAX_COUNTERS = 256;
+
+    private final Map<Object, Long> counters = new HashMap<>();
+    private long count;
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        Number num = FunctionNumeric.getNumeric(value);
+        if (num != null) {
+            value = num;
+        }
+        if (value == null) {
+            return false;
+        }
+        count++;
+        Long counter = counters.get(value);
+        if (counter != null) {
+            counters.put(value, counter + 1);
+        } else if (counters.size() < MAX_COUNTERS) {
+            counters.put(value, 1L);
+        } else {
+            // Decrement all counters, new value is dropped as well
+            for (Iterator<Map.Entry<Object, Long>> iter = counters.entrySet().iterator(); iter.hasNext(); ) {
+                Map.Entry<Object, Long> entry = iter.next();
+                if (entry.getValue() <= 1) {
+                    iter.remove();
+                } else {
+                    entry.setValue(entry.getValue() - 1);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        Object maxValue = null;
+        long maxCount = 0;
+        for (Map.Entry<Object, Long> entry : counters.entrySet()) {
+            if (entry.getValue() > maxCount) {
+                maxCount = entry.getValue();
+                maxValue = entry.getKey();
+            }
+        }
+        return maxValue;
+    }
+
+    @Override
+    public String getErrorBound(int valueCount) {
+        long frequencyError = count / (MAX_COUNTERS + 1);
+        return frequencyError == 0 ? null : "frequency \u00B1" + frequencyError;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate quantile of numeric values
+ */
+public abstract class FunctionQuantileApprox implements IApproximateAggregateFunction {
+
+    private final double fraction;
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    protected FunctionQuantileApprox(double fraction) {
+        this.fraction = fraction;
+    }
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (aggregateAsStrings) {
+            return false;
+        }
+        Number num = FunctionNumeric.getNumeric(value);
+        if (num == null) {
+            return false;
+        }
+        double doubleValue = num.doubleValue();
+        if (Double.isNaN(doubleValue)) {
+            return false;
+        }
+        sketch.add(doubleValue);
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (sketch.getCount() == 0) {
+            return null;
+        }
+        return sketch.getQuantile(fraction);
+    }
+
+    @Override
+    public String getErrorBound(int valueCount) {
+        return AggregateUtils.formatRelativeError(sketch.getRankError()) + " rank";
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Streaming quantile sketch (KLL) for numeric values.
+ * Keeps O(k) values regardless of the number of accumulated values.
+ */
+class QuantileSketch {
+
+    private static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    // Level h keeps values of weight 2^h
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private long count;
+
+    QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    QuantileSketch(int k) {
+        this.k = k;
+        this.levels[0] = new double[k];
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Normalized rank error with 99% confidence
+     */
+    double getRankError() {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    void add(double value) {
+        if (levelSizes[0] >= getLevelCapacity(0)) {
+            compress();
+        }
+        levels[0][levelSizes[0]++] = value;
+        count++;
+    }
+
+    double getQuantile(double fraction) {
+        int total = 0;
+        for (int size : levelSizes) {
+            total += size;
+        }
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        int pos = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < levelSizes[h]; i++) {
+                values[pos] = levels[h][i];
+                weights[pos] = 1L << h;
+                pos++;
+            }
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> Double.compare(values[o1], values[o2]));
+
+        double targetWeight = fraction * count;
+        long cumulativeWeight = 0;
+        for (Integer index : order) {
+            cumulativeWeight += weights[index];
+            if (cumulativeWeight >= targetWeight) {
+                return values[index];
+            }
+        }
+        return values[order[total - 1]];
+    }
+
+    private int getLevelCapacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compress() {
+        // Compaction of one level may overflow the next one
+        for (int h = 0; h < levels.length; h++) {
+            if (levelSizes[h] >= getLevelCapacity(h)) {
+                if (h + 1 == levels.length) {
+                    addLevel();
+                }
+                compactLevel(h);
+            }
+        }
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levelSizes = Arrays.copyOf(levelSizes, levelSizes.length + 1);
+        levels[levels.length - 1] = new double[2];
+    }
+
+    private void compactLevel(int level) {
+        double[] values = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(values, 0, size);
+        // Odd element (if any) stays in the current level
+        int compactSize = size - (size % 2);
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+
+        int nextSize = levelSizes[level + 1];
+        double[] next = levels[level + 1];
+        int required = nextSize + compactSize / 2;
+        if (required > next.length) {
+            next = Arrays.copyOf(next, Math.max(required, getLevelCapacity(level + 1)));
+            levels[level + 1] = next;
+        }
+        for (int i = offset; i < compactSize; i += 2) {
+            next[nextSize++] = values[i];
+        }
+        levelSizes[level + 1] = nextSize;
+
+        if (compactSize < size) {
+            values[0] = values[size - 1];
+        }
+        levelSizes[level] = size - compactSize;
+    }
+
+}
@@ -58,4 +58,23 @@ public interface DPIController extends AutoCloseable {
         @RequestParameter("object") @NotNull String objectId,
         @RequestParameter("property") @NotNull String propertyName) throws DBException;
 
+    /**
+     * Reads several properties in one call.
+     * Values are returned in the same order as names, unknown properties are returned as nulls.
+     */
+    @RequestMapping
+    Object[] readProperties(
+        @RequestParameter("object") @NotNull String objectId,
+        @RequestParameter("properties") @NotNull String[] propertyNames) throws DBException;
+
+    /**
+     * Reads next rows of the result set.
+     * Result set cursor is moved past the last returned row.
+     */
+    @RequestMapping
+    @NotNull
+    DPIResultSetChunk fetchRows(
+        @RequestParameter("object") @NotNull String objectId,
+        @RequestParameter("maxRows") int maxRows) throws DBException;
+
 }
@@ -0,0 +1,248 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dpi;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Block of result set rows read by detached process in one call.
+ * <p>
+ * Values are transferred as strings prefixed with a type tag, so client gets values of the same
+ * types as the server result set returns. Generic serialization can't be used here: it turns all
+ * numbers into doubles, dates into strings and binaries into number lists.
+ * Content values (LOBs) are materialized into strings or byte arrays.
+ * Values of other types are transferred as their string representation.
+ */
+public class DPIResultSetChunk {
+
+    private static final char TYPE_STRING = 's';
+    private static final char TYPE_BOOLEAN = 'z';
+    private static final char TYPE_BYTE = 'y';
+    private static final char TYPE_SHORT = 'h';
+    private static final char TYPE_INTEGER = 'i';
+    private static final char TYPE_LONG = 'l';
+    private static final char TYPE_FLOAT = 'f';
+    private static final char TYPE_DOUBLE = 'd';
+    private static final char TYPE_BIG_INTEGER = 'g';
+    private static final char TYPE_BIG_DECIMAL = 'n';
+    private static final char TYPE_DATE = 'D';
+    private static final char TYPE_TIME = 'T';
+    private static final char TYPE_TIMESTAMP = 't';
+    private static final char TYPE_UTIL_DATE = 'u';
+    private static final char TYPE_LOCAL_DATE = 'L';
+    private static final char TYPE_LOCAL_TIME = 'M';
+    private static final char TYPE_LOCAL_DATE_TIME = 'E';
+    private static final char TYPE_OFFSET_DATE_TIME = 'O';
+    private static final char TYPE_INSTANT = 'I';
+    private static final char TYPE_BYTES = 'b';
+
+    @NotNull
+    private final String[] attributeNames;
+    @NotNull
+    private final String[][] rows;
+    private final boolean hasMoreRows;
+
+    /**
+     * @param rows values encoded with {@link #encodeValue(DBRProgressMonitor, Object)}
+     */
+    public DPIResultSetChunk(@NotNull String[] attributeNames, @NotNull String[][] rows, boolean hasMoreRows) {
+        this.attributeNames = attributeNames;
+        this.rows = rows;
+        this.hasMoreRows = hasMoreRows;
+    }
+
+    /**
+     * Attribute labels, used to resolve values by name
+     */
+    @NotNull
+    public String[] getAttributeNames() {
+        return attributeNames;
+    }
+
+    /**
+     * Decodes row values
+     */
+    @NotNull
+    public Object[][] getRows() throws DBCException {
+        Object[][] result = new Object[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            String[] row = rows[i];
+            Object[] values = new Object[row.length];
+            for (int k = 0; k < row.length; k++) {
+                values[k] = decodeValue(row[k]);
+            }
+            result[i] = values;
+        }
+        return result;
+    }
+
+    /**
+     * False if the result set end was reached
+     */
+    public boolean hasMoreRows() {
+        return hasMoreRows;
+    }
+
+    @Nullable
+    public static String encodeValue(@NotNull DBRProgressMonitor monitor, @Nullable Object value) throws DBCException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof DBDContent content) {
+            if (content.isNull()) {
+                return null;
+            }
+            if (ContentUtils.isTextContent(content)) {
+                return TYPE_STRING + ContentUtils.getContentStringValue(monitor, content);
+            }
+            return TYPE_BYTES + Base64.getEncoder().encodeToString(ContentUtils.getContentBinaryValue(monitor, content));
+        }
+        try {
+            if (value instanceof Clob clob) {
+                return TYPE_STRING + clob.getSubString(1, (int) clob.length());
+            }
+            if (value instanceof Blob blob) {
+                return TYPE_BYTES + Base64.getEncoder().encodeToString(blob.getBytes(1, (int) blob.length()));
+            }
+        } catch (SQLException e) {
+            throw new DBCException("Error reading LOB value", e);
+        }
+        if (value instanceof String) {
+            return TYPE_STRING + (String) value;
+        } else if (value instanceof Boolean) {
+            return TYPE_BOOLEAN + value.toString();
+        } else if (value instanceof Byte) {
+            return TYPE_BYTE + value.toString();
+        } else if (value instanceof Short) {
+            return TYPE_SHORT + value.toString();
+        } else if (value instanceof Integer) {
+            return TYPE_INTEGER + value.toString();
+        } else if (value instanceof Long) {
+            return TYPE_LONG + value.toString();
+        } else if (value instanceof Float) {
+            return TYPE_FLOAT + value.toString();
+        } else if (value instanceof Double) {
+            return TYPE_DOUBLE + value.toString();
+        } else if (value instanceof BigInteger) {
+            return TYPE_BIG_INTEGER + value.toString();
+        } else if (value instanceof BigDecimal) {
+            return TYPE_BIG_DECIMAL + value.toString();
+        } else if (value instanceof Timestamp ts) {
+            return TYPE_TIMESTAMP + String.valueOf(ts.getTime()) + ':' + ts.getNanos();
+        } else if (value instanceof java.sql.Date) {
+            return TYPE_DATE + String.valueOf(((Date) value).getTime());
+        } else if (value instanceof Time) {
+            return TYPE_TIME + String.valueOf(((Date) value).getTime());
+        } else if (value instanceof Date) {
+            return TYPE_UTIL_DATE + String.valueOf(((Date) value).getTime());
+        } else if (value instanceof LocalDate) {
+            return TYPE_LOCAL_DATE + value.toString();
+        } else if (value instanceof LocalTime) {
+            return TYPE_LOCAL_TIME + value.toString();
+        } else if (value instanceof LocalDateTime) {
+            return TYPE_LOCAL_DATE_TIME + value.toString();
+        } else if (value instanceof OffsetDateTime) {
+            return TYPE_OFFSET_DATE_TIME + value.toString();
+        } else if (value instanceof Instant) {
+            return TYPE_INSTANT + value.toString();
+        } else if (value instanceof byte[]) {
+            return TYPE_BYTES + Base64.getEncoder().encodeToString((byte[]) value);
+        } else {
+            return TYPE_STRING + value.toString();
+        }
+    }
+
+    @Nullable
+    private static Object decodeValue(@Nullable String value) throws DBCException {
+        if (value == null) {
+            return null;
+        }
+        if (value.isEmpty()) {
+            throw new DBCException("Empty encoded value");
+        }
+        String data = value.substring(1);
+        try {
+            switch (value.charAt(0)) {
+                case TYPE_STRING:
+                    return data;
+                case TYPE_BOOLEAN:
+                    return Boolean.valueOf(data);
+                case TYPE_BYTE:
+                    return Byte.valueOf(data);
+                case TYPE_SHORT:
+                    return Short.valueOf(data);
+                case TYPE_INTEGER:
+                    return Integer.valueOf(data);
+                case TYPE_LONG:
+                    return Long.valueOf(data);
+                case TYPE_FLOAT:
+                    return Float.valueOf(data);
+                case TYPE_DOUBLE:
+                    return Double.valueOf(data);
+                case TYPE_BIG_INTEGER:
+                    return new BigInteger(data);
+                case TYPE_BIG_DECIMAL:
+                    return new BigDecimal(data);
+                case TYPE_TIMESTAMP: {
+                    int divPos = data.indexOf(':');
+                    Timestamp ts = new Timestamp(Long.parseLong(data.substring(0, divPos)));
+                    ts.setNanos(Integer.parseInt(data.substring(divPos + 1)));
+                    return ts;
+                }
+                case TYPE_DATE:
+                    return new java.sql.Date(Long.parseLong(data));
+                case TYPE_TIME:
+                    return new Time(Long.parseLong(data));
+                case TYPE_UTIL_DATE:
+                    return new Date(Long.parseLong(data));
+                case TYPE_LOCAL_DATE:
+                    return LocalDate.parse(data);
+                case TYPE_LOCAL_TIME:
+                    return LocalTime.parse(data);
+                case TYPE_LOCAL_DATE_TIME:
+                    return LocalDateTime.parse(data);
+                case TYPE_OFFSET_DATE_TIME:
+                    return OffsetDateTime.parse(data);
+                case TYPE_INSTANT:
+                    return Instant.parse(data);
+                case TYPE_BYTES:
+                    return Base64.getDecoder().decode(data);
+                default:
+                    throw new DBCException("Unsupported value type '" + value.charAt(0) + "'");
+            }
+        } catch (RuntimeException e) {
+            throw new DBCException("Bad encoded value", e);
+        }
+    }
+
+}
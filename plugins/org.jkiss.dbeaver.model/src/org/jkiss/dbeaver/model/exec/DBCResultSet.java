@@ -22,18 +22,23 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPCloseableObject;
 import org.jkiss.dbeaver.model.DBPObject;
 import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.dpi.DPIContainer;
+import org.jkiss.dbeaver.model.dpi.DPIObject;
 
 /**
  * DBCResultSet
  */
+@DPIObject
 public interface DBCResultSet extends DBPObject, DBPCloseableObject
 {
     String FEATURE_NAME_JDBC            = "jdbc";
     String FEATURE_NAME_DOCUMENT        = "document";
     String FEATURE_NAME_LOCAL           = "local";
 
+    @DPIContainer
     DBCSession getSession();
 
+    @DPIContainer
     DBCStatement getSourceStatement();
 
     /**
@@ -989,6 +989,11 @@ public abstract class AbstractSQLDialect implements SQLDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsRowValueComparison() {
+        return false;
+    }
+
     @NotNull
     @Override
     public SQLTokenPredicateSet getSkipTokenPredicates() {
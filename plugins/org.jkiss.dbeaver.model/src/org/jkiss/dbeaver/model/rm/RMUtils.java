@@ -16,10 +16,12 @@
  */
 package org.jkiss.dbeaver.model.rm;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.app.DBPWorkspace;
@@ -27,13 +29,17 @@ import org.jkiss.dbeaver.model.app.DBPWorkspaceEclipse;
 import org.jkiss.dbeaver.model.fs.DBFUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -43,6 +49,8 @@ import java.util.stream.Collectors;
 
 public class RMUtils {
 
+    private static final Log log = Log.getLog(RMUtils.class);
+
     public static final String USER_PROJECTS_FOLDER = "user-projects";
     public static final String SHARED_PROJECTS_FOLDER = "shared-projects";
 
@@ -155,6 +163,61 @@ public class RMUtils {
         }
     }
 
+    /**
+     * Opens script file for reading. Unlike {@link #readScriptContents} file contents are not loaded into memory
+     * (except scripts stored in the resource controller).
+     */
+    @NotNull
+    public static Reader openScriptReader(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPProject project,
+        @NotNull String filePath
+    ) throws DBException, IOException {
+        Path nioPath = DBFUtils.resolvePathFromString(monitor, project, filePath);
+        if (!IOUtils.isLocalPath(nioPath)) {
+            // Remote file
+            return Files.newBufferedReader(nioPath, getProjectCharset(project));
+        }
+
+        RMControllerProvider rmControllerProvider = DBUtils.getAdapter(RMControllerProvider.class, project);
+        if (rmControllerProvider != null) {
+            var rmController = rmControllerProvider.getResourceController();
+            return new InputStreamReader(
+                new ByteArrayInputStream(rmController.getResourceContents(project.getId(), filePath)),
+                getProjectCharset(project));
+        }
+        var projectRootResource = project.getRootResource();
+        if (projectRootResource == null) {
+            throw new DBException("Root resource is not found in project " + project.getId());
+        }
+        var sqlFile = findEclipseProjectFile(project, filePath);
+        if (sqlFile == null) {
+            throw new DBException("File " + filePath + " is not found in project " + project.getId());
+        }
+        try {
+            String charset = sqlFile.getCharset();
+            return new BufferedReader(new InputStreamReader(sqlFile.getContents(true), charset));
+        } catch (CoreException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Default encoding of project files. Used for files which are not project resources.
+     */
+    @NotNull
+    private static Charset getProjectCharset(@NotNull DBPProject project) {
+        IContainer rootResource = project.getRootResource();
+        if (rootResource != null) {
+            try {
+                return Charset.forName(rootResource.getDefaultCharset());
+            } catch (CoreException | IllegalArgumentException e) {
+                log.debug("Error reading project " + project.getName() + " encoding", e);
+            }
+        }
+        return GeneralUtils.DEFAULT_FILE_CHARSET;
+    }
+
     public static IFile findEclipseProjectFile(@NotNull DBPProject project, @NotNull String filePath) {
         var rootResource = project.getRootResource();
         if (rootResource == null) {
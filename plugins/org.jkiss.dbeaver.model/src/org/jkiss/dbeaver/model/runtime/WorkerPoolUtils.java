@@ -0,0 +1,88 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.jkiss.code.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pools of parallel operations
+ */
+public class WorkerPoolUtils {
+
+    /**
+     * Period (in ms) of the main monitor cancel check while waiting for workers
+     */
+    public static final long CANCEL_CHECK_PERIOD = 100;
+
+    private WorkerPoolUtils() {
+    }
+
+    /**
+     * Creates executor with a fixed number of daemon threads.
+     * Idle threads are stopped, so a static executor doesn't keep threads when there is no work.
+     *
+     * @param threadName thread name prefix, thread number is appended to it
+     */
+    @NotNull
+    public static ExecutorService createDaemonExecutor(@NotNull String threadName, int threadCount) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, threadName + " " + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Waits for the worker result.
+     * If the main monitor is canceled then cancels all workers and waits until the worker stops.
+     * If the current thread is interrupted then cancels all workers and throws InterruptedException.
+     * Worker errors are not handled: caller decides whether other workers must be canceled.
+     */
+    public static <T> T waitForResult(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Future<T> future,
+        @NotNull Collection<? extends WorkerProgressMonitor> workerMonitors
+    ) throws InterruptedException, ExecutionException {
+        while (true) {
+            if (monitor.isCanceled()) {
+                WorkerProgressMonitor.cancelAll(workerMonitors);
+            }
+            try {
+                return future.get(CANCEL_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Check for cancel
+            } catch (InterruptedException e) {
+                WorkerProgressMonitor.cancelAll(workerMonitors);
+                throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Progress monitor of a parallel worker.
+ * Reports progress to the shared monitor and keeps its own blocking objects,
+ * so a worker can be canceled independently of other workers.
+ * Main task of the shared monitor is controlled by its owner, so workers can't begin or finish it.
+ */
+public class WorkerProgressMonitor extends ProxyProgressMonitor {
+
+    private static final Log log = Log.getLog(WorkerProgressMonitor.class);
+
+    private final List<DBRBlockingObject> blocks = new ArrayList<>();
+    private volatile boolean canceled;
+
+    public WorkerProgressMonitor(@NotNull DBRProgressMonitor original) {
+        super(original);
+    }
+
+    @Override
+    public void beginTask(String name, int totalWork) {
+        // Main task is controlled by the monitor owner
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void subTask(String name) {
+        synchronized (original) {
+            original.subTask(name);
+        }
+    }
+
+    @Override
+    public void worked(int work) {
+        synchronized (original) {
+            original.worked(work);
+        }
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled || original.isCanceled();
+    }
+
+    @Override
+    public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+        blocks.add(object);
+    }
+
+    @Override
+    public synchronized void endBlock() {
+        if (!blocks.isEmpty()) {
+            blocks.remove(blocks.size() - 1);
+        }
+    }
+
+    @Override
+    public synchronized List<DBRBlockingObject> getActiveBlocks() {
+        return new ArrayList<>(blocks);
+    }
+
+    /**
+     * Marks worker as canceled and cancels its active blocks (e.g. running queries)
+     */
+    public void cancel() {
+        if (canceled) {
+            return;
+        }
+        canceled = true;
+        for (DBRBlockingObject block : getActiveBlocks()) {
+            try {
+                block.cancelBlock(this, null);
+            } catch (Exception e) {
+                log.debug("Error canceling worker operation", e);
+            }
+        }
+    }
+
+    public static void cancelAll(@NotNull Collection<? extends WorkerProgressMonitor> workerMonitors) {
+        for (WorkerProgressMonitor workerMonitor : workerMonitors) {
+            workerMonitor.cancel();
+        }
+    }
+
+}
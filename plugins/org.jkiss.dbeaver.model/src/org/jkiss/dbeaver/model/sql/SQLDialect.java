@@ -491,6 +491,11 @@ public interface SQLDialect {
 
     boolean supportsUuid();
 
+    /**
+     * Row value constructors may be compared with ordering operators, e.g. {@code (a, b) > (1, 2)}
+     */
+    boolean supportsRowValueComparison();
+
     /**
      * Generates a set of connection-specific dialect features which require special handling during SQL parsing
      * (empty by default)
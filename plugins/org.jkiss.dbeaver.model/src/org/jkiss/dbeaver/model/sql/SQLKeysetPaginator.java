@@ -0,0 +1,296 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination of table data.
+ * <p>
+ * Instead of skipping previously read rows with OFFSET each segment is ordered by the table unique key
+ * and restricted by the key of the last read row. Database then can seek the key index, so reading of
+ * the N-th segment doesn't depend on N.
+ * Segments must be read with {@link DBSDataContainer#FLAG_KEYSET_PAGINATION} flag.
+ * Key values of the last read row are bound as statement parameters, see {@link SegmentFilter}.
+ */
+public class SQLKeysetPaginator {
+
+    private static final Log log = Log.getLog(SQLKeysetPaginator.class);
+
+    private final DBPDataSource dataSource;
+    private final DBDDataFilter dataFilter;
+    private final List<DBSEntityAttribute> keyAttributes;
+    private Object[] position;
+
+    private SQLKeysetPaginator(
+        @NotNull DBPDataSource dataSource,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull List<DBSEntityAttribute> keyAttributes
+    ) {
+        this.dataSource = dataSource;
+        this.dataFilter = dataFilter;
+        this.keyAttributes = keyAttributes;
+    }
+
+    /**
+     * Creates paginator for specified container.
+     * Returns null if container doesn't support keyset pagination, has no suitable unique key
+     * or if data filter defines its own ordering.
+     */
+    @Nullable
+    public static SQLKeysetPaginator create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter
+    ) throws DBException {
+        if (!(dataContainer instanceof DBSEntity entity) ||
+            !dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_KEYSET_PAGINATION) ||
+            (dataFilter != null && dataFilter.hasOrdering())) {
+            return null;
+        }
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        if (dataSource == null) {
+            return null;
+        }
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (identifier.isEmpty()) {
+            return null;
+        }
+        for (DBSEntityAttribute attribute : identifier) {
+            // Nullable keys break comparison of key tuples
+            if (!attribute.isRequired()) {
+                log.debug("Key column '" + attribute.getName() + "' of '" + entity.getName() + "' is nullable. Keyset pagination is not possible.");
+                return null;
+            }
+            switch (attribute.getDataKind()) {
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    break;
+                default:
+                    log.debug("Key column '" + attribute.getName() + "' of '" + entity.getName() + "' is not comparable. Keyset pagination is not possible.");
+                    return null;
+            }
+        }
+        return new SQLKeysetPaginator(dataSource, dataFilter, new ArrayList<>(identifier));
+    }
+
+    @NotNull
+    public List<DBSEntityAttribute> getKeyAttributes() {
+        return keyAttributes;
+    }
+
+    public boolean hasPosition() {
+        return position != null;
+    }
+
+    /**
+     * Sets key values of the last read row. Next segment will start right after this row.
+     */
+    public void setPosition(@Nullable Object[] position) {
+        if (position != null && position.length != keyAttributes.size()) {
+            throw new IllegalArgumentException("Key values count (" + position.length + ") doesn't match key columns count (" + keyAttributes.size() + ")");
+        }
+        this.position = position;
+    }
+
+    /**
+     * Makes data filter for the next segment.
+     * Filter is ordered by the unique key and (if position is known) restricted by the last read key.
+     */
+    @NotNull
+    public SegmentFilter makeSegmentFilter() {
+        SegmentFilter segmentFilter;
+        if (position == null) {
+            segmentFilter = new SegmentFilter(dataFilter == null ? new DBDDataFilter() : dataFilter);
+        } else {
+            List<DBSEntityAttribute> parameterAttributes = new ArrayList<>();
+            List<Object> parameterValues = new ArrayList<>();
+            String keyCondition = makeKeyCondition(parameterAttributes, parameterValues);
+            segmentFilter = new SegmentFilter(SQLUtils.addFilterCondition(dataSource, dataFilter, keyCondition));
+            segmentFilter.parameterAttributes.addAll(parameterAttributes);
+            segmentFilter.parameterValues.addAll(parameterValues);
+        }
+        StringBuilder order = new StringBuilder();
+        for (DBSEntityAttribute attribute : keyAttributes) {
+            if (order.length() > 0) order.append(",");
+            order.append(DBUtils.getQuotedIdentifier(attribute));
+        }
+        segmentFilter.setOrder(order.toString());
+        return segmentFilter;
+    }
+
+    /**
+     * Wraps data receiver. Wrapper remembers key values of the last fetched row as paginator position.
+     */
+    @NotNull
+    public DBDDataReceiver wrapReceiver(@NotNull DBDDataReceiver receiver) {
+        return new PositionReceiver(receiver);
+    }
+
+    /**
+     * Makes key condition with parameter placeholders.
+     * Attributes and values of parameters are added in placeholders order.
+     */
+    @NotNull
+    private String makeKeyCondition(@NotNull List<DBSEntityAttribute> parameterAttributes, @NotNull List<Object> parameterValues) {
+        String[] names = new String[keyAttributes.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = DBUtils.getQuotedIdentifier(keyAttributes.get(i));
+        }
+        if (names.length == 1 || dataSource.getSQLDialect().supportsRowValueComparison()) {
+            parameterAttributes.addAll(keyAttributes);
+            parameterValues.addAll(Arrays.asList(position));
+            if (names.length == 1) {
+                return names[0] + " > ?";
+            }
+            return "(" + String.join(",", names) + ") > (" + String.join(",", Collections.nCopies(names.length, "?")) + ")";
+        }
+        // (k1 > ?) OR (k1 = ? AND k2 > ?) OR ...
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) condition.append(" OR ");
+            condition.append("(");
+            for (int k = 0; k < i; k++) {
+                condition.append(names[k]).append(" = ? AND ");
+                parameterAttributes.add(keyAttributes.get(k));
+                parameterValues.add(position[k]);
+            }
+            condition.append(names[i]).append(" > ?)");
+            parameterAttributes.add(keyAttributes.get(i));
+            parameterValues.add(position[i]);
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Data filter of a keyset segment.
+     * Key condition contains parameter placeholders, so segment query must be prepared and
+     * its parameters must be bound with {@link #bindParameters(DBCSession, DBCStatement)}.
+     */
+    public static class SegmentFilter extends DBDDataFilter {
+        private final List<DBSEntityAttribute> parameterAttributes = new ArrayList<>();
+        private final List<Object> parameterValues = new ArrayList<>();
+
+        SegmentFilter(@NotNull DBDDataFilter source) {
+            super(source);
+        }
+
+        public boolean hasParameters() {
+            return !parameterValues.isEmpty();
+        }
+
+        /**
+         * Binds key values of the segment start. Parameters go in the filter condition order.
+         */
+        public void bindParameters(@NotNull DBCSession session, @NotNull DBCStatement statement) throws DBCException {
+            for (int i = 0; i < parameterValues.size(); i++) {
+                DBSEntityAttribute attribute = parameterAttributes.get(i);
+                DBUtils.findValueHandler(session, attribute).bindValueObject(session, statement, attribute, i, parameterValues.get(i));
+            }
+        }
+    }
+
+    private class PositionReceiver implements DBDDataReceiver {
+        private final DBDDataReceiver receiver;
+        private int[] keyIndexes;
+        private DBDValueHandler[] keyHandlers;
+        private Object[] lastKey;
+
+        PositionReceiver(DBDDataReceiver receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            keyIndexes = new int[keyAttributes.size()];
+            keyHandlers = new DBDValueHandler[keyAttributes.size()];
+            lastKey = null;
+            List<DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+            for (int i = 0; i < keyIndexes.length; i++) {
+                DBSEntityAttribute keyAttribute = keyAttributes.get(i);
+                keyIndexes[i] = -1;
+                for (int k = 0; k < attributes.size(); k++) {
+                    if (keyAttribute.getName().equalsIgnoreCase(attributes.get(k).getName())) {
+                        keyIndexes[i] = k;
+                        break;
+                    }
+                }
+                if (keyIndexes[i] < 0) {
+                    log.debug("Key column '" + keyAttribute.getName() + "' not found in result set. Keyset pagination disabled.");
+                    keyIndexes = null;
+                    break;
+                }
+                keyHandlers[i] = DBUtils.findValueHandler(session, keyAttribute);
+            }
+            receiver.fetchStart(session, resultSet, offset, maxRows);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            receiver.fetchRow(session, resultSet);
+            if (keyIndexes != null) {
+                Object[] key = new Object[keyIndexes.length];
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    key[i] = keyHandlers[i].fetchValueObject(session, resultSet, keyAttributes.get(i), keyIndexes[i]);
+                }
+                lastKey = key;
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            receiver.fetchEnd(session, resultSet);
+            // Keep old position if nothing was read. Clear it if keys are not available
+            if (keyIndexes == null) {
+                position = null;
+            } else if (lastKey != null) {
+                position = lastKey;
+            }
+        }
+
+        @Override
+        public void close() {
+            receiver.close();
+        }
+
+        @NotNull
+        @Override
+        public DBCStatistics getStatistics() {
+            return receiver.getStatistics();
+        }
+    }
+
+}
@@ -1064,6 +1064,32 @@ public final class SQLUtils {
         dataSource.getSQLDialect().getQueryGenerator().appendQueryOrder(dataSource, query, tableAlias, dataFilter);
     }
 
+    /**
+     * Returns a copy of the data filter with an additional condition which must hold for every row.
+     * If the filter joins its constraints with OR then the existing criteria are inlined into the where clause,
+     * so the new condition restricts the whole filter rather than becoming one more alternative.
+     */
+    @NotNull
+    public static DBDDataFilter addFilterCondition(
+        @NotNull DBPDataSource dataSource,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull String condition
+    ) {
+        DBDDataFilter result = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        String where = result.getWhere();
+        if (result.isAnyConstraint() && result.hasConditions()) {
+            StringBuilder criteria = new StringBuilder();
+            appendConditionString(result, dataSource, null, criteria, true);
+            for (DBDAttributeConstraint constraint : result.getConstraints()) {
+                constraint.setCriteria(null);
+            }
+            result.setAnyConstraint(false);
+            where = criteria.toString();
+        }
+        result.setWhere(CommonUtils.isEmpty(where) ? condition : "(" + where + ") AND (" + condition + ")");
+        return result;
+    }
+
     public static boolean isExecQuery(@NotNull SQLDialect dialect, String query) {
         // Check for EXEC query
         final String[] executeKeywords = dialect.getExecuteKeywords();
@@ -41,12 +41,21 @@ public interface DBSDataContainer extends DBSObject {
     String FEATURE_DATA_SEARCH = "data.search";
     String FEATURE_KEY_VALUE = "data.key.value";
     String FEATURE_DATA_MODIFIED_ON_REFRESH = "data.modifying";
+    /**
+     * Container supports {@link #FLAG_KEYSET_PAGINATION} flag
+     */
+    String FEATURE_KEYSET_PAGINATION = "data.keyset.pagination";
 
     long FLAG_NONE                  = 0;
     long FLAG_READ_PSEUDO           = 1 << 1;
     long FLAG_USE_SELECTED_ROWS     = 1 << 2;
     long FLAG_USE_SELECTED_COLUMNS  = 1 << 3;
     long FLAG_FETCH_SEGMENT         = 1 << 4;
+    /**
+     * Segment position is specified by key condition in data filter (keyset pagination).
+     * First row number must not be used to skip rows, it is passed to data receiver as is.
+     */
+    long FLAG_KEYSET_PAGINATION     = 1 << 5;
     long FLAG_REFRESH               = 1 << 8;
 
     @Nullable
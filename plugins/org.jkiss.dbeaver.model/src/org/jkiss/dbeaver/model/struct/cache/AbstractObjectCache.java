@@ -25,23 +25,30 @@ import org.jkiss.dbeaver.model.meta.PropertyGroup;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.BeanUtils;
-import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ * <p>
+ * Modifications are serialized with cache sync monitor. Readers get an immutable snapshot of the object list,
+ * which is made once after modification, and look up objects in a concurrent name index.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT>
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
+    // Guarded by cacheSync
     private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Immutable copy of objectList. Reset on each modification
+    private volatile List<OBJECT> objectSnapshot;
+    // Objects by name (upper-cased for case-insensitive caches). Built on first lookup
+    private volatile Map<String, OBJECT> objectMap;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -75,8 +82,18 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
+        List<OBJECT> snapshot = objectSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
         synchronized (cacheSync) {
-            return objectList == null ? Collections.emptyList() : objectList;
+            if (objectList == null) {
+                return Collections.emptyList();
+            }
+            if (objectSnapshot == null) {
+                objectSnapshot = Collections.unmodifiableList(new ArrayList<>(objectList));
+            }
+            return objectSnapshot;
         }
     }
 
@@ -96,15 +113,15 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        if (name == null) {
+            return null;
         }
+        Map<String, OBJECT> map = getObjectMap();
+        return map == null ? null : map.get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        return getCachedObjects().size();
     }
 
     @Override
@@ -116,11 +133,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             }
             detectCaseSensitivity(object);
             this.objectList.add(object);
+            this.objectSnapshot = null;
             if (this.objectMap != null) {
-                String name = getObjectName(object);
-                if (checkDuplicateName(name, object)) {
-                    this.objectMap.put(name, object);
-                }
+                addToObjectMap(this.objectMap, object);
             }
         }
     }
@@ -132,9 +147,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (this.objectList != null) {
                 detectCaseSensitivity(object);
                 this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                this.objectSnapshot = null;
+                removeFromObjectMap(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -166,7 +180,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     }
 
     public boolean isEmpty() {
-        return CommonUtils.isEmpty(objectList);
+        return getCachedObjects().isEmpty();
     }
 
     public boolean isFullyCached() {
@@ -182,6 +196,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     {
         synchronized (cacheSync) {
             this.objectList = null;
+            this.objectSnapshot = null;
             this.objectMap = null;
             this.fullCache = false;
         }
@@ -190,7 +205,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void setCache(List<OBJECT> objects)
     {
         synchronized (cacheSync) {
-            this.objectList = objects;
+            this.objectList = objects == null ? null : new ArrayList<>(objects);
+            this.objectSnapshot = null;
             this.objectMap = null;
             this.fullCache = true;
         }
@@ -213,19 +229,21 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     protected void mergeCache(List<OBJECT> objects)
     {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
-                // Merge lists
+            if (this.objectList != null && !this.objectList.isEmpty()) {
+                // Merge lists. Index old objects by name (first object wins, as in list order)
+                Map<String, OBJECT> oldObjects = new HashMap<>(objectList.size());
+                for (OBJECT oldObject : objectList) {
+                    String oldObjectName = oldObject.getName();
+                    if (oldObjectName != null) {
+                        oldObjects.putIfAbsent(oldObjectName, oldObject);
+                    }
+                }
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = newObject.getName();
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = oldObject.getName();
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    String newObjectName = objects.get(i).getName();
+                    OBJECT oldObject = newObjectName == null ? null : oldObjects.get(newObjectName);
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
@@ -233,28 +251,54 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         setCache(objects);
     }
 
+    @Nullable
     private Map<String, OBJECT> getObjectMap()
     {
+        Map<String, OBJECT> map = this.objectMap;
+        if (map != null) {
+            return map;
+        }
         synchronized (cacheSync) {
             if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                if (objectList.size() > 0) {
-                    detectCaseSensitivity(objectList.get(0));
+                List<OBJECT> list = this.objectList;
+                if (list == null) {
+                    return null;
+                }
+                map = new ConcurrentHashMap<>(list.size());
+                if (!list.isEmpty()) {
+                    detectCaseSensitivity(list.get(0));
                 }
 
-                for (OBJECT object : objectList) {
-                    String name = getObjectName(object);
-                    if (checkDuplicateName(name, object)) {
-                        this.objectMap.put(name, object);
-                    }
+                for (OBJECT object : list) {
+                    addToObjectMap(map, object);
                 }
+                // Publish fully built index
+                this.objectMap = map;
             }
             return this.objectMap;
         }
     }
 
-    private boolean checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    private void addToObjectMap(@NotNull Map<String, OBJECT> map, @NotNull OBJECT object) {
+        String name = getObjectName(object);
+        // Concurrent map doesn't support null keys. Such objects can't be found by name anyway
+        if (name != null && checkDuplicateName(map, name, object)) {
+            map.put(name, object);
+        }
+    }
+
+    private void removeFromObjectMap(@NotNull OBJECT object) {
+        Map<String, OBJECT> map = this.objectMap;
+        if (map != null) {
+            String name = getObjectName(object);
+            if (name != null) {
+                map.remove(name);
+            }
+        }
+    }
+
+    private boolean checkDuplicateName(Map<String, OBJECT> map, String name, OBJECT object) {
+        if (map.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
             return isValidDuplicateObject(object);
         }
@@ -289,18 +333,19 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (objectList == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            boolean removed = false;
+            for (Iterator<OBJECT> iter = objectList.iterator(); iter.hasNext(); ) {
+                OBJECT object = iter.next();
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
-                    fullCache = false;
-                } else {
-                    i++;
+                    iter.remove();
+                    removeFromObjectMap(object);
+                    removed = true;
                 }
             }
+            if (removed) {
+                objectSnapshot = null;
+                fullCache = false;
+            }
         }
     }
 
@@ -371,8 +416,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over cache snapshot. Removal removes object from the cache.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private final Iterator<OBJECT> listIterator = objectList.iterator();
+        private final Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
         public CacheIterator()
         {
@@ -393,9 +441,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            synchronized (cacheSync) {
+                if (objectList != null) {
+                    objectList.remove(curObject);
+                    objectSnapshot = null;
+                }
+                removeFromObjectMap(curObject);
             }
         }
     }
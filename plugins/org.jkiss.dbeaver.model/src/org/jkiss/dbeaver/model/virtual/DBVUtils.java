@@ -46,6 +46,7 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Virtual model serialize
@@ -406,6 +407,13 @@ public abstract class DBVUtils {
     }
 
     public static Object executeExpression(DBVEntityAttribute attribute, DBDAttributeBinding[] allAttributes, Object[] row) {
+        return executeExpression(attribute, allAttributes, row.length, index -> row[index]);
+    }
+
+    /**
+     * Evaluates attribute expression. Row values are read by index on demand.
+     */
+    public static Object executeExpression(DBVEntityAttribute attribute, DBDAttributeBinding[] allAttributes, int valueCount, IntFunction<Object> rowValues) {
         String exprString = attribute.getExpression();
         if (CommonUtils.isEmpty(exprString)) {
             return null;
@@ -415,10 +423,20 @@ public abstract class DBVUtils {
             return null;
         }
 
-        return evaluateDataExpression(allAttributes, row, expression, attribute.getName());
+        return evaluateDataExpression(allAttributes, valueCount, rowValues, expression, attribute.getName());
     }
 
     public static Object evaluateDataExpression(DBDAttributeBinding[] allAttributes, Object[] row, JexlExpression expression, String attributeName) {
+        return evaluateDataExpression(allAttributes, row.length, index -> row[index], expression, attributeName);
+    }
+
+    public static Object evaluateDataExpression(
+        DBDAttributeBinding[] allAttributes,
+        int valueCount,
+        IntFunction<Object> rowValues,
+        JexlExpression expression,
+        String attributeName
+    ) {
         Map<String, Object> nsList = getExpressionNamespaces();
 
         JexlContext context = new JexlContext() {
@@ -433,7 +451,7 @@ public abstract class DBVUtils {
                 }
                 for (DBDAttributeBinding attr : allAttributes) {
                     if (s.equals(attr.getLabel())) {
-                        return DBUtils.getAttributeValue(attr, allAttributes, row);
+                        return DBUtils.getAttributeValue(attr, allAttributes, valueCount, rowValues, null);
                     }
                 }
                 return null;
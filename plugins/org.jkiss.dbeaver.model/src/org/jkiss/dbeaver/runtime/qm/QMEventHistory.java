@@ -0,0 +1,138 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of past QM events.
+ * <p>
+ * Events are added by a single writer (events dispatcher), the oldest events are overwritten.
+ * Readers take snapshots which don't copy events. Snapshot iterates events from the newest to the oldest
+ * and stops at events which were overwritten after the snapshot was taken.
+ */
+public class QMEventHistory {
+
+    private final AtomicReferenceArray<Entry> entries;
+    // Total number of added events. Entries are published by the volatile write
+    private volatile long eventCount;
+
+    public QMEventHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Bad history capacity: " + capacity);
+        }
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Adds events (oldest first). Must be called by the single writer thread.
+     */
+    public void addAll(@NotNull Collection<QMMetaEvent> events) {
+        long position = eventCount;
+        int capacity = entries.length();
+        for (QMMetaEvent event : events) {
+            entries.lazySet((int) (position % capacity), new Entry(position, event));
+            position++;
+        }
+        eventCount = position;
+    }
+
+    @NotNull
+    public Snapshot snapshot() {
+        long end = eventCount;
+        return new Snapshot(Math.max(0, end - entries.length()), end);
+    }
+
+    private static class Entry {
+        final long position;
+        final QMMetaEvent event;
+
+        Entry(long position, QMMetaEvent event) {
+            this.position = position;
+            this.event = event;
+        }
+    }
+
+    /**
+     * History events at the moment of snapshot creation. Iteration goes from the newest event to the oldest one.
+     */
+    public class Snapshot implements Iterable<QMMetaEvent> {
+        private final long start;
+        private final long end;
+
+        private Snapshot(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Maximum number of events in snapshot. Some old events may be overwritten during iteration.
+         */
+        public int size() {
+            return (int) (end - start);
+        }
+
+        @NotNull
+        @Override
+        public Iterator<QMMetaEvent> iterator() {
+            return new Iterator<>() {
+                private long position = end - 1;
+                private QMMetaEvent next = fetch();
+
+                private QMMetaEvent fetch() {
+                    if (position < start) {
+                        return null;
+                    }
+                    Entry entry = entries.get((int) (position % entries.length()));
+                    if (entry == null || entry.position != position) {
+                        // Overwritten by newer events. Older events are overwritten too
+                        position = start - 1;
+                        return null;
+                    }
+                    position--;
+                    return entry.event;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public QMMetaEvent next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    QMMetaEvent result = next;
+                    next = fetch();
+                    return result;
+                }
+            };
+        }
+    }
+
+}
@@ -31,14 +31,20 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ * <p>
+ * Handlers don't use global locks: events are added to the non-blocking queue, connection infos
+ * are synchronized individually. Events dispatcher drains the queue and moves events into the history ring buffer.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -47,19 +53,19 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     private static final int MAX_HISTORY_EVENTS = 10000;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
     // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
-    // Sync object
-    private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    private final Queue<QMMetaEvent> eventPool = new ConcurrentLinkedQueue<>();
+    // Events taken from the pool but not dispatched yet (accessed by dispatcher only)
+    private List<QMMetaEvent> pendingEvents = new ArrayList<>();
+    // History (oldest events are overwritten when limit reached)
+    private final QMEventHistory pastEvents = new QMEventHistory(MAX_HISTORY_EVENTS);
+    private volatile boolean running = true;
     private long eventDispatchPeriod = 250;
 
     public QMMCollectorImpl() {
@@ -71,7 +77,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         new EventDispatcher().schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -128,7 +134,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
         try {
             String sessionId = QMUtils.getQmSessionId(context);
             eventPool.add(new QMMetaEvent(object, action, sessionId));
@@ -137,13 +143,16 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
-        if (eventPool.isEmpty()) {
+    private List<QMMetaEvent> obtainEvents() {
+        for (QMMetaEvent event = eventPool.poll(); event != null; event = eventPool.poll()) {
+            pendingEvents.add(event);
+        }
+        if (pendingEvents.isEmpty()) {
             return Collections.emptyList();
         }
         // qm session id might be null if database migration is in progress for single user product
         if (DBWorkbench.getPlatform().getApplication() instanceof QMSessionProvider qmSessionProvider) {
-            for (QMMetaEvent event : eventPool) {
+            for (QMMetaEvent event : pendingEvents) {
                 if (event.getSessionId() != null) {
                     continue;
                 }
@@ -158,8 +167,8 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 event.setSessionId(sessionId);
             }
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = pendingEvents;
+        pendingEvents = new ArrayList<>();
         return events;
     }
 
@@ -171,25 +180,32 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         return connectionInfo;
     }
 
-    public List<QMMetaEvent> getPastEvents() {
-        synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
-        }
+    /**
+     * Returns snapshot of past events (from the newest to the oldest)
+     */
+    @NotNull
+    public QMEventHistory.Snapshot getPastEvents() {
+        return pastEvents.snapshot();
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
         QMMConnectionInfo connection = connectionMap.get(contextId);
         if (connection == null) {
-            connection = new QMMConnectionInfo(
+            QMMConnectionInfo newConnection = new QMMConnectionInfo(
                 context,
                 transactional);
-            connectionMap.put(contextId, connection);
+            connection = connectionMap.putIfAbsent(contextId, newConnection);
+            if (connection == null) {
+                connection = newConnection;
+            }
         } else {
             // This session may already be in cache in case of reconnect/invalidate
             // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
+            synchronized (connection) {
+                connection.reopen(context);
+            }
         }
 
         // Remove from closed sessions (in case of re-opened connection)
@@ -199,20 +215,25 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
+            synchronized (session) {
+                session.close();
+            }
             tryFireMetaEvent(session, QMEventAction.END, context);
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+            QMMTransactionInfo oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.changeTransactional(!autoCommit);
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -221,10 +242,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
+            QMMTransactionInfo oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.commit();
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -232,10 +256,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
+            QMMObject oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.rollback(savepoint);
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -243,19 +270,25 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
+            QMMStatementInfo stat;
+            synchronized (session) {
+                stat = session.openStatement(statement);
+            }
             tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
+            QMMStatementInfo stat;
+            synchronized (session) {
+                stat = session.closeStatement(statement, rows);
+            }
             if (stat == null) {
                 log.warn("Can't properly handle statement close");
             } else {
@@ -265,10 +298,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
+            QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.beginExecution(statement);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
             }
@@ -276,10 +312,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+            QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.endExecution(statement, rows, error);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
             }
@@ -287,10 +326,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+            QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.beginFetch(resultSet);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
             }
@@ -298,10 +340,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+            QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.endFetch(resultSet, rowCount);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
             }
@@ -318,16 +363,15 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
+            final List<QMMetaEvent> events = obtainEvents();
+            List<Long> sessionsToClose = new ArrayList<>();
+            for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
+                sessionsToClose.add(sessionId);
             }
             if (!events.isEmpty()) {
+                pastEvents.addAll(events);
                 final List<QMMetaListener> listeners = getListeners();
-                if (!listeners.isEmpty() && !events.isEmpty()) {
+                if (!listeners.isEmpty()) {
                     // Reverse collection. Fresh events must come first.
                     Collections.reverse(events);
                     // Dispatch all events
@@ -339,26 +383,12 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                         }
                     }
                 }
-                synchronized (historySync) {
-                    pastEvents.addAll(events);
-                    int size = pastEvents.size();
-                    if (size > MAX_HISTORY_EVENTS) {
-                        pastEvents = new ArrayList<>(pastEvents.subList(
-                            size - MAX_HISTORY_EVENTS,
-                            size));
-                    }
-                }
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
-                    }
-                }
+            for (Long sessionId : sessionsToClose) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                connectionMap.computeIfPresent(sessionId, (id, session) -> session.isClosed() ? null : session);
             }
             if (isRunning()) {
                 this.schedule(eventDispatchPeriod);
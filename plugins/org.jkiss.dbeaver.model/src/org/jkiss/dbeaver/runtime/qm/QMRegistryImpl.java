@@ -31,8 +31,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -178,53 +176,40 @@ public class QMRegistryImpl implements QMRegistry {
             @NotNull QMCursorFilter cursorFilter)
             throws DBException
         {
-            List<QMMetaEvent> pastEvents = metaHandler.getPastEvents();
-            Collections.reverse(pastEvents);
             var criteria = cursorFilter.getCriteria();
             var filter = cursorFilter.getFilter();
-            if (criteria.getObjectTypes() != null || criteria.getQueryTypes() != null) {
-                // Filter by query type and object type
-                for (Iterator<QMMetaEvent> iter = pastEvents.iterator(); iter.hasNext(); ) {
-                    QMMetaEvent event = iter.next();
-                    if (criteria.getObjectTypes() != null) {
-                        if (!matchesObjectType(event.getObject(), criteria.getObjectTypes())) {
-                            iter.remove();
-                            continue;
-                        }
+            String searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase();
+            boolean checkTypes = criteria.getObjectTypes() != null || criteria.getQueryTypes() != null;
+            boolean checkFilter = filter != null && (checkTypes || searchString != null);
+
+            // Snapshot goes from the newest events to the oldest
+            List<QMMetaEvent> events = new ArrayList<>();
+            for (QMMetaEvent event : metaHandler.getPastEvents()) {
+                if (criteria.getObjectTypes() != null && !matchesObjectType(event.getObject(), criteria.getObjectTypes())) {
+                    continue;
+                }
+                if (checkFilter && !filter.accept(event)) {
+                    continue;
+                }
+                if (criteria.getQueryTypes() != null) {
+                    QMMStatementInfo statementInfo = null;
+                    if (event.getObject() instanceof QMMStatementInfo) {
+                        statementInfo = (QMMStatementInfo) event.getObject();
+                    } else if (event.getObject() instanceof QMMStatementExecuteInfo) {
+                        statementInfo = ((QMMStatementExecuteInfo) event.getObject()).getStatement();
                     }
-                    if (filter != null && !filter.accept(event)) {
-                        iter.remove();
+                    if (statementInfo != null &&
+                        !ArrayUtils.contains(criteria.getQueryTypes(), statementInfo.getPurpose()))
+                    {
                         continue;
                     }
-                    if (criteria.getQueryTypes() != null) {
-                        QMMStatementInfo statementInfo = null;
-                        if (event.getObject() instanceof QMMStatementInfo) {
-                            statementInfo = (QMMStatementInfo) event.getObject();
-                        } else if (event.getObject() instanceof QMMStatementExecuteInfo) {
-                            statementInfo = ((QMMStatementExecuteInfo) event.getObject()).getStatement();
-                        }
-                        if (statementInfo != null &&
-                            !ArrayUtils.contains(criteria.getQueryTypes(), statementInfo.getPurpose()))
-                        {
-                            iter.remove();
-                        }
-                    }
                 }
-            }
-            if (CommonUtils.isEmpty(criteria.getSearchString())) {
-                return new QMUtils.ListCursorImpl(pastEvents);
-            } else {
-                String searchString = criteria.getSearchString().toLowerCase();
-                List<QMMetaEvent> filtered = new ArrayList<>();
-                for (QMMetaEvent event : pastEvents) {
-                    if (event.getObject().getText().toLowerCase().contains(searchString) &&
-                        (filter == null || filter.accept(event)))
-                    {
-                        filtered.add(event);
-                    }
+                if (searchString != null && !event.getObject().getText().toLowerCase().contains(searchString)) {
+                    continue;
                 }
-                return new QMUtils.ListCursorImpl(filtered);
+                events.add(event);
             }
+            return new QMUtils.ListCursorImpl(events);
         }
 
         private boolean matchesObjectType(QMMObject object, QMObjectType[] objectTypes) {
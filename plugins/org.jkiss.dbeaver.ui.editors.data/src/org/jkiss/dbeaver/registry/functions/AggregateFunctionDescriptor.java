@@ -18,6 +18,7 @@
 package org.jkiss.dbeaver.registry.functions;
 
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
@@ -30,6 +31,7 @@ import org.jkiss.utils.CommonUtils;
 public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
 
     public static final String EXTENSION_ID = "org.jkiss.dbeaver.aggregateFunction"; //$NON-NLS-1$
+    public static final String VARIABLE_COLUMN = "${column}"; //$NON-NLS-1$
 
     private final String id;
     private final String label;
@@ -38,6 +40,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
     private final DBPImage icon;
     private final String type;
     private final boolean isDefault;
+    private final String sqlTemplate;
 
     public AggregateFunctionDescriptor(IConfigurationElement config)
     {
@@ -49,6 +52,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         this.icon = iconToImage(config.getAttribute("icon"));
         this.type = config.getAttribute("type");
         this.isDefault = CommonUtils.toBoolean(config.getAttribute("default"));
+        this.sqlTemplate = config.getAttribute("sql");
     }
 
     public String getId() {
@@ -75,6 +79,15 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         return isDefault;
     }
 
+    /**
+     * SQL expression which evaluates this function on the server side.
+     * Column reference is passed in {@link #VARIABLE_COLUMN} variable.
+     */
+    @Nullable
+    public String getSqlTemplate() {
+        return sqlTemplate;
+    }
+
     public IAggregateFunction createFunction()
         throws DBException
     {
@@ -0,0 +1,622 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Column-oriented storage of fetched rows.
+ * <p>
+ * Values of simple types are kept in primitive vectors (with null bitmaps), strings are dictionary-encoded.
+ * All other values (LOBs, composites, dates, etc) are kept as objects.
+ * Boxed values are created only when cell value is requested.
+ * Store is immutable, edited rows keep their own values (see {@link ResultSetRow}).
+ * <p>
+ * Primitive and string columns may be spilled to disk by {@link ResultSetSpillManager}.
+ * Spilled columns are read back on the first access.
+ */
+class ResultSetColumnStore {
+
+    private static final Log log = Log.getLog(ResultSetColumnStore.class);
+
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_DOUBLE = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_STRING = 4;
+    private static final byte TYPE_OBJECT = 5;
+
+    private final int rowCount;
+    private final Column[] columns;
+
+    @Nullable
+    private ResultSetSpillManager spillManager;
+    private volatile boolean spilled;
+    // Position of serialized columns in spill file. Negative if store wasn't written yet
+    private long spillOffset = -1;
+    private int spillLength;
+
+    ResultSetColumnStore(@NotNull List<Object[]> rows, int columnCount) {
+        this.rowCount = rows.size();
+        this.columns = new Column[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = createColumn(rows, i);
+        }
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    @Nullable
+    Object getValue(int row, int column) {
+        Column col = getColumn(column);
+        return col == null ? null : col.get(row);
+    }
+
+    /**
+     * Materializes all values of the specified row
+     */
+    @NotNull
+    Object[] getRow(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Column column = getColumn(i);
+            values[i] = column == null ? null : column.get(row);
+        }
+        return values;
+    }
+
+    @Nullable
+    private Column getColumn(int index) {
+        Column column = columns[index];
+        if (column != null) {
+            return column;
+        }
+        // Column is spilled or is being spilled right now. Spill and load are done under the store lock
+        ResultSetSpillManager manager = spillManager;
+        boolean loaded;
+        synchronized (this) {
+            loaded = readColumns(manager);
+            column = columns[index];
+        }
+        // Notify manager outside of store lock. Manager may spill other stores
+        if (loaded && manager != null) {
+            manager.storeLoaded(this);
+        }
+        return column;
+    }
+
+    /**
+     * Replaces all values of the column. Used when values are converted after fetch.
+     * Spilled data becomes obsolete and will be written again on the next spill.
+     */
+    void replaceColumn(int index, @NotNull Object[] values) {
+        getColumn(index);
+        synchronized (this) {
+            if (spilled) {
+                // Spilled again in between
+                readColumns(spillManager);
+            }
+            List<Object[]> rows = new ArrayList<>(values.length);
+            for (Object value : values) {
+                rows.add(new Object[] { value });
+            }
+            columns[index] = createColumn(rows, 0);
+            spillOffset = -1;
+        }
+    }
+
+    void releaseRow(int row) {
+        // Object columns are never spilled
+        for (Column column : columns) {
+            if (column instanceof ObjectColumn) {
+                DBUtils.releaseValue(column.get(row));
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Spilling
+
+    void setSpillManager(@Nullable ResultSetSpillManager spillManager) {
+        this.spillManager = spillManager;
+    }
+
+    boolean isSpilled() {
+        return spilled;
+    }
+
+    /**
+     * Estimated heap size of columns which can be spilled
+     */
+    long getSpillableSize() {
+        if (spilled) {
+            return 0;
+        }
+        long size = 0;
+        for (Column column : columns) {
+            if (column != null && !(column instanceof ObjectColumn)) {
+                size += column.getMemorySize();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Moves primitive and string columns to the spill file.
+     * Store is written only once (it is immutable), so repeated spill just releases columns.
+     */
+    synchronized void spill(@NotNull ResultSetSpillManager manager) throws IOException {
+        if (spilled) {
+            return;
+        }
+        if (spillOffset < 0) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(getSpillableSize() + 1024, Integer.MAX_VALUE - 8));
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                for (Column column : columns) {
+                    if (column instanceof ObjectColumn) {
+                        out.writeByte(TYPE_OBJECT);
+                    } else {
+                        out.writeByte(column.getType());
+                        column.write(out);
+                    }
+                }
+            }
+            byte[] data = buffer.toByteArray();
+            spillOffset = manager.write(data);
+            spillLength = data.length;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!(columns[i] instanceof ObjectColumn)) {
+                columns[i] = null;
+            }
+        }
+        spilled = true;
+    }
+
+    private synchronized boolean readColumns(@Nullable ResultSetSpillManager manager) {
+        if (!spilled) {
+            return false;
+        }
+        ByteBuffer data = null;
+        if (manager != null) {
+            try {
+                data = manager.read(spillOffset, spillLength);
+            } catch (IOException e) {
+                log.error("Error reading spilled result set data", e);
+            }
+        }
+        if (data == null) {
+            // Spill file was disposed (data was cleared). Keep nulls
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            byte type = data.get();
+            if (type == TYPE_OBJECT) {
+                continue;
+            }
+            columns[i] = readColumn(type, data, rowCount);
+        }
+        spilled = false;
+        return true;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Columns
+
+    @NotNull
+    private static Column createColumn(@NotNull List<Object[]> rows, int index) {
+        Class<?> valueType = null;
+        for (Object[] row : rows) {
+            if (index < row.length && row[index] != null) {
+                valueType = row[index].getClass();
+                break;
+            }
+        }
+        Column column;
+        if (valueType == Long.class || valueType == Integer.class || valueType == Short.class || valueType == Byte.class) {
+            column = new LongColumn(rows.size(), getLongKind(valueType));
+        } else if (valueType == Double.class || valueType == Float.class) {
+            column = new DoubleColumn(rows.size(), valueType == Float.class);
+        } else if (valueType == Boolean.class) {
+            column = new BooleanColumn(rows.size());
+        } else if (valueType == String.class) {
+            column = new StringColumn(rows.size());
+        } else {
+            column = new ObjectColumn(rows.size());
+        }
+        if (!(column instanceof ObjectColumn)) {
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                Object value = index < row.length ? row[index] : null;
+                if (value == null) {
+                    column.setNull(i);
+                } else if (value.getClass() != valueType) {
+                    // Mixed value types. Keep values as is
+                    column = new ObjectColumn(rows.size());
+                    break;
+                } else {
+                    column.set(i, value);
+                }
+            }
+            column.complete();
+        }
+        if (column instanceof ObjectColumn) {
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                column.set(i, index < row.length ? row[index] : null);
+            }
+        }
+        return column;
+    }
+
+    @NotNull
+    private static Column readColumn(byte type, @NotNull ByteBuffer data, int size) {
+        Column column;
+        switch (type) {
+            case TYPE_LONG: column = new LongColumn(size, data.get()); break;
+            case TYPE_DOUBLE: column = new DoubleColumn(size, data.get() != 0); break;
+            case TYPE_BOOLEAN: column = new BooleanColumn(size); break;
+            case TYPE_STRING: column = new StringColumn(size); break;
+            default:
+                throw new IllegalStateException("Bad spilled column type: " + type);
+        }
+        column.nulls = readBitSet(data);
+        column.read(data);
+        return column;
+    }
+
+    private static byte getLongKind(Class<?> valueType) {
+        if (valueType == Integer.class) {
+            return 1;
+        } else if (valueType == Short.class) {
+            return 2;
+        } else if (valueType == Byte.class) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static void writeBitSet(@NotNull DataOutputStream out, @Nullable BitSet bitSet) throws IOException {
+        long[] words = bitSet == null ? new long[0] : bitSet.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    @Nullable
+    private static BitSet readBitSet(@NotNull ByteBuffer data) {
+        int length = data.getInt();
+        if (length == 0) {
+            return null;
+        }
+        long[] words = new long[length];
+        data.asLongBuffer().get(words);
+        data.position(data.position() + length * Long.BYTES);
+        return BitSet.valueOf(words);
+    }
+
+    private abstract static class Column {
+        @Nullable
+        BitSet nulls;
+
+        void setNull(int row) {
+            if (nulls == null) {
+                nulls = new BitSet();
+            }
+            nulls.set(row);
+        }
+
+        boolean isNull(int row) {
+            return nulls != null && nulls.get(row);
+        }
+
+        abstract byte getType();
+
+        abstract void set(int row, Object value);
+
+        @Nullable
+        abstract Object get(int row);
+
+        void complete() {
+        }
+
+        abstract long getMemorySize();
+
+        void write(@NotNull DataOutputStream out) throws IOException {
+            writeBitSet(out, nulls);
+        }
+
+        abstract void read(@NotNull ByteBuffer data);
+    }
+
+    private static class LongColumn extends Column {
+        private final long[] values;
+        // 0 - long, 1 - int, 2 - short, 3 - byte
+        private final byte kind;
+
+        LongColumn(int size, byte kind) {
+            this.values = new long[size];
+            this.kind = kind;
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_LONG;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Number) value).longValue();
+        }
+
+        @Nullable
+        @Override
+        Object get(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            long value = values[row];
+            switch (kind) {
+                case 1: return (int) value;
+                case 2: return (short) value;
+                case 3: return (byte) value;
+                default: return value;
+            }
+        }
+
+        @Override
+        long getMemorySize() {
+            return (long) values.length * Long.BYTES;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeByte(kind);
+            super.write(out);
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer data) {
+            data.asLongBuffer().get(values);
+            data.position(data.position() + values.length * Long.BYTES);
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+        private final double[] values;
+        private final boolean isFloat;
+
+        DoubleColumn(int size, boolean isFloat) {
+            this.values = new double[size];
+            this.isFloat = isFloat;
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_DOUBLE;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Nullable
+        @Override
+        Object get(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            return isFloat ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        long getMemorySize() {
+            return (long) values.length * Double.BYTES;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeByte(isFloat ? 1 : 0);
+            super.write(out);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer data) {
+            data.asDoubleBuffer().get(values);
+            data.position(data.position() + values.length * Double.BYTES);
+        }
+    }
+
+    private static class BooleanColumn extends Column {
+        private BitSet values;
+
+        BooleanColumn(int size) {
+            this.values = new BitSet(size);
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_BOOLEAN;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values.set(row, (Boolean) value);
+        }
+
+        @Nullable
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        long getMemorySize() {
+            return values.size() / 8;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out) throws IOException {
+            super.write(out);
+            writeBitSet(out, values);
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer data) {
+            BitSet bitSet = readBitSet(data);
+            values = bitSet == null ? new BitSet() : bitSet;
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings. Repeated values share the same string instance.
+     */
+    private static class StringColumn extends Column {
+        private final int[] codes;
+        private Map<String, Integer> codeMap = new HashMap<>();
+        private String[] dictionary;
+
+        StringColumn(int size) {
+            this.codes = new int[size];
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_STRING;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            Integer code = codeMap.get(value);
+            if (code == null) {
+                code = codeMap.size();
+                codeMap.put((String) value, code);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        void complete() {
+            dictionary = new String[codeMap.size()];
+            for (Map.Entry<String, Integer> entry : codeMap.entrySet()) {
+                dictionary[entry.getValue()] = entry.getKey();
+            }
+            codeMap = null;
+        }
+
+        @Nullable
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : dictionary[codes[row]];
+        }
+
+        @Override
+        long getMemorySize() {
+            long size = (long) codes.length * Integer.BYTES;
+            for (String value : dictionary) {
+                // Object header, fields and value bytes
+                size += 40 + value.length();
+            }
+            return size;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out) throws IOException {
+            super.write(out);
+            out.writeInt(dictionary.length);
+            // Strings are written as UTF-16 chars. UTF-8 would corrupt unpaired surrogates
+            for (String value : dictionary) {
+                out.writeInt(value.length());
+                out.writeChars(value);
+            }
+            for (int code : codes) {
+                out.writeInt(code);
+            }
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer data) {
+            dictionary = new String[data.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                char[] chars = new char[data.getInt()];
+                data.asCharBuffer().get(chars);
+                data.position(data.position() + chars.length * Character.BYTES);
+                dictionary[i] = new String(chars);
+            }
+            data.asIntBuffer().get(codes);
+            data.position(data.position() + codes.length * Integer.BYTES);
+            codeMap = null;
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private final Object[] values;
+
+        ObjectColumn(int size) {
+            this.values = new Object[size];
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_OBJECT;
+        }
+
+        @Override
+        void set(int row, @Nullable Object value) {
+            values[row] = value;
+        }
+
+        @Nullable
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        long getMemorySize() {
+            return (long) values.length * 8;
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer data) {
+            throw new IllegalStateException("Object columns can't be spilled");
+        }
+    }
+
+}
@@ -17,12 +17,14 @@
 package org.jkiss.dbeaver.ui.controls.resultset;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -46,7 +48,18 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
+    // Rows of the current segment. Full segments are moved into column stores during fetch
     private List<Object[]> rows = new ArrayList<>();
+    // First segment of rows. It is kept as is because attributes are bound on fetch end using these rows
+    @Nullable
+    private List<Object[]> sampleRows;
+    private final List<ResultSetColumnStore> stores = new ArrayList<>();
+    private int storedRowCount;
+    @Nullable
+    private ResultSetSpillManager spillManager;
+    // Spill manager was created for this fetch and wasn't passed to the model yet
+    private boolean ownSpillManager;
+    private boolean resetOldRows;
     private boolean hasMoreData;
     private boolean nextSegmentRead;
     private long offset;
@@ -94,9 +107,24 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         throws DBCException {
         this.errorList.clear();
         this.rows.clear();
+        this.sampleRows = null;
+        this.stores.clear();
+        this.storedRowCount = 0;
         this.offset = offset;
         this.maxRows = maxRows;
 
+        disposeSpillManager();
+        this.resetOldRows = !nextSegmentRead ||
+            getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
+        if (resetOldRows) {
+            // Model will release old data with its spill manager
+            this.spillManager = ResultSetSpillManager.create(resultSetViewer.getPreferenceStore());
+            this.ownSpillManager = true;
+        } else {
+            this.spillManager = resultSetViewer.getModel().getSpillManager();
+            this.ownSpillManager = false;
+        }
+
         if (!nextSegmentRead) {
             // Get columns metadata
             DBCResultSetMetaData metaData = resultSet.getMeta();
@@ -150,11 +178,32 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+        if (rows.size() >= ResultSetModel.STORE_SEGMENT_SIZE) {
+            storeRows();
+        }
+    }
+
+    /**
+     * Moves fetched rows into column stores, so they may be spilled before fetch ends
+     */
+    private void storeRows() {
+        if (!nextSegmentRead && sampleRows == null) {
+            sampleRows = rows;
+        } else {
+            stores.addAll(ResultSetModel.createStores(rows, spillManager));
+            storedRowCount += rows.size();
+        }
+        rows = new ArrayList<>();
     }
 
     @Override
     public void fetchEnd(DBCSession session, final DBCResultSet resultSet) {
         if (!nextSegmentRead) {
+            List<Object[]> bindRows = sampleRows != null ? sampleRows : rows;
+            DBDValueHandler[] valueHandlers = new DBDValueHandler[metaColumns.length];
+            for (int i = 0; i < metaColumns.length; i++) {
+                valueHandlers[i] = metaColumns[i].getValueHandler();
+            }
             try {
                 // Read locators' metadata
                 DBSEntity entity = null;
@@ -162,29 +211,50 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
                 if (dataContainer instanceof DBSEntity) {
                     entity = (DBSEntity) dataContainer;
                 }
-                DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
+                DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, bindRows);
             } catch (Throwable e) {
                 errorList.add(e);
             }
+            if (sampleRows != null) {
+                // Binding fixes values of sample rows only. Fix values fetched after them
+                for (int i = 0; i < metaColumns.length; i++) {
+                    if (metaColumns[i].getValueHandler() != valueHandlers[i]) {
+                        convertStoredValues(session, metaColumns[i]);
+                    }
+                }
+            }
         }
+        if (sampleRows != null) {
+            // Sample rows go first
+            List<ResultSetColumnStore> sampleStores = ResultSetModel.createStores(sampleRows, spillManager);
+            stores.addAll(0, sampleStores);
+            storedRowCount += sampleRows.size();
+            sampleRows = null;
+        }
+        storeRows();
 
-        final List<Object[]> tmpRows = rows;
+        final int rowCount = storedRowCount;
+        final List<ResultSetColumnStore> tmpStores = new ArrayList<>(stores);
+        stores.clear();
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
         // Push data into viewer
         DBRProgressMonitor monitor = session.getProgressMonitor();
         monitor.beginTask("Populate data", 1);
+        // Model takes ownership of spill manager
+        ResultSetSpillManager spillManager = this.spillManager;
+        this.spillManager = null;
+        this.ownSpillManager = false;
         if (!nextSegmentRead) {
             monitor.subTask("Set data");
-            resultSetViewer.setData(tmpRows, focusRow);
+            resultSetViewer.setData(tmpStores, rowCount, focusRow, spillManager);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            resultSetViewer.appendData(tmpStores, rowCount, resetOldRows, spillManager);
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && rowCount >= maxRows;
         monitor.done();
 
         UIUtils.syncExec(() -> {
@@ -200,6 +270,39 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         });
     }
 
+    /**
+     * Converts values which were fetched with the old value handler of the attribute.
+     */
+    private void convertStoredValues(@NotNull DBCSession session, @NotNull DBDAttributeBinding binding) {
+        DBSAttributeBase attribute = binding.getEntityAttribute() != null ? binding.getEntityAttribute() : binding.getAttribute();
+        if (attribute == null) {
+            return;
+        }
+        int pos = binding.getOrdinalPosition();
+        try {
+            for (ResultSetColumnStore store : stores) {
+                Object[] values = new Object[store.getRowCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = binding.getValueHandler().getValueFromObject(session, attribute, store.getValue(i, pos), false, false);
+                }
+                store.replaceColumn(pos, values);
+            }
+            for (Object[] row : rows) {
+                row[pos] = binding.getValueHandler().getValueFromObject(session, attribute, row[pos], false, false);
+            }
+        } catch (DBCException e) {
+            log.warn("Error resolving attribute '" + binding.getName() + "' values", e);
+        }
+    }
+
+    private void disposeSpillManager() {
+        if (spillManager != null && ownSpillManager) {
+            spillManager.dispose();
+        }
+        spillManager = null;
+        ownSpillManager = false;
+    }
+
     private DBSDataContainer getDataContainer() {
         return targetDataContainer != null ? targetDataContainer : resultSetViewer.getDataContainer();
     }
@@ -210,6 +313,10 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
         attrErrors.clear();
         rows = new ArrayList<>();
+        sampleRows = null;
+        stores.clear();
+        // Fetch wasn't completed
+        disposeSpillManager();
     }
 
     @Override
@@ -23,20 +23,29 @@ import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.progress.UIJob;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.ILoadService;
+import org.jkiss.dbeaver.model.sql.SQLKeysetPaginator;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.ProgressLoaderVisualizer;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 
 abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<Object>, IQueryExecuteController {
 
+    private static final Log log = Log.getLog(ResultSetJobDataRead.class);
+
     private static final int PROGRESS_VISUALIZE_PERIOD = 100;
 
     private final Composite progressControl;
@@ -106,11 +115,33 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
         if (refresh) {
             fetchFlags |= DBSDataContainer.FLAG_REFRESH;
         }
-        long finalFlags = fetchFlags;
 
         final DBSDataContainer dataContainer = executionSource.getDataContainer();
         final DBDDataFilter dataFilter = executionSource.getUseDataFilter();
 
+        DBDDataFilter readFilter = dataFilter;
+        if (getExecutionContext().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_KEYSET_PAGINATION) &&
+            !isClientSideOrdering())
+        {
+            // Read next page after the last read key. Model filter remains unchanged
+            try {
+                SQLKeysetPaginator paginator = SQLKeysetPaginator.create(monitor, dataContainer, dataFilter);
+                if (paginator != null) {
+                    if (offset > 0) {
+                        paginator.setPosition(getLastRowKey(paginator));
+                    }
+                    if (offset == 0 || paginator.hasPosition()) {
+                        fetchFlags |= DBSDataContainer.FLAG_KEYSET_PAGINATION;
+                    }
+                    readFilter = paginator.makeSegmentFilter();
+                }
+            } catch (Exception e) {
+                log.debug("Error preparing keyset pagination", e);
+            }
+        }
+        final long finalFlags = fetchFlags;
+        final DBDDataFilter finalFilter = readFilter;
+
         progressMonitor.beginTask("Read data", 1);
         try (DBCSession session = getExecutionContext().openSession(
             progressMonitor,
@@ -124,7 +155,7 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
                         executionSource,
                         session,
                         executionSource.getExecutionController().getDataReceiver(),
-                        executionSource.getUseDataFilter(),
+                        finalFilter,
                         offset,
                         maxRows,
                         finalFlags,
@@ -143,6 +174,47 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
         return Status.OK_STATUS;
     }
 
+    /**
+     * Rows may be sorted locally. Then the last model row is not the last read row and its key can't be used as position.
+     */
+    private boolean isClientSideOrdering() {
+        IResultSetController controller = executionSource.getExecutionController();
+        return ResultSetUtils.getOrderingMode(controller) == ResultSetUtils.OrderingMode.CLIENT_SIDE ||
+            controller.getModel().getDataFilter().hasOrdering();
+    }
+
+    /**
+     * Key values of the last read row or null if they can't be determined
+     */
+    @Nullable
+    private Object[] getLastRowKey(@NotNull SQLKeysetPaginator paginator) {
+        ResultSetModel model = executionSource.getExecutionController().getModel();
+        List<DBSEntityAttribute> keyAttributes = paginator.getKeyAttributes();
+        DBDAttributeBinding[] keyBindings = new DBDAttributeBinding[keyAttributes.size()];
+        for (int i = 0; i < keyBindings.length; i++) {
+            keyBindings[i] = model.getAttributeBinding(keyAttributes.get(i));
+            if (keyBindings[i] == null) {
+                return null;
+            }
+        }
+        List<ResultSetRow> rows = model.getAllRows();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            ResultSetRow row = rows.get(i);
+            if (row.getState() == ResultSetRow.STATE_ADDED) {
+                continue;
+            }
+            Object[] key = new Object[keyBindings.length];
+            for (int k = 0; k < keyBindings.length; k++) {
+                key[k] = row.isChanged(keyBindings[k]) ? row.getOriginalValue(keyBindings[k]) : model.getCellValue(keyBindings[k], row);
+                if (DBUtils.isNullValue(key[k])) {
+                    return null;
+                }
+            }
+            return key;
+        }
+        return null;
+    }
+
     @Override
     public String getServiceName() {
         return "ResultSet data pump";
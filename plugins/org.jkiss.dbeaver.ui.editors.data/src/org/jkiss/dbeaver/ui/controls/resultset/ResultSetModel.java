@@ -29,10 +29,12 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
@@ -48,6 +50,9 @@ public class ResultSetModel {
 
     private static final Log log = Log.getLog(ResultSetModel.class);
 
+    // Max number of rows in a single column store. Stores are spilled to disk as a whole
+    static final int STORE_SEGMENT_SIZE = 10000;
+
     // Attributes
     private DBDAttributeBinding[] attributes = new DBDAttributeBinding[0];
     private List<DBDAttributeBinding> visibleAttributes = new ArrayList<>();
@@ -60,6 +65,8 @@ public class ResultSetModel {
     private List<ResultSetRow> curRows = new ArrayList<>();
     private Long totalRowCount = null;
     private int changesCount = 0;
+    @Nullable
+    private ResultSetSpillManager spillManager;
     private volatile boolean hasData = false;
     // Flag saying that edited values update is in progress
     private volatile DataSourceJob updateInProgress = null;
@@ -362,7 +369,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -380,28 +387,32 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull ResultSetCellLocation cellLocation) {
-        return DBUtils.getAttributeValue(
+        return getCellValue(
             cellLocation.getAttribute(),
-            attributes,
-            cellLocation.getRow().values,
+            cellLocation.getRow(),
             cellLocation.getRowIndexes());
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            null);
+        return getCellValue(attribute, row, null);
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable int[] rowIndexes) {
+        if (attribute.getLevel() == 0 && !attribute.isCustom() && attribute.getTopParent() == attribute) {
+            // Plain column - read the single value without materializing the whole row
+            int index = attribute.getOrdinalPosition();
+            if (index < row.getValueCount()) {
+                return row.getValue(index);
+            }
+        }
+        // Nested and custom attributes read only values they refer to
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            row.getValueCount(),
+            row::getValue,
             rowIndexes);
     }
 
@@ -446,7 +457,7 @@ public class ResultSetModel {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
         int rowIndex = 0;
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -556,7 +567,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -701,6 +712,26 @@ public class ResultSetModel {
     }
 
     public void setData(@NotNull List<Object[]> rows) {
+        resetData();
+        // Add new data
+        updateColorMapping(false);
+        appendData(rows, true);
+        completeData();
+    }
+
+    /**
+     * Sets rows which were already put in column stores while they were fetched.
+     * Spill manager of stores becomes owned by the model.
+     */
+    void setData(@NotNull List<ResultSetColumnStore> stores, @Nullable ResultSetSpillManager spillManager) {
+        resetData();
+        // Add new data
+        updateColorMapping(false);
+        appendStores(stores, true, spillManager);
+        completeData();
+    }
+
+    private void resetData() {
         // Clear previous data
         this.releaseAllData();
         this.clearData();
@@ -728,10 +759,9 @@ public class ResultSetModel {
                 }
             }
         }
+    }
 
-        // Add new data
-        updateColorMapping(false);
-        appendData(rows, true);
+    private void completeData() {
         updateDataFilter();
 
         this.visibleAttributes.sort(POSITION_SORTER);
@@ -863,24 +893,91 @@ public class ResultSetModel {
     }
 
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
+        if (resetOldRows) {
+            disposeSpillManager();
+        }
+        ResultSetSpillManager spillManager = getSpillManager();
+        appendStores(createStores(rows, spillManager), resetOldRows, spillManager);
+    }
+
+    /**
+     * Appends rows kept in column stores.
+     * If spill manager differs from the current one then the model takes ownership of it.
+     */
+    void appendStores(@NotNull List<ResultSetColumnStore> stores, boolean resetOldRows, @Nullable ResultSetSpillManager spillManager) {
         if (resetOldRows) {
             curRows.clear();
         }
-        int rowCount = rows.size();
+        if (spillManager != this.spillManager) {
+            disposeSpillManager();
+            this.spillManager = spillManager;
+        }
         int firstRowNum = curRows.size();
-        List<ResultSetRow> newRows = new ArrayList<>(rowCount);
-        for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+        List<ResultSetRow> newRows = new ArrayList<>();
+        for (ResultSetColumnStore store : stores) {
+            for (int i = 0; i < store.getRowCount(); i++) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + newRows.size(), store, i));
+            }
         }
         curRows.addAll(newRows);
 
         updateRowColors(resetOldRows, newRows);
     }
 
+    /**
+     * Puts rows in column stores. Each segment of rows gets its own store.
+     */
+    @NotNull
+    static List<ResultSetColumnStore> createStores(@NotNull List<Object[]> rows, @Nullable ResultSetSpillManager spillManager) {
+        int rowCount = rows.size();
+        int valueCount = getRowValueCount(rows);
+        List<ResultSetColumnStore> stores = new ArrayList<>();
+        for (int segmentStart = 0; segmentStart < rowCount; segmentStart += STORE_SEGMENT_SIZE) {
+            List<Object[]> segmentRows = rows.subList(segmentStart, Math.min(segmentStart + STORE_SEGMENT_SIZE, rowCount));
+            ResultSetColumnStore store = new ResultSetColumnStore(segmentRows, valueCount);
+            if (spillManager != null) {
+                spillManager.addStore(store);
+            }
+            stores.add(store);
+        }
+        return stores;
+    }
+
+    /**
+     * Returns spill manager of the current data. It is created on demand.
+     */
+    @Nullable
+    ResultSetSpillManager getSpillManager() {
+        if (spillManager == null) {
+            DBPPreferenceStore store = attributes.length > 0 && attributes[0].getDataSource() != null ?
+                attributes[0].getDataSource().getContainer().getPreferenceStore() :
+                DBWorkbench.getPlatform().getPreferenceStore();
+            spillManager = ResultSetSpillManager.create(store);
+        }
+        return spillManager;
+    }
+
+    private void disposeSpillManager() {
+        if (spillManager != null) {
+            spillManager.dispose();
+            spillManager = null;
+        }
+    }
+
+    private static int getRowValueCount(@NotNull List<Object[]> rows) {
+        int count = 0;
+        for (Object[] row : rows) {
+            count = Math.max(count, row.length);
+        }
+        return count;
+    }
+
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        // Spill manager is disposed after old rows release (if it was called)
+        this.disposeSpillManager();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -975,6 +1072,8 @@ public class ResultSetModel {
 
     void releaseAllData() {
         final List<ResultSetRow> oldRows = curRows;
+        final ResultSetSpillManager oldSpillManager = spillManager;
+        spillManager = null;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -982,6 +1081,9 @@ public class ResultSetModel {
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
+            if (oldSpillManager != null) {
+                oldSpillManager.dispose();
+            }
         }, "Release values", 5000);
     }
 
@@ -49,9 +49,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if row values are kept in column store
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetColumnStore store;
+    private final int storeIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -63,14 +66,67 @@ public class ResultSetRow {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
         this.values = values;
+        this.storeIndex = -1;
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnStore store, int storeIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.store = store;
+        this.storeIndex = storeIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values array. Changes in the array modify row values.
+     * Row backed by column store detaches from it and keeps its own values after that,
+     * so use {@link #getValue(int)} or {@link #copyValues()} to read values.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            values = store.getRow(storeIndex);
+            store = null;
+        }
         return values;
     }
 
+    /**
+     * Returns copy of row values. Row stays in column store.
+     */
+    @NotNull
+    public Object[] copyValues() {
+        if (values != null) {
+            return values.clone();
+        }
+        return store.getRow(storeIndex);
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        if (values != null) {
+            return values[index];
+        }
+        return store.getValue(storeIndex, index);
+    }
+
+    public int getValueCount() {
+        return values != null ? values.length : store.getColumnCount();
+    }
+
+    /**
+     * Sets value. Row detaches from column store and keeps its own values after that.
+     */
+    public void setValue(int index, @Nullable Object value) {
+        getValues()[index] = value;
+    }
+
+    public void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.store = null;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -127,8 +183,12 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
+        } else if (store != null) {
+            store.releaseRow(storeIndex);
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
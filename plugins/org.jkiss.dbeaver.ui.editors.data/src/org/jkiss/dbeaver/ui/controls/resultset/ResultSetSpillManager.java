@@ -0,0 +1,178 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Keeps result set column stores within the memory budget.
+ * <p>
+ * When total size of in-memory stores exceeds the budget the oldest loaded stores are written
+ * into a temporary file. Spilled stores are read back when their rows are accessed,
+ * so the grid, sorting and filtering keep working over spilled rows.
+ * The newest store is never spilled.
+ */
+class ResultSetSpillManager {
+
+    private static final Log log = Log.getLog(ResultSetSpillManager.class);
+
+    private static final String SPILL_FOLDER = "resultset-data";
+
+    private final long memoryLimit;
+    // Stores in load order
+    private final LinkedHashSet<ResultSetColumnStore> residentStores = new LinkedHashSet<>();
+    private long residentSize;
+
+    @Nullable
+    private Path spillFile;
+    @Nullable
+    private FileChannel spillChannel;
+    private long spillFileSize;
+    private boolean disposed;
+
+    /**
+     * @param memoryLimit memory budget in bytes
+     */
+    ResultSetSpillManager(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Creates spill manager with the memory limit from preferences. Returns null if spilling is disabled.
+     */
+    @Nullable
+    static ResultSetSpillManager create(@NotNull DBPPreferenceStore store) {
+        long memoryLimit = store.getLong(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_LIMIT);
+        return memoryLimit > 0 ? new ResultSetSpillManager(memoryLimit * 1024 * 1024) : null;
+    }
+
+    synchronized void addStore(@NotNull ResultSetColumnStore store) {
+        if (disposed) {
+            return;
+        }
+        store.setSpillManager(this);
+        storeLoaded(store);
+    }
+
+    synchronized void storeLoaded(@NotNull ResultSetColumnStore store) {
+        if (disposed) {
+            return;
+        }
+        residentStores.remove(store);
+        residentStores.add(store);
+        residentSize += store.getSpillableSize();
+        if (residentSize > memoryLimit) {
+            spillStores(store);
+        }
+    }
+
+    private void spillStores(@NotNull ResultSetColumnStore current) {
+        for (Iterator<ResultSetColumnStore> iter = residentStores.iterator(); iter.hasNext() && residentSize > memoryLimit; ) {
+            ResultSetColumnStore store = iter.next();
+            if (store == current) {
+                break;
+            }
+            long storeSize = store.getSpillableSize();
+            try {
+                store.spill(this);
+            } catch (IOException e) {
+                log.error("Error spilling result set data to disk. Keep data in memory.", e);
+                return;
+            }
+            iter.remove();
+            residentSize -= storeSize;
+        }
+    }
+
+    /**
+     * Appends data to the spill file. Returns data offset.
+     */
+    synchronized long write(@NotNull byte[] data) throws IOException {
+        if (spillChannel == null) {
+            Path folder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), SPILL_FOLDER);
+            spillFile = Files.createTempFile(folder, "rs", ".bin");
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            spillFileSize = 0;
+        }
+        long offset = spillFileSize;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            spillChannel.write(buffer, offset + buffer.position());
+        }
+        spillFileSize += data.length;
+        return offset;
+    }
+
+    /**
+     * Reads previously written data. Returns null if spill file was already disposed.
+     * Data is not memory-mapped because mapped files can't be deleted on some platforms until buffers are collected.
+     */
+    @Nullable
+    synchronized ByteBuffer read(long offset, int length) throws IOException {
+        if (spillChannel == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (spillChannel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of spill file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Closes and deletes spill file. Spilled stores can't be read after that.
+     */
+    synchronized void dispose() {
+        disposed = true;
+        residentStores.clear();
+        residentSize = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                log.debug("Error closing spill file", e);
+            }
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                log.debug("Error deleting spill file " + spillFile, e);
+            }
+            spillFile = null;
+        }
+    }
+
+}
@@ -2386,12 +2386,33 @@ public class ResultSetViewer extends Viewer
         }
         this.curRow = null;
         this.model.setData(rows);
+        updateDataState(rows.size(), focusRow);
+    }
+
+    /**
+     * Sets rows which were put in column stores during fetch
+     */
+    void setData(@NotNull List<ResultSetColumnStore> stores, int rowCount, int focusRow, @Nullable ResultSetSpillManager spillManager)
+    {
+        if (viewerPanel.isDisposed()) {
+            if (spillManager != null) {
+                spillManager.dispose();
+            }
+            return;
+        }
+        this.curRow = null;
+        this.model.setData(stores, spillManager);
+        updateDataState(rowCount, focusRow);
+    }
+
+    private void updateDataState(int rowCount, int focusRow)
+    {
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
         if (focusRow > 0 && focusRow < model.getRowCount()) {
             this.curRow = model.getRow(focusRow);
         }
         if (this.selectedRecords.length > 1) {
-            this.selectedRecords = Arrays.stream(this.selectedRecords).filter(value -> value < rows.size()).toArray();
+            this.selectedRecords = Arrays.stream(this.selectedRecords).filter(value -> value < rowCount).toArray();
             if (this.selectedRecords.length == 0) {
                 this.selectedRecords = this.curRow == null ? new int[0] : new int[]{curRow.getVisualNumber()};
             }
@@ -2407,13 +2428,13 @@ public class ResultSetViewer extends Viewer
             {
                 boolean newRecordMode;
                 if (autoRecordMode != null) {
-                    if (rows.size() <= 1) {
+                    if (rowCount <= 1) {
                         newRecordMode = autoRecordMode;
                     } else {
                         newRecordMode = false;
                     }
                 } else {
-                    newRecordMode = (rows.size() <= 1);
+                    newRecordMode = (rowCount <= 1);
                 }
                 if (newRecordMode != recordMode) {
                     UIUtils.asyncExec(this::toggleMode);
@@ -2424,12 +2445,23 @@ public class ResultSetViewer extends Viewer
 
     void appendData(List<Object[]> rows, boolean resetOldRows) {
         model.appendData(rows, resetOldRows);
+        updateAppendStatus(rows.size());
+    }
+
+    /**
+     * Appends rows which were put in column stores during fetch
+     */
+    void appendData(@NotNull List<ResultSetColumnStore> stores, int rowCount, boolean resetOldRows, @Nullable ResultSetSpillManager spillManager) {
+        model.appendStores(stores, resetOldRows, spillManager);
+        updateAppendStatus(rowCount);
+    }
 
+    private void updateAppendStatus(int rowCount) {
         UIUtils.asyncExec(() -> {
             String message = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(false);
+                rowCount) + getExecutionTimeMessage(false);
             String tooltip = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(true);
+                rowCount) + getExecutionTimeMessage(true);
             setStatus(message, DBPMessageType.INFORMATION);
             setStatusTooltip(tooltip);
             updateEditControls();
@@ -3962,7 +3994,7 @@ public class ResultSetViewer extends Viewer
                 int rowCount = model.getRowCount();
                 List<Object[]> rows = new ArrayList<>(rowCount);
                 for (int i = 0; i < rowCount; i++) {
-                    rows.add(model.getRowData(i));
+                    rows.add(model.getRow(i).copyValues());
                 }
                 for (DBDAttributeBinding attr : newAttributes) {
                     if (attr instanceof DBDAttributeBindingCustom) {
@@ -4459,7 +4491,7 @@ public class ResultSetViewer extends Viewer
                         cells = new Object[1];
 
                         if (copyCurrent && srcRowIndex >= 0 && srcRowIndex < model.getRowCount()) {
-                            final Object[] origRow = model.getRowData(srcRowIndex);
+                            final Object[] origRow = model.getRow(srcRowIndex).copyValues();
 
                             try {
                                 cells[0] = docAttribute.getValueHandler().getValueFromObject(session, docAttribute, origRow[0], true, false);
@@ -4478,7 +4510,7 @@ public class ResultSetViewer extends Viewer
                         cells = new Object[attributes.length];
 
                         if (copyCurrent && srcRowIndex >= 0 && srcRowIndex < model.getRowCount()) {
-                            final Object[] origRow = model.getRowData(srcRowIndex);
+                            final Object[] origRow = model.getRow(srcRowIndex).copyValues();
 
                             for (int index = 0; index < attributes.length; index++) {
                                 final DBDAttributeBinding metaAttr = attributes[index];
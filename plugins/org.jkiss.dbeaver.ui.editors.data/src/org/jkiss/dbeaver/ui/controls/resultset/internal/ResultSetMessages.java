@@ -327,6 +327,8 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_auto_fetch_segment_tip;
     public static String pref_page_database_resultsets_label_reread_on_scrolling;
     public static String pref_page_database_resultsets_label_reread_on_scrolling_tip;
+    public static String pref_page_database_resultsets_label_keyset_pagination;
+    public static String pref_page_database_resultsets_label_keyset_pagination_tip;
     public static String pref_page_database_resultsets_label_use_sql;
     public static String pref_page_database_resultsets_label_use_sql_tip;
     public static String pref_page_database_resultsets_label_order_mode;
@@ -357,6 +359,8 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_general_label_result_set_max_size;
     public static String pref_page_database_general_label_result_set_cancel_timeout;
     public static String pref_page_database_general_label_result_set_cancel_timeout_tip;
+    public static String pref_page_database_general_label_result_set_spill_memory_limit;
+    public static String pref_page_database_general_label_result_set_spill_memory_limit_tip;
 
     public static String pref_page_results_group_advanced;
     public static String pref_page_sql_editor_group_misc;
@@ -442,6 +446,9 @@ public class ResultSetMessages extends NLS {
     public static String aggregate_columns_reset_text;
     public static String aggregate_columns_copy_value_text;
     public static String aggregate_columns_copy_all_text;
+    public static String aggregate_columns_server_side_text;
+    public static String aggregate_columns_server_side_tip;
+    public static String aggregate_columns_calculating_text;
     public static String result_set_view_menu_text;
     public static String result_set_stat_columns;
     public static String result_set_stat_rows;
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
@@ -26,13 +28,27 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IApproximateAggregateFunction;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -41,6 +57,7 @@ import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
+import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
@@ -60,6 +77,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String SETTINGS_SECTION_AGGREGATE = "panel-" + PANEL_ID;
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
+    public static final String PARAM_RUN_SERVER_QUERIES = "runServerQueries";
+
+    // Check for cancel after this number of accumulated values
+    private static final int CANCEL_CHECK_INTERVAL = 10000;
+    // Server queries start after selection is stable for this time (ms)
+    private static final long SERVER_QUERY_DELAY = 500;
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
@@ -69,7 +92,11 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private boolean groupByColumns;
     private boolean aggregateAsStrings;
-    //private boolean runServerQueries;
+    private boolean runServerQueries;
+    private AggregateJob aggregateJob;
+    // Results of server queries by aggregate expression. Valid for the result set statistics they were calculated for
+    private final Map<String, Object> serverResults = new HashMap<>();
+    private DBCStatistics serverResultsStatistics;
 
     private IDialogSettings panelSettings;
 
@@ -130,6 +157,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void loadSettings() {
         aggregateAsStrings = panelSettings.getBoolean(PARAM_GROUP_AS_STRINGS);
         groupByColumns = panelSettings.getBoolean(PARAM_GROUP_BY_COLUMNS);
+        runServerQueries = panelSettings.getBoolean(PARAM_RUN_SERVER_QUERIES);
         IDialogSettings functionsSection = panelSettings.getSection("functions");
         if (functionsSection != null) {
             final Map<AggregateFunctionDescriptor, Integer> funcIndexes = new HashMap<>();
@@ -167,6 +195,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void saveSettings() {
         panelSettings.put(PARAM_GROUP_BY_COLUMNS, groupByColumns);
         panelSettings.put(PARAM_GROUP_AS_STRINGS, aggregateAsStrings);
+        panelSettings.put(PARAM_RUN_SERVER_QUERIES, runServerQueries);
         IDialogSettings functionsSection = UIUtils.getSettingsSection(panelSettings, "functions");
 
         for (AggregateFunctionDescriptor func : FunctionsRegistry.getInstance().getAggregateFunctions()) {
@@ -198,6 +227,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        cancelAggregation();
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -228,93 +258,125 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             ));
             featureTracked = true;
         }
-        ResultSetModel model = presentation.getController().getModel();
-        if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
+        // Only cell references are collected here. Values are read from the column stores by the aggregate job
+        Map<DBDAttributeBinding, List<ResultSetRow>> attrRows = new LinkedHashMap<>();
+        for (Object element : selection.toList()) {
+            DBDAttributeBinding attr = selection.getElementAttribute(element);
+            ResultSetRow row = selection.getElementRow(element);
+            if (attr != null && row != null) {
+                attrRows.computeIfAbsent(attr, k -> new ArrayList<>()).add(row);
             }
-
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+        }
+        List<AggregateGroup> groups = new ArrayList<>();
+        if (groupByColumns) {
+            for (Map.Entry<DBDAttributeBinding, List<ResultSetRow>> entry : attrRows.entrySet()) {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
                 attrItem.setText(entry.getKey().getName());
                 attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                groups.add(createAggregateGroup(attrItem, entry.getKey(), Map.of(entry.getKey(), entry.getValue())));
                 attrItem.setExpanded(true);
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
+            List<DBDAttributeBinding> selectedAttributes = selection.getSelectedAttributes();
+            groups.add(createAggregateGroup(
+                null,
+                selectedAttributes.size() == 1 ? selectedAttributes.get(0) : null,
+                attrRows));
+        }
+
+        boolean serverSide = false;
+        if (runServerQueries) {
+            for (AggregateGroup group : groups) {
+                if (isWholeColumnSelected(group)) {
+                    group.serverSide = true;
+                    serverSide = true;
                 }
             }
-            aggregateValues(null, allValues);
         }
+        aggregateJob = new AggregateJob(presentation.getController().getModel(), groups, aggregateAsStrings, serverSide);
+        aggregateJob.schedule(serverSide ? SERVER_QUERY_DELAY : 0);
+    }
+
+    /**
+     * Server query calculates aggregates over the whole column. Use it only if all cells of a single column are selected
+     */
+    private boolean isWholeColumnSelected(@NotNull AggregateGroup group) {
+        ResultSetModel model = presentation.getController().getModel();
+        return group.attribute != null && model.getRowCount() > 0 && group.getCellCount() == model.getRowCount();
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+    private AggregateGroup createAggregateGroup(
+        @Nullable TreeItem parentItem,
+        @Nullable DBDAttributeBinding attribute,
+        @NotNull Map<DBDAttributeBinding, List<ResultSetRow>> cells
+    ) {
+        AggregateGroup group = new AggregateGroup(attribute, cells);
+        for (AggregateFunctionDescriptor funcDesc : enabledFunctions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
             funcItem.setData(funcDesc);
             funcItem.setText(0, funcDesc.getLabel());
+            funcItem.setText(1, ResultSetMessages.aggregate_columns_calculating_text);
             DBPImage icon = funcDesc.getIcon();
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
             try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
+                group.functions.add(new AggregateFunctionItem(funcDesc, funcDesc.createFunction(), funcItem));
             } catch (DBException e) {
                 log.error(e);
             }
         }
+        return group;
+    }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
-                }
-            }
+    private void cancelAggregation() {
+        if (aggregateJob != null) {
+            aggregateJob.cancel();
+            aggregateJob = null;
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
-            }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
-                }
-                if (strValue != null) {
-                    treeItem.setText(1, strValue);
+    }
+
+    private void showAggregateResults(@NotNull List<AggregateGroup> groups) {
+        aggregateTable.setRedraw(false);
+        try {
+            for (AggregateGroup group : groups) {
+                for (AggregateFunctionItem funcItem : group.functions) {
+                    if (!funcItem.item.isDisposed()) {
+                        funcItem.item.setText(1, formatResult(funcItem));
+                    }
                 }
             }
+            UIUtils.packColumns(aggregateTable, false, null);
+        } finally {
+            aggregateTable.setRedraw(true);
+        }
+    }
+
+    @NotNull
+    private static String formatResult(@NotNull AggregateFunctionItem funcItem) {
+        Object result = funcItem.result;
+        if (result == null) {
+            return "";
         }
+        String strValue;
+        if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
+            strValue = DOUBLE_FORMAT.format(result);
+        } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
+            strValue = INTEGER_FORMAT.format(result);
+        } else {
+            strValue = result.toString();
+        }
+        if (funcItem.errorBound != null) {
+            strValue += " (" + funcItem.errorBound + ")";
+        }
+        return strValue;
     }
 
     public void clearValue()
     {
+        cancelAggregation();
         aggregateTable.removeAll();
     }
 
@@ -326,6 +388,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new GroupByColumnsAction());
         contributionManager.add(new ValueTypeToggleAction());
+        contributionManager.add(new ServerSideToggleAction());
     }
 
     private class GroupByColumnsAction extends Action {
@@ -360,6 +423,22 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class ServerSideToggleAction extends Action {
+        public ServerSideToggleAction() {
+            super(ResultSetMessages.aggregate_columns_server_side_text, IAction.AS_CHECK_BOX);
+            setToolTipText(ResultSetMessages.aggregate_columns_server_side_tip);
+            setImageDescriptor(DBeaverIcons.getImageDescriptor(DBIcon.TREE_DATABASE));
+            setChecked(runServerQueries);
+        }
+
+        @Override
+        public void run() {
+            runServerQueries = !runServerQueries;
+            setChecked(runServerQueries);
+            refresh(false);
+        }
+    }
+
     private class AddFunctionAction extends Action {
         public AddFunctionAction() {
             super(ResultSetMessages.aggregate_columns_add_function_text, DBeaverIcons.getImageDescriptor(UIIcon.ADD));
@@ -485,4 +564,222 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private static class AggregateGroup {
+        // Attribute of all values in this group, null if values of different attributes are aggregated together
+        @Nullable
+        private final DBDAttributeBinding attribute;
+        // Rows of selected cells by attribute
+        @NotNull
+        private final Map<DBDAttributeBinding, List<ResultSetRow>> cells;
+        private final List<AggregateFunctionItem> functions = new ArrayList<>();
+        // Whole column is selected, so aggregates may be calculated by server query
+        private boolean serverSide;
+
+        AggregateGroup(@Nullable DBDAttributeBinding attribute, @NotNull Map<DBDAttributeBinding, List<ResultSetRow>> cells) {
+            this.attribute = attribute;
+            this.cells = cells;
+        }
+
+        int getCellCount() {
+            int count = 0;
+            for (List<ResultSetRow> rows : cells.values()) {
+                count += rows.size();
+            }
+            return count;
+        }
+    }
+
+    private static class AggregateFunctionItem {
+        private final AggregateFunctionDescriptor descriptor;
+        private final IAggregateFunction function;
+        private final TreeItem item;
+        private boolean calculated;
+        private Object result;
+        private String errorBound;
+
+        AggregateFunctionItem(AggregateFunctionDescriptor descriptor, IAggregateFunction function, TreeItem item) {
+            this.descriptor = descriptor;
+            this.function = function;
+            this.item = item;
+        }
+    }
+
+    /**
+     * Calculates aggregates out of the UI thread
+     */
+    private class AggregateJob extends AbstractJob {
+        private final ResultSetModel model;
+        private final List<AggregateGroup> groups;
+        private final boolean aggregateAsStrings;
+        private final boolean serverSide;
+
+        AggregateJob(ResultSetModel model, List<AggregateGroup> groups, boolean aggregateAsStrings, boolean serverSide) {
+            super("Calculate aggregates");
+            setSystem(true);
+            setUser(false);
+            this.model = model;
+            this.groups = groups;
+            this.aggregateAsStrings = aggregateAsStrings;
+            this.serverSide = serverSide;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (serverSide) {
+                try {
+                    calculateOnServer(monitor);
+                } catch (DBException e) {
+                    log.debug("Error calculating aggregates on server, calculate them locally", e);
+                }
+            }
+            for (AggregateGroup group : groups) {
+                if (!calculateLocally(monitor, group)) {
+                    return Status.CANCEL_STATUS;
+                }
+            }
+            UIUtils.asyncExec(() -> {
+                if (aggregateJob != this || aggregateTable.isDisposed()) {
+                    return;
+                }
+                aggregateJob = null;
+                showAggregateResults(groups);
+            });
+            return Status.OK_STATUS;
+        }
+
+        private boolean calculateLocally(DBRProgressMonitor monitor, AggregateGroup group) {
+            List<AggregateFunctionItem> localFunctions = new ArrayList<>();
+            for (AggregateFunctionItem funcItem : group.functions) {
+                if (!funcItem.calculated) {
+                    localFunctions.add(funcItem);
+                }
+            }
+            if (localFunctions.isEmpty()) {
+                return true;
+            }
+            IAggregateFunction[] funcs = new IAggregateFunction[localFunctions.size()];
+            for (int i = 0; i < funcs.length; i++) {
+                funcs[i] = localFunctions.get(i).function;
+            }
+            int[] funcCount = new int[funcs.length];
+            int processed = 0;
+            for (Map.Entry<DBDAttributeBinding, List<ResultSetRow>> entry : group.cells.entrySet()) {
+                DBDAttributeBinding attribute = entry.getKey();
+                for (ResultSetRow row : entry.getValue()) {
+                    // Rows kept in column stores return single values without row materialization
+                    Object value = model.getCellValue(attribute, row);
+                    for (int i = 0; i < funcs.length; i++) {
+                        if (funcs[i].accumulate(value, aggregateAsStrings)) {
+                            funcCount[i]++;
+                        }
+                    }
+                    if (++processed % CANCEL_CHECK_INTERVAL == 0 && monitor.isCanceled()) {
+                        return false;
+                    }
+                }
+            }
+            for (int i = 0; i < funcs.length; i++) {
+                AggregateFunctionItem funcItem = localFunctions.get(i);
+                funcItem.calculated = true;
+                if (funcCount[i] <= 0) {
+                    continue;
+                }
+                funcItem.result = funcs[i].getResult(funcCount[i]);
+                if (funcItem.result != null && funcs[i] instanceof IApproximateAggregateFunction) {
+                    funcItem.errorBound = ((IApproximateAggregateFunction) funcs[i]).getErrorBound(funcCount[i]);
+                }
+            }
+            return true;
+        }
+
+        private void calculateOnServer(DBRProgressMonitor monitor) throws DBException {
+            IResultSetController controller = presentation.getController();
+            DBCExecutionContext executionContext = controller.getExecutionContext();
+            DBSDataContainer dataContainer = controller.getDataContainer();
+            DBCStatistics statistics = controller.getModel().getStatistics();
+            if (executionContext == null || dataContainer == null || statistics == null || CommonUtils.isEmpty(statistics.getQueryText())) {
+                return;
+            }
+            if (QMUtils.isTransactionActive(executionContext)) {
+                // Query would run in the user transaction. Its error may abort the transaction,
+                // and a separate connection would not see uncommitted changes
+                return;
+            }
+            DBPDataSource dataSource = executionContext.getDataSource();
+            SQLDialect dialect = SQLUtils.getDialectFromDataSource(dataSource);
+            if (!dialect.supportsSubqueries()) {
+                return;
+            }
+            SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+            syntaxManager.init(dialect, controller.getPreferenceStore());
+
+            List<AggregateFunctionItem> serverFunctions = new ArrayList<>();
+            List<String> serverExpressions = new ArrayList<>();
+            synchronized (serverResults) {
+                if (serverResultsStatistics != statistics) {
+                    // Data was reloaded
+                    serverResults.clear();
+                    serverResultsStatistics = statistics;
+                }
+                for (AggregateGroup group : groups) {
+                    if (!group.serverSide || group.attribute == null || group.attribute.getParentObject() != null) {
+                        // Only plain result set columns can be referenced in the query
+                        continue;
+                    }
+                    String columnName = DBUtils.getQuotedIdentifier(dataSource, group.attribute.getLabel());
+                    for (AggregateFunctionItem funcItem : group.functions) {
+                        String sqlTemplate = funcItem.descriptor.getSqlTemplate();
+                        if (CommonUtils.isEmpty(sqlTemplate)) {
+                            continue;
+                        }
+                        String expression = sqlTemplate.replace(AggregateFunctionDescriptor.VARIABLE_COLUMN, columnName);
+                        if (serverResults.containsKey(expression)) {
+                            funcItem.result = serverResults.get(expression);
+                            funcItem.calculated = true;
+                            continue;
+                        }
+                        serverFunctions.add(funcItem);
+                        serverExpressions.add(expression);
+                    }
+                }
+            }
+            if (serverFunctions.isEmpty()) {
+                return;
+            }
+            StringBuilder sql = new StringBuilder("SELECT ");
+            sql.append(String.join(", ", serverExpressions));
+            sql.append(" FROM (\n")
+                .append(SQLUtils.trimQueryStatement(syntaxManager, statistics.getQueryText(), true))
+                .append("\n) src");
+
+            try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Calculate aggregates")) {
+                try (DBCStatement dbStat = DBUtils.makeStatement(
+                    new AbstractExecutionSource(dataContainer, executionContext, AggregateColumnsPanel.this),
+                    session,
+                    DBCStatementType.SCRIPT,
+                    sql.toString(),
+                    0,
+                    0))
+                {
+                    if (dbStat.executeStatement()) {
+                        try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                            if (dbResult.nextRow()) {
+                                synchronized (serverResults) {
+                                    for (int i = 0; i < serverFunctions.size(); i++) {
+                                        AggregateFunctionItem funcItem = serverFunctions.get(i);
+                                        funcItem.result = dbResult.getAttributeValue(i);
+                                        funcItem.calculated = true;
+                                        if (serverResultsStatistics == statistics) {
+                                            serverResults.put(serverExpressions.get(i), funcItem.result);
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
 }
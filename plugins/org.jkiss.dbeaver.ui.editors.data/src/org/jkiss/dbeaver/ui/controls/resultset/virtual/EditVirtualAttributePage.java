@@ -182,7 +182,8 @@ public class EditVirtualAttributePage extends BaseObjectEditPage implements IHel
         }
         try {
             JexlExpression parsedExpression = DBVUtils.parseExpression(expression);
-            Object result = DBVUtils.evaluateDataExpression(viewer.getModel().getAttributes(), currentRow.values, parsedExpression, nameText.getText());
+            Object result = DBVUtils.evaluateDataExpression(
+                viewer.getModel().getAttributes(), currentRow.getValueCount(), currentRow::getValue, parsedExpression, nameText.getText());
 
             previewText.setText(CommonUtils.toString(result));
         } catch (Exception e) {
@@ -125,6 +125,7 @@ public class BinaryContent {
 
 
     private static final long mappedFileBufferLength = 2048 * 1024;  // for mapped file I/O
+    private static final long maxSegmentLength = Integer.MAX_VALUE;  // ByteBuffer limit
 
     private ActionHistory actions = null;  // undo/redo actions history
     private ActionHistory actionsTemp = null;
@@ -137,6 +138,7 @@ public class BinaryContent {
     private long changesPosition = -1L;
     private TreeSet<Range> ranges = new TreeSet<>();
     private Iterator<Range> tailTree = null;
+    private long modificationCount = 0L;
 
     /**
      * Create new empty content.
@@ -769,8 +771,53 @@ public class BinaryContent {
     }
 
 
+    /**
+     * Number of modifications done to this content, used to detect stale search results
+     */
+    long getModificationCount()
+    {
+        return modificationCount;
+    }
+
+
+    /**
+     * Gets read-only buffers which cover the whole content, in order.
+     * File backed parts are memory-mapped, so no data is copied. Pending changes are committed first.
+     * Returned buffers don't depend on this content state and may be read from several threads,
+     * they must not be used after the content is modified or disposed.
+     *
+     * @return content segments
+     */
+    List<ByteBuffer> mapSegments()
+        throws IOException
+    {
+        if (actions != null)
+            actions.endAction();
+        commitChanges();
+
+        List<ByteBuffer> result = new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            if (range.data instanceof ByteBuffer) {
+                ByteBuffer src = ((ByteBuffer) range.data).duplicate();
+                src.limit((int) (range.dataOffset + range.length));
+                src.position((int) range.dataOffset);
+                result.add(src.slice().asReadOnlyBuffer());
+            } else if (range.data instanceof RandomAccessFile) {
+                FileChannel channel = ((RandomAccessFile) range.data).getChannel();
+                for (long offset = 0L; offset < range.length; offset += maxSegmentLength) {
+                    long length = Math.min(maxSegmentLength, range.length - offset);
+                    result.add(channel.map(FileChannel.MapMode.READ_ONLY, range.dataOffset + offset, length));
+                }
+            }
+        }
+
+        return result;
+    }
+
+
     private void notifyListeners()
     {
+        ++modificationCount;
         if (listeners == null) return;
 
         for (ModifyListener listener : listeners) {
@@ -0,0 +1,475 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.WorkerPoolUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Searches binary content for hex or text literals.
+ * <p>
+ * Content is taken as a set of read-only buffers (file backed parts are memory-mapped, see {@link BinaryContent#mapSegments()})
+ * and split into chunks which overlap by the literal length. Chunks are searched in parallel with
+ * Boyer-Moore-Horspool algorithm. Text literals are searched as Latin-1 (when possible), UTF-16LE and UTF-16BE
+ * byte sequences at any address.
+ */
+public class BinarySearchEngine {
+
+    public static final int DEFAULT_MAX_MATCHES = 1000000;
+
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int STOP_CHECK_INTERVAL = 64 * 1024;
+    private static final int SEARCH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService SEARCH_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Binary search worker", SEARCH_THREADS);
+
+    private enum Mode {
+        FIRST,
+        LAST,
+        ALL
+    }
+
+    private final BinaryContent content;
+    private final BytePattern[] patterns;
+    private final int maxPatternLength;
+    private final int chunkSize;
+    private volatile boolean stopped;
+    private volatile long searchPosition;
+
+    BinarySearchEngine(@NotNull BinaryContent content, @NotNull List<BytePattern> patterns, int chunkSize) {
+        this.content = content;
+        this.patterns = patterns.toArray(new BytePattern[0]);
+        this.maxPatternLength = patterns.stream().mapToInt(p -> p.length).max().orElse(0);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates engine for a raw sequence of bytes
+     */
+    @NotNull
+    public static BinarySearchEngine forBytes(@NotNull BinaryContent content, @NotNull byte[] sequence) {
+        List<BytePattern> patterns = new ArrayList<>();
+        if (sequence.length > 0) {
+            patterns.add(new BytePattern(sequence, sequence, null, null));
+        }
+        return new BinarySearchEngine(content, patterns, CHUNK_SIZE);
+    }
+
+    /**
+     * Creates engine for a text literal
+     *
+     * @param caseSensitive set to false to match 'a' with 'A'
+     */
+    @NotNull
+    public static BinarySearchEngine forText(@NotNull BinaryContent content, @NotNull CharSequence literal, boolean caseSensitive) {
+        return new BinarySearchEngine(content, createTextPatterns(literal, caseSensitive), CHUNK_SIZE);
+    }
+
+    /**
+     * Finds the nearest match.
+     *
+     * @param position forward search: matches starting at this position or after it;
+     *                 backward search: matches ending at this position or before it
+     * @return an array with match position and length, or null if there are no matches or search was stopped
+     */
+    @Nullable
+    public long[] findNext(long position, boolean forward) throws IOException {
+        stopped = false;
+        Snapshot snapshot = new Snapshot(content.mapSegments());
+        long waveSize = (long) chunkSize * SEARCH_THREADS;
+        if (forward) {
+            for (long from = Math.max(0L, position); from < snapshot.length && !stopped; from += waveSize) {
+                searchPosition = from;
+                long to = Math.min(snapshot.length, from + waveSize);
+                List<long[]> matches = search(snapshot, from, to, snapshot.length, Mode.FIRST, 1);
+                if (!matches.isEmpty()) {
+                    return matches.get(0);
+                }
+            }
+        } else {
+            long limit = Math.min(position, snapshot.length);
+            for (long to = limit; to > 0L && !stopped; to -= waveSize) {
+                long from = Math.max(0L, to - waveSize);
+                searchPosition = from;
+                List<long[]> matches = search(snapshot, from, to, limit, Mode.LAST, 1);
+                if (!matches.isEmpty()) {
+                    return matches.get(matches.size() - 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds all matches in the content
+     *
+     * @param maxMatches search stops after this number of matches
+     */
+    @NotNull
+    public BinarySearchIndex findAll(int maxMatches) throws IOException {
+        stopped = false;
+        long modificationCount = content.getModificationCount();
+        Snapshot snapshot = new Snapshot(content.mapSegments());
+        long waveSize = (long) chunkSize * SEARCH_THREADS;
+        long[] positions = new long[16];
+        int[] lengths = new int[16];
+        int size = 0;
+        boolean truncated = false;
+        for (long from = 0L; from < snapshot.length; from += waveSize) {
+            if (stopped) {
+                truncated = true;
+                break;
+            }
+            searchPosition = from;
+            long to = Math.min(snapshot.length, from + waveSize);
+            // One extra match tells that the limit was exceeded
+            for (long[] match : search(snapshot, from, to, snapshot.length, Mode.ALL, maxMatches - size + 1)) {
+                if (size == maxMatches) {
+                    truncated = true;
+                    break;
+                }
+                if (size == positions.length) {
+                    positions = Arrays.copyOf(positions, size * 2);
+                    lengths = Arrays.copyOf(lengths, size * 2);
+                }
+                positions[size] = match[0];
+                lengths[size] = (int) match[1];
+                size++;
+            }
+            if (truncated) {
+                break;
+            }
+        }
+        return new BinarySearchIndex(positions, lengths, size, truncated, modificationCount);
+    }
+
+    /**
+     * Stops running search. Can be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Approximate position being searched, for progress reporting
+     */
+    public long getSearchPosition() {
+        return searchPosition;
+    }
+
+    /**
+     * Searches matches which start in [from, to) and end before limit.
+     * Range is split into chunks searched in parallel, results are ordered by position.
+     */
+    @NotNull
+    private List<long[]> search(
+        @NotNull Snapshot snapshot,
+        long from,
+        long to,
+        long limit,
+        @NotNull Mode mode,
+        int maxMatches
+    ) throws IOException {
+        if (patterns.length == 0) {
+            return List.of();
+        }
+        List<Callable<List<long[]>>> tasks = new ArrayList<>();
+        for (long chunkStart = from; chunkStart < to; chunkStart += chunkSize) {
+            long start = chunkStart;
+            long end = Math.min(to, chunkStart + chunkSize);
+            tasks.add(() -> searchChunk(snapshot, start, end, limit, mode, maxMatches));
+        }
+        List<long[]> result = new ArrayList<>();
+        try {
+            List<Future<List<long[]>>> futures = tasks.size() == 1 ?
+                List.of(CompletableFuture.completedFuture(tasks.get(0).call())) :
+                SEARCH_EXECUTOR.invokeAll(tasks);
+            for (Future<List<long[]>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Search was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error searching binary content", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error searching binary content", e);
+        }
+        if (mode == Mode.FIRST && result.size() > 1) {
+            return result.subList(0, 1);
+        }
+        if (mode == Mode.LAST && result.size() > 1) {
+            return result.subList(result.size() - 1, result.size());
+        }
+        return result;
+    }
+
+    @NotNull
+    private List<long[]> searchChunk(
+        @NotNull Snapshot snapshot,
+        long start,
+        long end,
+        long limit,
+        @NotNull Mode mode,
+        int maxMatches
+    ) {
+        // Read matches which start in this chunk but end in the next one
+        int length = (int) (Math.min(limit, end + maxPatternLength - 1) - start);
+        if (length <= 0) {
+            return List.of();
+        }
+        ByteBuffer buffer = snapshot.read(start, length);
+        int startsLimit = (int) (end - start);
+
+        List<long[]> result = new ArrayList<>();
+        for (BytePattern pattern : patterns) {
+            if (stopped) {
+                break;
+            }
+            findInBuffer(buffer, startsLimit, pattern, mode, maxMatches, start, result);
+        }
+        if (patterns.length > 1) {
+            // Several text encodings may match at one position: keep the first pattern (the shortest one)
+            result.sort((o1, o2) -> Long.compare(o1[0], o2[0]));
+            for (int i = result.size() - 1; i > 0; i--) {
+                if (result.get(i)[0] == result.get(i - 1)[0]) {
+                    result.remove(i);
+                }
+            }
+            if (mode == Mode.FIRST && result.size() > 1) {
+                return result.subList(0, 1);
+            }
+            if (mode == Mode.LAST && result.size() > 1) {
+                return result.subList(result.size() - 1, result.size());
+            }
+            if (result.size() > maxMatches) {
+                return result.subList(0, maxMatches);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search of one pattern in the buffer
+     */
+    private void findInBuffer(
+        @NotNull ByteBuffer buffer,
+        int startsLimit,
+        @NotNull BytePattern pattern,
+        @NotNull Mode mode,
+        int maxMatches,
+        long bufferPosition,
+        @NotNull List<long[]> result
+    ) {
+        final int patternLength = pattern.length;
+        final int last = patternLength - 1;
+        final int bufferLength = buffer.limit();
+        final int[] shifts = pattern.shifts;
+        long[] lastMatch = null;
+        int found = 0;
+        int checkCounter = 0;
+        for (int i = 0; i + patternLength <= bufferLength && i < startsLimit; ) {
+            byte b = buffer.get(i + last);
+            if (pattern.matches(buffer, i)) {
+                long[] match = {bufferPosition + i, patternLength};
+                if (mode == Mode.FIRST) {
+                    result.add(match);
+                    return;
+                } else if (mode == Mode.LAST) {
+                    lastMatch = match;
+                } else {
+                    result.add(match);
+                    if (++found >= maxMatches) {
+                        return;
+                    }
+                }
+            }
+            i += shifts[b & 0xFF];
+            if (++checkCounter == STOP_CHECK_INTERVAL) {
+                checkCounter = 0;
+                if (stopped) {
+                    return;
+                }
+            }
+        }
+        if (lastMatch != null) {
+            result.add(lastMatch);
+        }
+    }
+
+    @NotNull
+    private static List<BytePattern> createTextPatterns(@NotNull CharSequence literal, boolean caseSensitive) {
+        List<BytePattern> patterns = new ArrayList<>();
+        int length = literal.length();
+        if (length == 0) {
+            return patterns;
+        }
+        char[] chars = new char[length];
+        char[] upper = new char[length];
+        char[] lower = new char[length];
+        boolean latin1 = true;
+        for (int i = 0; i < length; i++) {
+            char c = literal.charAt(i);
+            chars[i] = c;
+            upper[i] = caseSensitive ? c : Character.toUpperCase(c);
+            lower[i] = caseSensitive ? c : Character.toLowerCase(c);
+            if (c > 0xFF) {
+                latin1 = false;
+            }
+        }
+
+        if (latin1) {
+            byte[] first = new byte[length];
+            byte[] second = new byte[length];
+            for (int i = 0; i < length; i++) {
+                first[i] = (byte) (upper[i] <= 0xFF ? upper[i] : chars[i]);
+                second[i] = (byte) (lower[i] <= 0xFF ? lower[i] : chars[i]);
+            }
+            patterns.add(new BytePattern(first, second, null, null));
+        }
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            byte[] first = encodeUtf16(upper, order);
+            byte[] second = encodeUtf16(lower, order);
+            // With ignore case byte alternatives of different chars could be mixed, so check chars of each match
+            patterns.add(new BytePattern(first, second, caseSensitive ? null : chars, order));
+        }
+        return patterns;
+    }
+
+    @NotNull
+    private static byte[] encodeUtf16(@NotNull char[] chars, @NotNull ByteOrder order) {
+        ByteBuffer buffer = ByteBuffer.allocate(chars.length * 2).order(order);
+        for (char c : chars) {
+            buffer.putChar(c);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Byte sequence with optional alternative byte at each position (for case-insensitive search)
+     */
+    static final class BytePattern {
+        private final byte[] first;
+        private final byte[] second;
+        private final char[] chars;
+        private final ByteOrder charOrder;
+        private final int length;
+        private final int[] shifts = new int[256];
+
+        BytePattern(@NotNull byte[] first, @NotNull byte[] second, @Nullable char[] chars, @Nullable ByteOrder charOrder) {
+            this.first = first;
+            this.second = second;
+            this.chars = chars;
+            this.charOrder = charOrder;
+            this.length = first.length;
+            Arrays.fill(shifts, length);
+            for (int i = 0; i < length - 1; i++) {
+                shifts[first[i] & 0xFF] = length - 1 - i;
+                shifts[second[i] & 0xFF] = length - 1 - i;
+            }
+        }
+
+        boolean matches(@NotNull ByteBuffer buffer, int offset) {
+            for (int i = length - 1; i >= 0; i--) {
+                byte b = buffer.get(offset + i);
+                if (b != first[i] && b != second[i]) {
+                    return false;
+                }
+            }
+            if (chars != null) {
+                for (int i = 0; i < chars.length; i++) {
+                    int b1 = buffer.get(offset + i * 2) & 0xFF;
+                    int b2 = buffer.get(offset + i * 2 + 1) & 0xFF;
+                    char c = (char) (charOrder == ByteOrder.BIG_ENDIAN ? (b1 << 8) | b2 : (b2 << 8) | b1);
+                    if (c != chars[i] &&
+                        Character.toUpperCase(c) != Character.toUpperCase(chars[i]) &&
+                        Character.toLowerCase(c) != Character.toLowerCase(chars[i])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Content buffers taken at search start
+     */
+    private static final class Snapshot {
+        private final ByteBuffer[] segments;
+        private final long[] segmentStarts;
+        private final long length;
+
+        Snapshot(@NotNull List<ByteBuffer> segments) {
+            this.segments = segments.toArray(new ByteBuffer[0]);
+            this.segmentStarts = new long[this.segments.length];
+            long position = 0L;
+            for (int i = 0; i < this.segments.length; i++) {
+                segmentStarts[i] = position;
+                position += this.segments[i].remaining();
+            }
+            this.length = position;
+        }
+
+        /**
+         * Returns buffer with content bytes [position, position + length).
+         * Data is copied only when the range crosses segment boundary.
+         */
+        @NotNull
+        ByteBuffer read(long position, int length) {
+            int index = Arrays.binarySearch(segmentStarts, position);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            ByteBuffer segment = segments[index].duplicate();
+            int offset = (int) (position - segmentStarts[index]);
+            if (offset + length <= segment.remaining()) {
+                segment.position(segment.position() + offset);
+                segment.limit(segment.position() + length);
+                return segment.slice();
+            }
+            byte[] data = new byte[length];
+            int copied = 0;
+            while (copied < length) {
+                segment.position(segment.position() + offset);
+                int part = Math.min(segment.remaining(), length - copied);
+                segment.get(data, copied, part);
+                copied += part;
+                offset = 0;
+                if (++index < segments.length) {
+                    segment = segments[index].duplicate();
+                }
+            }
+            return ByteBuffer.wrap(data);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of all matches of a literal in binary content, sorted by position.
+ * Used to jump between matches without searching the content again.
+ */
+public class BinarySearchIndex {
+
+    private final long[] positions;
+    private final int[] lengths;
+    private final int size;
+    private final boolean truncated;
+    private final long modificationCount;
+
+    BinarySearchIndex(long[] positions, int[] lengths, int size, boolean truncated, long modificationCount) {
+        this.positions = positions;
+        this.lengths = lengths;
+        this.size = size;
+        this.truncated = truncated;
+        this.modificationCount = modificationCount;
+    }
+
+    /**
+     * Number of matches
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * True if search was stopped after the maximum number of matches, so the index doesn't cover the content end
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public long getPosition(int index) {
+        return positions[index];
+    }
+
+    public int getLength(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Index of the first match which starts at the given position or after it
+     *
+     * @return match index or -1 if there are no such matches
+     */
+    public int nextIndex(long position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < size ? index : -1;
+    }
+
+    /**
+     * Index of the last match which ends at the given position or before it
+     *
+     * @return match index or -1 if there are no such matches
+     */
+    public int previousIndex(long endPosition) {
+        int index = Arrays.binarySearch(positions, 0, size, endPosition);
+        index = index < 0 ? -index - 2 : index;
+        while (index >= 0 && positions[index] + lengths[index] > endPosition) {
+            index--;
+        }
+        return index;
+    }
+
+    boolean isValidFor(BinaryContent content) {
+        return content.getModificationCount() == modificationCount;
+    }
+
+}
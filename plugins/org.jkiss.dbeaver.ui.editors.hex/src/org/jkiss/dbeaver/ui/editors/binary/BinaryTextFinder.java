@@ -18,10 +18,6 @@
 package org.jkiss.dbeaver.ui.editors.binary;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 /**
@@ -29,28 +25,24 @@ import java.util.regex.Pattern;
  * Given a literal, finds its position in the file. It is possible to get subsequent finds.
  * The search is either binary or text based. Text based search uses standard java unicode (all of big
  * and little endian, odd and even address) plus ascii when the literal falls within ascii char limits.
+ * The search itself is done by {@link BinarySearchEngine}. After {@link #findAll()} subsequent finds
+ * use the match index and don't read the content until it is modified.
  *
  * @author Jordi
  */
 public class BinaryTextFinder {
 
 
-    public static final int MAP_SIZE = 64 * 1024;
-    public static final int MAX_SEQUENCE_SIZE = 2 * 1024;  // a search string of 2K should be enough
+    public static final int MAX_SEQUENCE_SIZE = 2 * 1024;  // max selection used as initial find literal
 
-    private long bufferPosition = -1L;
-    private ByteBuffer byteBuffer = null;
-    private int currentPartFound = -1;  // relative positions
-    private boolean currentPartFoundIsUnicode = false;
     private long currentPosition = 0L;  // absolute value, start of forward finds, end(exclusive) of backward finds
     private byte[] byteFindSequence = null;
     private boolean caseSensitive = true;
     private BinaryContent content = null;
     private boolean directionForward = true;
     private CharSequence literal = null;
-    private int literalByteLength = -1;
-    private Pattern pattern = null;
-    private boolean stopSearching = false;
+    private BinarySearchEngine engine = null;
+    private BinarySearchIndex index = null;
 
 
     /**
@@ -62,10 +54,7 @@ public class BinaryTextFinder {
     public BinaryTextFinder(CharSequence literal, BinaryContent aContent)
     {
         this.literal = literal;
-        initSearchUnicodeAscii();
         content = aContent;
-        bufferPosition = 0L;
-        currentPosition = 0L;
     }
 
 
@@ -77,110 +66,64 @@ public class BinaryTextFinder {
      */
     public BinaryTextFinder(byte[] sequence, BinaryContent aContent)
     {
-        initSearchHex(sequence);
+        byteFindSequence = sequence;
         content = aContent;
-        bufferPosition = 0L;
-        currentPosition = 0L;
     }
 
 
-    void findAllMatches()
-        throws IOException
+    long getContentLength()
     {
-        currentPartFound = findHexAsciiMatchInPart();
-        int currentPartFoundUnicode = findUnicodeMatchInPart();
-        currentPartFoundIsUnicode = false;
-
-        if (currentPartFoundUnicode >= 0 && (currentPartFound < 0 ||
-            directionForward && currentPartFound > currentPartFoundUnicode ||
-            !directionForward && currentPartFound < currentPartFoundUnicode)) {
-            currentPartFound = currentPartFoundUnicode;
-            currentPartFoundIsUnicode = true;
+        if (content == null) {
+            return 0L;
         }
+
+        return content.length();
     }
 
 
-    private int findHexAsciiMatchInPart()
-        throws IOException
+    BinarySearchEngine getEngine()
     {
-        if (byteFindSequence == null) return -1;
-
-        int start = 0;
-        int inclusiveEnd = byteBuffer.limit() - byteFindSequence.length;
-        if (!directionForward) {
-            start = inclusiveEnd;
-            inclusiveEnd = 0;
-        }
-
-        for (int i = start;
-            directionForward && i <= inclusiveEnd || !directionForward && i >= inclusiveEnd;
-            i += directionForward ? 1 : -1)
-        {
-            boolean matchesSoFar = true;
-            for (int j = 0; j < byteFindSequence.length && matchesSoFar; ++j) {
-                byte existing = byteBuffer.get(i + j);
-                byte matcher = byteFindSequence[j];
-                if (existing != matcher) {
-                    if (caseSensitive || existing < 'A' || existing > 'z' || matcher < 'A' ||
-                        matcher > 'z' || existing - matcher != 32 && matcher - existing != 32)
-                        matchesSoFar = false;
-                }
-            }
-            if (matchesSoFar) {
-                return i;
+        if (engine == null) {
+            if (literal != null) {
+                engine = BinarySearchEngine.forText(content, literal, caseSensitive);
+            } else {
+                engine = BinarySearchEngine.forBytes(content, byteFindSequence);
             }
         }
 
-        return -1;
+        return engine;
     }
 
 
-    private int findUnicodeMatchInPart()
+    /**
+     * Find all matches in the content. Subsequent {@link #getNextMatch()} calls will use found matches
+     * while the content is not modified.
+     *
+     * @return match index
+     */
+    public BinarySearchIndex findAll()
         throws IOException
     {
-        if (pattern == null) return -1;
+        if (content == null) return null;
 
-        int result = Integer.MAX_VALUE;
-        if (!directionForward) {
-            result = -1;
-        }
-        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        Matcher matcher = pattern.matcher(byteBuffer.asCharBuffer());
-
-        for (int encoding = 0; encoding < 4; ++encoding) {
-            while (matcher.find()) {
-                int index = matcher.start() * 2 + (encoding >= 2 ? 1 : 0);
-                if (directionForward && result > index || !directionForward && result < index) {
-                    result = index;
-                }
-                if (directionForward) {
-                    break;
-                }
-            }
-            if (encoding == 0) {
-                byteBuffer.order(ByteOrder.BIG_ENDIAN);
-            } else if (encoding == 1 && byteBuffer.limit() > 0) {
-                byteBuffer.position(1);
-            } else if (encoding == 2) {
-                byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            }
-            matcher.reset(byteBuffer.asCharBuffer());
-        }
-        if (result == Integer.MAX_VALUE) {
-            result = -1;
-        }
+        index = getEngine().findAll(BinarySearchEngine.DEFAULT_MAX_MATCHES);
 
-        return result;
+        return index;
     }
 
 
-    long getContentLength()
+    /**
+     * Get the last index built by {@link #findAll()}
+     *
+     * @return match index or null if it wasn't built or the content was modified after that
+     */
+    public BinarySearchIndex getIndex()
     {
-        if (content == null) {
-            return 0L;
+        if (index != null && !index.isValidFor(content)) {
+            index = null;
         }
 
-        return content.length();
+        return index;
     }
 
 
@@ -194,36 +137,37 @@ public class BinaryTextFinder {
     public Number[] getNextMatch()
         throws IOException
     {
-        stopSearching = false;
-        populatePart();
-        findAllMatches();
-
-        while (currentPartFound < 0) { // end of part
-            if (nextPart() == null || stopSearching) {
-                stopSearching = false;
-                return null;  // end of file
-            }
-            findAllMatches();
+        if (content == null) return null;
+
+        long[] match = findInIndex();
+        if (match == null) {
+            match = getEngine().findNext(currentPosition, directionForward);
+        }
+        if (match == null) {
+            return null;  // end of file
         }
 
-        long resultPosition = bufferPosition + currentPartFound;
-        int length = currentPartFoundIsUnicode ? literalByteLength : byteFindSequence.length;
+        long resultPosition = match[0];
+        int length = (int) match[1];
         setNewStart(resultPosition + (directionForward ? 1 : length - 1));
 
         return new Number[]{resultPosition, length};
     }
 
 
-    void initSearchHex(byte[] sequence)
+    private long[] findInIndex()
     {
-        byteFindSequence = sequence;
-
-        if (sequence.length > MAX_SEQUENCE_SIZE) {
-            byteFindSequence = new byte[MAX_SEQUENCE_SIZE];
-            System.arraycopy(sequence, 0, byteFindSequence, 0, MAX_SEQUENCE_SIZE);
+        BinarySearchIndex matches = getIndex();
+        if (matches == null || (matches.isTruncated() && !directionForward)) {
+            return null;
+        }
+        int i = directionForward ? matches.nextIndex(currentPosition) : matches.previousIndex(currentPosition);
+        if (i < 0) {
+            // Truncated index doesn't contain matches after its end
+            return null;
         }
 
-        literalByteLength = byteFindSequence.length;
+        return new long[]{matches.getPosition(i), matches.getLength(i)};
     }
 
 
@@ -234,99 +178,7 @@ public class BinaryTextFinder {
      */
     public long getSearchPosition()
     {
-        return bufferPosition;
-    }
-
-
-    void initSearchUnicodeAscii()
-    {
-        StringBuilder regex = new StringBuilder("\\Q");  // everything-quoted regular expression
-
-        if (literal.length() * 2 > MAX_SEQUENCE_SIZE)  // 16 bit Unicode chars
-            literal = literal.subSequence(0, MAX_SEQUENCE_SIZE / 2);
-        literalByteLength = literal.length() * 2;
-
-        boolean isAsciiCompatible = true;
-        byte[] tmpBytes = new byte[literal.length()];
-        char previous = '\0';
-        for (int i = 0; i < literal.length(); ++i) {
-            char aChar = literal.charAt(i);
-            regex.append(aChar);
-
-            if (previous == '\\' && aChar == 'E')
-                regex.append("\\\\E\\Q");
-
-            previous = aChar;
-
-            tmpBytes[i] = (byte) aChar;
-            if (aChar > 255) isAsciiCompatible = false;
-        }
-        regex.append("\\E");
-
-        int ignoreCaseFlags = 0;
-        if (!caseSensitive) ignoreCaseFlags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
-        pattern = Pattern.compile(regex.toString(), ignoreCaseFlags);
-
-        if (isAsciiCompatible)
-            byteFindSequence = tmpBytes;
-    }
-
-
-    ByteBuffer nextPart()
-        throws IOException
-    {
-        long newPos = bufferPosition + byteBuffer.limit() - literalByteLength + 1L;
-        if (!directionForward)
-            newPos = bufferPosition - MAP_SIZE + literalByteLength - 1L;
-        if (newPos < 0L)
-            newPos = 0L;
-
-        int size = (int) Math.min(MAP_SIZE, getContentLength() - newPos);
-        if (!directionForward)
-            size = (int) (bufferPosition + literalByteLength - 1L - newPos);
-
-        if (size < literalByteLength)
-            return null;
-        bufferPosition = newPos;
-        populatePart(size);
-
-        return byteBuffer;
-    }
-
-
-    void populatePart()
-        throws IOException
-    {
-        int size = MAP_SIZE;
-        if (!directionForward) {
-            size = (int) Math.min(MAP_SIZE, currentPosition);
-        }
-        populatePart(size);
-    }
-
-
-    void populatePart(int size)
-        throws IOException
-    {
-        if (content == null) return;
-
-        byteBuffer = null;  // multiple FileChannel.read(byteBuffer) leak memory, so don't reuse buffer
-        byteBuffer = ByteBuffer.allocate(MAP_SIZE);
-//	if (byteBuffer == null)
-//		byteBuffer = ByteBuffer.allocate(MAP_SIZE);
-        byteBuffer.limit(size);
-        byteBuffer.position(0);
-//	try {
-        content.get(byteBuffer, bufferPosition);
-//	} catch (OutOfMemoryError e) {
-//		byteBuffer = null;
-//		byteBuffer = ByteBuffer.allocate(MAP_SIZE);
-        //	byteBuffer.limit(size);
-        //byteBuffer.position(0);
-        //content.get(byteBuffer, myCurrentPosition);
-        //}
-        byteBuffer.limit(byteBuffer.position());
-        byteBuffer.position(0);
+        return engine == null ? currentPosition : engine.getSearchPosition();
     }
 
 
@@ -340,8 +192,10 @@ public class BinaryTextFinder {
         if (caseSensitive == beSensitive) return;
 
         caseSensitive = beSensitive;
-        if (literal != null)
-            initSearchUnicodeAscii();
+        if (literal != null) {
+            engine = null;
+            index = null;
+        }
     }
 
 
@@ -367,12 +221,6 @@ public class BinaryTextFinder {
             return;
 
         currentPosition = startPoint;
-        bufferPosition = startPoint;
-        if (!directionForward) {
-            bufferPosition = startPoint - MAP_SIZE;
-        }
-        if (bufferPosition < 0L)
-            bufferPosition = 0L;
     }
 
 
@@ -381,6 +229,9 @@ public class BinaryTextFinder {
      */
     public void stopSearching()
     {
-        stopSearching = true;
+        BinarySearchEngine searchEngine = engine;
+        if (searchEngine != null) {
+            searchEngine.stop();
+        }
     }
 }
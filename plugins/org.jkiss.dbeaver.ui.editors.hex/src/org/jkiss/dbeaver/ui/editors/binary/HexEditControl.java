@@ -1129,6 +1129,38 @@ public class HexEditControl extends Composite {
     }
 
 
+    /**
+     * Finds all matches of the literal. Subsequent finds with the same literal and options jump between
+     * found matches without searching the content again, until it is modified.
+     *
+     * @param findString  the literal to find
+     * @param isHexString consider the literal as an hex string
+     * @param ignoreCase  match upper case with lower case characters
+     * @return match index
+     */
+    public BinarySearchIndex findAll(String findString, boolean isHexString, boolean ignoreCase)
+        throws IOException
+    {
+        if (findString == null) return null;
+
+        initFinder(findString, isHexString, true, ignoreCase);
+        final BinaryTextFinder allFinder = finder;
+        final Object[] result = new Object[2];
+        HexManager.blockUntilFinished(() -> {
+            try {
+                result[0] = allFinder.findAll();
+            } catch (IOException e) {
+                result[1] = e;
+            }
+        });
+        if (result[1] != null) {
+            throw (IOException) result[1];
+        }
+
+        return (BinarySearchIndex) result[0];
+    }
+
+
     private boolean findAndSelectInternal(String findString, boolean isHexString, boolean searchForward,
                                           boolean ignoreCase, boolean updateGui)
         throws IOException
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.ui.editors.binary.dialogs;
 
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.*;
 import org.eclipse.swt.graphics.FontMetrics;
@@ -23,6 +24,7 @@ import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.*;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.dbeaver.ui.editors.binary.BinarySearchIndex;
 import org.jkiss.dbeaver.ui.editors.binary.BinaryTextFinder;
 import org.jkiss.dbeaver.ui.editors.binary.HexEditControl;
 import org.jkiss.dbeaver.ui.editors.binary.HexManager;
@@ -55,10 +57,12 @@ public class FindReplaceDialog extends Dialog {
     private static final String textDirection = BinaryEditorMessages.dialog_find_replace_direction;
     private static final String textError = BinaryEditorMessages.dialog_find_replace_error_;
     private static final String textFind = BinaryEditorMessages.dialog_find_replace_find;
+    private static final String textFindAll = BinaryEditorMessages.dialog_find_replace_find_all;
     private static final String textFindLiteral = BinaryEditorMessages.dialog_find_replace_find_literal;
     private static final String textFindReplace = BinaryEditorMessages.dialog_find_replace_find_replace;
     private static final String textForward = BinaryEditorMessages.dialog_find_replace_forward;
     private static final String textFoundLiteral = BinaryEditorMessages.dialog_find_replace_found_literal;
+    private static final String textFoundMatches = BinaryEditorMessages.dialog_find_replace_found_matches;
     private static final String textHex = "Hex"; //$NON-NLS-1$
     private static final String textIgnoreCase = BinaryEditorMessages.dialog_find_replace_ignore_case;
     private static final String textLiteralNotFound = BinaryEditorMessages.dialog_find_replace_literal_not_found;
@@ -107,6 +111,7 @@ public class FindReplaceDialog extends Dialog {
     private Button checkBox = null;
     private Composite findReplaceButtonsComposite = null;
     private Button findButton = null;
+    private Button findAllButton = null;
     private Button replaceFindButton = null;
     private Button replaceButton = null;
     private Button replaceAllButton = null;
@@ -406,6 +411,17 @@ public class FindReplaceDialog extends Dialog {
                 doFind();
             }
         });
+        findAllButton = new Button(findReplaceButtonsComposite, SWT.NONE);
+        findAllButton.setLayoutData(new GridData(SWT.FILL, SWT.BEGINNING, true, false));
+        findAllButton.setText(textFindAll);
+        findAllButton.addSelectionListener(defaultSelectionAdapter);
+        findAllButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e)
+            {
+                doFindAll();
+            }
+        });
         replaceFindButton = new Button(findReplaceButtonsComposite, SWT.NONE);
         replaceFindButton.setLayoutData(new GridData(SWT.FILL, SWT.BEGINNING, true, false));
         replaceFindButton.setText(textReplaceFind);
@@ -644,6 +660,28 @@ public class FindReplaceDialog extends Dialog {
     }
 
 
+    private void doFindAll()
+    {
+        prepareToRun();
+        progressCancelButton.setText(textStop);
+        String message = textLiteralNotFound;
+        String literal = findGroup.textCombo.getText();
+        if (editControl != null && literal.length() > 0) {
+            try {
+                BinarySearchIndex index = editControl.findAll(literal, findGroup.hexRadioButton.getSelection(),
+                                                              checkBox.getSelection());
+                if (index != null && index.size() > 0) {
+                    message = NLS.bind(textFoundMatches, index.isTruncated() ? index.size() + "+" : index.size()); //$NON-NLS-1$
+                }
+            }
+            catch (IOException e) {
+                message = textError + e;
+            }
+        }
+        endOfRun(message);
+    }
+
+
     private void doReplaceAll()
     {
         prepareToRun();
@@ -681,6 +719,7 @@ public class FindReplaceDialog extends Dialog {
         checkBox.setEnabled(!searching);
 
         findButton.setEnabled(!searching);
+        findAllButton.setEnabled(!searching);
         replaceFindButton.setEnabled(!searching);
         replaceButton.setEnabled(!searching);
         replaceAllButton.setEnabled(!searching);
@@ -693,6 +732,7 @@ public class FindReplaceDialog extends Dialog {
 
         boolean somethingToFind = findGroup.textCombo.getText().length() > 0;
         findButton.setEnabled(somethingToFind);
+        findAllButton.setEnabled(somethingToFind);
         replaceAllButton.setEnabled(somethingToFind);
         long selectionLength = 0L;
         if (editControl != null) {
@@ -28,6 +28,8 @@ public class BinaryEditorMessages extends NLS {
 	public static String dialog_find_replace_direction;
 	public static String dialog_find_replace_error_;
 	public static String dialog_find_replace_find;
+	public static String dialog_find_replace_find_all;
+	public static String dialog_find_replace_found_matches;
 	public static String dialog_find_replace_find_literal;
 	public static String dialog_find_replace_find_replace;
 	public static String dialog_find_replace_copy;
@@ -25,6 +25,9 @@ import org.eclipse.jface.text.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -32,6 +35,7 @@ import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
 import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorUtils;
@@ -39,7 +43,10 @@ import org.jkiss.dbeaver.ui.editors.sql.semantics.OffsetKeyedTreeMap.NodesIterat
 import org.jkiss.dbeaver.ui.editors.sql.semantics.model.SQLQuerySelectionModel;
 import org.jkiss.dbeaver.utils.ListNode;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SQLBackgroundParsingJob {
 
@@ -47,7 +54,77 @@ public class SQLBackgroundParsingJob {
     private static final boolean DEBUG = false;
 
     private static final long schedulingTimeoutMilliseconds = 500;
-    
+    private static final int recognizedModelsCacheCapacity = 1024;
+
+    /**
+     * Per-pass timing and reuse counters of the background analysis
+     */
+    public static class ParsingStatistics {
+        private final AtomicLong passesCount = new AtomicLong();
+        private final AtomicLong canceledPassesCount = new AtomicLong();
+        private final AtomicLong analyzedElementsCount = new AtomicLong();
+        private final AtomicLong reusedModelsCount = new AtomicLong();
+        private final AtomicLong unchangedElementsCount = new AtomicLong();
+        private final AtomicLong totalSplitTime = new AtomicLong();
+        private final AtomicLong totalAnalysisTime = new AtomicLong();
+        private volatile long lastSplitTime;
+        private volatile long lastAnalysisTime;
+
+        public long getPassesCount() {
+            return passesCount.get();
+        }
+
+        public long getCanceledPassesCount() {
+            return canceledPassesCount.get();
+        }
+
+        /**
+         * Number of script elements which were parsed and resolved from scratch
+         */
+        public long getAnalyzedElementsCount() {
+            return analyzedElementsCount.get();
+        }
+
+        /**
+         * Number of script elements which got already recognized query model for the same text
+         */
+        public long getReusedModelsCount() {
+            return reusedModelsCount.get();
+        }
+
+        /**
+         * Number of script elements which were already registered in the syntax context as is
+         */
+        public long getUnchangedElementsCount() {
+            return unchangedElementsCount.get();
+        }
+
+        public long getTotalSplitTime() {
+            return totalSplitTime.get();
+        }
+
+        public long getTotalAnalysisTime() {
+            return totalAnalysisTime.get();
+        }
+
+        public long getLastSplitTime() {
+            return lastSplitTime;
+        }
+
+        public long getLastAnalysisTime() {
+            return lastAnalysisTime;
+        }
+
+        @Override
+        public String toString() {
+            return "passes=" + getPassesCount() + " (canceled " + getCanceledPassesCount() + ")" +
+                ", analyzed=" + getAnalyzedElementsCount() +
+                ", reused=" + getReusedModelsCount() +
+                ", unchanged=" + getUnchangedElementsCount() +
+                ", last split=" + lastSplitTime + "ms, last analysis=" + lastAnalysisTime + "ms";
+        }
+    }
+
     private static class QueuedRegionInfo {
         public int length;
         
@@ -67,6 +144,22 @@ public class SQLBackgroundParsingJob {
     private volatile boolean isRunning = false;
     private volatile int knownRegionStart = 0;
     private volatile int knownRegionEnd = 0;
+
+    // query models of the recently analyzed script elements, keyed by element text,
+    // valid only for the execution context and metadata they were resolved against
+    private final Map<String, SQLQuerySelectionModel> recognizedModels = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SQLQuerySelectionModel> eldest) {
+            return this.size() > recognizedModelsCacheCapacity;
+        }
+    };
+    private DBCExecutionContext recognizedModelsExecutionContext = null;
+    private boolean recognizedModelsReadMetadata = false;
+    // registered script items were resolved against outdated metadata, so they should be analyzed again
+    private boolean recognizedModelsOutdated = false;
+    private DBPDataSourceRegistry listenedRegistry = null;
+    private final DBPEventListener metadataListener = this::handleMetadataEvent;
+    private final ParsingStatistics statistics = new ParsingStatistics();
     
     private final DocumentLifecycleListener documentListener = new DocumentLifecycleListener();
 
@@ -78,6 +171,11 @@ public class SQLBackgroundParsingJob {
         return context;
     }
 
+    @NotNull
+    public ParsingStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Setup job - add listeners, schedule
      */
@@ -104,6 +202,7 @@ public class SQLBackgroundParsingJob {
     public void dispose() {
         synchronized (this.syncRoot) {
             this.cancel();
+            this.listenMetadataChanges(null);
             TextViewer textViewer = this.editor.getTextViewer();
             if (textViewer != null) {
                 textViewer.removeViewportListener(this.documentListener);
@@ -222,20 +321,23 @@ public class SQLBackgroundParsingJob {
                 return;
             }
 
-            // TODO should we really schedule a new task each time this method called? or maybe at least cancel it at first
-            this.task = new AbstractJob("Background parsing job") {
+            // coalesce subsequent edits: the pending task is dropped, so only the last one in a burst will actually run
+            this.cancel();
+            AbstractJob newTask = new AbstractJob("Background parsing job") {
                 @Override
                 protected IStatus run(DBRProgressMonitor monitor) {
                     try {
-                        SQLBackgroundParsingJob.this.doWork();
-                        return Status.OK_STATUS;
+                        SQLBackgroundParsingJob.this.doWork(this, monitor);
+                        return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
                     } catch (BadLocationException e) {
                         log.debug(e);
                         return Status.CANCEL_STATUS;
                     }
                 }
             };
-            this.task.schedule(schedulingTimeoutMilliseconds * (this.isRunning ? 2 : 1));
+            newTask.setSystem(true);
+            this.task = newTask;
+            newTask.schedule(schedulingTimeoutMilliseconds * (this.isRunning ? 2 : 1));
         }
     }
 
@@ -265,13 +367,111 @@ public class SQLBackgroundParsingJob {
         synchronized (this.syncRoot) {
             this.context.clear();
             this.queuedForReparse.clear();
+            this.recognizedModels.clear();
             this.knownRegionEnd = 0;
             this.knownRegionStart = 0;
             this.ensureVisibleRangeIsParsed();
         }
     }
 
-    private void doWork() throws BadLocationException {
+    private boolean isCanceled(@NotNull AbstractJob job, @NotNull DBRProgressMonitor monitor) {
+        return monitor.isCanceled() || job.isCanceled();
+    }
+
+    private void listenMetadataChanges(@Nullable DBPDataSourceRegistry registry) {
+        synchronized (this.syncRoot) {
+            if (this.listenedRegistry == registry) {
+                return;
+            }
+            if (this.listenedRegistry != null) {
+                this.listenedRegistry.removeDataSourceListener(this.metadataListener);
+            }
+            this.listenedRegistry = registry;
+            if (registry != null) {
+                registry.addDataSourceListener(this.metadataListener);
+            }
+        }
+    }
+
+    private void handleMetadataEvent(@NotNull DBPEvent event) {
+        DBSObject object = event.getObject();
+        if (object == null) {
+            return;
+        }
+        synchronized (this.syncRoot) {
+            DBCExecutionContext executionContext = this.recognizedModelsExecutionContext;
+            if (executionContext == null ||
+                (object != executionContext.getDataSource().getContainer() && object.getDataSource() != executionContext.getDataSource())
+            ) {
+                return;
+            }
+            // objects were loaded, refreshed or removed, so resolved symbols may be outdated
+            this.recognizedModels.clear();
+            this.recognizedModelsOutdated = true;
+            if (this.knownRegionEnd > this.knownRegionStart) {
+                this.enqueueToReparse(this.knownRegionStart, this.knownRegionEnd - this.knownRegionStart);
+            }
+        }
+        this.schedule(null);
+    }
+
+    /**
+     * Prepares query models cache for the analysis pass.
+     * Returns true if registered script items are outdated and should be analyzed again.
+     */
+    private boolean prepareQueryModels(@Nullable DBCExecutionContext executionContext, boolean isReadMetadataForQueryAnalysis) {
+        this.listenMetadataChanges(executionContext == null ? null : executionContext.getDataSource().getContainer().getRegistry());
+        synchronized (this.syncRoot) {
+            boolean outdated = this.recognizedModelsOutdated;
+            this.recognizedModelsOutdated = false;
+            if (this.recognizedModelsExecutionContext != executionContext ||
+                this.recognizedModelsReadMetadata != isReadMetadataForQueryAnalysis
+            ) {
+                // symbols were resolved against another context, so nothing could be reused
+                this.recognizedModels.clear();
+                this.recognizedModelsExecutionContext = executionContext;
+                this.recognizedModelsReadMetadata = isReadMetadataForQueryAnalysis;
+                outdated = true;
+            }
+            return outdated;
+        }
+    }
+
+    @Nullable
+    private SQLQuerySelectionModel obtainQueryModel(
+        @Nullable DBCExecutionContext executionContext,
+        boolean isReadMetadataForQueryAnalysis,
+        @NotNull String text
+    ) {
+        synchronized (this.syncRoot) {
+            SQLQuerySelectionModel queryModel = this.recognizedModels.get(text);
+            if (queryModel != null) {
+                this.statistics.reusedModelsCount.incrementAndGet();
+                return queryModel;
+            }
+        }
+
+        SQLQueryModelRecognizer recognizer = new SQLQueryModelRecognizer(executionContext, isReadMetadataForQueryAnalysis);
+        SQLQuerySelectionModel queryModel = recognizer.recognizeQuery(text);
+        this.statistics.analyzedElementsCount.incrementAndGet();
+        if (queryModel != null) {
+            synchronized (this.syncRoot) {
+                if (this.recognizedModelsExecutionContext == executionContext && !this.recognizedModelsOutdated) {
+                    this.recognizedModels.put(text, queryModel);
+                }
+            }
+        }
+        return queryModel;
+    }
+
+    private boolean isAlreadyRegistered(@NotNull SQLScriptElement element) {
+        SQLDocumentSyntaxContext.ScriptItemAtOffset scriptItem = this.context.findScriptItem(element.getOffset());
+        return scriptItem != null && scriptItem.offset == element.getOffset() &&
+            scriptItem.item.length() == element.getLength() &&
+            scriptItem.item.getOriginalText().equals(element.getOriginalText());
+    }
+
+    private void doWork(@NotNull AbstractJob job, @NotNull DBRProgressMonitor jobMonitor) throws BadLocationException {
         TextViewer viewer = editor.getTextViewer();
         if (viewer == null || this.editor.getRuleManager() == null) {
             return;
@@ -294,7 +494,12 @@ public class SQLBackgroundParsingJob {
         int workLength;
         try {
             synchronized (this.syncRoot) {
-                this.task = null;
+                if (this.isCanceled(job, jobMonitor)) {
+                    return;
+                }
+                if (this.task == job) {
+                    this.task = null;
+                }
                 this.isRunning = true;
                 
                 int stepsToKeep = 2;
@@ -354,10 +559,14 @@ public class SQLBackgroundParsingJob {
             return;
         }
         IProgressMonitor monitor = Job.getJobManager().createProgressGroup();
+        long passStartTime = System.currentTimeMillis();
+        boolean canceled = false;
+        boolean reanalyze = false;
         try {
             if (workLength == 0) {
                 return;
             }
+            this.statistics.passesCount.incrementAndGet();
             
             SQLParserContext parserContext = new SQLParserContext(this.editor.getDataSource(), this.editor.getSyntaxManager(), this.editor.getRuleManager(), this.document);
             List<SQLScriptElement> elements = SQLScriptParser.extractScriptQueries(parserContext, workOffset, workLength, false, false, false);
@@ -391,21 +600,36 @@ public class SQLBackgroundParsingJob {
                     log.debug("parsing " + workOffset + "+" + workLength);
                 }
             }
+            long splitTime = System.currentTimeMillis() - passStartTime;
+            this.statistics.lastSplitTime = splitTime;
+            this.statistics.totalSplitTime.addAndGet(splitTime);
 
             boolean isReadMetadataForQueryAnalysis = this.editor.isReadMetadataForQueryAnalysisEnabled();
             DBCExecutionContext executionContext = this.editor.getExecutionContext();
+            reanalyze = this.prepareQueryModels(executionContext, isReadMetadataForQueryAnalysis);
             
             monitor.beginTask("Background query analysis", 1 + elements.size());
             monitor.worked(1);
             
+            long analysisStartTime = System.currentTimeMillis();
             int i = 1;
             for (SQLScriptElement element : elements) {
-                if (monitor.isCanceled()) {
+                if (monitor.isCanceled() || this.isCanceled(job, jobMonitor)) {
+                    canceled = true;
                     break;
                 }
                 try {
-                    SQLQueryModelRecognizer recognizer = new SQLQueryModelRecognizer(executionContext, isReadMetadataForQueryAnalysis);
-                    SQLQuerySelectionModel queryModel = recognizer.recognizeQuery(element.getOriginalText());
+                    if (!reanalyze && this.isAlreadyRegistered(element)) {
+                        // neither text nor position changed, so keep the existing item with its tokens
+                        this.statistics.unchangedElementsCount.incrementAndGet();
+                        monitor.worked(1);
+                        continue;
+                    }
+                    SQLQuerySelectionModel queryModel = this.obtainQueryModel(
+                        executionContext,
+                        isReadMetadataForQueryAnalysis,
+                        element.getOriginalText()
+                    );
                 
                     if (queryModel != null) {
                         if (DEBUG) {
@@ -429,6 +653,12 @@ public class SQLBackgroundParsingJob {
                 monitor.setTaskName("Background query analysis: subtask #" + (i++));
             }
             this.context.resetLastAccessCache();
+            long analysisTime = System.currentTimeMillis() - analysisStartTime;
+            this.statistics.lastAnalysisTime = analysisTime;
+            this.statistics.totalAnalysisTime.addAndGet(analysisTime);
+            if (DEBUG) {
+                log.debug("background analysis statistics: " + this.statistics);
+            }
         } catch (Throwable ex) {
             log.debug(ex);
         } finally {
@@ -439,6 +669,15 @@ public class SQLBackgroundParsingJob {
         int parsedLength = workLength;
         
         synchronized (this.syncRoot) {
+            if (canceled) {
+                // the rest of the region will be picked up by the next pass
+                this.statistics.canceledPassesCount.incrementAndGet();
+                this.recognizedModelsOutdated |= reanalyze;
+                int remainingLength = Math.min(parsedLength, this.document.getLength() - parsedOffset);
+                if (remainingLength > 0) {
+                    this.enqueueToReparse(parsedOffset, remainingLength);
+                }
+            }
             this.knownRegionStart = Math.min(this.knownRegionStart, parsedOffset);
             this.knownRegionEnd = Math.max(this.knownRegionEnd, parsedOffset + parsedLength);
             if (DEBUG) {
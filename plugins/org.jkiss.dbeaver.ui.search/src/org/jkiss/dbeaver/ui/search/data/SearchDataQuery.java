@@ -36,12 +36,11 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
-import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.*;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -55,11 +54,25 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
-
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches data in tables.
+ * <p>
+ * Tables of different data sources are searched in parallel. Tables of the same data source are searched
+ * by up to {@link SearchDataParams#getMaxParallelSearches()} workers, each with its own isolated execution context.
+ * Found objects are added to the search result as soon as a table is searched.
+ */
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    public static final int DEFAULT_PARALLEL_SEARCHES = 4;
+
+    private static final int SEARCH_THREADS = 16;
+    private static final ExecutorService SEARCH_EXECUTOR = WorkerPoolUtils.createDaemonExecutor("Data search", SEARCH_THREADS);
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
 
@@ -98,9 +111,9 @@ public class SearchDataQuery implements ISearchQuery {
             String searchString = params.getSearchString();
 
             //monitor.subTask("Collect tables");
-            Set<DBPDataSource> dataSources = new HashSet<>();
+            Map<DBPDataSource, List<DBSDataContainer>> dataSources = new LinkedHashMap<>();
             for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+                dataSources.computeIfAbsent(searcher.getDataSource(), ds -> new ArrayList<>()).add(searcher);
             }
 
             // Search
@@ -108,21 +121,13 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            int totalObjects;
 
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
-                    }
-                    monitor.worked(1);
-                }
+                totalObjects = searchInDataSources(monitor, dbnModel, dataSources);
             } finally {
                 monitor.done();
             }
@@ -135,7 +140,117 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    private int searchInDataSources(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull Map<DBPDataSource, List<DBSDataContainer>> dataSources)
+    {
+        final AtomicInteger totalObjects = new AtomicInteger();
+        final List<WorkerProgressMonitor> workerMonitors = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        for (Map.Entry<DBPDataSource, List<DBSDataContainer>> entry : dataSources.entrySet()) {
+            final Queue<DBSDataContainer> containers = new ConcurrentLinkedQueue<>(entry.getValue());
+            final int workerCount = getWorkerCount(entry.getKey(), entry.getValue().size());
+            for (int i = 0; i < workerCount; i++) {
+                WorkerProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+                workerMonitors.add(workerMonitor);
+                futures.add(SEARCH_EXECUTOR.submit(() -> {
+                    int foundObjects = searchInContainers(workerMonitor, dbnModel, containers, workerCount > 1);
+                    totalObjects.addAndGet(foundObjects);
+                }));
+            }
+        }
+        waitForWorkers(monitor, workerMonitors, futures);
+        return totalObjects.get();
+    }
+
+    private int getWorkerCount(@Nullable DBPDataSource dataSource, int containerCount) {
+        if (dataSource == null || dataSource.getContainer().getDriver().isEmbedded()) {
+            // Embedded databases may not support concurrent connections
+            return 1;
+        }
+        final int maxParallelSearches = params.maxParallelSearches > 0 ? params.maxParallelSearches : DEFAULT_PARALLEL_SEARCHES;
+        return Math.max(1, Math.min(maxParallelSearches, containerCount));
+    }
+
+    /**
+     * Searches in containers of a single data source until the queue is empty.
+     * Isolated contexts are opened once per database instance and are reused for all containers of the worker.
+     */
+    private int searchInContainers(
+        @NotNull WorkerProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull Queue<DBSDataContainer> containers,
+        boolean isolatedContexts)
+    {
+        final Map<DBSInstance, DBCExecutionContext> contexts = new HashMap<>();
+        int foundObjects = 0;
+        try {
+            for (DBSDataContainer dataContainer = containers.poll(); dataContainer != null; dataContainer = containers.poll()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                DBCExecutionContext context = null;
+                if (isolatedContexts) {
+                    DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+                    if (!contexts.containsKey(instance)) {
+                        contexts.put(instance, openSearchContext(monitor, instance, dataContainer));
+                    }
+                    context = contexts.get(instance);
+                }
+                if (searchDataInContainer(monitor, dbnModel, dataContainer, context)) {
+                    foundObjects++;
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            for (DBCExecutionContext context : contexts.values()) {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+        return foundObjects;
+    }
+
+    @Nullable
+    private DBCExecutionContext openSearchContext(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSInstance instance,
+        @NotNull DBSDataContainer dataContainer)
+    {
+        try {
+            return instance.openIsolatedContext(monitor, "Data search", DBUtils.getDefaultContext(dataContainer, false));
+        } catch (DBException e) {
+            // Search in the default context then
+            log.debug("Can't open isolated context for data search: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void waitForWorkers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<WorkerProgressMonitor> workerMonitors,
+        @NotNull List<Future<?>> futures)
+    {
+        for (Future<?> future : futures) {
+            try {
+                WorkerPoolUtils.waitForResult(monitor, future, workerMonitors);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Error searching data", e.getCause());
+            }
+        }
+    }
+
+    private boolean searchDataInContainer(
+        @NotNull WorkerProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBCExecutionContext context)
+    {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -149,7 +264,11 @@ public class SearchDataQuery implements ISearchQuery {
         monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        String sessionTitle = "Search rows in " + objectName;
+        try (DBCSession session = context == null ?
+            DBUtils.openUtilSession(searchMonitor, dataContainer, sessionTitle) :
+            context.openSession(searchMonitor, DBCExecutionPurpose.UTIL, sessionTitle))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -161,7 +280,9 @@ public class SearchDataQuery implements ISearchQuery {
 
             if (dataReceiver.rowCount > 0) {
                 SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
+                synchronized (searchResult) {
+                    searchResult.addObjects(Collections.singletonList(object));
+                }
                 return true;
             }
         } catch (DBCException e) {
@@ -295,7 +416,8 @@ public class SearchDataQuery implements ISearchQuery {
             }
             dataReceiver.filter.setAnyConstraint(true);
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0, 0);
+            // Row limit lets the database stop scanning as soon as enough rows are found
+            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, 0, params.maxResults, 0, 0);
         } catch (DBException e) {
             throw new DBCException("Error finding rows", e);
         }
@@ -331,12 +453,15 @@ public class SearchDataQuery implements ISearchQuery {
         return dataFilter;
     }
 
+    /**
+     * Hides progress of a single table search. Running queries are registered in the worker monitor.
+     */
     private class SearchTableMonitor extends VoidProgressMonitor {
 
-        private DBRProgressMonitor baseMonitor;
+        private final WorkerProgressMonitor baseMonitor;
         private volatile boolean canceled;
 
-        private SearchTableMonitor(DBRProgressMonitor monitor) {
+        private SearchTableMonitor(WorkerProgressMonitor monitor) {
             this.baseMonitor = monitor;
         }
 
@@ -344,6 +469,21 @@ public class SearchDataQuery implements ISearchQuery {
         public boolean isCanceled() {
             return canceled || baseMonitor.isCanceled();
         }
+
+        @Override
+        public void startBlock(DBRBlockingObject object, String taskName) {
+            baseMonitor.startBlock(object, taskName);
+        }
+
+        @Override
+        public void endBlock() {
+            baseMonitor.endBlock();
+        }
+
+        @Override
+        public List<DBRBlockingObject> getActiveBlocks() {
+            return baseMonitor.getActiveBlocks();
+        }
     }
 
     private class TestDataReceiver implements DBDDataReceiver {
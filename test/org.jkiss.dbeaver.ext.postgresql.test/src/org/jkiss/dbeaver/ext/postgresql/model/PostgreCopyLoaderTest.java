@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class PostgreCopyLoaderTest {
+
+    @Test
+    public void testRowBufferEscaping() {
+        PostgreCopyLoader.CopyRowBuffer buffer = new PostgreCopyLoader.CopyRowBuffer(4);
+        buffer.appendPlain("42");
+        buffer.append((byte) ',');
+        buffer.appendQuoted("say \"hi\" to C:\\temp");
+        buffer.append((byte) '\n');
+        Assert.assertEquals("42,\"say \\\"hi\\\" to C:\\\\temp\"\n", toString(buffer));
+    }
+
+    @Test
+    public void testRowBufferUnicode() {
+        PostgreCopyLoader.CopyRowBuffer buffer = new PostgreCopyLoader.CopyRowBuffer(1);
+        String value = "Привет, 世界 \uD83D\uDE00";
+        buffer.appendQuoted(value);
+        Assert.assertEquals('"' + value + '"', toString(buffer));
+    }
+
+    @Test
+    public void testRowBufferReuse() {
+        PostgreCopyLoader.CopyRowBuffer buffer = new PostgreCopyLoader.CopyRowBuffer(16);
+        buffer.appendQuoted("first row");
+        buffer.reset();
+        Assert.assertEquals(0, buffer.size());
+        buffer.appendQuoted("second");
+        Assert.assertEquals("\"second\"", toString(buffer));
+    }
+
+    private static String toString(PostgreCopyLoader.CopyRowBuffer buffer) {
+        return new String(buffer.getBuffer(), 0, buffer.size(), StandardCharsets.UTF_8);
+    }
+}
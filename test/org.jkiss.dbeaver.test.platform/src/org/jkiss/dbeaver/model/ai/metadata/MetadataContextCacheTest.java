@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MetadataContextCacheTest {
+    @Mock
+    private DBSObjectContainer schema1;
+    @Mock
+    private DBSObjectContainer schema2;
+    @Mock
+    private IAIFormatter formatter;
+
+    private DBSEntity table1;
+    private DBSEntity table2;
+    private DBSEntity table3;
+    private MetadataContextCache cache;
+
+    @Before
+    public void init() {
+        table1 = createEntity(schema1);
+        table2 = createEntity(schema1);
+        table3 = createEntity(schema2);
+        // Objects without data source get a private cache
+        cache = MetadataContextCache.getCache(schema1);
+        for (DBSEntity entity : List.of(table1, table2, table3)) {
+            // First read binds cache to the formatter
+            Assert.assertNull(cache.getDescription(entity, formatter));
+            cache.putDescription(entity, formatter, new MetadataContextCache.EntityDescription("(id);"));
+        }
+        cache.putContainerEntities(schema1, List.of(table1, table2));
+        cache.putContainerEntities(schema2, List.of(table3));
+    }
+
+    @Test
+    public void invalidateEntity() {
+        cache.invalidate(table1);
+        Assert.assertNull(cache.getDescription(table1, formatter));
+        Assert.assertNotNull(cache.getDescription(table2, formatter));
+        Assert.assertNotNull(cache.getDescription(table3, formatter));
+        // Entity may be renamed or dropped
+        Assert.assertNull(cache.getContainerEntities(schema1));
+        Assert.assertNull(cache.getContainerEntities(schema2));
+    }
+
+    @Test
+    public void invalidateAttribute() {
+        DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(attribute.getParentObject()).thenReturn(table2);
+
+        cache.invalidate(attribute);
+        Assert.assertNotNull(cache.getDescription(table1, formatter));
+        Assert.assertNull(cache.getDescription(table2, formatter));
+        // Set of entities didn't change
+        Assert.assertEquals(List.of(table1, table2), cache.getContainerEntities(schema1));
+        Assert.assertEquals(List.of(table3), cache.getContainerEntities(schema2));
+    }
+
+    @Test
+    public void invalidateContainer() {
+        cache.invalidate(schema1);
+        Assert.assertNull(cache.getDescription(table1, formatter));
+        Assert.assertNull(cache.getDescription(table2, formatter));
+        Assert.assertNotNull(cache.getDescription(table3, formatter));
+        Assert.assertNull(cache.getContainerEntities(schema1));
+        Assert.assertNull(cache.getContainerEntities(schema2));
+    }
+
+    private static DBSEntity createEntity(DBSObjectContainer container) {
+        DBSEntity entity = Mockito.mock(DBSEntity.class);
+        Mockito.lenient().when(entity.getParentObject()).thenReturn(container);
+        return entity;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MetadataProcessorTest {
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private DBPDataSourceRegistry registry;
+    @Mock
+    private DBPProject project;
+    @Mock
+    private DBNModel navigatorModel;
+    @Mock
+    private SQLDialect dialect;
+    @Mock
+    private IAIFormatter formatter;
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+
+    @Before
+    public void init() {
+        Mockito.lenient().when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.lenient().when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.lenient().when(dialect.getQuotedIdentifier(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(), ArgumentMatchers.anyBoolean()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(dataSourceContainer.getRegistry()).thenReturn(registry);
+        Mockito.lenient().when(registry.getProject()).thenReturn(project);
+        Mockito.lenient().when(project.getNavigatorModel()).thenReturn(navigatorModel);
+        // All entities are visible in navigator
+        Mockito.lenient().when(navigatorModel.getNodeByObject(
+            ArgumentMatchers.any(DBRProgressMonitor.class),
+            ArgumentMatchers.any(DBSObject.class),
+            ArgumentMatchers.anyBoolean())).thenReturn(Mockito.mock(DBNDatabaseNode.class));
+    }
+
+    @Test
+    public void rankEntitiesByRequestWords() throws Exception {
+        DBSEntity orders = createEntity("orders");
+        DBSEntity customers = createEntity("customers");
+        DBSEntity audit = createEntity("audit");
+        DBSEntity customerOrders = createEntity("customer_orders");
+        List<DBSEntity> entities = List.of(audit, customers, orders, customerOrders);
+
+        List<DBSEntity> ranked = MetadataProcessor.rankEntities(entities, Set.of("orders", "customer"));
+        // Exact name match first, then by the number of partially matched words, then the rest
+        Assert.assertEquals(List.of(orders, customerOrders, customers, audit), ranked);
+
+        Assert.assertSame(entities, MetadataProcessor.rankEntities(entities, Set.of()));
+        Assert.assertSame(entities, MetadataProcessor.rankEntities(entities, Set.of("invoice")));
+    }
+
+    @Test
+    public void relevanceScore() {
+        Assert.assertEquals(100, MetadataProcessor.getRelevanceScore("orders", Set.of("orders", "order")));
+        Assert.assertEquals(10, MetadataProcessor.getRelevanceScore("orders", Set.of("order")));
+        Assert.assertEquals(20, MetadataProcessor.getRelevanceScore("customer_orders", Set.of("order", "customer")));
+        // Short words and names are not matched partially
+        Assert.assertEquals(0, MetadataProcessor.getRelevanceScore("ord", Set.of("orders")));
+        Assert.assertEquals(0, MetadataProcessor.getRelevanceScore("orders", Set.of("ord")));
+        Assert.assertEquals(0, MetadataProcessor.getRelevanceScore("orders", Set.of("users")));
+    }
+
+    @Test
+    public void fillTokenBudget() throws Exception {
+        DBSObjectContainer container = createContainer(
+            createEntity("t1", "a", "b"),
+            createEntity("t2", "c"),
+            createEntity("t3", "d"));
+        String t1 = "\nt1(a,b);";
+        String t2 = "\nt2(c);";
+        String t3 = "\nt3(d);";
+
+        Assert.assertEquals(t1 + t2 + t3, describe(container, 1000));
+        Assert.assertEquals(t1 + t2, describe(container, getTokens("t1", "(a,b);") + getTokens("t2", "(c);")));
+        Assert.assertEquals(t1, describe(container, getTokens("t1", "(a,b);") + getTokens("t2", "(c);") - 1));
+        Assert.assertEquals("", describe(container, 0));
+    }
+
+    @Test
+    public void stopAtFirstEntityOverBudget() throws Exception {
+        DBSObjectContainer container = createContainer(
+            createEntity("t1", "a"),
+            createEntity("t2", "long_attribute_name_1", "long_attribute_name_2", "long_attribute_name_3"),
+            createEntity("t3", "b"));
+        int budget = getTokens("t1", "(a);") + getTokens("t3", "(b);");
+        // Entity after the one which doesn't fit is not added even if it fits itself
+        Assert.assertEquals("\nt1(a);", describe(container, budget));
+    }
+
+    private String describe(DBSObjectContainer container, int maxTokens) throws Exception {
+        return MetadataProcessor.INSTANCE.generateObjectDescription(monitor, container, null, formatter, maxTokens, false);
+    }
+
+    private static int getTokens(String name, String body) {
+        return MetadataContextCache.estimateTokens(name) + MetadataContextCache.estimateTokens(body) + 1;
+    }
+
+    private DBSObjectContainer createContainer(DBSEntity... entities) throws Exception {
+        // Container without data source gets its own cache
+        DBSObjectContainer container = Mockito.mock(DBSObjectContainer.class);
+        Mockito.lenient().when(container.getName()).thenReturn("schema");
+        Mockito.doReturn(List.of(entities)).when(container).getChildren(ArgumentMatchers.any(DBRProgressMonitor.class));
+        return container;
+    }
+
+    private DBSEntity createEntity(String name, String... attributeNames) throws DBException {
+        DBSEntity entity = Mockito.mock(DBSEntity.class);
+        Mockito.lenient().when(entity.getName()).thenReturn(name);
+        Mockito.lenient().when(entity.getDataSource()).thenReturn(dataSource);
+        List<DBSEntityAttribute> attributes = new ArrayList<>();
+        for (String attributeName : attributeNames) {
+            DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+            Mockito.lenient().when(attribute.getName()).thenReturn(attributeName);
+            attributes.add(attribute);
+        }
+        Mockito.lenient().doReturn(attributes).when(entity).getAttributes(ArgumentMatchers.any(DBRProgressMonitor.class));
+        return entity;
+    }
+}
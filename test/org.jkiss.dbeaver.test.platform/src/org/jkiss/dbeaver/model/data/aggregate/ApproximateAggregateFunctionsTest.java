@@ -0,0 +1,90 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ApproximateAggregateFunctionsTest {
+
+    private static final int VALUE_COUNT = 200000;
+
+    @Test
+    public void countDistinctIsWithinErrorBound() {
+        FunctionCountDistinctApprox func = new FunctionCountDistinctApprox();
+        Set<Integer> distinct = new HashSet<>();
+        Random random = new Random(1);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            int value = random.nextInt(VALUE_COUNT);
+            distinct.add(value);
+            func.accumulate(value, false);
+        }
+        long estimate = (Long) func.getResult(VALUE_COUNT);
+        // 4 standard errors
+        Assert.assertEquals(distinct.size(), estimate, distinct.size() * 0.035);
+        Assert.assertNotNull(func.getErrorBound(VALUE_COUNT));
+    }
+
+    @Test
+    public void countDistinctTreatsEqualNumbersAsSame() {
+        FunctionCountDistinctApprox func = new FunctionCountDistinctApprox();
+        func.accumulate(1, false);
+        func.accumulate(1L, false);
+        func.accumulate(1.0, false);
+        func.accumulate("a", false);
+        Assert.assertEquals(2L, func.getResult(4));
+    }
+
+    @Test
+    public void countDistinctSkipsNulls() {
+        FunctionCountDistinctApprox func = new FunctionCountDistinctApprox();
+        Assert.assertFalse(func.accumulate(null, false));
+        Assert.assertTrue(func.accumulate("a", false));
+        Assert.assertEquals(1L, func.getResult(1));
+    }
+
+    @Test
+    public void quantilesAreWithinRankError() {
+        FunctionMedianApprox median = new FunctionMedianApprox();
+        FunctionPercentile90Approx percentile90 = new FunctionPercentile90Approx();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // Uniform permutation of 0..VALUE_COUNT-1 so that value equals its rank
+            int value = (int) ((i * 7919L) % VALUE_COUNT);
+            median.accumulate(value, false);
+            percentile90.accumulate(String.valueOf(value), false);
+        }
+        Assert.assertFalse(median.accumulate("not a number", false));
+        double rankError = VALUE_COUNT * 0.02;
+        Assert.assertEquals(VALUE_COUNT * 0.5, (Double) median.getResult(VALUE_COUNT), rankError);
+        Assert.assertEquals(VALUE_COUNT * 0.9, (Double) percentile90.getResult(VALUE_COUNT), rankError);
+    }
+
+    @Test
+    public void modeFindsFrequentValue() {
+        FunctionModeApprox func = new FunctionModeApprox();
+        Random random = new Random(3);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            func.accumulate(i % 4 == 0 ? "frequent" : String.valueOf(random.nextInt(VALUE_COUNT)), false);
+        }
+        Assert.assertEquals("frequent", func.getResult(VALUE_COUNT));
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+
+public class JDBCObjectCacheSnapshotTest {
+
+    private static final String[] LABELS = {"relname", "oid", "relhasoids", "relacl", "reltuples", "created", "description", "data"};
+    private static final int[] TYPES = {Types.VARCHAR, Types.BIGINT, Types.BIT, Types.ARRAY, Types.NUMERIC, Types.TIMESTAMP, Types.VARCHAR, Types.BINARY};
+
+    @Test
+    public void readRecordedValues() throws Exception {
+        Timestamp created = Timestamp.valueOf("2023-05-01 10:20:30.123456789");
+        Object[] values = {
+            "table1", 16384L, Boolean.TRUE, createArray(new String[]{"postgres=arwdDxt/postgres", "=r/postgres"}),
+            new BigDecimal("1234.5"), created, null, new byte[]{1, 2, 3}
+        };
+        String[] strings = {
+            "table1", "16384", "t", "{postgres=arwdDxt/postgres,=r/postgres}", "1234.5", "2023-05-01 10:20:30.123456789", null, "\\x010203"
+        };
+
+        JDBCObjectCacheSnapshot.Recorder recorder = new JDBCObjectCacheSnapshot.Recorder("fp1");
+        recorder.recordRow(createResultSet(values, strings));
+        JDBCObjectCacheSnapshot snapshot = recorder.makeSnapshot();
+        Assert.assertNotNull(snapshot);
+
+        Path file = Files.createTempFile("dbeaver-test", ".snapshot");
+        try {
+            snapshot.write(file);
+            JDBCObjectCacheSnapshot readSnapshot = JDBCObjectCacheSnapshot.read(file, "fp1");
+            Assert.assertNotNull(readSnapshot);
+            Assert.assertEquals(1, readSnapshot.getRowCount());
+
+            try (ResultSet resultSet = readSnapshot.openRawResultSet()) {
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals("table1", resultSet.getString("relname"));
+                Assert.assertEquals(16384L, resultSet.getObject("oid"));
+                Assert.assertEquals(16384L, resultSet.getLong("oid"));
+                Assert.assertEquals(16384, resultSet.getInt(2));
+                Assert.assertEquals(Boolean.TRUE, resultSet.getObject("relhasoids"));
+                Assert.assertTrue(resultSet.getBoolean("relhasoids"));
+                Assert.assertEquals("t", resultSet.getString("relhasoids"));
+
+                Object acl = resultSet.getObject("relacl");
+                Assert.assertTrue(acl instanceof Array);
+                Object aclItems = ((Array) acl).getArray();
+                Assert.assertTrue(aclItems instanceof String[]);
+                Assert.assertArrayEquals(new String[]{"postgres=arwdDxt/postgres", "=r/postgres"}, (String[]) aclItems);
+                Assert.assertEquals("aclitem", ((Array) acl).getBaseTypeName());
+                Assert.assertEquals("{postgres=arwdDxt/postgres,=r/postgres}", resultSet.getString("relacl"));
+
+                Assert.assertEquals(new BigDecimal("1234.5"), resultSet.getObject("reltuples"));
+                Assert.assertEquals(1234.5, resultSet.getDouble("reltuples"), 0.0);
+                Assert.assertEquals(created, resultSet.getObject("created"));
+                Assert.assertEquals(created, resultSet.getTimestamp("created"));
+
+                Assert.assertNull(resultSet.getObject("description"));
+                Assert.assertTrue(resultSet.wasNull());
+                Assert.assertArrayEquals(new byte[]{1, 2, 3}, resultSet.getBytes("data"));
+                Assert.assertFalse(resultSet.wasNull());
+
+                Assert.assertFalse(resultSet.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectFingerprintMismatch() throws Exception {
+        JDBCObjectCacheSnapshot.Recorder recorder = new JDBCObjectCacheSnapshot.Recorder("fp1");
+        recorder.recordRow(createResultSet(
+            new Object[]{"table1", 1L, false, null, BigDecimal.ONE, null, "desc", null},
+            new String[]{"table1", "1", "f", null, "1", null, "desc", null}));
+        JDBCObjectCacheSnapshot snapshot = recorder.makeSnapshot();
+        Assert.assertNotNull(snapshot);
+
+        Path file = Files.createTempFile("dbeaver-test", ".snapshot");
+        try {
+            snapshot.write(file);
+            Assert.assertNull(JDBCObjectCacheSnapshot.read(file, "fp2"));
+            Assert.assertNotNull(JDBCObjectCacheSnapshot.read(file, "fp1"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void skipUnsupportedValues() {
+        JDBCObjectCacheSnapshot.Recorder recorder = new JDBCObjectCacheSnapshot.Recorder("fp1");
+        recorder.recordRow(createResultSet(
+            new Object[]{"table1", 1L, false, null, BigDecimal.ONE, null, new StringBuilder("desc"), null},
+            new String[]{"table1", "1", "f", null, "1", null, "desc", null}));
+        Assert.assertNull(recorder.makeSnapshot());
+    }
+
+    @Test
+    public void keepDriverObjectsAsStrings() throws Exception {
+        // Like pg_class.* row: xid and pg_node_tree values are PGobject, aclitem[] is an array of PGobject
+        String[] labels = {"relname", "relfrozenxid", "relpartbound", "relacl"};
+        int[] types = {Types.VARCHAR, Types.OTHER, Types.OTHER, Types.ARRAY};
+        Object[] values = {
+            "table1", new DriverObject("726"), new DriverObject("{PARTITIONBOUNDSPEC}"),
+            createArray(new Object[]{new DriverObject("postgres=arwdDxt/postgres")})
+        };
+        String[] strings = {"table1", "726", "{PARTITIONBOUNDSPEC}", "{postgres=arwdDxt/postgres}"};
+
+        JDBCObjectCacheSnapshot.Recorder recorder = new JDBCObjectCacheSnapshot.Recorder("fp1");
+        recorder.recordRow(createResultSet(labels, types, values, strings));
+        JDBCObjectCacheSnapshot snapshot = recorder.makeSnapshot();
+        Assert.assertNotNull(snapshot);
+
+        Path file = Files.createTempFile("dbeaver-test", ".snapshot");
+        try {
+            snapshot.write(file);
+            JDBCObjectCacheSnapshot readSnapshot = JDBCObjectCacheSnapshot.read(file, "fp1");
+            Assert.assertNotNull(readSnapshot);
+
+            try (ResultSet resultSet = readSnapshot.openRawResultSet()) {
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals("table1", resultSet.getString("relname"));
+                Assert.assertEquals("726", resultSet.getString("relfrozenxid"));
+                Assert.assertEquals("726", resultSet.getObject("relfrozenxid"));
+                Assert.assertEquals("{PARTITIONBOUNDSPEC}", resultSet.getString("relpartbound"));
+                Assert.assertEquals("{postgres=arwdDxt/postgres}", resultSet.getString("relacl"));
+                Assert.assertFalse(resultSet.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static ResultSet createResultSet(Object[] values, String[] strings) {
+        return createResultSet(LABELS, TYPES, values, strings);
+    }
+
+    private static ResultSet createResultSet(String[] labels, int[] types, Object[] values, String[] strings) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+            JDBCObjectCacheSnapshotTest.class.getClassLoader(),
+            new Class[]{ResultSetMetaData.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                        return labels[(Integer) args[0] - 1];
+                    case "getColumnType":
+                        return types[(Integer) args[0] - 1];
+                    case "getColumnTypeName":
+                        return JDBCType.valueOf(types[(Integer) args[0] - 1]).getName();
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCObjectCacheSnapshotTest.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getMetaData":
+                        return metaData;
+                    case "getObject":
+                        return values[(Integer) args[0] - 1];
+                    case "getString":
+                        return strings[(Integer) args[0] - 1];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static Array createArray(Object[] items) {
+        return (Array) Proxy.newProxyInstance(
+            JDBCObjectCacheSnapshotTest.class.getClassLoader(),
+            new Class[]{Array.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getArray":
+                        return items.clone();
+                    case "getBaseType":
+                        return Types.OTHER;
+                    case "getBaseTypeName":
+                        return "aclitem";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    /**
+     * Driver specific value, like PGobject
+     */
+    private static class DriverObject {
+        private final String value;
+
+        DriverObject(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
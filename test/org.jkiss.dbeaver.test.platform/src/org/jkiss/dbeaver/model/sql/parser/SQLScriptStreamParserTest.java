@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLDialectMetadataRegistry;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptStreamParserTest {
+    @Mock
+    private JDBCDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private JDBCDatabaseMetaData databaseMetaData;
+    @Mock
+    private DBPDriver driver;
+
+    @Before
+    public void init() {
+        DBPConnectionConfiguration connectionConfiguration = new DBPConnectionConfiguration();
+        DBPPreferenceStore preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.lenient().when(dataSourceContainer.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.lenient().when(dataSourceContainer.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.lenient().when(dataSourceContainer.getDriver()).thenReturn(driver);
+    }
+
+    @Test
+    public void parseSplitAtEveryPosition() throws Exception {
+        setDialect("postgresql");
+        String script = "create table t1 (id int, name varchar(100));\n" +
+            "insert into t1 values (1, 'a;b');\n" +
+            "-- comment; with delimiter\n" +
+            "do $$\nbegin\n\tinsert into t1 values (2, 'c');\nend $$;\n" +
+            "select * from t1 where name = 'x'\n;\n" +
+            "delete from t1";
+        assertSameAsFullParse(script);
+    }
+
+    @Test
+    public void parseOracleBlocks() throws Exception {
+        setDialect("oracle");
+        String script = "BEGIN\n" +
+            "    BEGIN\n" +
+            "    END;\n" +
+            "END;\n" +
+            "DECLARE\n" +
+            "    text VARCHAR(10);\n" +
+            "BEGIN\n" +
+            "    text := 'hello;';\n" +
+            "END;\n" +
+            "select 1 from dual;\n";
+        assertSameAsFullParse(script);
+    }
+
+    private void assertSameAsFullParse(String script) throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (SQLScriptElement element : SQLScriptParser.parseScript(dataSource, script)) {
+            expected.add(element.getText());
+        }
+        Assert.assertFalse(expected.isEmpty());
+        for (int chunkSize = 1; chunkSize <= script.length() + 1; chunkSize++) {
+            Assert.assertEquals("Chunk size " + chunkSize, expected, streamParse(script, chunkSize));
+        }
+    }
+
+    private List<String> streamParse(String script, int chunkSize) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(dataSource, new StringReader(script), chunkSize)) {
+            for (SQLScriptElement element = parser.nextElement(); element != null; element = parser.nextElement()) {
+                result.add(element.getText());
+            }
+        }
+        return result;
+    }
+
+    private void setDialect(String name) throws DBException {
+        SQLDialectMetadataRegistry registry = DBWorkbench.getPlatform().getSQLDialectRegistry();
+        if (name.equals("oracle")) {
+            Mockito.when(dataSource.isServerVersionAtLeast(12, 1)).thenReturn(true);
+        }
+        SQLDialect dialect = registry.getDialect(name).createInstance();
+        ((JDBCSQLDialect) dialect).initDriverSettings(session, dataSource, databaseMetaData);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+    }
+}
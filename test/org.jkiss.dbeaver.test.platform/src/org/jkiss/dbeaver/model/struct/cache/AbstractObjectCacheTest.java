@@ -0,0 +1,186 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AbstractObjectCacheTest {
+
+    @Test
+    public void testLookup() {
+        TestCache cache = new TestCache();
+        Assert.assertNull(cache.getCachedObject("t1"));
+        Assert.assertEquals(0, cache.getCacheSize());
+
+        cache.setCache(List.of(new TestObject("t1"), new TestObject("t2")));
+        Assert.assertEquals("t1", cache.getCachedObject("t1").getName());
+        Assert.assertNull(cache.getCachedObject("T1"));
+
+        cache.cacheObject(new TestObject("t3"));
+        Assert.assertEquals("t3", cache.getCachedObject("t3").getName());
+        Assert.assertEquals(3, cache.getCacheSize());
+
+        TestObject t2 = cache.getCachedObject("t2");
+        cache.removeObject(t2, false);
+        Assert.assertNull(cache.getCachedObject("t2"));
+        Assert.assertEquals(2, cache.getCacheSize());
+    }
+
+    @Test
+    public void testCaseInsensitiveLookup() {
+        TestCache cache = new TestCache();
+        cache.setCaseSensitive(false);
+        cache.setCache(List.of(new TestObject("Table1")));
+        Assert.assertEquals("Table1", cache.getCachedObject("TABLE1").getName());
+        Assert.assertEquals("Table1", cache.getCachedObject("table1").getName());
+    }
+
+    @Test
+    public void testDuplicateNames() {
+        TestCache cache = new TestCache();
+        TestObject first = new TestObject("t1");
+        cache.setCache(List.of(first, new TestObject("t1")));
+        // First object wins
+        Assert.assertSame(first, cache.getCachedObject("t1"));
+        Assert.assertEquals(2, cache.getCacheSize());
+    }
+
+    @Test
+    public void testMergeKeepsOldObjects() {
+        TestCache cache = new TestCache();
+        TestObject oldT1 = new TestObject("t1");
+        cache.setCache(List.of(oldT1, new TestObject("t2")));
+        cache.merge(List.of(new TestObject("t1"), new TestObject("t3")));
+
+        Assert.assertSame(oldT1, cache.getCachedObject("t1"));
+        Assert.assertNull(cache.getCachedObject("t2"));
+        Assert.assertNotNull(cache.getCachedObject("t3"));
+        Assert.assertEquals(2, cache.getCacheSize());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        TestCache cache = new TestCache();
+        cache.setCache(List.of(new TestObject("t1"), new TestObject("t2"), new TestObject("t3")));
+        Assert.assertNotNull(cache.getCachedObject("t2"));
+        for (Iterator<TestObject> iter = cache.iterator(); iter.hasNext(); ) {
+            if (iter.next().getName().equals("t2")) {
+                iter.remove();
+            }
+        }
+        Assert.assertNull(cache.getCachedObject("t2"));
+        Assert.assertEquals(2, cache.getCachedObjects().size());
+    }
+
+    @Test
+    public void testSnapshot() {
+        TestCache cache = new TestCache();
+        cache.setCache(List.of(new TestObject("t1")));
+        List<TestObject> snapshot = cache.getCachedObjects();
+        Assert.assertSame(snapshot, cache.getCachedObjects());
+
+        cache.cacheObject(new TestObject("t2"));
+        // Old snapshot is not changed by cache modification
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertEquals(2, cache.getCachedObjects().size());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> cache.getCachedObjects().add(new TestObject("t3")));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            objects.add(new TestObject("t" + i));
+        }
+        cache.setCache(objects);
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    // Iteration must not fail while cache is modified
+                    for (TestObject object : cache.getCachedObjects()) {
+                        Assert.assertNotNull(object.getName());
+                    }
+                    Assert.assertNotNull(cache.getCachedObject("t" + (i % 500)));
+                }
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 1000; i < 2000; i++) {
+            cache.cacheObject(new TestObject("t" + i));
+        }
+        reader.join();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(2000, cache.getCacheSize());
+        Assert.assertNotNull(cache.getCachedObject("t1999"));
+    }
+
+    private static class TestCache extends SimpleObjectCache<DBSObject, TestObject> {
+        void merge(List<TestObject> objects) {
+            mergeCache(objects);
+        }
+
+        Iterator<TestObject> iterator() {
+            return new CacheIterator();
+        }
+    }
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+
+        TestObject(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QMEventHistoryTest {
+
+    @Test
+    public void snapshotIteratesNewestFirst() {
+        QMEventHistory history = new QMEventHistory(10);
+        List<QMMetaEvent> events = makeEvents(3);
+        history.addAll(events);
+
+        QMEventHistory.Snapshot snapshot = history.snapshot();
+        Assert.assertEquals(3, snapshot.size());
+        Assert.assertEquals(List.of(events.get(2), events.get(1), events.get(0)), toList(snapshot));
+    }
+
+    @Test
+    public void oldEventsAreOverwritten() {
+        QMEventHistory history = new QMEventHistory(3);
+        List<QMMetaEvent> events = makeEvents(5);
+        history.addAll(events.subList(0, 2));
+        history.addAll(events.subList(2, 5));
+
+        List<QMMetaEvent> snapshotEvents = toList(history.snapshot());
+        Assert.assertEquals(List.of(events.get(4), events.get(3), events.get(2)), snapshotEvents);
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByNewEvents() {
+        QMEventHistory history = new QMEventHistory(4);
+        List<QMMetaEvent> events = makeEvents(6);
+        history.addAll(events.subList(0, 2));
+        QMEventHistory.Snapshot snapshot = history.snapshot();
+
+        // Overwrites the oldest event of the snapshot
+        history.addAll(events.subList(2, 5));
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(List.of(events.get(1)), toList(snapshot));
+        Assert.assertEquals(List.of(events.get(4), events.get(3), events.get(2), events.get(1)), toList(history.snapshot()));
+    }
+
+    private static List<QMMetaEvent> makeEvents(int count) {
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new QMMetaEvent(null, QMEventAction.UPDATE, "session" + i));
+        }
+        return events;
+    }
+
+    private static List<QMMetaEvent> toList(QMEventHistory.Snapshot snapshot) {
+        List<QMMetaEvent> result = new ArrayList<>();
+        snapshot.forEach(result::add);
+        return result;
+    }
+}
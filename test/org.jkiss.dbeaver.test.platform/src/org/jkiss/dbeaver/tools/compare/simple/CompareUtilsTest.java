@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CompareUtilsTest {
+
+    @Test
+    public void matchDuplicateAndMissingNames() {
+        // Child is "<name>#<id>", children ending with '!' are not compared
+        List<List<String>> groups = match(
+            new String[]{"a#1", "b#1", "b#2", "c#1", "s#1!"},
+            new String[]{"b#3", "a#2", "d#1", "e#1", "e#2", "s#2"},
+            null,
+            new String[]{"b#4", "b#5", "b#6", "c#2"}
+        );
+        Assert.assertEquals(List.of(
+            List.of("a#1", "a#2"),
+            List.of("b#1", "b#3", "b#4"),
+            List.of("b#2", "b#5"),
+            List.of("b#6"),
+            List.of("c#1", "c#2"),
+            List.of("d#1"),
+            List.of("e#1"),
+            List.of("e#2"),
+            // Not compared child is matched with the compared one
+            List.of("s#1!", "s#2")
+        ), groups);
+    }
+
+    @Test
+    public void skipNotComparedNames() {
+        List<List<String>> groups = match(
+            new String[]{"a#1", "s#1!", "s#2!"},
+            new String[]{"s#3!", "a#2", "s#4"}
+        );
+        // Second occurrence of "s" has a compared child, the first one doesn't
+        Assert.assertEquals(List.of(
+            List.of("a#1", "a#2"),
+            List.of("s#2!", "s#4")
+        ), groups);
+        Assert.assertEquals(List.of(), match(new String[0], null));
+    }
+
+    private static List<List<String>> match(String[]... childLists) {
+        return CompareUtils.matchChildrenByName(
+            Arrays.asList(childLists),
+            child -> child.substring(0, child.indexOf('#')),
+            child -> !child.endsWith("!"));
+    }
+}
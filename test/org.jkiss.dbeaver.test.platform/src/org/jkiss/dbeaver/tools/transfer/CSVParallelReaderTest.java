@@ -0,0 +1,169 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+import org.jkiss.utils.csv.CSVReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class CSVParallelReaderTest {
+
+    @Test
+    public void readSameRowsAsSequentialReader() throws IOException {
+        String csv = generateCsv(500);
+        List<String> expected = readSequential(csv);
+        List<String> actual = readParallel(csv, StandardCharsets.UTF_8, true, 64);
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void readUnordered() throws IOException {
+        String csv = generateCsv(500);
+        List<String> expected = readSequential(csv);
+        List<String> actual = readParallel(csv, StandardCharsets.UTF_8, false, 64);
+        expected.sort(Comparator.naturalOrder());
+        actual.sort(Comparator.naturalOrder());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void readWithCarriageReturns() throws IOException {
+        String csv = generateCsv(300).replace("\n", "\r\n");
+        Assert.assertEquals(readSequential(csv), readParallel(csv, StandardCharsets.UTF_8, true, 50));
+        String macCsv = generateCsv(300).replace("\n", "\r");
+        Assert.assertEquals(readSequential(macCsv), readParallel(macCsv, StandardCharsets.UTF_8, true, 50));
+    }
+
+    @Test
+    public void readSingleByteEncoding() throws IOException {
+        Charset charset = Charset.forName("windows-1251");
+        String csv = generateCsv(200);
+        Assert.assertEquals(readSequential(csv), readParallel(csv, charset, true, 40));
+    }
+
+    @Test
+    public void skipHeaderAndBOM() throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".csv");
+        try {
+            Files.writeString(file, "\uFEFFid,name\n1,a\n2,\"b\nc\"\n3,d\n", StandardCharsets.UTF_8);
+            try (CSVParallelReader reader = createReader(file, StandardCharsets.UTF_8, true, true, 4)) {
+                List<String> rows = new ArrayList<>();
+                List<Long> lines = new ArrayList<>();
+                for (CSVParallelReader.RowBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                    for (int i = 0; i < batch.getRows().size(); i++) {
+                        rows.add(String.join("|", batch.getRows().get(i)));
+                        lines.add(batch.getLineNumber(i));
+                    }
+                }
+                Assert.assertEquals(List.of("1|a", "2|b\nc", "3|d"), rows);
+                Assert.assertEquals(List.of(2L, 3L, 5L), lines);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void reportUnterminatedQuote() throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".csv");
+        try {
+            Files.writeString(file, "1,a\n2,b\n3,\"c\n4,d\n", StandardCharsets.UTF_8);
+            try (CSVParallelReader reader = createReader(file, StandardCharsets.UTF_8, false, true, 4)) {
+                while (reader.nextBatch() != null) {
+                    // Read all
+                }
+                Assert.fail("Unterminated quote wasn't detected");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("line 3"));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String generateCsv(int rowCount) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            csv.append(i).append(',');
+            switch (i % 6) {
+                case 0:
+                    csv.append("\"multi\nline ").append(i).append('"');
+                    break;
+                case 1:
+                    csv.append("\"quoted \"\" quote, and separator\"");
+                    break;
+                case 2:
+                    csv.append("\"escaped \\\" quote\nand line\"");
+                    break;
+                case 3:
+                    csv.append("\u0442\u0435\u043a\u0441\u0442");
+                    break;
+                case 4:
+                    csv.append("\"\"");
+                    break;
+                default:
+                    csv.append("plain");
+                    break;
+            }
+            csv.append(",end\n");
+        }
+        return csv.toString();
+    }
+
+    private static List<String> readSequential(String csv) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(csv), ',', '"', '\\')) {
+            for (String[] row = reader.readNext(); row != null; row = reader.readNext()) {
+                rows.add(String.join("|", row));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> readParallel(String csv, Charset charset, boolean ordered, int chunkSize) throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".csv");
+        try {
+            Files.writeString(file, csv, charset);
+            List<String> rows = new ArrayList<>();
+            try (CSVParallelReader reader = createReader(file, charset, false, ordered, chunkSize)) {
+                for (CSVParallelReader.RowBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                    for (String[] row : batch.getRows()) {
+                        rows.add(String.join("|", row));
+                    }
+                }
+            }
+            return rows;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static CSVParallelReader createReader(Path file, Charset charset, boolean skipHeader, boolean ordered, int chunkSize) throws IOException {
+        return new CSVParallelReader(file, charset, ',', '"', '\\', skipHeader, ordered, chunkSize, row -> row);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataTransferRowBufferTest {
+
+    @Test
+    public void rowsAreReadInOrderAndRecycled() throws Exception {
+        DataTransferRowBuffer buffer = new DataTransferRowBuffer(2, 1);
+        Object[] first = buffer.acquire();
+        first[0] = 1;
+        buffer.publish();
+        Object[] second = buffer.acquire();
+        second[0] = 2;
+        buffer.publish();
+
+        Assert.assertSame(first, buffer.take());
+        Assert.assertEquals(1, first[0]);
+        buffer.release();
+        Assert.assertSame(first, buffer.acquire());
+        buffer.publish();
+        Assert.assertSame(second, buffer.take());
+        Assert.assertEquals(2, second[0]);
+        buffer.release();
+        Assert.assertEquals(3, buffer.getRowsPassed());
+    }
+
+    @Test
+    public void finishedBufferReturnsRemainingRows() throws Exception {
+        DataTransferRowBuffer buffer = new DataTransferRowBuffer(4, 1);
+        buffer.acquire()[0] = "a";
+        buffer.publish();
+        buffer.finish();
+        Assert.assertEquals("a", buffer.take()[0]);
+        buffer.release();
+        Assert.assertNull(buffer.take());
+    }
+
+    @Test
+    public void abortedBufferStopsWriter() throws Exception {
+        DataTransferRowBuffer buffer = new DataTransferRowBuffer(1, 1);
+        buffer.acquire();
+        buffer.publish();
+        Exception reason = new Exception("target error");
+        buffer.abort(reason);
+        Assert.assertNull(buffer.take());
+        try {
+            buffer.acquire();
+            Assert.fail("Aborted buffer must not accept rows");
+        } catch (DBCException e) {
+            Assert.assertSame(reason, e.getCause());
+        }
+    }
+
+    @Test
+    public void rowsArePassedBetweenThreads() throws Exception {
+        int rowCount = 10000;
+        DataTransferRowBuffer buffer = new DataTransferRowBuffer(16, 2);
+        List<Object> readValues = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (Object[] row = buffer.take(); row != null; row = buffer.take()) {
+                    readValues.add(row[1]);
+                    buffer.release();
+                }
+            } catch (InterruptedException e) {
+                buffer.abort(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = buffer.acquire();
+            row[0] = "row";
+            row[1] = i;
+            buffer.publish();
+        }
+        buffer.finish();
+        reader.join();
+
+        Assert.assertEquals(rowCount, readValues.size());
+        for (int i = 0; i < rowCount; i++) {
+            Assert.assertEquals(i, readValues.get(i));
+        }
+        Assert.assertFalse(buffer.isAborted());
+    }
+}
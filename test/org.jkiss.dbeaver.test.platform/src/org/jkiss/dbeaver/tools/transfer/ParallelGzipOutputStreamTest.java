@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.ParallelGzipOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.StatOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+public class ParallelGzipOutputStreamTest {
+
+    @Test
+    public void blocksAreWrittenInOrder() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append("row ").append(i).append(",value ").append(i * 31).append('\n');
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        StatOutputStream statStream = new StatOutputStream(target);
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(statStream, 4096)) {
+            for (int offset = 0; offset < data.length; offset += 1000) {
+                gzip.write(data, offset, Math.min(1000, data.length - offset));
+                gzip.flush();
+            }
+        }
+
+        Assert.assertEquals(target.size(), statStream.getBytesWritten());
+        Assert.assertTrue(target.size() < data.length);
+        Assert.assertArrayEquals(data, decompress(target.toByteArray()));
+    }
+
+    @Test
+    public void emptyStreamIsValidGzip() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(target).close();
+        Assert.assertArrayEquals(new byte[0], decompress(target.toByteArray()));
+    }
+
+    @Test
+    public void finishKeepsTargetOpen() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        ParallelGzipOutputStream first = new ParallelGzipOutputStream(target, 16);
+        first.write("first member,".getBytes(StandardCharsets.UTF_8));
+        first.finish();
+        ParallelGzipOutputStream second = new ParallelGzipOutputStream(target, 16);
+        second.write("second member".getBytes(StandardCharsets.UTF_8));
+        second.close();
+        Assert.assertEquals("first member,second member", new String(decompress(target.toByteArray()), StandardCharsets.UTF_8));
+        try {
+            first.write(1);
+            Assert.fail("Finished stream must not accept data");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ParquetFileTest {
+
+    private static final List<ParquetColumn> COLUMNS = List.of(
+        new ParquetColumn("id", ParquetType.INT64, ParquetLogicalType.NONE),
+        new ParquetColumn("name", ParquetType.BYTE_ARRAY, ParquetLogicalType.STRING),
+        new ParquetColumn("flag", ParquetType.BOOLEAN, ParquetLogicalType.NONE),
+        new ParquetColumn("amount", ParquetType.BYTE_ARRAY, ParquetLogicalType.DECIMAL, 12, 2),
+        new ParquetColumn("day", ParquetType.INT32, ParquetLogicalType.DATE),
+        new ParquetColumn("created", ParquetType.INT64, ParquetLogicalType.TIMESTAMP_MICROS),
+        new ParquetColumn("ratio", ParquetType.DOUBLE, ParquetLogicalType.NONE)
+    );
+
+    @Test
+    public void roundTripAllCodecs() throws IOException {
+        for (ParquetCompression compression : ParquetCompression.values()) {
+            roundTrip(compression, true, 25_000);
+            roundTrip(compression, false, 25_000);
+        }
+    }
+
+    @Test
+    public void roundTripEmptyFile() throws IOException {
+        roundTrip(ParquetCompression.SNAPPY, true, 0);
+    }
+
+    @Test
+    public void readSingleColumn() throws IOException {
+        Path file = writeFile(ParquetCompression.SNAPPY, true, 1000);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(COLUMNS.size(), reader.getColumns().size());
+            Assert.assertEquals("name", reader.getColumns().get(1).getName());
+            Assert.assertEquals(ParquetLogicalType.STRING, reader.getColumns().get(1).getLogicalType());
+            Object[] names = reader.readColumn(0, 1);
+            Assert.assertNull(names[0]);
+            Assert.assertEquals("name1", names[1]);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private void roundTrip(ParquetCompression compression, boolean dictionary, int rowCount) throws IOException {
+        Path file = writeFile(compression, dictionary, rowCount);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(rowCount, reader.getRowCount());
+            Assert.assertEquals((rowCount + 9_999) / 10_000, reader.getRowGroupCount());
+            int rowNum = 0;
+            for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                Object[][] columns = new Object[COLUMNS.size()][];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = reader.readColumn(rowGroup, i);
+                }
+                for (int row = 0; row < reader.getRowGroupRowCount(rowGroup); row++, rowNum++) {
+                    Object[] expected = makeRow(rowNum);
+                    for (int i = 0; i < columns.length; i++) {
+                        Assert.assertEquals(compression + " row " + rowNum + " column " + i, expected[i], columns[i][row]);
+                    }
+                }
+            }
+            Assert.assertEquals(rowCount, rowNum);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Path writeFile(ParquetCompression compression, boolean dictionary, int rowCount) throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ParquetFileWriter writer = new ParquetFileWriter(out, COLUMNS, compression, dictionary, 10_000);
+            for (int i = 0; i < rowCount; i++) {
+                writer.writeRow(makeRow(i));
+            }
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static Object[] makeRow(int i) {
+        return new Object[] {
+            (long) i,
+            i % 7 == 0 ? null : "name" + (i % 100),
+            i % 3 == 0 ? null : i % 2 == 0,
+            i % 5 == 0 ? null : BigDecimal.valueOf(i * 25L, 2),
+            Date.valueOf(LocalDate.of(2020, 1, 1).plusDays(i % 1000)),
+            i % 11 == 0 ? null : new Timestamp(1_600_000_000_000L + i * 1001L),
+            i * 0.5
+        };
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamValueConverter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+public class StreamValueConverterTest {
+
+    private final StreamEntityMapping mapping = new StreamEntityMapping(Path.of("dummy"));
+
+    @Test
+    public void convertIntegers() {
+        StreamValueConverter converter = createConverter(DBPDataKind.NUMERIC, "INTEGER", DBPDataKind.NUMERIC, null);
+        Assert.assertEquals(123L, converter.convertValue("123"));
+        Assert.assertEquals(-5L, converter.convertValue("-5"));
+        Assert.assertEquals(0L, converter.convertValue("0"));
+        // Values which can't be converted without changing their text are kept as is
+        Assert.assertEquals("007", converter.convertValue("007"));
+        Assert.assertEquals("+1", converter.convertValue("+1"));
+        Assert.assertEquals("-0", converter.convertValue("-0"));
+        Assert.assertEquals("1.5", converter.convertValue("1.5"));
+        Assert.assertEquals("99999999999999999999", converter.convertValue("99999999999999999999"));
+    }
+
+    @Test
+    public void convertDecimals() {
+        StreamValueConverter converter = createConverter(DBPDataKind.NUMERIC, "REAL", DBPDataKind.NUMERIC, null);
+        Assert.assertEquals(new BigDecimal("1.50"), converter.convertValue("1.50"));
+        Assert.assertEquals(new BigDecimal("-0.000001"), converter.convertValue("-0.000001"));
+        Assert.assertEquals(42L, converter.convertValue("42"));
+        Assert.assertEquals("0.0000001", converter.convertValue("0.0000001"));
+        Assert.assertEquals("1e5", converter.convertValue("1e5"));
+        Assert.assertEquals("-0.0", converter.convertValue("-0.0"));
+        Assert.assertEquals("1.", converter.convertValue("1."));
+        Assert.assertEquals("01.5", converter.convertValue("01.5"));
+    }
+
+    @Test
+    public void keepNumbersForOtherTargets() {
+        Assert.assertNull(createConverter(DBPDataKind.NUMERIC, "INTEGER", DBPDataKind.STRING, null));
+        Assert.assertNull(createConverter(DBPDataKind.NUMERIC, "INTEGER", null, null));
+        Assert.assertNull(createConverter(DBPDataKind.BOOLEAN, "BOOLEAN", DBPDataKind.STRING, null));
+    }
+
+    @Test
+    public void convertBooleans() {
+        StreamValueConverter converter = createConverter(DBPDataKind.BOOLEAN, "BOOLEAN", DBPDataKind.BOOLEAN, null);
+        Assert.assertEquals(Boolean.TRUE, converter.convertValue("true"));
+        Assert.assertEquals(Boolean.FALSE, converter.convertValue("false"));
+        Assert.assertEquals("TRUE", converter.convertValue("TRUE"));
+    }
+
+    @Test
+    public void convertEpoch() {
+        StreamValueConverter converter = createConverter(DBPDataKind.NUMERIC, "INTEGER", DBPDataKind.DATETIME, null);
+        Assert.assertEquals(new Timestamp(1_700_000_000_000L), converter.convertValue("1700000000"));
+        Assert.assertEquals(new Timestamp(1_700_000_000_123L), converter.convertValue("1700000000123"));
+        // Looks like yyyyMMdd
+        Assert.assertEquals("20230101", converter.convertValue("20230101"));
+    }
+
+    @Test
+    public void convertFixedLayoutDateTime() {
+        StreamValueConverter converter = createConverter(
+            DBPDataKind.DATETIME, "VARCHAR", DBPDataKind.DATETIME, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        Assert.assertEquals(
+            Timestamp.valueOf(LocalDateTime.of(2023, 5, 17, 13, 45, 10)),
+            converter.convertValue("2023-05-17 13:45:10"));
+        Assert.assertEquals(
+            Timestamp.valueOf(LocalDateTime.of(2024, 2, 29, 0, 0, 0)),
+            converter.convertValue("2024-02-29 00:00:00"));
+        // Values which don't fit the layout are resolved by the formatter
+        Assert.assertEquals(
+            Timestamp.valueOf(LocalDateTime.of(2023, 2, 28, 0, 0, 0)),
+            converter.convertValue("2023-02-30 00:00:00"));
+        Assert.assertEquals("2023-05-17", converter.convertValue("2023-05-17"));
+    }
+
+    @Test
+    public void convertFormattedDateTime() {
+        StreamValueConverter converter = createConverter(
+            DBPDataKind.DATETIME, "VARCHAR", DBPDataKind.DATETIME, DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+        Assert.assertEquals(
+            Timestamp.valueOf(LocalDateTime.of(2023, 5, 17, 0, 0, 0)),
+            converter.convertValue("17.05.2023"));
+
+        StreamValueConverter zonedConverter = createConverter(
+            DBPDataKind.DATETIME, "VARCHAR", DBPDataKind.DATETIME, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssXXX"));
+        Assert.assertEquals(
+            Date.from(java.time.Instant.parse("2023-05-17T11:45:10Z")),
+            zonedConverter.convertValue("2023-05-17 13:45:10+02:00"));
+        Assert.assertEquals("bad", zonedConverter.convertValue("bad"));
+    }
+
+    private StreamValueConverter createConverter(DBPDataKind kind, String typeName, DBPDataKind targetKind, DateTimeFormatter format) {
+        StreamDataImporterColumnInfo column = new StreamDataImporterColumnInfo(mapping, 0, "column", typeName, 1, kind);
+        column.setTargetDataKind(targetKind);
+        return StreamValueConverter.createConverter(column, format, null);
+    }
+}
@@ -18,14 +18,13 @@ package org.jkiss.utils;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
-import org.jkiss.utils.rest.RequestMapping;
-import org.jkiss.utils.rest.RequestParameter;
-import org.jkiss.utils.rest.RestClient;
-import org.jkiss.utils.rest.RestServer;
+import org.jkiss.utils.rest.*;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 public class RestTest {
@@ -50,6 +49,42 @@ public class RestTest {
         server.stop();
     }
 
+    @Test
+    public void binaryClientServerTest() throws Exception {
+        final BinaryRpcServer<Controller> server = BinaryRpcServer
+            .builder(Controller.class, new ControllerImpl())
+            .create();
+        checkBinaryClient(server);
+    }
+
+    @Test
+    public void binaryClientServerSocketTest() throws Exception {
+        final Path socketFile = Files.createTempDirectory("dbeaver-rpc").resolve("test.socket");
+        final BinaryRpcServer<Controller> server = BinaryRpcServer
+            .builder(Controller.class, new ControllerImpl())
+            .setSocketFile(socketFile)
+            .create();
+        checkBinaryClient(server);
+        Assert.assertFalse(Files.exists(socketFile));
+        Files.delete(socketFile.getParent());
+    }
+
+    private void checkBinaryClient(@NotNull BinaryRpcServer<Controller> server) throws Exception {
+        final Controller client = BinaryRpcClient
+            .builder(server.getAddress(), Controller.class)
+            .create();
+
+        Assert.assertEquals("1.0", client.getVersion());
+        Assert.assertEquals(Map.of("version", "1.0", "name", "dbeaver"), client.getSettings());
+        Assert.assertEquals("1.0", client.getSetting("version"));
+        Assert.assertEquals("dbeaver", client.getSetting("name"));
+        Assert.assertEquals("cool", client.getSetting("something", "cool"));
+        Assert.assertNull(client.getSetting("something"));
+
+        server.stop();
+        Assert.assertFalse(server.isRunning());
+    }
+
     private interface Controller {
         @NotNull
         @RequestMapping("version")
@@ -0,0 +1,100 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CSVReaderTest {
+
+    private static final String CONTENT =
+        "id,name,comment\n" +
+        "1,\"Smith, John\",\"He said \"\"hi\"\"\"\n" +
+        "2,,\"multi\nline\",tail\n" +
+        "3,  padded ,esc\\\"aped\n" +
+        "\n" +
+        "4,\"\",last";
+
+    @Test
+    public void viewsMatchStrings() throws IOException {
+        Assert.assertEquals(readStrings(new CSVParser()), readViews(new CSVParser()));
+        Assert.assertEquals(List.of(
+            List.of("id", "name", "comment"),
+            List.of("1", "Smith, John", "He said \"hi\""),
+            List.of("2", "", "multi\nline", "tail"),
+            List.of("3", "  padded ", "esc\"aped"),
+            List.of(""),
+            List.of("4", "", "last")
+        ), readViews(new CSVParser()));
+    }
+
+    @Test
+    public void viewsWithNullFields() throws IOException {
+        CSVParser parser = new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS).build();
+        List<List<String>> rows = readViews(parser);
+        Assert.assertEquals(readStrings(new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS).build()), rows);
+        Assert.assertNull(rows.get(2).get(1));
+        // Quoted empty field is not null
+        Assert.assertEquals("", rows.get(5).get(1));
+    }
+
+    @Test
+    public void viewsAreReused() throws IOException {
+        try (CSVReader reader = new CSVReader(new StringReader("abc,de\nfgh,ij"), 0, new CSVParser())) {
+            CharSequence[] first = reader.readNextViews();
+            Assert.assertEquals("abc", first[0].toString());
+            Assert.assertEquals("de", first[1].toString());
+            CharSequence[] second = reader.readNextViews();
+            Assert.assertEquals("fgh", second[0].toString());
+            Assert.assertEquals("ij", second[1].toString());
+            Assert.assertNull(reader.readNextViews());
+        }
+    }
+
+    private static List<List<String>> readStrings(CSVParser parser) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(CONTENT), 0, parser)) {
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                rows.add(toList(line));
+            }
+        }
+        return rows;
+    }
+
+    private static List<List<String>> readViews(CSVParser parser) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(CONTENT), 0, parser)) {
+            for (CharSequence[] line = reader.readNextViews(); line != null; line = reader.readNextViews()) {
+                rows.add(toList(line));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> toList(CharSequence[] line) {
+        List<String> values = new ArrayList<>();
+        for (CharSequence value : line) {
+            values.add(value == null ? null : value.toString());
+        }
+        return values;
+    }
+}